@@ -0,0 +1,230 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.Authenticator;
+import java.net.InetSocketAddress;
+import java.net.PasswordAuthentication;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+
+import com.amazon.pay.api.exceptions.AmazonPayClientException;
+import com.amazon.pay.api.types.HttpVersion;
+
+/**
+ * HttpTransport backed by the java.net.http.HttpClient of the JDK.
+ * Connections are pooled by the JDK client, and asynchronous requests complete on its executor without
+ * holding a thread while waiting for the response. With the HTTP_2 version of the PayConfiguration,
+ * concurrent requests to an endpoint are multiplexed as streams of a single connection negotiated through
+ * ALPN, falling back to HTTP/1.1 when the server does not offer h2. Requests beyond the maxConcurrentStreams
+ * (HTTP/2) or clientConnections (HTTP/1.1) of the PayConfiguration are queued until a request in flight
+ * completes, without blocking the calling thread of asynchronous requests. Proxy settings and the connect and
+ * socket timeouts of the PayConfiguration are applied; the connection request timeout has no equivalent
+ * and is ignored. In the virtual thread mode of the PayConfiguration, the dependent tasks of the JDK client
+ * run on virtual threads. Bodies with a gzip or deflate Content-Encoding are decoded as they arrive.
+ */
+public class JdkHttpTransport implements HttpTransport {
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    /** bounds the requests in flight, the JDK client fails the streams exceeding the limit of the server */
+    private final Semaphore inFlightPermits;
+    private final Queue<Runnable> pendingRequests = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param payConfiguration the PayConfiguration providing the proxy settings and timeouts
+     * @throws AmazonPayClientException never on Java 11 or later
+     */
+    public JdkHttpTransport(final PayConfiguration payConfiguration) throws AmazonPayClientException {
+        final HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(payConfiguration.getHttpVersion() == HttpVersion.HTTP_2
+                        ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER);
+        final RequestConfig requestConfig = payConfiguration.getRequestConfig();
+        if (requestConfig != null && requestConfig.getConnectTimeoutMillis() > 0) {
+            builder.connectTimeout(Duration.ofMillis(requestConfig.getConnectTimeoutMillis()));
+        }
+        final ProxySettings proxySettings = payConfiguration.getProxySettings();
+        if (proxySettings != null) {
+            builder.proxy(ProxySelector.of(new InetSocketAddress(proxySettings.getProxyHost(), proxySettings.getProxyPort())));
+            if (proxySettings.getProxyUser() != null) {
+                final PasswordAuthentication credentials = new PasswordAuthentication(proxySettings.getProxyUser(),
+                        proxySettings.getProxyPassword() == null ? new char[0] : proxySettings.getProxyPassword());
+                builder.authenticator(new Authenticator() {
+                    @Override
+                    protected PasswordAuthentication getPasswordAuthentication() {
+                        return getRequestorType() == RequestorType.PROXY ? credentials : null;
+                    }
+                });
+            }
+        }
+        if (payConfiguration.isVirtualThreads()) {
+            builder.executor(VirtualThreads.newVirtualThreadPerTaskExecutor());
+        }
+        this.httpClient = builder.build();
+        this.inFlightPermits = new Semaphore(payConfiguration.getHttpVersion() == HttpVersion.HTTP_2
+                ? payConfiguration.getMaxConcurrentStreams() : payConfiguration.getClientConnections());
+        this.requestTimeout = requestConfig != null && requestConfig.getSocketTimeoutMillis() > 0
+                ? Duration.ofMillis(requestConfig.getSocketTimeoutMillis()) : null;
+    }
+
+    @Override
+    public HttpTransportResponse execute(final HttpTransportRequest request) throws IOException {
+        try {
+            return executeAsync(request).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            final InterruptedIOException exception = new InterruptedIOException(e.getMessage());
+            exception.initCause(e);
+            throw exception;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<HttpTransportResponse> executeAsync(final HttpTransportRequest request) {
+        final CompletableFuture<HttpTransportResponse> future = new CompletableFuture<>();
+        final HttpRequest httpRequest;
+        try {
+            httpRequest = toHttpRequest(request);
+        } catch (IllegalArgumentException e) {
+            future.completeExceptionally(new IOException(e.getMessage(), e));
+            return future;
+        }
+        pendingRequests.add(() -> {
+            CompletableFuture<HttpResponse<Callable<HttpTransportResponse>>> response;
+            try {
+                response = httpClient.sendAsync(httpRequest, JdkHttpTransport::subscribe);
+            } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
+            }
+            response.whenComplete((httpResponse, throwable) -> {
+                Throwable failure = throwable;
+                HttpTransportResponse transportResponse = null;
+                if (failure == null) {
+                    try {
+                        transportResponse = httpResponse.body().call();
+                    } catch (Exception e) {
+                        failure = e;
+                    }
+                }
+                inFlightPermits.release();
+                dispatchPendingRequests();
+                if (failure == null) {
+                    future.complete(transportResponse);
+                } else {
+                    future.completeExceptionally(failure instanceof CompletionException && failure.getCause() != null
+                            ? failure.getCause() : failure);
+                }
+            });
+        });
+        dispatchPendingRequests();
+        return future;
+    }
+
+    /**
+     * Sends the pending requests while in-flight permits are available. Called whenever a request is queued
+     * and whenever a permit is released, so a queued request never waits for a permit that is free.
+     */
+    private void dispatchPendingRequests() {
+        while (!pendingRequests.isEmpty() && inFlightPermits.tryAcquire()) {
+            final Runnable pendingRequest = pendingRequests.poll();
+            if (pendingRequest == null) {
+                // another thread took the request; check the queue again, a request may have been added
+                // after the isEmpty check of the thread which now leaves with its permit released
+                inFlightPermits.release();
+                continue;
+            }
+            pendingRequest.run();
+        }
+    }
+
+    /**
+     * Closes the JDK client on runtimes where it is closeable, waiting for the requests in flight to complete
+     *
+     * @throws IOException When the client fails to close
+     */
+    @Override
+    public void close() throws IOException {
+        if (httpClient instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) httpClient).close();
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+    }
+
+    private HttpRequest toHttpRequest(final HttpTransportRequest request) {
+        final HttpRequest.BodyPublisher body = "GET".equals(request.getMethod()) || request.getBody() == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(request.getBody());
+        final HttpRequest.Builder builder = HttpRequest.newBuilder(request.getUri())
+                .method(request.getMethod(), body);
+        if (requestTimeout != null) {
+            builder.timeout(requestTimeout);
+        }
+        for (Map.Entry<String, String> entry : request.getHeaders().entrySet()) {
+            builder.header(entry.getKey(), entry.getValue());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Subscribes to the body of a response. Plain bodies are collected by the JDK client; compressed bodies are
+     * exposed as a stream, decoded by the returned reader as they arrive, so that the compressed body is never
+     * held whole in memory.
+     */
+    private static HttpResponse.BodySubscriber<Callable<HttpTransportResponse>> subscribe(
+            final HttpResponse.ResponseInfo responseInfo) {
+        final String contentEncoding = responseInfo.headers().firstValue("Content-Encoding").orElse(null);
+        if (!ResponseBodyReader.isEncoded(contentEncoding)) {
+            return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(),
+                    body -> () -> new HttpTransportResponse(responseInfo.statusCode(), responseInfo.headers().map(), body));
+        }
+        final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(responseInfo.headers().map());
+        // the body is handed over decoded
+        headers.remove("Content-Encoding");
+        headers.remove("Content-Length");
+        return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofInputStream(),
+                inputStream -> () -> {
+                    try (CountingInputStream wire = new CountingInputStream(inputStream)) {
+                        final byte[] body = ResponseBodyReader.read(wire, -1, contentEncoding);
+                        return new HttpTransportResponse(responseInfo.statusCode(), headers, body, wire.getCount());
+                    }
+                });
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.amazon.pay.api.exceptions.AmazonPayClientException;
+
+/**
+ * Helper methods for the virtual thread mode of the client
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return true when the runtime supports virtual threads
+     */
+    static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * @param thread the thread
+     * @return true when the thread is a virtual thread
+     */
+    static boolean isVirtual(final Thread thread) {
+        return thread.isVirtual();
+    }
+
+    /**
+     * Returns an executor starting a new virtual thread for each task
+     *
+     * @return the ExecutorService
+     * @throws AmazonPayClientException never on Java 21 or later
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor() throws AmazonPayClientException {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("amazon-pay-", 0).factory());
+    }
+}
@@ -5,6 +5,7 @@ import org.json.JSONObject;
 
 import java.net.URI;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class AccountManagementClient extends AmazonPayClient {
 
@@ -24,7 +25,7 @@ public class AccountManagementClient extends AmazonPayClient {
     public AmazonPayResponse createMerchantAccount(final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
         final URI createMerchantAccountURI = Util.getServiceURI(payConfiguration, ServiceConstants.ACCOUNT_MANAGEMENT);
         final Map<String, String> headerMap = Util.updateHeader(header);
-        return callAPI(createMerchantAccountURI, "POST", null, payload.toString(), headerMap);
+        return callAPIBytes(createMerchantAccountURI, "POST", null, Util.toJsonBytes(payload), headerMap);
     }
 
     /**
@@ -40,7 +41,7 @@ public class AccountManagementClient extends AmazonPayClient {
         final URI merchantAccountURI = Util.getServiceURI(payConfiguration, ServiceConstants.ACCOUNT_MANAGEMENT);
         final URI updateMerchantAccountURI = merchantAccountURI.resolve(merchantAccountURI.getPath() + "/" + merchantAccountId);
         final Map<String, String> headerMap = Util.updateHeader(header);
-        return callAPI(updateMerchantAccountURI, "PATCH", null, payload.toString(), headerMap);
+        return callAPIBytes(updateMerchantAccountURI, "PATCH", null, Util.toJsonBytes(payload), headerMap);
     }
 
     /**
@@ -56,6 +57,55 @@ public class AccountManagementClient extends AmazonPayClient {
         final URI merchantAccountURI = Util.getServiceURI(payConfiguration, ServiceConstants.ACCOUNT_MANAGEMENT);
         final URI merchantAccountClaimURI = merchantAccountURI.resolve(merchantAccountURI.getPath() + "/" + merchantAccountId + "/claim");
         final Map<String, String> headerMap = Util.updateHeader(header);
-        return callAPI(merchantAccountClaimURI, "POST", null, payload.toString(), headerMap);
+        return callAPIBytes(merchantAccountClaimURI, "POST", null, Util.toJsonBytes(payload), headerMap);
+    }
+
+    // ----------------------------------- Asynchronous APIs -----------------------------------
+
+    /**
+     * Creates a new merchant account in Amazon Pay. The request body should contain necessary details to register
+     * the merchant account. This API is used by partners to onboard new merchants.
+     *
+     * @param payload JSONObject containing the request body with merchant details.
+     * @param header  Map<String, String> containing key-value pairs. Optional headers (e.g., x-amz-pay-authtoken)
+     * @return A CompletableFuture completed with the response from the createMerchantAccount API, as returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> createMerchantAccountAsync(final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
+        final URI createMerchantAccountURI = Util.getServiceURI(payConfiguration, ServiceConstants.ACCOUNT_MANAGEMENT);
+        final Map<String, String> headerMap = Util.updateHeader(header);
+        return callAPIBytesAsync(createMerchantAccountURI, "POST", null, Util.toJsonBytes(payload), headerMap);
+    }
+
+    /**
+     * Updates a merchant account for the given Merchant Account ID.
+     *
+     * @param merchantAccountId Internal Merchant Account ID provided while calling the API.
+     * @param payload JSONObject containing the request body with updated merchant account details.
+     * @param header  Map<String, String> containing key-value pairs of required headers (e.g., x-amz-pay-authtoken)
+     * @return A CompletableFuture completed with the response from the updateMerchantAccount API, as returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> updateMerchantAccountAsync(final String merchantAccountId, final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
+        final URI merchantAccountURI = Util.getServiceURI(payConfiguration, ServiceConstants.ACCOUNT_MANAGEMENT);
+        final URI updateMerchantAccountURI = merchantAccountURI.resolve(merchantAccountURI.getPath() + "/" + merchantAccountId);
+        final Map<String, String> headerMap = Util.updateHeader(header);
+        return callAPIBytesAsync(updateMerchantAccountURI, "PATCH", null, Util.toJsonBytes(payload), headerMap);
+    }
+
+    /**
+     * Claims an existing merchant account using the provided Merchant Account ID.
+     *
+     * @param merchantAccountId Internal Merchant Account ID for the claim request.
+     * @param payload JSONObject containing the request body required for the claim process.
+     * @param header  Map<String, String> containing key-value pairs of optional headers
+     * @return A CompletableFuture completed with the response from the merchantAccountClaim API, as returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> merchantAccountClaimAsync(final String merchantAccountId, final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
+        final URI merchantAccountURI = Util.getServiceURI(payConfiguration, ServiceConstants.ACCOUNT_MANAGEMENT);
+        final URI merchantAccountClaimURI = merchantAccountURI.resolve(merchantAccountURI.getPath() + "/" + merchantAccountId + "/claim");
+        final Map<String, String> headerMap = Util.updateHeader(header);
+        return callAPIBytesAsync(merchantAccountClaimURI, "POST", null, Util.toJsonBytes(payload), headerMap);
     }
 }
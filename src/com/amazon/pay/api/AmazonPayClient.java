@@ -14,11 +14,11 @@
  */
 package com.amazon.pay.api;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
@@ -28,35 +28,63 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-import org.apache.http.HttpResponse;
-import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
-import org.apache.http.pool.PoolStats;
-import org.apache.http.util.EntityUtils;
-import org.apache.commons.lang3.StringUtils;
 
 import com.amazon.pay.api.exceptions.AmazonPayClientException;
 import com.amazon.pay.api.types.AmazonSignatureAlgorithm;
+import com.amazon.pay.api.types.HttpVersion;
 
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
-public class AmazonPayClient {
+public class AmazonPayClient implements AutoCloseable {
+    private static final byte[] EMPTY_JSON_OBJECT = "{}".getBytes(StandardCharsets.UTF_8);
     final protected PayConfiguration payConfiguration;
     final protected RequestSigner requestSigner;
+    /** the connection pool of the ApacheHttpTransport owned by this client, null when another transport is used */
     final protected PoolingHttpClientConnectionManager connectionManager;
+    /** sends the signed requests, the transport of the PayConfiguration or one owned by this client */
+    final protected HttpTransport httpTransport;
+    /** schedules the retry backoffs, the connection warm-ups and evictions, built on first use */
+    private volatile ScheduledExecutorService scheduler;
+    /** sends the retried attempts and opens the idle connections off the scheduler thread, built on first use */
+    private volatile ExecutorService workers;
+    private final AtomicBoolean maintainingIdleConnections = new AtomicBoolean();
+    private final RetryEngine retryEngine;
 
     public AmazonPayClient(final PayConfiguration payConfiguration) throws AmazonPayClientException {
         this.payConfiguration = payConfiguration;
         requestSigner = new RequestSigner(payConfiguration);
-        this.connectionManager = new PoolingHttpClientConnectionManager();
-        this.connectionManager.setMaxTotal(payConfiguration.getClientConnections());
-        this.connectionManager.setDefaultMaxPerRoute(payConfiguration.getClientConnections());
+        this.retryEngine = new RetryEngine(payConfiguration, this::getScheduler, this::getWorkers);
+        if (payConfiguration.getHttpTransport() != null) {
+            this.connectionManager = null;
+            this.httpTransport = payConfiguration.getHttpTransport();
+        } else if (payConfiguration.getHttpVersion() == HttpVersion.HTTP_2 || payConfiguration.isVirtualThreads()) {
+            this.connectionManager = null;
+            this.httpTransport = new JdkHttpTransport(payConfiguration);
+        } else {
+            this.connectionManager = ApacheHttpTransport.newConnectionManager(payConfiguration);
+            this.httpTransport = new ApacheHttpTransport(payConfiguration, connectionManager);
+        }
+        if (payConfiguration.getIdleEvictionIntervalMillis() > 0 && httpTransport instanceof ApacheHttpTransport) {
+            final long interval = payConfiguration.getIdleEvictionIntervalMillis();
+            getScheduler().scheduleWithFixedDelay(((ApacheHttpTransport) httpTransport)::evictConnections,
+                    interval, interval, TimeUnit.MILLISECONDS);
+        }
+        if (payConfiguration.getMinIdleConnections() > 0) {
+            getScheduler().scheduleWithFixedDelay(this::maintainIdleConnections, 0,
+                    ServiceConstants.IDLE_CONNECTIONS_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
     }
 
     /**
@@ -70,7 +98,7 @@ public class AmazonPayClient {
      */
     public AmazonPayResponse deliveryTracker(final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
         final URI deliveryTrackerURI = Util.getServiceURI(payConfiguration, ServiceConstants.DELIVERY_TRACKERS);
-        return callAPI(deliveryTrackerURI, "POST", null, payload.toString(), header);
+        return callAPIBytes(deliveryTrackerURI, "POST", null, Util.toJsonBytes(payload), header);
     }
 
     /**
@@ -136,6 +164,9 @@ public class AmazonPayClient {
      * @throws AmazonPayClientException When an error response is returned by Amazon Pay due to bad request or other issue
      */
     public String generateButtonSignature(final String payload) throws AmazonPayClientException {
+        if (payConfiguration.getSigner() != null) {
+            return requestSigner.generateSignature(payload, payConfiguration.getAlgorithm());
+        }
         String signature = null;
         final SignatureHelper signatureHelper = new SignatureHelper(payConfiguration);
         final AmazonSignatureAlgorithm algorithm = payConfiguration.getAlgorithm();
@@ -169,158 +200,418 @@ public class AmazonPayClient {
                                      final Map<String, List<String>> queryParameters,
                                      final String request,
                                      final Map<String, String> header) throws AmazonPayClientException {
-        Map<String, String> postSignedHeaders;
+        final byte[] body = request == null ? new byte[0] : request.getBytes(StandardCharsets.UTF_8);
+        final Map<String, String> postSignedHeaders = requestSigner.signRequest(uri, httpMethodName, queryParameters, body, header);
+        return processRequest(buildTransportRequest(uri, postSignedHeaders, body, httpMethodName), request);
+    }
+
+    /**
+     * Processes the request with a payload already encoded in UTF-8, as built by the API methods of the clients.
+     * The same bytes are hashed for the signature and sent as the request body. Named apart from callAPI so that
+     * a null payload passed to callAPI stays unambiguous.
+     *
+     * @param uri             The uri that needs to be executed
+     * @param httpMethodName  the HTTP request method(GET,PUT,POST etc) to be used
+     * @param queryParameters the query parameters map
+     * @param request         the UTF-8 encoded payload to be sent with the request
+     * @param header          the header of the solution provider
+     * @return response of type AmazonPayResponse
+     * @throws AmazonPayClientException When an error response is returned by Amazon Pay due to bad request or other issue
+     */
+    AmazonPayResponse callAPIBytes(final URI uri,
+                                   final String httpMethodName,
+                                   final Map<String, List<String>> queryParameters,
+                                   final byte[] request,
+                                   final Map<String, String> header) throws AmazonPayClientException {
+        final byte[] body = request == null ? new byte[0] : request;
+        final Map<String, String> postSignedHeaders = requestSigner.signRequest(uri, httpMethodName, queryParameters, body, header);
+        return processRequest(buildTransportRequest(uri, postSignedHeaders, body, httpMethodName), null);
+    }
+
+    /**
+     * API to process the request asynchronously. The request is signed on the calling thread, or by the Signer of
+     * the PayConfiguration without waiting for it, then sent through the non-blocking path of the HTTP transport;
+     * retries of throttled or failed requests are scheduled without blocking a thread.
+     *
+     * @param uri             The uri that needs to be executed
+     * @param httpMethodName  the HTTP request method(GET,PUT,POST etc) to be used
+     * @param queryParameters the query parameters map
+     * @param request         the payload to be sent with the request
+     * @param header          the header of the solution provider
+     * @return a CompletableFuture completed with the AmazonPayResponse, or completed exceptionally with an
+     * AmazonPayClientException when the request could not be executed
+     * @throws AmazonPayClientException When the request cannot be signed
+     */
+    public CompletableFuture<AmazonPayResponse> callAPIAsync(final URI uri,
+                                                             final String httpMethodName,
+                                                             final Map<String, List<String>> queryParameters,
+                                                             final String request,
+                                                             final Map<String, String> header) throws AmazonPayClientException {
+        final byte[] body = request == null ? new byte[0] : request.getBytes(StandardCharsets.UTF_8);
+        final CompletableFuture<AmazonPayResponse> result = new CompletableFuture<>();
+        requestSigner.signRequestAsync(uri, httpMethodName, queryParameters, body, header).whenComplete((postSignedHeaders, throwable) -> {
+            if (throwable != null) {
+                result.completeExceptionally(throwable);
+                return;
+            }
+            final HttpTransportRequest transportRequest = buildTransportRequest(uri, postSignedHeaders, body, httpMethodName);
+            processRequestAsync(transportRequest, request, System.currentTimeMillis(), result);
+        });
+        return result;
+    }
 
-        postSignedHeaders = requestSigner.signRequest(uri, httpMethodName, queryParameters, request, header);
-        return processRequest(uri, postSignedHeaders, request, httpMethodName);
+    /**
+     * Processes the request asynchronously with a payload already encoded in UTF-8, as built by the API methods
+     * of the clients. The same bytes are hashed for the signature and sent as the request body.
+     *
+     * @param uri             The uri that needs to be executed
+     * @param httpMethodName  the HTTP request method(GET,PUT,POST etc) to be used
+     * @param queryParameters the query parameters map
+     * @param request         the UTF-8 encoded payload to be sent with the request
+     * @param header          the header of the solution provider
+     * @return a CompletableFuture completed with the AmazonPayResponse, or completed exceptionally with an
+     * AmazonPayClientException when the request could not be executed
+     * @throws AmazonPayClientException When the request cannot be signed
+     */
+    CompletableFuture<AmazonPayResponse> callAPIBytesAsync(final URI uri,
+                                                           final String httpMethodName,
+                                                           final Map<String, List<String>> queryParameters,
+                                                           final byte[] request,
+                                                           final Map<String, String> header) throws AmazonPayClientException {
+        final byte[] body = request == null ? new byte[0] : request;
+        final CompletableFuture<AmazonPayResponse> result = new CompletableFuture<>();
+        requestSigner.signRequestAsync(uri, httpMethodName, queryParameters, body, header).whenComplete((postSignedHeaders, throwable) -> {
+            if (throwable != null) {
+                result.completeExceptionally(throwable);
+                return;
+            }
+            final HttpTransportRequest transportRequest = buildTransportRequest(uri, postSignedHeaders, body, httpMethodName);
+            processRequestAsync(transportRequest, null, System.currentTimeMillis(), result);
+        });
+        return result;
     }
 
     /**
-     * Helper method to send the request and also retry in case the request is throttled
+     * Helper method to send the request and also retry in case the request is throttled or fails with a
+     * transient I/O error that the request can safely be sent again after. The attempts are sent
+     * on the calling thread, which waits for the backoffs of the RetryEngine between them.
      *
-     * @param uri               the uri to be executed
-     * @param postSignedHeaders the signed headers
-     * @param payload           the payload to be sent with the request
-     * @param httpMethodName    the HTTP request method(GET,PUT,POST etc) to be used
+     * @param transportRequest the signed request to be sent
+     * @param payload          the payload sent with the request, or null to report the request body instead
      * @return the AmazonPayResponse
      * @throws AmazonPayClientException When an error response is returned by Amazon Pay due to bad request or other issue
      */
-    private AmazonPayResponse processRequest(final URI uri,
-                                             final Map<String, String> postSignedHeaders,
-                                             final String payload,
-                                             final String httpMethodName) throws AmazonPayClientException {
-        List<String> response;
-        String rawResponseObject = null;
+    private AmazonPayResponse processRequest(final HttpTransportRequest transportRequest,
+                                             final String payload) throws AmazonPayClientException {
+        final long millisBefore = System.currentTimeMillis();
+        final RetryEngine.Outcome outcome = retryEngine.executeBlocking(transportRequest,
+                () -> httpTransport.execute(transportRequest));
+        return buildResponse(transportRequest, payload, outcome.getResponse(), outcome.getRetries(), millisBefore);
+    }
+
+    /**
+     * Helper method to send the request asynchronously, the RetryEngine scheduling a retry in case the request
+     * is throttled or fails with a transient I/O error that the request can safely be sent again after
+     *
+     * @param transportRequest the signed request to be sent
+     * @param payload          the payload sent with the request, or null to report the request body instead
+     * @param millisBefore     the time at which the first attempt was made
+     * @param result           the future to complete with the AmazonPayResponse
+     */
+    private void processRequestAsync(final HttpTransportRequest transportRequest,
+                                     final String payload,
+                                     final long millisBefore,
+                                     final CompletableFuture<AmazonPayResponse> result) {
+        retryEngine.execute(transportRequest, () -> httpTransport.executeAsync(transportRequest)).whenComplete((outcome, throwable) -> {
+            if (throwable instanceof AmazonPayClientException) {
+                result.completeExceptionally(throwable);
+                return;
+            } else if (throwable instanceof Exception) {
+                result.completeExceptionally(new AmazonPayClientException(throwable.getMessage(), (Exception) throwable));
+                return;
+            } else if (throwable != null) {
+                result.completeExceptionally(throwable);
+                return;
+            }
+            try {
+                result.complete(buildResponse(transportRequest, payload, outcome.getResponse(), outcome.getRetries(),
+                        millisBefore));
+            } catch (AmazonPayClientException e) {
+                result.completeExceptionally(e);
+            }
+        });
+    }
+
+    /**
+     * Helper method to build the AmazonPayResponse from the result of the last attempt
+     *
+     * @param transportRequest the request that was sent
+     * @param payload          the payload sent with the request, or null to report the request body instead
+     * @param response         the response of the last attempt
+     * @param retry            the number of retries made
+     * @param millisBefore     the time at which the first attempt was made
+     * @return the AmazonPayResponse
+     * @throws AmazonPayClientException When the response body cannot be parsed
+     */
+    private AmazonPayResponse buildResponse(final HttpTransportRequest transportRequest,
+                                            final String payload,
+                                            final HttpTransportResponse response,
+                                            final int retry,
+                                            final long millisBefore) throws AmazonPayClientException {
         JSONObject jsonResponse = null;
 
         final AmazonPayResponse responseObject = new AmazonPayResponse();
-        responseObject.setUrl(uri);
-        responseObject.setMethod(httpMethodName);
-        responseObject.setRawRequest(payload);
-        responseObject.setHeaders(postSignedHeaders);
+        responseObject.setUrl(transportRequest.getUri());
+        responseObject.setMethod(transportRequest.getMethod());
+        if (payload != null) {
+            responseObject.setRawRequest(payload);
+        } else {
+            responseObject.setRawRequestBody(transportRequest.getBody());
+        }
+        responseObject.setHeaders(transportRequest.getHeaders());
+        responseObject.setRetries(retry);
+        responseObject.setStatus(response.getStatusCode());
+        responseObject.setDuration(System.currentTimeMillis() - millisBefore);
+        responseObject.setWireBytes(response.getWireBytes());
+        responseObject.setDecodedBytes(response.getBody() == null ? 0 : response.getBody().length);
+        byte[] body = response.getBody();
+        if (body == null && response.getStatusCode() < HttpURLConnection.HTTP_BAD_REQUEST) {
+            // A successful response without entity is read as an empty JSON object
+            body = EMPTY_JSON_OBJECT;
+        }
         try {
-            long millisBefore = System.currentTimeMillis();
-            response = sendRequest(uri, postSignedHeaders, payload, httpMethodName);
-            int statusCode = Integer.parseInt(response.get(ServiceConstants.RESPONSE_STATUS_CODE));
-            int retry = 0;
-            // Check for service errors
-            while (ServiceConstants.serviceErrors.containsValue(statusCode) &&
-                    retry < payConfiguration.getMaxRetries()) {
-                //retry request maxRetries number of times
-                long waitTime = payConfiguration.getRetryStrategy().getWaitTime(retry, statusCode);
-                retry++;
-                Thread.sleep(waitTime);
-
-                response = sendRequest(uri, postSignedHeaders, payload, httpMethodName);
-                statusCode = Integer.parseInt(response.get(ServiceConstants.RESPONSE_STATUS_CODE));
+            if (body != null && body.length > 0) {
+                // Parsing the response bytes into a JSONObject
+                jsonResponse = new JSONObject(new JSONTokener(new ByteArrayInputStream(body)));
             }
-            responseObject.setRetries(retry);
-            responseObject.setStatus(statusCode);
-            responseObject.setDuration(System.currentTimeMillis() - millisBefore);
-            if (response.get(ServiceConstants.RESPONSE_STRING) != null) {
-                // Converting the response string into a JSONObject
-                rawResponseObject = response.get(ServiceConstants.RESPONSE_STRING);
-                if(!StringUtils.isEmpty(response.get(ServiceConstants.RESPONSE_STRING))) {
-                    jsonResponse = new JSONObject(response.get(ServiceConstants.RESPONSE_STRING));
-                }
-            }
-        } catch (InterruptedException | JSONException e) {
+        } catch (JSONException e) {
             throw new AmazonPayClientException(e.getMessage(), e);
         }
         responseObject.setResponse(jsonResponse);
-        responseObject.setRawResponse(rawResponseObject);
-        responseObject.setRequestId(response.get(ServiceConstants.REQUEST_ID));
+        responseObject.setRawResponseBody(body);
+        if (response.getStatusCode() < HttpURLConnection.HTTP_BAD_REQUEST) {
+            final String requestId = response.getFirstHeader(ServiceConstants.X_AMZ_PAY_REQUEST_ID);
+            responseObject.setRequestId(requestId == null ? null : ServiceConstants.X_AMZ_PAY_REQUEST_ID + ": " + requestId);
+        }
 
         return responseObject;
     }
 
     /**
-     * Helper method to post the request
+     * Helper method to build the request handed to the HTTP transport
      *
      * @param uri            the uri to be executed
      * @param headers        the signed headers
-     * @param payload        the payload ot be sent with the request
+     * @param body           the UTF-8 encoded payload to be sent with the request
      * @param httpMethodName the HTTP request method(GET,PUT,POST etc) to be used
-     * @return the response and response code
-     * @throws AmazonPayClientException When an error response is returned by Amazon Pay due to bad request or other issue
+     * @return the HttpTransportRequest
      */
-    private List<String> sendRequest(final URI uri,
-                                     final Map<String, String> headers,
-                                     final String payload,
-                                     final String httpMethodName) throws AmazonPayClientException {
-        final List<String> result = new ArrayList<>();
-        final StringBuffer response = new StringBuffer();
-        String requestId = null;
-        int responseCode = 0;
-        try (final CloseableHttpClient client = Optional.ofNullable(payConfiguration.getProxySettings()).isPresent()
-                ? getClosableHttpClientWithPoolAndProxy() : getClosableHttpClientWithConnectionPool()) {
-            final HttpUriRequest httpUriRequest = Util.getHttpUriRequest(uri, httpMethodName, payload);
-            for (Map.Entry<String, String> entry : headers.entrySet()) {
-                httpUriRequest.addHeader(entry.getKey(), entry.getValue());
+    private HttpTransportRequest buildTransportRequest(final URI uri,
+                                                       final Map<String, String> headers,
+                                                       final byte[] body,
+                                                       final String httpMethodName) {
+        if (payConfiguration.isResponseCompression() && !headers.containsKey(ServiceConstants.ACCEPT_ENCODING)) {
+            // not part of the signature, the header only concerns the transfer of the response
+            final Map<String, String> compressionHeaders = new HashMap<>(headers);
+            compressionHeaders.put(ServiceConstants.ACCEPT_ENCODING, ServiceConstants.SUPPORTED_CONTENT_ENCODINGS);
+            return new HttpTransportRequest(uri, httpMethodName, compressionHeaders, body);
+        }
+        return new HttpTransportRequest(uri, httpMethodName, headers, body);
+    }
+
+    /**
+     * Helper function to retrieve the Connection Pool Stats to the caller to monitor the Connection Pool Performance.
+     * The stats are those of the pool of the ApacheHttpTransport, whether built by this client or supplied with
+     * {@link PayConfiguration#setHttpTransport(HttpTransport)}. Transports which do not expose their connections,
+     * such as the JdkHttpTransport of HTTP/2 and virtual threads, report 0 for every count.
+     *
+     * @return a ConnectionPoolStats of the Connection Pool
+     */
+    public ConnectionPoolStats getPoolStats() {
+        return httpTransport.getPoolStats();
+    }
+
+    /**
+     * Helper function to retrieve the hits and misses of the signature cache, enabled with
+     * {@link PayConfiguration#setSignatureCacheSize(int)}
+     *
+     * @return a SignatureCacheStats of the signature cache
+     */
+    public SignatureCacheStats getSignatureCacheStats() {
+        return requestSigner.getSignatureCacheStats();
+    }
+
+    /**
+     * Helper function to retrieve the requests and retries counted by the retry budget, enabled with
+     * {@link PayConfiguration#setRetryBudgetRatio(double)}
+     *
+     * @return a RetryBudgetStats of the retry budget
+     */
+    public RetryBudgetStats getRetryBudgetStats() {
+        return retryEngine.getRetryBudgetStats();
+    }
+
+    /**
+     * Opens connections to the Amazon Pay endpoint of the configured region, or to the override service URL,
+     * and parks them in the connection pool, so that the first API calls do not pay for the TCP and TLS
+     * handshakes. Connections already idle in the pool count towards the requested number, and no more
+     * connections are opened than the pool allows per route or than are free at the time of the call.
+     * Transports which do not pool connections ahead of requests open none.
+     *
+     * @param connections the number of connections to have idle in the pool
+     * @return a ConnectionWarmUpStats of the warm-up
+     * @throws AmazonPayClientException When no connection could be opened
+     */
+    public ConnectionWarmUpStats warmUp(final int connections) throws AmazonPayClientException {
+        final URI endpoint = Util.getServiceURI(payConfiguration, "");
+        final long millisBefore = System.currentTimeMillis();
+        try {
+            final int opened = httpTransport.warmUp(endpoint, connections);
+            return new ConnectionWarmUpStats(connections, httpTransport.getIdleConnections(endpoint), opened,
+                    System.currentTimeMillis() - millisBefore);
+        } catch (IOException e) {
+            throw new AmazonPayClientException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Tops up the idle connections of the pool to the minimum of the PayConfiguration. Triggered periodically by
+     * the scheduler of the client, the connections are opened on its workers, so that connecting never holds the
+     * scheduler thread; a run is skipped while the previous one is still connecting. Failures are left for the
+     * next run instead of cancelling the schedule.
+     */
+    private void maintainIdleConnections() {
+        if (!maintainingIdleConnections.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            getWorkers().execute(() -> {
+                try {
+                    warmUp(payConfiguration.getMinIdleConnections());
+                } catch (Exception e) {
+                    // the endpoint may be unreachable for now, the next run tries again
+                } finally {
+                    maintainingIdleConnections.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // the client is being closed
+            maintainingIdleConnections.set(false);
+        }
+    }
+
+    /**
+     * Returns the scheduler used to complete the retry backoffs and to maintain the idle
+     * connections, building it on first use.
+     *
+     * @return the scheduler of the client
+     */
+    private ScheduledExecutorService getScheduler() {
+        ScheduledExecutorService executor = scheduler;
+        if (executor == null) {
+            synchronized (this) {
+                executor = scheduler;
+                if (executor == null) {
+                    executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                        final Thread thread = new Thread(runnable, "amazon-pay-scheduler");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    scheduler = executor;
+                }
             }
-            final HttpResponse responses = client.execute(httpUriRequest);
-            responseCode = responses.getStatusLine().getStatusCode();
-            if (responseCode < HttpURLConnection.HTTP_BAD_REQUEST) {
-                requestId = responses.getFirstHeader(ServiceConstants.X_AMZ_PAY_REQUEST_ID).toString();
-                String inputLine;
-                if(Optional.ofNullable(responses.getEntity()).isPresent()) {
-                    try (final BufferedReader in = new BufferedReader(
-                            new InputStreamReader(responses.getEntity().getContent(), Util.DEFAULT_ENCODING))) {
-                        while ((inputLine = in.readLine()) != null) {
-                            response.append(inputLine).append(System.lineSeparator());
-                        }
-                    }
-                } else {
-                    response.append("{}").append(System.lineSeparator());
+        }
+        return executor;
+    }
+
+    /**
+     * Returns the executor sending the attempts of the requests retried asynchronously and topping up the idle
+     * connections, so that a transport without a non-blocking executeAsync or a slow connect never holds the
+     * scheduler thread. Its threads are started on demand
+     * and stop once idle; in the virtual thread mode, each attempt runs on a new virtual thread.
+     *
+     * @return the workers of the client
+     */
+    private ExecutorService getWorkers() {
+        ExecutorService executor = workers;
+        if (executor == null) {
+            synchronized (this) {
+                executor = workers;
+                if (executor == null) {
+                    executor = newWorkers();
+                    workers = executor;
                 }
-            } else {
-                response.append(EntityUtils.toString(responses.getEntity()));
             }
-        } catch (IOException exception) {
-            throw new AmazonPayClientException(exception.getMessage(), exception);
         }
-        result.add(String.valueOf(responseCode));
-        result.add(response.toString());
-        result.add(requestId);
-        return result;
+        return executor;
+    }
+
+    private ExecutorService newWorkers() {
+        if (payConfiguration.isVirtualThreads()) {
+            try {
+                return VirtualThreads.newVirtualThreadPerTaskExecutor();
+            } catch (AmazonPayClientException e) {
+                // before Java 21, the attempts are sent on platform threads
+            }
+        }
+        return Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "amazon-pay-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     /**
-     * Helper function to retrieve the Connection Pool Stats to the caller to monitor the Connection Pool Performance
+     * Releases the HTTP transport built by this client and shuts down its connection pool.
+     * A transport set in the PayConfiguration is left open, as it may be shared with other clients.
+     * The client cannot be used to make further API calls once it has been closed.
      *
-     * @return a ConnectionPoolStats of the Connection Pool
+     * @throws AmazonPayClientException When the underlying HTTP client fails to close
      */
-    public ConnectionPoolStats getPoolStats() {
-        final PoolStats poolStats = this.connectionManager.getTotalStats();
-        final ConnectionPoolStats connectionPoolStats = new ConnectionPoolStats(poolStats.getMax(),
-                poolStats.getAvailable(), poolStats.getPending(), poolStats.getLeased());
-        return connectionPoolStats;
+    @Override
+    public void close() throws AmazonPayClientException {
+        try {
+            if (httpTransport != payConfiguration.getHttpTransport()) {
+                httpTransport.close();
+            }
+        } catch (IOException exception) {
+            throw new AmazonPayClientException(exception.getMessage(), exception);
+        } finally {
+            retryEngine.close();
+            final ScheduledExecutorService executor = scheduler;
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+            final ExecutorService workerExecutor = workers;
+            if (workerExecutor != null) {
+                workerExecutor.shutdown();
+            }
+            if (connectionManager != null) {
+                connectionManager.shutdown();
+            }
+        }
     }
 
     /**
-     * Returns the CloseableHttpClient object with Connection Pool based on the Payconfiguration
+     * Returns the CloseableHttpClient object with Connection Pool based on the Payconfiguration. When this client
+     * sends its requests through another transport than its own ApacheHttpTransport, the returned client has a pool
+     * of its own, released when it is closed.
      *
      * @return the CloseableHttpClient
      */
     protected CloseableHttpClient getClosableHttpClientWithConnectionPool() {
-        final HttpClientBuilder httpClientBuilder = HttpClients.custom()
-                .disableRedirectHandling()
-                .setConnectionManager(connectionManager)
-                .setConnectionManagerShared(true);
-        Util.applyRequestConfig(httpClientBuilder, this.payConfiguration);
-        return httpClientBuilder.build();
+        return ApacheHttpTransport.newHttpClientWithConnectionPool(this.payConfiguration, connectionManager);
     }
 
     /**
-     * Returns the CloseableHttpClient object with Connection Pool based on the given proxy settings.
+     * Returns the CloseableHttpClient object with Connection Pool based on the given proxy settings. When this client
+     * sends its requests through another transport than its own ApacheHttpTransport, the returned client has a pool
+     * of its own, released when it is closed.
      *
      * @return the CloseableHttpClient
      */
     protected CloseableHttpClient getClosableHttpClientWithPoolAndProxy() {
-        return Util.getHttpClientBuilderWithProxy(this.payConfiguration.getProxySettings(), this.payConfiguration)
-                .setConnectionManager(connectionManager)
-                .setConnectionManagerShared(true)
-                .build();
+        return ApacheHttpTransport.newHttpClientWithPoolAndProxy(this.payConfiguration, connectionManager);
     }
 
     // ----------------------------------- Merchant Onboarding & Account Management APIs --------------------
@@ -335,7 +626,7 @@ public class AmazonPayClient {
     */
     public AmazonPayResponse registerAmazonPayAccount(final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
         final URI registerAmazonPayAccountURI = Util.getServiceURI(payConfiguration, ServiceConstants.ACCOUNT_MANAGEMENT);
-        return callAPI(registerAmazonPayAccountURI, "POST", null, payload.toString(), header);
+        return callAPIBytes(registerAmazonPayAccountURI, "POST", null, Util.toJsonBytes(payload), header);
     }
 
     public AmazonPayResponse registerAmazonPayAccount(final JSONObject payload) throws AmazonPayClientException {
@@ -354,7 +645,7 @@ public class AmazonPayClient {
     public AmazonPayResponse updateAmazonPayAccount(final String merchantAccountId, final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
         final URI updateAmazonPayAccountURI = Util.getServiceURI(payConfiguration, ServiceConstants.ACCOUNT_MANAGEMENT);
         final URI updateAmazonPayAccountFinalURI = updateAmazonPayAccountURI.resolve(updateAmazonPayAccountURI.getPath() + "/" + merchantAccountId);
-        return callAPI(updateAmazonPayAccountFinalURI, "PATCH", null, payload.toString(), header);
+        return callAPIBytes(updateAmazonPayAccountFinalURI, "PATCH", null, Util.toJsonBytes(payload), header);
     }
 
     public AmazonPayResponse updateAmazonPayAccount(final String merchantAccountId, final JSONObject payload) throws AmazonPayClientException {
@@ -378,4 +669,111 @@ public class AmazonPayClient {
     public AmazonPayResponse deleteAmazonPayAccount(final String merchantAccountId) throws AmazonPayClientException {
         return deleteAmazonPayAccount(merchantAccountId, null);
     }
+
+    // ----------------------------------- Asynchronous APIs -----------------------------------
+
+    /**
+     * The Delivery Tracker operation is used to track the delivery status
+     *
+     * @param payload JSONObject request body
+     * @param header Map&lt;String, String&gt; containining key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken)
+     * @return A CompletableFuture completed with the response from the deliveryTracker service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> deliveryTrackerAsync(final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
+        final URI deliveryTrackerURI = Util.getServiceURI(payConfiguration, ServiceConstants.DELIVERY_TRACKERS);
+        return callAPIBytesAsync(deliveryTrackerURI, "POST", null, Util.toJsonBytes(payload), header);
+    }
+
+    /**
+     * The get Authorization Token operation is used to obtain retrieve a delegated authorization token
+     *  used in order to make API calls on behalf of a merchant.
+     *  This token is needed to make delegated calls.
+     * Important: getAuthorizationToken() requires a Client configured to use the live environment.
+     *
+     * @param  mwsAuthToken MWS Authorization Token previously shared by Merchant to the Solution Provider
+     * @param  merchantId Merchant ID that generated the MWS Authorization Token
+     * @param header Map&lt;String, String&gt; containining key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken)
+     * @return A CompletableFuture completed with the response from the getAuthorizationToken service API, as returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     * @see AmazonPayClient
+     * @see PayConfiguration
+     * @see com.amazon.pay.api.types.Environment
+     */
+    public CompletableFuture<AmazonPayResponse> getAuthorizationTokenAsync(final String mwsAuthToken, final String merchantId, final Map<String, String> header) throws AmazonPayClientException {
+        final URI authorizationTokenURI = Util.getServiceURI(payConfiguration, ServiceConstants.AUTHORIZATION_TOKEN);
+        final URI getAuthorizationTokenURI = authorizationTokenURI.resolve(authorizationTokenURI.getPath() + "/" + mwsAuthToken + "?merchantId=" + merchantId);
+        final Map<String, List<String>> queryParametersMap = new HashMap<>();
+        ArrayList<String> auxList = new ArrayList<String>();
+        auxList.add(merchantId);
+        queryParametersMap.put("merchantId", auxList);
+        return callAPIAsync(getAuthorizationTokenURI, "GET", queryParametersMap, "", header);
+    }
+
+    /**
+     * The Delivery Tracker operation is used to track the delivery status
+     *
+     * @param payload JSONObject request body
+     * @return A CompletableFuture completed with the response from the deliveryTracker service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> deliveryTrackerAsync(final JSONObject payload) throws AmazonPayClientException {
+        return deliveryTrackerAsync(payload, null);
+    }
+
+   /**
+    * Creates a non-logginable account for your merchant partners. These would be special accounts through which Merchants would not be able to login to Amazon or access Seller Central.
+    *
+    * @param payload JSONObject request body
+    * @param header Map&lt;String, String&gt; containing key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken).
+    * @return A CompletableFuture completed with the response from registerAmazonPayAccount API, as returned by Amazon Pay.
+    * @throws AmazonPayClientException When the request cannot be built or signed
+    */
+    public CompletableFuture<AmazonPayResponse> registerAmazonPayAccountAsync(final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
+        final URI registerAmazonPayAccountURI = Util.getServiceURI(payConfiguration, ServiceConstants.ACCOUNT_MANAGEMENT);
+        return callAPIBytesAsync(registerAmazonPayAccountURI, "POST", null, Util.toJsonBytes(payload), header);
+    }
+
+    public CompletableFuture<AmazonPayResponse> registerAmazonPayAccountAsync(final JSONObject payload) throws AmazonPayClientException {
+        return registerAmazonPayAccountAsync(payload, null);
+    }
+
+    /**
+    * Updates a merchant account for the given Merchant Account ID. We would be allowing our partners to update only a certain set of fields which won’t change the legal business entity itself.
+    *
+    * @param merchantAccountId Internal Merchant Account ID provided while calling the API.
+    * @param payload JSONObject request body
+    * @param header Map&lt;String, String&gt; containing key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken).
+    * @return A CompletableFuture completed with the response from updateAmazonPayAccount API, as returned by Amazon Pay.
+    * @throws AmazonPayClientException When the request cannot be built or signed
+    */
+    public CompletableFuture<AmazonPayResponse> updateAmazonPayAccountAsync(final String merchantAccountId, final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
+        final URI updateAmazonPayAccountURI = Util.getServiceURI(payConfiguration, ServiceConstants.ACCOUNT_MANAGEMENT);
+        final URI updateAmazonPayAccountFinalURI = updateAmazonPayAccountURI.resolve(updateAmazonPayAccountURI.getPath() + "/" + merchantAccountId);
+        return callAPIBytesAsync(updateAmazonPayAccountFinalURI, "PATCH", null, Util.toJsonBytes(payload), header);
+    }
+
+    public CompletableFuture<AmazonPayResponse> updateAmazonPayAccountAsync(final String merchantAccountId, final JSONObject payload) throws AmazonPayClientException {
+        return updateAmazonPayAccountAsync(merchantAccountId, payload, null);
+    }
+
+    /**
+    * Deletes the Merchant account for the given Merchant Account ID. Partners can close the merchant accounts created for their merchant partners.
+    *
+    * @param merchantAccountId Internal Merchant Account ID provided while calling the API.
+    * @param header Map&lt;String, String&gt; containing key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken).
+    * @return A CompletableFuture completed with the response from deleteAmazonPayAccount API, as returned by Amazon Pay.
+    * @throws AmazonPayClientException When the request cannot be built or signed
+    */
+    public CompletableFuture<AmazonPayResponse> deleteAmazonPayAccountAsync(final String merchantAccountId, final Map<String, String> header) throws AmazonPayClientException {
+        final URI deleteAmazonPayAccountURI = Util.getServiceURI(payConfiguration, ServiceConstants.ACCOUNT_MANAGEMENT);
+        final URI deleteAmazonPayAccountFinalURI = deleteAmazonPayAccountURI.resolve(deleteAmazonPayAccountURI.getPath() + "/" + merchantAccountId);
+        return callAPIAsync(deleteAmazonPayAccountFinalURI, "DELETE", null, "", header);
+    }
+
+    public CompletableFuture<AmazonPayResponse> deleteAmazonPayAccountAsync(final String merchantAccountId) throws AmazonPayClientException {
+        return deleteAmazonPayAccountAsync(merchantAccountId, null);
+    }
 }
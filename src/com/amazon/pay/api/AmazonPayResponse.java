@@ -18,18 +18,25 @@ import org.json.JSONObject;
 
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 public class AmazonPayResponse {
     private URI url;
     private String method;
     private String rawRequest;
+    /** body of the request, decoded into rawRequest on first use */
+    private byte[] rawRequestBody;
     private JSONObject response;
     private String rawResponse;
+    /** body of the response, decoded into rawResponse on first use */
+    private byte[] rawResponseBody;
     private String requestId;
     private int status;
     private int retries;
     private long duration;
+    private long wireBytes;
+    private long decodedBytes;
     private Map<String, String> headers;
 
     /**
@@ -64,6 +71,9 @@ public class AmazonPayResponse {
      * @return Returns the Request payload
      */
     public String getRawRequest() {
+        if (rawRequest == null && rawRequestBody != null) {
+            rawRequest = new String(rawRequestBody, StandardCharsets.UTF_8);
+        }
         return rawRequest;
     }
 
@@ -72,6 +82,15 @@ public class AmazonPayResponse {
      */
     public void setRawRequest(final String rawRequest) {
         this.rawRequest = rawRequest;
+        this.rawRequestBody = null;
+    }
+
+    /**
+     * @param rawRequestBody the UTF-8 encoded Request payload, decoded on first use
+     */
+    void setRawRequestBody(final byte[] rawRequestBody) {
+        this.rawRequest = null;
+        this.rawRequestBody = rawRequestBody;
     }
 
     /**
@@ -92,6 +111,9 @@ public class AmazonPayResponse {
      * @return Returns the Raw Response from the API call
      */
     public String getRawResponse() {
+        if (rawResponse == null && rawResponseBody != null) {
+            rawResponse = new String(rawResponseBody, StandardCharsets.UTF_8);
+        }
         return rawResponse;
     }
 
@@ -100,6 +122,15 @@ public class AmazonPayResponse {
      */
     public void setRawResponse(final String rawResponse) {
         this.rawResponse = rawResponse;
+        this.rawResponseBody = null;
+    }
+
+    /**
+     * @param rawResponseBody is the UTF-8 encoded Raw Response returned from API call, decoded on first use
+     */
+    void setRawResponseBody(final byte[] rawResponseBody) {
+        this.rawResponse = null;
+        this.rawResponseBody = rawResponseBody;
     }
 
     /**
@@ -158,6 +189,34 @@ public class AmazonPayResponse {
         this.duration = duration;
     }
 
+    /**
+     * @return Returns the number of response body bytes received over the network, compressed or not
+     */
+    public long getWireBytes() {
+        return wireBytes;
+    }
+
+    /**
+     * @param wireBytes the number of response body bytes received over the network
+     */
+    public void setWireBytes(final long wireBytes) {
+        this.wireBytes = wireBytes;
+    }
+
+    /**
+     * @return Returns the number of response body bytes after decompression
+     */
+    public long getDecodedBytes() {
+        return decodedBytes;
+    }
+
+    /**
+     * @param decodedBytes the number of response body bytes after decompression
+     */
+    public void setDecodedBytes(final long decodedBytes) {
+        this.decodedBytes = decodedBytes;
+    }
+
     /**
      * @return Returns the headers provided to the request
      */
@@ -193,8 +252,8 @@ public class AmazonPayResponse {
                 + ", method=" + method
                 + ", url= " + url
                 + ", headers=" + headers
-                + ", rawRequest=" + rawRequest
-                + ", rawResponse=" + rawResponse + '}';
+                + ", rawRequest=" + getRawRequest()
+                + ", rawResponse=" + getRawResponse() + '}';
     }
 
 }
@@ -0,0 +1,542 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.Header;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.SchemePortResolver;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.protocol.AbstractAsyncResponseConsumer;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+
+import com.amazon.pay.api.exceptions.AmazonPayClientException;
+
+/**
+ * HttpTransport backed by Apache HttpClient 4, the default transport of the AmazonPayClient.
+ * Blocking requests go through a pooled CloseableHttpClient and asynchronous requests through a
+ * non-blocking CloseableHttpAsyncClient; both are built on first use and shared by every request.
+ * Bodies with a gzip or deflate Content-Encoding are decoded while they are read from the connection, by the
+ * blocking client, or as their chunks arrive, by the non-blocking client.
+ */
+public class ApacheHttpTransport implements HttpTransport {
+    private final PayConfiguration payConfiguration;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    /** built on first use and shared by every request made through this transport */
+    private volatile CloseableHttpClient httpClient;
+    /** non-blocking client used by the asynchronous requests, built on first use */
+    private volatile CloseableHttpAsyncClient httpAsyncClient;
+    /** connection pool of the non-blocking client, set once the client is built */
+    private volatile PoolingNHttpClientConnectionManager asyncConnectionManager;
+
+    /**
+     * Creates a transport with its own connection pool, sized by the clientConnections of the PayConfiguration
+     *
+     * @param payConfiguration the PayConfiguration providing the proxy settings, timeouts and pool size
+     */
+    public ApacheHttpTransport(final PayConfiguration payConfiguration) {
+        this(payConfiguration, newConnectionManager(payConfiguration));
+    }
+
+    /**
+     * Creates a transport sending its blocking requests through the given connection pool.
+     * The pool is shut down when the transport is closed.
+     *
+     * @param payConfiguration the PayConfiguration providing the proxy settings and timeouts
+     * @param connectionManager the connection pool of the blocking client
+     */
+    public ApacheHttpTransport(final PayConfiguration payConfiguration,
+                               final PoolingHttpClientConnectionManager connectionManager) {
+        this.payConfiguration = payConfiguration;
+        this.connectionManager = connectionManager;
+    }
+
+    @Override
+    public HttpTransportResponse execute(final HttpTransportRequest request) throws IOException {
+        try (final CloseableHttpResponse response = getHttpClient().execute(toHttpUriRequest(request))) {
+            return toTransportResponse(response);
+        }
+    }
+
+    @Override
+    public CompletableFuture<HttpTransportResponse> executeAsync(final HttpTransportRequest request) {
+        final CompletableFuture<HttpTransportResponse> future = new CompletableFuture<>();
+        final FutureCallback<HttpTransportResponse> callback = new FutureCallback<HttpTransportResponse>() {
+            @Override
+            public void completed(final HttpTransportResponse response) {
+                future.complete(response);
+            }
+
+            @Override
+            public void failed(final Exception exception) {
+                future.completeExceptionally(exception);
+            }
+
+            @Override
+            public void cancelled() {
+                future.completeExceptionally(new IOException("Request was cancelled"));
+            }
+        };
+        try {
+            getHttpAsyncClient().execute(HttpAsyncMethods.create(toHttpUriRequest(request)), new ResponseConsumer(),
+                    callback);
+        } catch (IOException | IllegalStateException exception) {
+            future.completeExceptionally(exception);
+        }
+        return future;
+    }
+
+    /**
+     * Leases up to the requested number of connections to the route of the endpoint without waiting for the
+     * connections in use, opens in parallel the ones which are not open yet, then parks all of them in the pool.
+     * Idle connections found stale on lease are replaced. Nothing is opened when a proxy is configured, as
+     * connections to the proxy are tunnelled to the endpoint by the requests themselves.
+     */
+    @Override
+    public int warmUp(final URI endpoint, final int connections) throws IOException {
+        if (payConfiguration.getProxySettings() != null || connections <= 0) {
+            return 0;
+        }
+        final HttpRoute route = toRoute(endpoint);
+        final List<HttpClientConnection> leased = new ArrayList<>();
+        final List<HttpClientConnection> toOpen = new ArrayList<>();
+        try {
+            for (int i = 0; i < connections; i++) {
+                final HttpClientConnection connection;
+                try {
+                    connection = connectionManager.requestConnection(route, null).get(1, TimeUnit.MILLISECONDS);
+                } catch (ConnectionPoolTimeoutException e) {
+                    // every connection of the route is in use
+                    break;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (ExecutionException e) {
+                    throw new IOException(e.getMessage(), e);
+                }
+                leased.add(connection);
+                if (!connection.isOpen()) {
+                    toOpen.add(connection);
+                }
+            }
+            return open(route, toOpen);
+        } finally {
+            for (HttpClientConnection connection : leased) {
+                connectionManager.releaseConnection(connection, null,
+                        payConfiguration.getKeepAliveMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    @Override
+    public int getIdleConnections(final URI endpoint) {
+        return connectionManager.getStats(toRoute(endpoint)).getAvailable();
+    }
+
+    @Override
+    public ConnectionPoolStats getPoolStats() {
+        final PoolStats poolStats = connectionManager.getTotalStats();
+        return new ConnectionPoolStats(poolStats.getMax(), poolStats.getAvailable(), poolStats.getPending(),
+                poolStats.getLeased());
+    }
+
+    /**
+     * Opens the connections in parallel, each on its own thread
+     *
+     * @param route the route of the connections
+     * @param connections the leased connections to open
+     * @return the number of connections opened
+     * @throws IOException When no connection could be opened
+     */
+    private int open(final HttpRoute route, final List<HttpClientConnection> connections) throws IOException {
+        if (connections.isEmpty()) {
+            return 0;
+        }
+        final int connectTimeout = getWarmUpConnectTimeout(payConfiguration);
+        final ExecutorService executor = Executors.newFixedThreadPool(connections.size(), runnable -> {
+            final Thread thread = new Thread(runnable, "amazon-pay-warm-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            final List<Future<Void>> futures = new ArrayList<>();
+            for (HttpClientConnection connection : connections) {
+                futures.add(executor.submit(() -> {
+                    final HttpClientContext context = HttpClientContext.create();
+                    connectionManager.connect(connection, route, connectTimeout, context);
+                    connectionManager.routeComplete(connection, route, context);
+                    return null;
+                }));
+            }
+            int opened = 0;
+            IOException failure = null;
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                    opened++;
+                } catch (ExecutionException e) {
+                    connections.get(i).shutdown();
+                    if (failure == null) {
+                        failure = e.getCause() instanceof IOException
+                                ? (IOException) e.getCause() : new IOException(e.getCause().getMessage(), e.getCause());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    connections.get(i).shutdown();
+                    failure = new InterruptedIOException(e.getMessage());
+                }
+            }
+            if (opened == 0 && failure != null) {
+                throw failure;
+            }
+            return opened;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the connect timeout of the connections opened ahead of the requests: the one of the RequestConfig,
+     * or a finite default when it is not set, so that a warm-up towards an unreachable endpoint always ends
+     *
+     * @param payConfiguration the PayConfiguration
+     * @return the connect timeout in milliseconds
+     */
+    static int getWarmUpConnectTimeout(final PayConfiguration payConfiguration) {
+        final RequestConfig requestConfig = payConfiguration.getRequestConfig();
+        return requestConfig != null && requestConfig.getConnectTimeoutMillis() > 0
+                ? requestConfig.getConnectTimeoutMillis() : ServiceConstants.WARM_UP_CONNECT_TIMEOUT_MILLIS;
+    }
+
+    /**
+     * Returns the CloseableHttpClient shared by all blocking requests of this transport, building it on first use.
+     *
+     * @return the shared CloseableHttpClient
+     */
+    protected CloseableHttpClient getHttpClient() {
+        CloseableHttpClient client = httpClient;
+        if (client == null) {
+            synchronized (this) {
+                client = httpClient;
+                if (client == null) {
+                    client = Optional.ofNullable(payConfiguration.getProxySettings()).isPresent()
+                            ? newHttpClientWithPoolAndProxy(payConfiguration, connectionManager)
+                            : newHttpClientWithConnectionPool(payConfiguration, connectionManager);
+                    httpClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    /**
+     * Returns the non-blocking CloseableHttpAsyncClient used by the asynchronous requests, building and starting it
+     * on first use. The client has its own connection pool sized by the clientConnections of the PayConfiguration.
+     *
+     * @return the shared CloseableHttpAsyncClient
+     * @throws IOException When the I/O reactor of the client cannot be created
+     */
+    protected CloseableHttpAsyncClient getHttpAsyncClient() throws IOException {
+        CloseableHttpAsyncClient client = httpAsyncClient;
+        if (client == null) {
+            synchronized (this) {
+                client = httpAsyncClient;
+                if (client == null) {
+                    final PoolingNHttpClientConnectionManager asyncManager = new PoolingNHttpClientConnectionManager(
+                            new DefaultConnectingIOReactor(), null,
+                            RegistryBuilder.<SchemeIOSessionStrategy>create()
+                                    .register("http", NoopIOSessionStrategy.INSTANCE)
+                                    .register("https", SSLIOSessionStrategy.getDefaultStrategy())
+                                    .build(),
+                            (SchemePortResolver) null, null,
+                            payConfiguration.getConnectionTimeToLiveMillis(), TimeUnit.MILLISECONDS);
+                    asyncManager.setMaxTotal(payConfiguration.getClientConnections());
+                    asyncManager.setDefaultMaxPerRoute(payConfiguration.getClientConnections());
+                    client = Util.getHttpAsyncClientBuilder(this.payConfiguration)
+                            .setConnectionManager(asyncManager)
+                            .setKeepAliveStrategy(newKeepAliveStrategy(payConfiguration))
+                            .build();
+                    client.start();
+                    asyncConnectionManager = asyncManager;
+                    httpAsyncClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    /**
+     * Closes the shared HTTP clients and shuts down the connection pools of this transport
+     *
+     * @throws IOException When the underlying HTTP client fails to close
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            final CloseableHttpClient client = httpClient;
+            if (client != null) {
+                client.close();
+            }
+            final CloseableHttpAsyncClient asyncClient = httpAsyncClient;
+            if (asyncClient != null) {
+                asyncClient.close();
+            }
+        } finally {
+            connectionManager.shutdown();
+        }
+    }
+
+    /**
+     * Returns the CloseableHttpClient object with Connection Pool based on the Payconfiguration
+     *
+     * @param payConfiguration the PayConfiguration
+     * @param connectionManager the shared connection pool, null for a pool owned and closed by the returned client
+     * @return the CloseableHttpClient
+     */
+    static CloseableHttpClient newHttpClientWithConnectionPool(final PayConfiguration payConfiguration,
+                                                               final PoolingHttpClientConnectionManager connectionManager) {
+        final HttpClientBuilder httpClientBuilder = HttpClients.custom()
+                .disableRedirectHandling()
+                .setConnectionManager(connectionManager)
+                .setConnectionManagerShared(connectionManager != null)
+                .setKeepAliveStrategy(newKeepAliveStrategy(payConfiguration))
+                .disableContentCompression();
+        Util.applyRequestConfig(httpClientBuilder, payConfiguration);
+        return httpClientBuilder.build();
+    }
+
+    /**
+     * Returns the CloseableHttpClient object with Connection Pool based on the proxy settings of the Payconfiguration
+     *
+     * @param payConfiguration the PayConfiguration
+     * @param connectionManager the shared connection pool, null for a pool owned and closed by the returned client
+     * @return the CloseableHttpClient
+     */
+    static CloseableHttpClient newHttpClientWithPoolAndProxy(final PayConfiguration payConfiguration,
+                                                             final PoolingHttpClientConnectionManager connectionManager) {
+        return Util.getHttpClientBuilderWithProxy(payConfiguration.getProxySettings(), payConfiguration)
+                .setConnectionManager(connectionManager)
+                .setConnectionManagerShared(connectionManager != null)
+                .setKeepAliveStrategy(newKeepAliveStrategy(payConfiguration))
+                .disableContentCompression()
+                .build();
+    }
+
+    /**
+     * Returns a connection pool sized by the clientConnections of the PayConfiguration
+     *
+     * @param payConfiguration the PayConfiguration
+     * @return the PoolingHttpClientConnectionManager
+     */
+    static PoolingHttpClientConnectionManager newConnectionManager(final PayConfiguration payConfiguration) {
+        final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                payConfiguration.getConnectionTimeToLiveMillis(), TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(payConfiguration.getClientConnections());
+        connectionManager.setDefaultMaxPerRoute(payConfiguration.getClientConnections());
+        connectionManager.setValidateAfterInactivity(payConfiguration.getValidateAfterInactivityMillis());
+        return connectionManager;
+    }
+
+    /**
+     * Returns the keep-alive strategy keeping connections idle for the keep-alive duration of the
+     * PayConfiguration, or for the Keep-Alive timeout sent by the server when shorter
+     *
+     * @param payConfiguration the PayConfiguration
+     * @return the ConnectionKeepAliveStrategy
+     */
+    static ConnectionKeepAliveStrategy newKeepAliveStrategy(final PayConfiguration payConfiguration) {
+        final long keepAliveMillis = payConfiguration.getKeepAliveMillis();
+        return (response, context) -> {
+            final long serverKeepAliveMillis = DefaultConnectionKeepAliveStrategy.INSTANCE
+                    .getKeepAliveDuration(response, context);
+            if (keepAliveMillis <= 0) {
+                return serverKeepAliveMillis;
+            }
+            return serverKeepAliveMillis > 0 ? Math.min(serverKeepAliveMillis, keepAliveMillis) : keepAliveMillis;
+        };
+    }
+
+    /**
+     * Closes the connections of the blocking and non-blocking pools which expired, either through their time
+     * to live or their keep-alive duration, or stayed idle longer than the keep-alive duration of the
+     * PayConfiguration. Stale connections are closed this way before a request leases them.
+     */
+    void evictConnections() {
+        final long keepAliveMillis = payConfiguration.getKeepAliveMillis();
+        connectionManager.closeExpiredConnections();
+        if (keepAliveMillis > 0) {
+            connectionManager.closeIdleConnections(keepAliveMillis, TimeUnit.MILLISECONDS);
+        }
+        final PoolingNHttpClientConnectionManager asyncManager = asyncConnectionManager;
+        if (asyncManager != null) {
+            asyncManager.closeExpiredConnections();
+            if (keepAliveMillis > 0) {
+                asyncManager.closeIdleConnections(keepAliveMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private static HttpRoute toRoute(final URI endpoint) {
+        final boolean secure = "https".equalsIgnoreCase(endpoint.getScheme());
+        final int port = endpoint.getPort() > 0 ? endpoint.getPort() : secure ? 443 : 80;
+        return new HttpRoute(new HttpHost(endpoint.getHost(), port, endpoint.getScheme()), null, secure);
+    }
+
+    private static HttpUriRequest toHttpUriRequest(final HttpTransportRequest request) throws ClientProtocolException {
+        final HttpUriRequest httpUriRequest;
+        try {
+            httpUriRequest = Util.getHttpUriRequest(request.getUri(), request.getMethod(), request.getBody());
+        } catch (AmazonPayClientException e) {
+            throw new ClientProtocolException(e.getMessage(), e);
+        }
+        for (Map.Entry<String, String> entry : request.getHeaders().entrySet()) {
+            httpUriRequest.addHeader(entry.getKey(), entry.getValue());
+        }
+        return httpUriRequest;
+    }
+
+    private static Map<String, List<String>> toHeaders(final HttpResponse response) {
+        final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Header header : response.getAllHeaders()) {
+            headers.computeIfAbsent(header.getName(), name -> new ArrayList<>()).add(header.getValue());
+        }
+        return headers;
+    }
+
+    private static HttpTransportResponse toTransportResponse(final HttpResponse response) throws IOException {
+        final Map<String, List<String>> headers = toHeaders(response);
+        final HttpEntity entity = response.getEntity();
+        byte[] body = null;
+        long wireBytes = 0;
+        if (entity != null) {
+            final String contentEncoding = entity.getContentEncoding() == null ? null : entity.getContentEncoding().getValue();
+            try (final InputStream content = entity.getContent()) {
+                if (content == null) {
+                    body = new byte[0];
+                } else {
+                    final CountingInputStream wire = new CountingInputStream(content);
+                    body = ResponseBodyReader.read(wire, entity.getContentLength(), contentEncoding);
+                    wireBytes = wire.getCount();
+                }
+            }
+            if (ResponseBodyReader.isEncoded(contentEncoding)) {
+                // the body is handed over decoded
+                headers.remove(HttpHeaders.CONTENT_ENCODING);
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+            }
+        }
+        return new HttpTransportResponse(response.getStatusLine().getStatusCode(), headers, body, wireBytes);
+    }
+
+    /**
+     * Consumes the response of a non-blocking request, pushing the chunks of its body into a
+     * ResponseBodyReader.Accumulator as they arrive on the I/O reactor thread
+     */
+    private static final class ResponseConsumer extends AbstractAsyncResponseConsumer<HttpTransportResponse> {
+        private final ByteBuffer buffer = ByteBuffer.allocate(8192);
+        private HttpResponse response;
+        private String contentEncoding;
+        private ResponseBodyReader.Accumulator accumulator;
+
+        @Override
+        protected void onResponseReceived(final HttpResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        protected void onEntityEnclosed(final HttpEntity entity, final ContentType contentType) throws IOException {
+            contentEncoding = entity.getContentEncoding() == null ? null : entity.getContentEncoding().getValue();
+            accumulator = ResponseBodyReader.accumulate(entity.getContentLength(), contentEncoding);
+        }
+
+        @Override
+        protected void onContentReceived(final ContentDecoder decoder, final IOControl ioControl) throws IOException {
+            int read;
+            while ((read = decoder.read(buffer)) > 0) {
+                accumulator.write(buffer.array(), 0, read);
+                // through Buffer, as ByteBuffer.clear() only exists from Java 9 and the jar also runs on Java 8
+                ((Buffer) buffer).clear();
+            }
+        }
+
+        @Override
+        protected HttpTransportResponse buildResult(final HttpContext context) throws IOException {
+            final Map<String, List<String>> headers = toHeaders(response);
+            if (accumulator == null) {
+                return new HttpTransportResponse(response.getStatusLine().getStatusCode(), headers, null, 0);
+            }
+            final byte[] body = accumulator.finish();
+            if (ResponseBodyReader.isEncoded(contentEncoding)) {
+                // the body is handed over decoded
+                headers.remove(HttpHeaders.CONTENT_ENCODING);
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+            }
+            return new HttpTransportResponse(response.getStatusLine().getStatusCode(), headers, body,
+                    accumulator.getWireCount());
+        }
+
+        @Override
+        protected void releaseResources() {
+            if (accumulator != null) {
+                accumulator.close();
+            }
+        }
+    }
+}
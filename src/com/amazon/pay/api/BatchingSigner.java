@@ -0,0 +1,205 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+import java.security.GeneralSecurityException;
+import java.security.SignatureException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+
+import com.amazon.pay.api.types.AmazonSignatureAlgorithm;
+
+/**
+ * Signer sending the strings to sign to a remote signing service, such as an HSM or a key management service,
+ * so that the private key never enters the JVM. Concurrent requests are grouped into batches signed in one round
+ * trip each: a string to sign is sent at once while fewer than maxInFlightBatches batches are waiting for the
+ * service, and otherwise waits, with the strings arriving meanwhile, for the next batch to leave. No batch is
+ * held back waiting for more strings, so a lone request pays a single round trip, and under load each round
+ * trip signs up to maxBatchSize strings. Waiting for a batch never blocks a thread, except in
+ * {@link #sign(byte[], AmazonSignatureAlgorithm)}.
+ */
+public class BatchingSigner implements Signer {
+    public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+    public static final int DEFAULT_MAX_IN_FLIGHT_BATCHES = 4;
+
+    /**
+     * Signs a batch of strings in one round trip
+     */
+    @FunctionalInterface
+    public interface SigningService {
+        /**
+         * @param requests the strings to sign, in the order of the signatures to return
+         * @return a CompletableFuture completed with one signature per request, in the order of the requests
+         */
+        CompletableFuture<List<byte[]>> sign(List<SigningRequest> requests);
+    }
+
+    /**
+     * A string to sign and the Amazon Signature Algorithm to sign it with
+     */
+    public static final class SigningRequest {
+        private final byte[] stringToSign;
+        private final AmazonSignatureAlgorithm algorithm;
+
+        SigningRequest(final byte[] stringToSign, final AmazonSignatureAlgorithm algorithm) {
+            this.stringToSign = stringToSign;
+            this.algorithm = algorithm;
+        }
+
+        /**
+         * @return the UTF-8 encoded string to sign
+         */
+        public byte[] getStringToSign() {
+            return stringToSign;
+        }
+
+        /**
+         * @return the Amazon Signature Algorithm defining the salt length of the signature
+         */
+        public AmazonSignatureAlgorithm getAlgorithm() {
+            return algorithm;
+        }
+    }
+
+    private final SigningService signingService;
+    private final int maxBatchSize;
+    private final Semaphore inFlightBatches;
+    private final Queue<PendingSignature> pendingSignatures = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param signingService the service signing the batches
+     */
+    public BatchingSigner(final SigningService signingService) {
+        this(signingService, DEFAULT_MAX_BATCH_SIZE, DEFAULT_MAX_IN_FLIGHT_BATCHES);
+    }
+
+    /**
+     * @param signingService the service signing the batches
+     * @param maxBatchSize the maximum number of strings signed in one round trip
+     * @param maxInFlightBatches the maximum number of batches waiting for the service at the same time
+     */
+    public BatchingSigner(final SigningService signingService, final int maxBatchSize, final int maxInFlightBatches) {
+        if (signingService == null) {
+            throw new IllegalArgumentException("signingService must not be null");
+        }
+        if (maxBatchSize < 1 || maxInFlightBatches < 1) {
+            throw new IllegalArgumentException("maxBatchSize and maxInFlightBatches must be positive");
+        }
+        this.signingService = signingService;
+        this.maxBatchSize = maxBatchSize;
+        this.inFlightBatches = new Semaphore(maxInFlightBatches);
+    }
+
+    @Override
+    public byte[] sign(final byte[] stringToSign, final AmazonSignatureAlgorithm algorithm) throws GeneralSecurityException {
+        try {
+            return signAsync(stringToSign, algorithm).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SignatureException("Interrupted while waiting for the signing service", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof GeneralSecurityException) {
+                throw (GeneralSecurityException) e.getCause();
+            }
+            throw new SignatureException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<byte[]> signAsync(final byte[] stringToSign, final AmazonSignatureAlgorithm algorithm) {
+        final PendingSignature pendingSignature = new PendingSignature(new SigningRequest(stringToSign, algorithm));
+        pendingSignatures.add(pendingSignature);
+        dispatchPendingSignatures();
+        return pendingSignature.future;
+    }
+
+    /**
+     * Sends the pending strings in batches while fewer than maxInFlightBatches batches are in flight. Called
+     * whenever a string is queued and whenever a batch completes, so a queued string never waits for a batch
+     * slot that is free.
+     */
+    private void dispatchPendingSignatures() {
+        while (!pendingSignatures.isEmpty() && inFlightBatches.tryAcquire()) {
+            final List<PendingSignature> batch = new ArrayList<>();
+            PendingSignature pendingSignature;
+            while (batch.size() < maxBatchSize && (pendingSignature = pendingSignatures.poll()) != null) {
+                batch.add(pendingSignature);
+            }
+            if (batch.isEmpty()) {
+                // another thread drained the queue; a string queued since then may have found no free slot,
+                // so the queue is checked again once the slot is released
+                inFlightBatches.release();
+                continue;
+            }
+            send(batch);
+        }
+    }
+
+    private void send(final List<PendingSignature> batch) {
+        final List<SigningRequest> requests = new ArrayList<>(batch.size());
+        for (PendingSignature pendingSignature : batch) {
+            requests.add(pendingSignature.request);
+        }
+        CompletableFuture<List<byte[]>> signatures;
+        try {
+            signatures = signingService.sign(requests);
+        } catch (RuntimeException e) {
+            signatures = new CompletableFuture<>();
+            signatures.completeExceptionally(e);
+        }
+        if (signatures == null) {
+            signatures = CompletableFuture.completedFuture(null);
+        }
+        signatures.whenComplete((result, throwable) -> {
+            inFlightBatches.release();
+            Throwable failure = throwable;
+            if (failure == null && (result == null || result.size() != batch.size())) {
+                failure = new SignatureException("The signing service returned "
+                        + (result == null ? "no" : String.valueOf(result.size())) + " signatures for "
+                        + batch.size() + " requests");
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                if (failure == null) {
+                    batch.get(i).future.complete(result.get(i));
+                } else {
+                    batch.get(i).future.completeExceptionally(toSignatureException(failure));
+                }
+            }
+            dispatchPendingSignatures();
+        });
+    }
+
+    private static Throwable toSignatureException(final Throwable throwable) {
+        final Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause() : throwable;
+        return cause instanceof GeneralSecurityException || cause instanceof Error
+                ? cause : new SignatureException(cause.getMessage(), cause);
+    }
+
+    private static final class PendingSignature {
+        private final SigningRequest request;
+        private final CompletableFuture<byte[]> future = new CompletableFuture<>();
+
+        private PendingSignature(final SigningRequest request) {
+            this.request = request;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+import com.amazon.pay.api.types.AmazonSignatureAlgorithm;
+import com.amazon.pay.api.types.Region;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The parts of the canonical request and of the signed headers that only depend on the PayConfiguration and
+ * the endpoint host: the accept, content-type, x-amz-pay-host and x-amz-pay-region headers, their canonical
+ * form and signed headers string, and the start of the authorization header. Only the x-amz-pay-date header
+ * and the headers supplied by the merchant are added per request, following the rules of
+ * SignatureHelper.createPreSignedHeaders and HeaderCanonicalizer.
+ */
+final class CanonicalRequestTemplate {
+    private static final String LINE_SEPARATOR = "\n";
+    private static final String DATE_HEADER = "x-amz-pay-date";
+
+    private final String host;
+    private final Region region;
+    private final String publicKeyId;
+    private final AmazonSignatureAlgorithm algorithm;
+    private final boolean userAgentRedaction;
+    private final String userAgent;
+    /** the Amazon Pay headers but the date, by name */
+    private final Map<String, String> fixedHeaders = new HashMap<>();
+    /** canonical accept and content-type headers, sorted before x-amz-pay-date */
+    private final String canonicalHeadersBeforeDate;
+    /** canonical x-amz-pay-host and x-amz-pay-region headers, sorted after x-amz-pay-date */
+    private final String canonicalHeadersAfterDate;
+    private final String signedHeaders;
+    private final String authorizationPrefix;
+
+    /**
+     * @param payConfiguration the PayConfiguration providing the region and algorithm
+     * @param publicKeyId the public key id of the key signing the requests
+     * @param host the host of the endpoint
+     * @param userAgent the user agent header built for the PayConfiguration
+     */
+    CanonicalRequestTemplate(final PayConfiguration payConfiguration, final String publicKeyId, final String host,
+                             final String userAgent) {
+        this.host = host;
+        this.region = payConfiguration.getRegion();
+        this.publicKeyId = publicKeyId;
+        this.algorithm = payConfiguration.getAlgorithm();
+        this.userAgentRedaction = payConfiguration.isUserAgentRedaction();
+        this.userAgent = userAgent;
+
+        fixedHeaders.put("accept", "application/json");
+        fixedHeaders.put("content-type", "application/json");
+        fixedHeaders.put("x-amz-pay-region", region.toString());
+        fixedHeaders.put("x-amz-pay-host", host);
+
+        canonicalHeadersBeforeDate = "accept:application/json" + LINE_SEPARATOR
+                + "content-type:application/json" + LINE_SEPARATOR;
+        canonicalHeadersAfterDate = "x-amz-pay-host:" + HeaderCanonicalizer.canonicalValue(host) + LINE_SEPARATOR
+                + "x-amz-pay-region:" + HeaderCanonicalizer.canonicalValue(region.toString()) + LINE_SEPARATOR;
+        signedHeaders = "accept;content-type;x-amz-pay-date;x-amz-pay-host;x-amz-pay-region";
+        authorizationPrefix = algorithm.getName() + " PublicKeyId=" + publicKeyId + ", SignedHeaders=";
+    }
+
+    /**
+     * @param payConfiguration the PayConfiguration signing the request
+     * @param requestPublicKeyId the public key id of the key signing the request
+     * @param requestHost the host of the request
+     * @return true when the template was built for these values, false when it is stale
+     */
+    boolean isFor(final PayConfiguration payConfiguration, final String requestPublicKeyId, final String requestHost) {
+        return host.equals(requestHost)
+                && region == payConfiguration.getRegion()
+                && publicKeyId.equals(requestPublicKeyId)
+                && algorithm == payConfiguration.getAlgorithm()
+                && userAgentRedaction == payConfiguration.isUserAgentRedaction();
+    }
+
+    AmazonSignatureAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Completes the headers of a request
+     * @param date the x-amz-pay-date of the request
+     * @param header the headers supplied by the merchant, overriding the Amazon Pay headers of the same name
+     * @return the headers of the request
+     */
+    CanonicalHeaders fill(final String date, final Map<String, String> header) {
+        if (header == null || header.isEmpty()) {
+            final String canonicalHeaders = canonicalHeadersBeforeDate
+                    + DATE_HEADER + ":" + HeaderCanonicalizer.canonicalValue(date) + LINE_SEPARATOR
+                    + canonicalHeadersAfterDate;
+            final Map<String, String> headers = new HashMap<>(fixedHeaders);
+            headers.put(DATE_HEADER, date);
+            return new CanonicalHeaders(canonicalHeaders, signedHeaders, headers);
+        }
+
+        final Map<String, String> headers = new HashMap<>(fixedHeaders);
+        headers.put(DATE_HEADER, date);
+        for (Map.Entry<String, String> entry : header.entrySet()) {
+            headers.put(entry.getKey().toLowerCase(), entry.getValue());
+        }
+        final HeaderCanonicalizer canonicalized = HeaderCanonicalizer.canonicalizeSingleValues(headers);
+        return new CanonicalHeaders(canonicalized.getCanonicalHeaders(), canonicalized.getSignedHeaders(), headers);
+    }
+
+    /**
+     * The headers of a single request, in canonical form and as sent
+     */
+    final class CanonicalHeaders {
+        private final String canonicalHeaders;
+        private final String signedHeaders;
+        private final Map<String, String> headers;
+
+        private CanonicalHeaders(final String canonicalHeaders, final String signedHeaders, final Map<String, String> headers) {
+            this.canonicalHeaders = canonicalHeaders;
+            this.signedHeaders = signedHeaders;
+            this.headers = headers;
+        }
+
+        /**
+         * @return the canonical headers string, one header per line
+         */
+        String getCanonicalHeaders() {
+            return canonicalHeaders;
+        }
+
+        /**
+         * @return the names of the signed headers, separated by semicolons
+         */
+        String getSignedHeaders() {
+            return signedHeaders;
+        }
+
+        /**
+         * Adds the authorization and user agent headers to the headers of the request
+         * @param signature the signature of the canonical request
+         * @return the signed headers by lower case name
+         */
+        Map<String, String> sign(final String signature) {
+            headers.put("authorization", authorizationPrefix + signedHeaders + ", Signature=" + signature);
+            headers.put("user-agent", userAgent);
+            return headers;
+        }
+    }
+}
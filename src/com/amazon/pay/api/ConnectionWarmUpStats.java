@@ -0,0 +1,74 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+public final class ConnectionWarmUpStats {
+
+    private final int requestedConnections;
+    private final int idleConnections;
+    private final int openedConnections;
+    private final long durationMillis;
+
+    public ConnectionWarmUpStats(int requestedConnections, int idleConnections, int openedConnections, long durationMillis) {
+        this.requestedConnections = requestedConnections;
+        this.idleConnections = idleConnections;
+        this.openedConnections = openedConnections;
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     *
+     * @return the number of connections requested to be parked in the connection pool.
+     */
+    public int getRequestedConnections() {
+        return requestedConnections;
+    }
+
+    /**
+     *
+     * @return the number of open connections parked in the connection pool at the end of the warm-up.
+     */
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    /**
+     *
+     * @return the number of connections opened by the warm-up, paying for the DNS lookup, TCP connect and TLS handshake.
+     */
+    public int getOpenedConnections() {
+        return openedConnections;
+    }
+
+    /**
+     *
+     * @return the time taken by the warm-up in milliseconds.
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * @return the warm-up details for the caller.
+     */
+    @Override
+    public String toString() {
+        return "ConnectionWarmUpStats{"
+                + "Requested=" + requestedConnections
+                + ", Idle=" + idleConnections
+                + ", Opened=" + openedConnections
+                + ", DurationMillis=" + durationMillis + "}";
+    }
+}
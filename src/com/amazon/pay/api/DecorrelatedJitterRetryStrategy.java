@@ -0,0 +1,66 @@
+package com.amazon.pay.api;
+
+/**
+ * Implement a Decorrelated Jitter Retry Strategy: each wait time is drawn at random between the initial delay and
+ * three times the previous wait time of the request, capped by the maximum delay. Wait times grow about as fast as
+ * an exponential backoff, but are not synchronized between clients throttled at the same time.
+ */
+public class DecorrelatedJitterRetryStrategy extends ExponentialRetryStrategy {
+
+    /**
+     * Instantiate decorrelated jitter retry strategy with the same delay for throttled and non-throttled retries
+     * and no maximum delay for throttled or non-throttled retries.
+     * @param maxRetries The maximum number of retries
+     * @param initialDelayMillis The delay constant to apply to all retries
+     */
+    public DecorrelatedJitterRetryStrategy(int maxRetries, long initialDelayMillis) {
+        super(maxRetries, initialDelayMillis);
+    }
+
+    /**
+     * Instantiate decorrelated jitter retry strategy with no maximum delay for throttled or non-throttled retries.
+     * @param maxRetries The maximum number of retries
+     * @param initialDelayMillis The delay constant to apply to non-throttled retries
+     * @param initialThrottlingDelayMillis The delay constant to apply to throttled retries
+     */
+    public DecorrelatedJitterRetryStrategy(int maxRetries, long initialDelayMillis, long initialThrottlingDelayMillis) {
+        super(maxRetries, initialDelayMillis, initialThrottlingDelayMillis);
+    }
+
+    /**
+     * Instantiate decorrelated jitter retry strategy
+     * @param maxRetries The maximum number of retries
+     * @param initialDelayMillis The delay constant to apply to non-throttled retries
+     * @param initialThrottlingDelayMillis The delay constant to apply to throttled retries
+     * @param maxDelayMillis The maximum delay to apply to a non-throttled retry
+     * @param maxThrottlingDelayMillis The maximum delay to apply when retrying a throttled request.
+     */
+    public DecorrelatedJitterRetryStrategy(int maxRetries, long initialDelayMillis, long initialThrottlingDelayMillis,
+                                           long maxDelayMillis, long maxThrottlingDelayMillis) {
+        super(maxRetries, initialDelayMillis, initialThrottlingDelayMillis, maxDelayMillis, maxThrottlingDelayMillis);
+    }
+
+    /**
+     * Without the previous wait time of the request, the exponential wait time of the previous retry stands in
+     * for it.
+     */
+    @Override
+    public long getWaitTime(int retryCount, int statusCode) {
+        final long previousWaitTime = retryCount == 0 ? 0 : super.getWaitTime(retryCount - 1, statusCode);
+        return getWaitTime(statusCode, previousWaitTime);
+    }
+
+    @Override
+    public long getBackoffWaitTime(final RetryContext context) {
+        return getWaitTime(context.getStatusCode(), context.getPreviousWaitTime());
+    }
+
+    private long getWaitTime(int statusCode, long previousWaitTime) {
+        final boolean throttled = isThrottledResponse(statusCode);
+        final long initialDelay = throttled ? initialThrottlingDelayMillis : initialDelayMillis;
+        final long maxDelay = throttled ? maxThrottlingDelayMillis : maxDelayMillis;
+        final long previous = Math.max(previousWaitTime, initialDelay);
+        final long upperBound = previous > Long.MAX_VALUE / 3 ? Long.MAX_VALUE : previous * 3;
+        return Math.min(getRandomWaitTime(initialDelay, upperBound), maxDelay);
+    }
+}
@@ -0,0 +1,48 @@
+package com.amazon.pay.api;
+
+/**
+ * Implement an Exponential Backoff Retry Strategy with equal jitter: half of the exponential wait time is always
+ * waited and the other half is drawn at random, so that clients throttled at the same time spread their retries
+ * while each of them still backs off by at least half of the exponential wait time.
+ */
+public class EqualJitterRetryStrategy extends ExponentialRetryStrategy {
+
+    /**
+     * Instantiate equal jitter retry strategy with the same delay for throttled and non-throttled retries
+     * and no maximum delay for throttled or non-throttled retries.
+     * @param maxRetries The maximum number of retries
+     * @param initialDelayMillis The delay constant to apply to all retries
+     */
+    public EqualJitterRetryStrategy(int maxRetries, long initialDelayMillis) {
+        super(maxRetries, initialDelayMillis);
+    }
+
+    /**
+     * Instantiate equal jitter retry strategy with no maximum delay for throttled or non-throttled retries.
+     * @param maxRetries The maximum number of retries
+     * @param initialDelayMillis The delay constant to apply to non-throttled retries
+     * @param initialThrottlingDelayMillis The delay constant to apply to throttled retries
+     */
+    public EqualJitterRetryStrategy(int maxRetries, long initialDelayMillis, long initialThrottlingDelayMillis) {
+        super(maxRetries, initialDelayMillis, initialThrottlingDelayMillis);
+    }
+
+    /**
+     * Instantiate equal jitter retry strategy
+     * @param maxRetries The maximum number of retries
+     * @param initialDelayMillis The delay constant to apply to non-throttled retries
+     * @param initialThrottlingDelayMillis The delay constant to apply to throttled retries
+     * @param maxDelayMillis The maximum delay to apply to a non-throttled retry
+     * @param maxThrottlingDelayMillis The maximum delay to apply when retrying a throttled request.
+     */
+    public EqualJitterRetryStrategy(int maxRetries, long initialDelayMillis, long initialThrottlingDelayMillis,
+                                    long maxDelayMillis, long maxThrottlingDelayMillis) {
+        super(maxRetries, initialDelayMillis, initialThrottlingDelayMillis, maxDelayMillis, maxThrottlingDelayMillis);
+    }
+
+    @Override
+    public long getWaitTime(int retryCount, int statusCode) {
+        final long waitTime = super.getWaitTime(retryCount, statusCode);
+        return getRandomWaitTime(waitTime - waitTime / 2, waitTime);
+    }
+}
@@ -1,5 +1,7 @@
 package com.amazon.pay.api;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 /**
  * Implement an Exponential Backoff Retry Strategy
  */
@@ -77,6 +79,31 @@ public class ExponentialRetryStrategy implements RetryStrategy {
         }
     }
 
+    /**
+     * Caps the wait asked by a Retry-After header at {@link #getMaxWaitTime(int)} rather than the backoff of the
+     * retry, as the maximum delays of this strategy bound every wait it makes
+     */
+    @Override
+    public long getMaxWaitTime(final RetryContext context) {
+        return getMaxWaitTime(context.getStatusCode());
+    }
+
+    /**
+     * Returns the maximum delay of the status code or, when it has none, the exponential wait time of the last
+     * retry, so that a Retry-After header never makes a request wait longer than its backoff would have
+     * @param statusCode The status code returned by the last attempt
+     * @return The maximum milliseconds to wait
+     */
+    public long getMaxWaitTime(int statusCode) {
+        final boolean throttled = isThrottledResponse(statusCode);
+        final long maxDelay = throttled ? maxThrottlingDelayMillis : maxDelayMillis;
+        if (maxDelay != Long.MAX_VALUE) {
+            return maxDelay;
+        }
+        return getExponentialWaitTime(Math.max(maxRetries - 1, 0),
+                throttled ? initialThrottlingDelayMillis : initialDelayMillis);
+    }
+
     @Override
     public void setMaxRetries(int maxRetries) {
         this.maxRetries = maxRetries;
@@ -106,4 +133,19 @@ public class ExponentialRetryStrategy implements RetryStrategy {
     long getExponentialWaitTime(int retryCount, long initialDelayMillis) {
         return ((long) Math.pow(2, retryCount) * initialDelayMillis);
     }
+
+    /**
+     * Returns a random wait time between two bounds, drawn from the random generator of the calling thread so
+     * that concurrent retries do not contend on a shared generator.
+     * @param minWaitTime The lower bound, inclusive
+     * @param maxWaitTime The upper bound, inclusive
+     * @return the wait time, minWaitTime when maxWaitTime is not greater
+     */
+    static long getRandomWaitTime(long minWaitTime, long maxWaitTime) {
+        if (maxWaitTime <= minWaitTime) {
+            return minWaitTime;
+        }
+        return ThreadLocalRandom.current().nextLong(minWaitTime,
+                maxWaitTime == Long.MAX_VALUE ? maxWaitTime : maxWaitTime + 1);
+    }
 }
@@ -0,0 +1,46 @@
+package com.amazon.pay.api;
+
+/**
+ * Implement an Exponential Backoff Retry Strategy with full jitter: the wait time is drawn at random between 0 and
+ * the exponential wait time, so that clients throttled at the same time do not retry at the same time.
+ */
+public class FullJitterRetryStrategy extends ExponentialRetryStrategy {
+
+    /**
+     * Instantiate full jitter retry strategy with the same delay for throttled and non-throttled retries
+     * and no maximum delay for throttled or non-throttled retries.
+     * @param maxRetries The maximum number of retries
+     * @param initialDelayMillis The delay constant to apply to all retries
+     */
+    public FullJitterRetryStrategy(int maxRetries, long initialDelayMillis) {
+        super(maxRetries, initialDelayMillis);
+    }
+
+    /**
+     * Instantiate full jitter retry strategy with no maximum delay for throttled or non-throttled retries.
+     * @param maxRetries The maximum number of retries
+     * @param initialDelayMillis The delay constant to apply to non-throttled retries
+     * @param initialThrottlingDelayMillis The delay constant to apply to throttled retries
+     */
+    public FullJitterRetryStrategy(int maxRetries, long initialDelayMillis, long initialThrottlingDelayMillis) {
+        super(maxRetries, initialDelayMillis, initialThrottlingDelayMillis);
+    }
+
+    /**
+     * Instantiate full jitter retry strategy
+     * @param maxRetries The maximum number of retries
+     * @param initialDelayMillis The delay constant to apply to non-throttled retries
+     * @param initialThrottlingDelayMillis The delay constant to apply to throttled retries
+     * @param maxDelayMillis The maximum delay to apply to a non-throttled retry
+     * @param maxThrottlingDelayMillis The maximum delay to apply when retrying a throttled request.
+     */
+    public FullJitterRetryStrategy(int maxRetries, long initialDelayMillis, long initialThrottlingDelayMillis,
+                                   long maxDelayMillis, long maxThrottlingDelayMillis) {
+        super(maxRetries, initialDelayMillis, initialThrottlingDelayMillis, maxDelayMillis, maxThrottlingDelayMillis);
+    }
+
+    @Override
+    public long getWaitTime(int retryCount, int statusCode) {
+        return getRandomWaitTime(0, super.getWaitTime(retryCount, statusCode));
+    }
+}
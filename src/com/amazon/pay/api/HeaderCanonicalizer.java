@@ -0,0 +1,170 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the canonical headers and the signed headers string of a request in one pass over its headers, sorted
+ * once by name ignoring case. Header names are lower-cased; names and values are trimmed and each whitespace
+ * character left inside them (space, tab, line feed, vertical tab, form feed, carriage return) becomes a space.
+ * Multiple values of a header are joined with commas, not counting the empty values before the first value that
+ * is not empty.
+ */
+final class HeaderCanonicalizer {
+    private static final String LINE_SEPARATOR = "\n";
+
+    private final String canonicalHeaders;
+    private final String signedHeaders;
+
+    private HeaderCanonicalizer(final String canonicalHeaders, final String signedHeaders) {
+        this.canonicalHeaders = canonicalHeaders;
+        this.signedHeaders = signedHeaders;
+    }
+
+    /**
+     * @param headers the headers of the request, with all their values
+     * @return the canonical form of the headers
+     */
+    static HeaderCanonicalizer canonicalize(final Map<String, List<String>> headers) {
+        final StringBuilder canonicalHeaders = new StringBuilder(headers.size() * 48);
+        final StringBuilder signedHeaders = new StringBuilder(headers.size() * 16);
+        for (String header : sortedNames(headers)) {
+            final String name = Util.lowerCase(header);
+            appendName(canonicalHeaders, signedHeaders, name);
+            // a comma only follows a value once the joined value is not empty, as leading empty values vanish
+            final int valueStart = canonicalHeaders.length();
+            for (String value : headers.get(header)) {
+                if (canonicalHeaders.length() > valueStart) {
+                    canonicalHeaders.append(',');
+                }
+                appendCanonicalValue(canonicalHeaders, value);
+            }
+            canonicalHeaders.append(LINE_SEPARATOR);
+        }
+        return new HeaderCanonicalizer(canonicalHeaders.toString(), signedHeaders.toString());
+    }
+
+    /**
+     * @param headers the headers of the request, with a single value each
+     * @return the canonical form of the headers
+     */
+    static HeaderCanonicalizer canonicalizeSingleValues(final Map<String, String> headers) {
+        final StringBuilder canonicalHeaders = new StringBuilder(headers.size() * 48);
+        final StringBuilder signedHeaders = new StringBuilder(headers.size() * 16);
+        for (String header : sortedNames(headers)) {
+            appendName(canonicalHeaders, signedHeaders, Util.lowerCase(header));
+            appendCanonicalValue(canonicalHeaders, headers.get(header));
+            canonicalHeaders.append(LINE_SEPARATOR);
+        }
+        return new HeaderCanonicalizer(canonicalHeaders.toString(), signedHeaders.toString());
+    }
+
+    /**
+     * @return the canonical headers, one "name:value" line each
+     */
+    String getCanonicalHeaders() {
+        return canonicalHeaders;
+    }
+
+    /**
+     * @return the lower-cased header names, separated by semicolons
+     */
+    String getSignedHeaders() {
+        return signedHeaders;
+    }
+
+    /**
+     * @param value a header name or value
+     * @return the value trimmed, with each whitespace character replaced by a space
+     */
+    static String canonicalValue(final String value) {
+        final int start = trimmedStart(value);
+        final int end = trimmedEnd(value, start);
+        if (!hasWhitespaceToReplace(value, start, end)) {
+            return start == 0 && end == value.length() ? value : value.substring(start, end);
+        }
+        final StringBuilder buffer = new StringBuilder(end - start);
+        appendCanonicalValue(buffer, value, start, end);
+        return buffer.toString();
+    }
+
+    private static String[] sortedNames(final Map<String, ?> headers) {
+        final String[] names = headers.keySet().toArray(new String[0]);
+        Arrays.sort(names, String.CASE_INSENSITIVE_ORDER);
+        return names;
+    }
+
+    private static void appendName(final StringBuilder canonicalHeaders,
+                                   final StringBuilder signedHeaders,
+                                   final String name) {
+        if (signedHeaders.length() > 0) {
+            signedHeaders.append(';');
+        }
+        signedHeaders.append(name);
+        appendCanonicalValue(canonicalHeaders, name);
+        canonicalHeaders.append(':');
+    }
+
+    private static void appendCanonicalValue(final StringBuilder buffer, final String value) {
+        final int start = trimmedStart(value);
+        appendCanonicalValue(buffer, value, start, trimmedEnd(value, start));
+    }
+
+    private static void appendCanonicalValue(final StringBuilder buffer, final String value, final int start, final int end) {
+        if (!hasWhitespaceToReplace(value, start, end)) {
+            buffer.append(value, start, end);
+            return;
+        }
+        for (int i = start; i < end; i++) {
+            final char c = value.charAt(i);
+            buffer.append(isWhitespace(c) ? ' ' : c);
+        }
+    }
+
+    /** the bounds of String.trim, which drops every character up to the space from both ends */
+    private static int trimmedStart(final String value) {
+        int start = 0;
+        while (start < value.length() && value.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimmedEnd(final String value, final int start) {
+        int end = value.length();
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean hasWhitespaceToReplace(final String value, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            final char c = value.charAt(i);
+            if (c != ' ' && isWhitespace(c)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** the characters matched by the \s class of java.util.regex */
+    private static boolean isWhitespace(final char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
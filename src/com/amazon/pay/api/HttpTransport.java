@@ -0,0 +1,93 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interface defining the HTTP engine used to send signed requests to Amazon Pay.
+ * Implementations receive a fully signed request and must send it as is, without following redirects.
+ *
+ * @see ApacheHttpTransport
+ * @see JdkHttpTransport
+ * @see InMemoryHttpTransport
+ */
+public interface HttpTransport extends Closeable {
+
+    /**
+     * Sends the request and waits for the response
+     * @param request The signed request to send
+     * @return The response returned by the server
+     * @throws IOException When the request could not be sent or the response could not be read
+     */
+    HttpTransportResponse execute(HttpTransportRequest request) throws IOException;
+
+    /**
+     * Sends the request without blocking the calling thread.
+     * The default implementation sends the request on the calling thread.
+     * @param request The signed request to send
+     * @return A CompletableFuture completed with the response, or completed exceptionally with an IOException
+     */
+    default CompletableFuture<HttpTransportResponse> executeAsync(final HttpTransportRequest request) {
+        final CompletableFuture<HttpTransportResponse> future = new CompletableFuture<>();
+        try {
+            future.complete(execute(request));
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Opens connections to the endpoint ahead of the requests and parks them in the connection pool of the
+     * transport, so that the first requests do not pay for the DNS lookup, TCP connect and TLS handshake.
+     * Connections already parked in the pool count towards the requested number. The default implementation
+     * opens no connection, for transports which do not expose their connections.
+     * @param endpoint The endpoint the connections are opened to, only its scheme, host and port are used
+     * @param connections The number of connections to park in the pool
+     * @return The number of connections opened
+     * @throws IOException When no connection could be opened
+     */
+    default int warmUp(final URI endpoint, final int connections) throws IOException {
+        return 0;
+    }
+
+    /**
+     * @param endpoint The endpoint of the connections, only its scheme, host and port are used
+     * @return The number of open connections parked in the connection pool of the transport, 0 when unknown
+     */
+    default int getIdleConnections(final URI endpoint) {
+        return 0;
+    }
+
+    /**
+     * @return The statistics of the connection pool of the transport. The default implementation reports 0 for
+     * every count, for transports which do not expose their connections.
+     */
+    default ConnectionPoolStats getPoolStats() {
+        return new ConnectionPoolStats(0, 0, 0, 0);
+    }
+
+    /**
+     * Releases the resources held by the transport. The default implementation does nothing.
+     * @throws IOException When the resources could not be released
+     */
+    @Override
+    default void close() throws IOException {
+    }
+}
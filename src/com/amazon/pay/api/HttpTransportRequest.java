@@ -0,0 +1,65 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A signed request handed to an {@link HttpTransport}
+ */
+public final class HttpTransportRequest {
+
+    private final URI uri;
+    private final String method;
+    private final Map<String, String> headers;
+    private final byte[] body;
+
+    public HttpTransportRequest(final URI uri, final String method, final Map<String, String> headers, final byte[] body) {
+        this.uri = uri;
+        this.method = method;
+        this.headers = Collections.unmodifiableMap(headers);
+        this.body = body;
+    }
+
+    /**
+     * @return the uri to be executed
+     */
+    public URI getUri() {
+        return uri;
+    }
+
+    /**
+     * @return the HTTP request method(GET,PUT,POST etc) to be used
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return the signed headers to send with the request
+     */
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return the UTF-8 encoded payload to send with the request, never null
+     */
+    public byte[] getBody() {
+        return body;
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A response returned by an {@link HttpTransport}
+ */
+public final class HttpTransportResponse {
+
+    private final int statusCode;
+    private final Map<String, List<String>> headers;
+    private final byte[] body;
+    private final long wireBytes;
+
+    /**
+     * @param statusCode the HTTP status code
+     * @param headers the response headers, looked up case-insensitively
+     * @param body the response body, or null if the response had no entity
+     */
+    public HttpTransportResponse(final int statusCode, final Map<String, List<String>> headers, final byte[] body) {
+        this(statusCode, headers, body, body == null ? 0 : body.length);
+    }
+
+    /**
+     * @param statusCode the HTTP status code
+     * @param headers the response headers, looked up case-insensitively
+     * @param body the decoded response body, or null if the response had no entity
+     * @param wireBytes the number of body bytes received, before decoding
+     */
+    public HttpTransportResponse(final int statusCode, final Map<String, List<String>> headers, final byte[] body,
+                                 final long wireBytes) {
+        final Map<String, List<String>> caseInsensitiveHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        caseInsensitiveHeaders.putAll(headers);
+        this.statusCode = statusCode;
+        this.headers = Collections.unmodifiableMap(caseInsensitiveHeaders);
+        this.body = body;
+        this.wireBytes = wireBytes;
+    }
+
+    /**
+     * @return the HTTP status code
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return the response headers, looked up case-insensitively
+     */
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @param name the header name, case-insensitive
+     * @return the first value of the header, or null if the header is not present
+     */
+    public String getFirstHeader(final String name) {
+        final List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    /**
+     * @return the response body, or null if the response had no entity
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * @return the number of body bytes received, which is less than the length of the body when the
+     * response was compressed
+     */
+    public long getWireBytes() {
+        return wireBytes;
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.net.ssl.SSLHandshakeException;
+import javax.net.ssl.SSLPeerUnverifiedException;
+
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.conn.ConnectTimeoutException;
+
+/**
+ * Tells whether a request failing with an IOException may be sent again.
+ * Failures before the request left the client, such as a refused connection or a connect timeout, are retried
+ * whatever the request. Failures after it may have reached Amazon Pay, such as a connection reset, a
+ * NoHttpResponseException on a stale pooled connection or a read timeout, are retried only when sending the
+ * request twice has the effect of sending it once: for idempotent methods, and for requests carrying an
+ * x-amz-pay-idempotency-key, which Util.updateHeader adds to the POST requests. Failures that a new attempt would
+ * meet again, such as a ClientProtocolException, an unknown host or a rejected certificate, and interruptions
+ * of the calling thread are never retried.
+ */
+final class IOFailureClassifier {
+    private static final String IDEMPOTENCY_KEY = "x-amz-pay-idempotency-key";
+
+    private static final Set<String> IDEMPOTENT_METHODS = Collections.unmodifiableSet(
+            new HashSet<>(Arrays.asList("GET", "HEAD", "OPTIONS", "PUT", "DELETE")));
+    /** thrown by the JDK client of Java 11, out of reach of the Java 8 sources */
+    private static final String HTTP_CONNECT_TIMEOUT_EXCEPTION = "java.net.http.HttpConnectTimeoutException";
+
+    private IOFailureClassifier() {
+    }
+
+    /**
+     * @param request the request that failed
+     * @param failure the failure of the request
+     * @return true when the request may be sent again
+     */
+    static boolean isRetryable(final HttpTransportRequest request, final IOException failure) {
+        if (isPermanent(failure)) {
+            return false;
+        }
+        return isNotSent(failure) || isIdempotent(request);
+    }
+
+    private static boolean isPermanent(final IOException failure) {
+        return failure instanceof ClientProtocolException
+                || failure instanceof UnknownHostException
+                || failure instanceof SSLHandshakeException
+                || failure instanceof SSLPeerUnverifiedException
+                // an interrupted thread, timeouts are InterruptedIOExceptions as well
+                || failure instanceof InterruptedIOException && !(failure instanceof SocketTimeoutException)
+                        && !(failure instanceof ConnectTimeoutException);
+    }
+
+    private static boolean isNotSent(final IOException failure) {
+        return failure instanceof ConnectException
+                || failure instanceof ConnectTimeoutException
+                || isInstance(failure, HTTP_CONNECT_TIMEOUT_EXCEPTION);
+    }
+
+    /**
+     * @return true when the method of the request is idempotent, or the request carries an idempotency key
+     */
+    static boolean isIdempotent(final HttpTransportRequest request) {
+        if (IDEMPOTENT_METHODS.contains(request.getMethod())) {
+            return true;
+        }
+        for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+            if (IDEMPOTENCY_KEY.equalsIgnoreCase(header.getKey()) && header.getValue() != null
+                    && !header.getValue().isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isInstance(final Object object, final String className) {
+        for (Class<?> type = object.getClass(); type != null; type = type.getSuperclass()) {
+            if (type.getName().equals(className)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * HttpTransport answering every request from a handler in the same JVM, without any network access.
+ * Intended for tests and benchmarks of code built on the AmazonPayClient. The requests received are recorded
+ * for inspection until cleared; benchmarks and load runs should turn recording off, as every request body is
+ * kept in memory otherwise.
+ */
+public class InMemoryHttpTransport implements HttpTransport {
+
+    /**
+     * Produces the response to a request sent through an InMemoryHttpTransport
+     */
+    @FunctionalInterface
+    public interface Handler {
+        /**
+         * @param request the signed request
+         * @return the response to return to the client
+         * @throws IOException to simulate a failure of the connection
+         */
+        HttpTransportResponse handle(HttpTransportRequest request) throws IOException;
+    }
+
+    private final Handler handler;
+    private final Queue<HttpTransportRequest> requests = new ConcurrentLinkedQueue<>();
+    private volatile boolean recordingRequests = true;
+
+    /**
+     * @param handler the handler producing the response to each request
+     */
+    public InMemoryHttpTransport(final Handler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Creates a transport answering every request with the same status and JSON body
+     *
+     * @param statusCode the HTTP status code of the responses
+     * @param body the JSON body of the responses
+     * @return the InMemoryHttpTransport
+     */
+    public static InMemoryHttpTransport respondingWith(final int statusCode, final String body) {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        return new InMemoryHttpTransport(request -> new HttpTransportResponse(statusCode,
+                Collections.singletonMap(ServiceConstants.X_AMZ_PAY_REQUEST_ID,
+                        Collections.singletonList("in-memory-request")), bytes));
+    }
+
+    @Override
+    public HttpTransportResponse execute(final HttpTransportRequest request) throws IOException {
+        if (recordingRequests) {
+            requests.add(request);
+        }
+        return handler.handle(request);
+    }
+
+    /**
+     * @return the requests recorded by this transport, in the order they were sent
+     */
+    public List<HttpTransportRequest> getRequests() {
+        return Collections.unmodifiableList(new ArrayList<>(requests));
+    }
+
+    /**
+     * Forgets the requests recorded so far
+     */
+    public void clearRequests() {
+        requests.clear();
+    }
+
+    /**
+     * Sets whether the requests received are recorded, which they are by default
+     *
+     * @param recordingRequests false to answer requests without keeping them, as benchmarks should
+     * @return the InMemoryHttpTransport
+     */
+    public InMemoryHttpTransport setRecordingRequests(final boolean recordingRequests) {
+        this.recordingRequests = recordingRequests;
+        return this;
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+import java.io.Closeable;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signing service answering the batches of a BatchingSigner from a Signer in the same JVM, after a simulated
+ * round trip. Intended as a stand-in for a remote signing service in tests and benchmarks.
+ */
+public class InMemorySigningService implements BatchingSigner.SigningService, Closeable {
+    private final Signer signer;
+    private final long roundTripMillis;
+    private final ScheduledExecutorService executor;
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param signer the signer producing the signatures, such as a PrivateKeySigner
+     * @param roundTripMillis the time taken by each batch before it is signed, simulating the network
+     */
+    public InMemorySigningService(final Signer signer, final long roundTripMillis) {
+        this.signer = signer;
+        this.roundTripMillis = roundTripMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "amazon-pay-in-memory-signing");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<byte[]>> sign(final List<BatchingSigner.SigningRequest> requests) {
+        batchSizes.add(requests.size());
+        final CompletableFuture<List<byte[]>> future = new CompletableFuture<>();
+        try {
+            executor.schedule(() -> {
+                final List<byte[]> signatures = new ArrayList<>(requests.size());
+                try {
+                    for (BatchingSigner.SigningRequest request : requests) {
+                        signatures.add(signer.sign(request.getStringToSign(), request.getAlgorithm()));
+                    }
+                    future.complete(signatures);
+                } catch (GeneralSecurityException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            }, roundTripMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * @return the number of requests of each batch received, in the order they were received
+     */
+    public List<Integer> getBatchSizes() {
+        return Collections.unmodifiableList(batchSizes);
+    }
+
+    /**
+     * Stops answering batches
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
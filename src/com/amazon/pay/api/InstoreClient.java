@@ -19,6 +19,7 @@ import org.json.JSONObject;
 
 import java.net.URI;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class InstoreClient extends AmazonPayClient {
 
@@ -35,7 +36,7 @@ public class InstoreClient extends AmazonPayClient {
      */
     public AmazonPayResponse merchantScan(final JSONObject scanRequest, final Map<String, String> header) throws AmazonPayClientException {
         final URI scanURI = Util.getServiceURI(payConfiguration, ServiceConstants.INSTORE_MERCHANT_SCAN);
-        return callAPI(scanURI, "POST", null, scanRequest.toString(), header);
+        return callAPIBytes(scanURI, "POST", null, Util.toJsonBytes(scanRequest), header);
     }
 
     /**
@@ -57,7 +58,7 @@ public class InstoreClient extends AmazonPayClient {
      */
     public AmazonPayResponse charge(final JSONObject chargeRequest, final Map<String, String> header) throws AmazonPayClientException {
         final URI chargeURI = Util.getServiceURI(payConfiguration, ServiceConstants.INSTORE_CHARGE);
-        return callAPI(chargeURI, "POST", null, chargeRequest.toString(), header);
+        return callAPIBytes(chargeURI, "POST", null, Util.toJsonBytes(chargeRequest), header);
     }
 
     /**
@@ -79,7 +80,7 @@ public class InstoreClient extends AmazonPayClient {
      */
     public AmazonPayResponse refund(final JSONObject refundRequest, final Map<String, String> header) throws AmazonPayClientException {
         final URI refundURI = Util.getServiceURI(payConfiguration, ServiceConstants.INSTORE_REFUND);
-        return callAPI(refundURI, "POST", null, refundRequest.toString(), header);
+        return callAPIBytes(refundURI, "POST", null, Util.toJsonBytes(refundRequest), header);
     }
 
     /**
@@ -91,4 +92,72 @@ public class InstoreClient extends AmazonPayClient {
     public AmazonPayResponse refund(final JSONObject refundRequest) throws AmazonPayClientException {
         return refund(refundRequest, null);
     }
+
+    // ----------------------------------- Asynchronous APIs -----------------------------------
+
+    /**
+     * Helps the solution provider make the merchantScan request with their auth token
+     * @param scanRequest is the scan request body
+     * @param header consists the authToken of the merchant
+     * @return A CompletableFuture completed with the merchant scan response
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> merchantScanAsync(final JSONObject scanRequest, final Map<String, String> header) throws AmazonPayClientException {
+        final URI scanURI = Util.getServiceURI(payConfiguration, ServiceConstants.INSTORE_MERCHANT_SCAN);
+        return callAPIBytesAsync(scanURI, "POST", null, Util.toJsonBytes(scanRequest), header);
+    }
+
+    /**
+     * Helps the merchant make the merchantScan request
+     * @param scanRequest is the scan request body
+     * @return A CompletableFuture completed with the merchant scan response
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> merchantScanAsync(final JSONObject scanRequest) throws AmazonPayClientException {
+        return merchantScanAsync(scanRequest, null);
+    }
+
+    /**
+     * Helps the solution provider make the charge request with their auth token
+     * @param chargeRequest is the charge request body
+     * @param header consists the authToken of the merchant
+     * @return A CompletableFuture completed with the charge response
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> chargeAsync(final JSONObject chargeRequest, final Map<String, String> header) throws AmazonPayClientException {
+        final URI chargeURI = Util.getServiceURI(payConfiguration, ServiceConstants.INSTORE_CHARGE);
+        return callAPIBytesAsync(chargeURI, "POST", null, Util.toJsonBytes(chargeRequest), header);
+    }
+
+    /**
+     * Helps the merchant make the charge request
+     * @param chargeRequest is the charge request body
+     * @return A CompletableFuture completed with the charge response
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> chargeAsync(final JSONObject chargeRequest) throws AmazonPayClientException {
+        return chargeAsync(chargeRequest, null);
+    }
+
+    /**
+     * Helps the solution provider make the refund request with their auth token
+     * @param refundRequest is the refund request body
+     * @param header consists the authToken of the merchant
+     * @return A CompletableFuture completed with the refund response
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> refundAsync(final JSONObject refundRequest, final Map<String, String> header) throws AmazonPayClientException {
+        final URI refundURI = Util.getServiceURI(payConfiguration, ServiceConstants.INSTORE_REFUND);
+        return callAPIBytesAsync(refundURI, "POST", null, Util.toJsonBytes(refundRequest), header);
+    }
+
+    /**
+     * Helps the merchant make the refund request
+     * @param refundRequest is the refund request body
+     * @return A CompletableFuture completed with the refund response
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> refundAsync(final JSONObject refundRequest) throws AmazonPayClientException {
+        return refundAsync(refundRequest, null);
+    }
 }
@@ -0,0 +1,48 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+import java.io.IOException;
+
+import com.amazon.pay.api.exceptions.AmazonPayClientException;
+
+/**
+ * HttpTransport backed by the java.net.http.HttpClient of the JDK.
+ * The implementation ships in the Java 11 section of the multi-release jar; this class is the one loaded
+ * on older runtimes and refuses to be built there.
+ */
+public class JdkHttpTransport implements HttpTransport {
+
+    /**
+     * @param payConfiguration the PayConfiguration providing the proxy settings and timeouts
+     * @throws AmazonPayClientException always, the JDK HTTP client requires Java 11 or later
+     */
+    public JdkHttpTransport(final PayConfiguration payConfiguration) throws AmazonPayClientException {
+        throw unsupported();
+    }
+
+    /**
+     * @throws IOException always, caused by the AmazonPayClientException thrown by the constructor
+     */
+    @Override
+    public HttpTransportResponse execute(final HttpTransportRequest request) throws IOException {
+        final AmazonPayClientException exception = unsupported();
+        throw new IOException(exception.getMessage(), exception);
+    }
+
+    private static AmazonPayClientException unsupported() {
+        return new AmazonPayClientException("JdkHttpTransport requires Java 11 or later, running on Java " + Util.JAVA_VERSION);
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+import java.security.PrivateKey;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the public key id and the private key signing requests as one pair, which can be swapped while
+ * requests are in flight. Each request reads the active pair once, so it is signed with the private key of the
+ * public key id it names, whether it started before or after a rotation. Rotating does not block signing threads
+ * and leaves the clients and their connection pools untouched.
+ * Every PayConfiguration has a KeyRegistry, shared by the clients built from it; a registry may also be shared by
+ * several PayConfigurations to rotate their keys together.
+ *
+ * @see PayConfiguration#getKeyRegistry()
+ * @see Util#buildPrivateKey(char[])
+ * @see Util#buildPrivateKey(byte[])
+ * @see Util#buildPrivateKey(java.io.InputStream, char[], String)
+ */
+public class KeyRegistry {
+
+    /**
+     * A public key id and the private key of its key pair
+     */
+    public static final class SigningKey {
+        private final String publicKeyId;
+        private final PrivateKey privateKey;
+
+        SigningKey(final String publicKeyId, final PrivateKey privateKey) {
+            this.publicKeyId = publicKeyId;
+            this.privateKey = privateKey;
+        }
+
+        /**
+         * @return the public key id, null when not set
+         */
+        public String getPublicKeyId() {
+            return publicKeyId;
+        }
+
+        /**
+         * @return the private key, null when not set
+         */
+        public PrivateKey getPrivateKey() {
+            return privateKey;
+        }
+    }
+
+    private final AtomicReference<SigningKey> activeKey = new AtomicReference<>(new SigningKey(null, null));
+
+    /**
+     * Creates a KeyRegistry with no active key
+     */
+    public KeyRegistry() {
+    }
+
+    /**
+     * @param publicKeyId the public key id of the first active key
+     * @param privateKey the private key of the first active key
+     */
+    public KeyRegistry(final String publicKeyId, final PrivateKey privateKey) {
+        rotate(publicKeyId, privateKey);
+    }
+
+    /**
+     * @return the public key id and private key signing new requests
+     */
+    public SigningKey getActiveKey() {
+        return activeKey.get();
+    }
+
+    /**
+     * Makes a key pair the active one. Requests signed from then on use the new pair; requests already being
+     * signed complete with the pair they started with.
+     *
+     * @param publicKeyId the public key id of the new key pair
+     * @param privateKey the private key of the new key pair
+     * @return the KeyRegistry object
+     */
+    public KeyRegistry rotate(final String publicKeyId, final PrivateKey privateKey) {
+        if (publicKeyId == null || publicKeyId.isEmpty()) {
+            throw new IllegalArgumentException("publicKeyId must not be null or empty");
+        }
+        if (privateKey == null) {
+            throw new IllegalArgumentException("privateKey must not be null");
+        }
+        activeKey.set(new SigningKey(publicKeyId, privateKey));
+        return this;
+    }
+
+    /**
+     * Replaces the public key id of the active pair, keeping its private key
+     * @param publicKeyId the public key id
+     */
+    void setPublicKeyId(final String publicKeyId) {
+        activeKey.updateAndGet(key -> new SigningKey(publicKeyId, key.getPrivateKey()));
+    }
+
+    /**
+     * Replaces the private key of the active pair, keeping its public key id
+     * @param privateKey the private key
+     */
+    void setPrivateKey(final PrivateKey privateKey) {
+        activeKey.updateAndGet(key -> new SigningKey(key.getPublicKeyId(), privateKey));
+    }
+}
@@ -16,25 +16,44 @@ package com.amazon.pay.api;
 
 import com.amazon.pay.api.exceptions.AmazonPayClientException;
 import com.amazon.pay.api.types.Environment;
+import com.amazon.pay.api.types.HttpVersion;
 import com.amazon.pay.api.types.Region;
 import com.amazon.pay.api.types.AmazonSignatureAlgorithm;
 
 import java.security.PrivateKey;
+import java.time.Clock;
 import java.util.Objects;
 
 public class PayConfiguration {
     private Region region;
-    private String publicKeyId;
-    private PrivateKey privateKey;
+    /** the public key id and private key, swapped together on rotation */
+    private KeyRegistry keyRegistry = new KeyRegistry();
     private Environment environment;
     private AmazonSignatureAlgorithm algorithm;
+    private String signatureProvider;
+    private Signer signer;
+    private int signatureCacheSize = 0;
     private boolean userAgentRedaction = false;
     private ProxySettings proxySettings;
     protected String overrideServiceURL;
     private int clientConnections;
     private RetryStrategy retryStrategy = new DefaultRetryStrategy();
+    private double retryBudgetRatio = 0;
+    private int retryBudgetBurst = 10;
     /** customize request config */
     private RequestConfig requestConfig;
+    /** HTTP engine used to send the signed requests, the Apache HttpClient transport when not set */
+    private HttpTransport httpTransport;
+    private HttpVersion httpVersion = HttpVersion.HTTP_1_1;
+    private int maxConcurrentStreams;
+    private boolean virtualThreads = false;
+    private int minIdleConnections = 0;
+    private boolean responseCompression = false;
+    private int connectionTimeToLiveMillis = ServiceConstants.CONNECTION_TIME_TO_LIVE_MILLIS;
+    private int keepAliveMillis = ServiceConstants.KEEP_ALIVE_MILLIS;
+    private int validateAfterInactivityMillis = ServiceConstants.VALIDATE_AFTER_INACTIVITY_MILLIS;
+    private int idleEvictionIntervalMillis = ServiceConstants.IDLE_EVICTION_INTERVAL_MILLIS;
+    private Clock clock = Clock.systemUTC();
     /**
      * @return Returns region code from PayConfiguration
      */
@@ -55,7 +74,7 @@ public class PayConfiguration {
      * @return returns the public key id from the PayConfiguration
      */
     public String getPublicKeyId() {
-        return publicKeyId;
+        return keyRegistry.getActiveKey().getPublicKeyId();
     }
 
     /**
@@ -63,7 +82,7 @@ public class PayConfiguration {
      * @return the PayConfiguration object
      */
     public PayConfiguration setPublicKeyId(final String publicKeyId) {
-        this.publicKeyId = publicKeyId;
+        keyRegistry.setPublicKeyId(publicKeyId);
         return this;
     }
 
@@ -71,7 +90,7 @@ public class PayConfiguration {
      * @return returns the private key object from the PayConfiguration
      */
     public PrivateKey getPrivateKey() {
-        return privateKey;
+        return keyRegistry.getActiveKey().getPrivateKey();
     }
 
     /**
@@ -99,7 +118,28 @@ public class PayConfiguration {
      * @return the PayConfiguration object
      */
     public PayConfiguration setPrivateKey(PrivateKey privateKey) {
-        this.privateKey = privateKey;
+        keyRegistry.setPrivateKey(privateKey);
+        return this;
+    }
+
+    /**
+     * @return the KeyRegistry holding the public key id and private key of the PayConfiguration
+     */
+    public KeyRegistry getKeyRegistry() {
+        return keyRegistry;
+    }
+
+    /**
+     * Sets the KeyRegistry holding the public key id and private key, such as one shared with other
+     * PayConfigurations. The public key id and private key set before are replaced by the active key of the
+     * registry. To rotate keys without rebuilding the clients, call {@link KeyRegistry#rotate(String, PrivateKey)}.
+     *
+     * @param keyRegistry the KeyRegistry to use
+     * @return the PayConfiguration object
+     */
+    public PayConfiguration setKeyRegistry(final KeyRegistry keyRegistry) {
+        Objects.requireNonNull(keyRegistry, "keyRegistry must not be null");
+        this.keyRegistry = keyRegistry;
         return this;
     }
 
@@ -123,6 +163,73 @@ public class PayConfiguration {
         return this;
     }
 
+    /**
+     * @return the name of the JCA provider signing requests, null when they are signed with BouncyCastle
+     */
+    public String getSignatureProvider() {
+        return signatureProvider;
+    }
+
+    /**
+     * Sets the JCA provider signing requests, by the name it is installed under, such as "BC" for BouncyCastle
+     * or "SunRsaSign", the RSASSA-PSS provider of the JDK from Java 11. Requests are signed with BouncyCastle when
+     * not set. With {@link ServiceConstants#FASTEST_SIGNATURE_PROVIDER}, the first request signed with a class of
+     * private key starts timing each provider offering RSASSA-PSS with that key in the background, and the fastest
+     * one whose signatures verify is used for the keys of that class from then on; requests are signed with
+     * BouncyCastle in the meantime, and so are keys the selected provider rejects.
+     *
+     * @param signatureProvider the name of an installed provider, FASTEST_SIGNATURE_PROVIDER, or null for BouncyCastle
+     * @return the PayConfiguration object
+     */
+    public PayConfiguration setSignatureProvider(final String signatureProvider) {
+        this.signatureProvider = signatureProvider;
+        return this;
+    }
+
+    /**
+     * @return the Signer signing requests, null when they are signed with the private key of the PayConfiguration
+     */
+    public Signer getSigner() {
+        return signer;
+    }
+
+    /**
+     * Sets the Signer signing requests in place of the private key, such as a {@link BatchingSigner} sending
+     * the strings to sign to an HSM or a key management service. The private key is not required when a Signer
+     * is set, and the signature provider is left to the Signer.
+     *
+     * @param signer the Signer to use, or null to sign with the private key
+     * @return the PayConfiguration object
+     * @see PrivateKeySigner
+     * @see BatchingSigner
+     */
+    public PayConfiguration setSigner(final Signer signer) {
+        this.signer = signer;
+        return this;
+    }
+
+    /**
+     * @return the maximum number of signatures reused within a second, 0 when signatures are not reused
+     */
+    public int getSignatureCacheSize() {
+        return signatureCacheSize;
+    }
+
+    /**
+     * Reuses the signature of identical requests sent within the same second, such as a loop polling a charge,
+     * instead of signing each of them. Up to signatureCacheSize distinct requests are cached per second; the
+     * cache is emptied every second and on key rotation. Hits and misses are reported by
+     * {@link AmazonPayClient#getSignatureCacheStats()}.
+     *
+     * @param signatureCacheSize the maximum number of signatures reused within a second, 0, the default,
+     *                           signs every request
+     * @return the PayConfiguration object
+     */
+    public PayConfiguration setSignatureCacheSize(final int signatureCacheSize) {
+        this.signatureCacheSize = signatureCacheSize;
+        return this;
+    }
+
     /**
      * @return returns the environment from the PayConfiguration
      */
@@ -156,6 +263,45 @@ public class PayConfiguration {
         return this;
     }
 
+    /**
+     * @return the share of the requests of a client that may be retried, 0 when retries are not budgeted
+     */
+    public double getRetryBudgetRatio() {
+        return retryBudgetRatio;
+    }
+
+    /**
+     * Bounds the retries of each client built from this PayConfiguration to a share of its requests, across all
+     * the threads using it, so that an outage of Amazon Pay does not multiply the traffic of the client by the
+     * maximum number of retries. Once the budget is exhausted, failed requests are not retried and complete with
+     * their last response. The budget is reported by {@link AmazonPayClient#getRetryBudgetStats()}.
+     *
+     * @param retryBudgetRatio the share of the requests that may be retried, such as 0.1 for 10%; 0, the default,
+     *                         retries every failed request up to the maximum number of retries
+     * @return the PayConfiguration object
+     */
+    public PayConfiguration setRetryBudgetRatio(final double retryBudgetRatio) {
+        this.retryBudgetRatio = retryBudgetRatio;
+        return this;
+    }
+
+    /**
+     * @return the number of retries the retry budget allows beyond its ratio
+     */
+    public int getRetryBudgetBurst() {
+        return retryBudgetBurst;
+    }
+
+    /**
+     * @param retryBudgetBurst the number of retries the retry budget allows beyond its ratio, available as soon
+     *                         as the client is built so that a client with little traffic may retry, 10 by default
+     * @return the PayConfiguration object
+     */
+    public PayConfiguration setRetryBudgetBurst(final int retryBudgetBurst) {
+        this.retryBudgetBurst = retryBudgetBurst;
+        return this;
+    }
+
     /**
      * Returns true if the merchant wants to set the Java and OS version segment in
      * the User-Agent header to 'Redacted'.
@@ -260,4 +406,236 @@ public class PayConfiguration {
     public RequestConfig getRequestConfig() {
         return this.requestConfig;
     }
+
+    /**
+     * Set the HTTP transport used to send the signed requests.
+     * A transport set here is shared by every client built from this configuration and is not closed by them.
+     * @param httpTransport The transport to use, or null to use an Apache HttpClient transport owned by each client
+     * @return the PayConfiguration object
+     * @see ApacheHttpTransport
+     * @see JdkHttpTransport
+     * @see InMemoryHttpTransport
+     */
+    public PayConfiguration setHttpTransport(HttpTransport httpTransport) {
+        this.httpTransport = httpTransport;
+        return this;
+    }
+
+    /**
+     * Get the HTTP transport
+     * @return the transport set in PayConfiguration, or null when the client builds its own
+     */
+    public HttpTransport getHttpTransport() {
+        return this.httpTransport;
+    }
+
+    /**
+     * Set the HTTP protocol version used when the client builds its own transport.
+     * HTTP_2 sends the requests through a {@link JdkHttpTransport}, multiplexing concurrent requests over
+     * a few connections instead of one pooled connection per request, and requires Java 11 or later.
+     * @param httpVersion The HTTP protocol version, HTTP_1_1 by default
+     * @return the PayConfiguration object
+     */
+    public PayConfiguration setHttpVersion(HttpVersion httpVersion) {
+        Objects.requireNonNull(httpVersion, "httpVersion must not be null");
+        this.httpVersion = httpVersion;
+        return this;
+    }
+
+    /**
+     * Get the HTTP protocol version
+     * @return the HTTP protocol version, HTTP_1_1 by default
+     */
+    public HttpVersion getHttpVersion() {
+        return this.httpVersion;
+    }
+
+    /**
+     * @return Returns the maximum number of requests in flight on the HTTP/2 connection from PayConfiguration
+     */
+    public int getMaxConcurrentStreams() {
+        if( maxConcurrentStreams != 0 ) {
+            return maxConcurrentStreams;
+        } else {
+            return ServiceConstants.MAX_CONCURRENT_STREAMS;
+        }
+    }
+
+    /**
+     * @param maxConcurrentStreams Sets the maximum number of requests in flight on the HTTP/2 connection.
+     *                             Further requests wait for a stream to be released instead of failing, so this
+     *                             should not exceed the concurrent streams allowed by the server
+     * @return the PayConfiguration object
+     */
+    public PayConfiguration setMaxConcurrentStreams(int maxConcurrentStreams) {
+        this.maxConcurrentStreams = maxConcurrentStreams;
+        return this;
+    }
+
+    /**
+     * Returns true if the client is optimized for callers running on virtual threads.
+     *
+     * @return boolean virtualThreads
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Optimizes the client for callers running on virtual threads, which requires Java 21 or later.
+     * The connection pool of Apache HttpClient 4 parks while holding a monitor when leasing a connection,
+     * pinning the carrier thread of the caller; when this flag is set to true, the client sends its requests
+     * through a {@link JdkHttpTransport} instead and runs the response handling of the JDK client on virtual
+     * threads, so neither signing, connection lease nor retry backoff pins a carrier thread.
+     * Ignored when a transport is set with {@link #setHttpTransport(HttpTransport)}.
+     *
+     * @param virtualThreads - argument that sets virtualThreads in PayConfiguration
+     * @return the PayConfiguration object
+     */
+    public PayConfiguration setVirtualThreads(final boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+        return this;
+    }
+
+    /**
+     * Returns the minimum number of idle connections the client keeps open to the endpoint.
+     *
+     * @return int minIdleConnections
+     */
+    public int getMinIdleConnections() {
+        return minIdleConnections;
+    }
+
+    /**
+     * @param minIdleConnections Sets the minimum number of idle connections the client keeps open to the
+     *                           endpoint. When greater than zero, the client warms up its connection pool on
+     *                           creation and tops it up periodically as connections expire or are closed by
+     *                           the server; see {@link AmazonPayClient#warmUp(int)}
+     * @return the PayConfiguration object
+     */
+    public PayConfiguration setMinIdleConnections(final int minIdleConnections) {
+        this.minIdleConnections = minIdleConnections;
+        return this;
+    }
+
+    /**
+     * @return Returns the maximum lifetime in milliseconds of a pooled connection, 0 for no limit
+     */
+    public int getConnectionTimeToLiveMillis() {
+        return connectionTimeToLiveMillis;
+    }
+
+    /**
+     * @param connectionTimeToLiveMillis Sets the maximum lifetime in milliseconds of a pooled connection,
+     *                                   after which it is closed instead of being reused however recently it
+     *                                   was used. 0, the default, sets no limit
+     * @return the PayConfiguration object
+     */
+    public PayConfiguration setConnectionTimeToLiveMillis(final int connectionTimeToLiveMillis) {
+        this.connectionTimeToLiveMillis = connectionTimeToLiveMillis;
+        return this;
+    }
+
+    /**
+     * @return Returns the maximum time in milliseconds a connection is kept idle in the pool
+     */
+    public int getKeepAliveMillis() {
+        return keepAliveMillis;
+    }
+
+    /**
+     * @param keepAliveMillis Sets the maximum time in milliseconds a connection is kept idle in the pool, 30
+     *                        seconds by default. A shorter Keep-Alive timeout sent by the server takes precedence.
+     *                        It should be below the idle timeout of the server, so that the client never reuses a
+     *                        connection the server is closing. 0 keeps connections for as long as the server allows
+     * @return the PayConfiguration object
+     */
+    public PayConfiguration setKeepAliveMillis(final int keepAliveMillis) {
+        this.keepAliveMillis = keepAliveMillis;
+        return this;
+    }
+
+    /**
+     * @return Returns the inactivity in milliseconds after which a pooled connection is checked before reuse
+     */
+    public int getValidateAfterInactivityMillis() {
+        return validateAfterInactivityMillis;
+    }
+
+    /**
+     * @param validateAfterInactivityMillis Sets the inactivity in milliseconds after which a pooled connection
+     *                                      is checked for having been closed by the server before it is leased,
+     *                                      2 seconds by default. 0 disables the check
+     * @return the PayConfiguration object
+     */
+    public PayConfiguration setValidateAfterInactivityMillis(final int validateAfterInactivityMillis) {
+        this.validateAfterInactivityMillis = validateAfterInactivityMillis;
+        return this;
+    }
+
+    /**
+     * @return Returns the interval in milliseconds at which expired and idle connections are evicted
+     */
+    public int getIdleEvictionIntervalMillis() {
+        return idleEvictionIntervalMillis;
+    }
+
+    /**
+     * @param idleEvictionIntervalMillis Sets the interval in milliseconds at which a background task of the
+     *                                   client closes the pooled connections which expired or stayed idle longer
+     *                                   than the keep-alive duration. 0, the default, disables the task; when
+     *                                   enabled, the task runs until the client is closed
+     * @return the PayConfiguration object
+     */
+    public PayConfiguration setIdleEvictionIntervalMillis(final int idleEvictionIntervalMillis) {
+        this.idleEvictionIntervalMillis = idleEvictionIntervalMillis;
+        return this;
+    }
+
+    /**
+     * Returns true if the client asks for compressed responses.
+     *
+     * @return boolean responseCompression
+     */
+    public boolean isResponseCompression() {
+        return responseCompression;
+    }
+
+    /**
+     * Asks Amazon Pay for gzip or deflate compressed responses, which shrinks the large pages returned by the
+     * reporting and disbursement APIs. Responses are decompressed as they are read, and the number of bytes
+     * received and decoded is reported by {@link AmazonPayResponse#getWireBytes()} and
+     * {@link AmazonPayResponse#getDecodedBytes()}. Applies to the transports of the SDK; a custom transport
+     * receives the Accept-Encoding header and must decode the responses itself.
+     *
+     * @param responseCompression - argument that sets responseCompression in PayConfiguration
+     * @return the PayConfiguration object
+     */
+    public PayConfiguration setResponseCompression(final boolean responseCompression) {
+        this.responseCompression = responseCompression;
+        return this;
+    }
+
+    /**
+     * Returns the clock the x-amz-pay-date header of signed requests is read from.
+     *
+     * @return Clock clock
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Sets the clock the x-amz-pay-date header of signed requests is read from, the system clock by default.
+     * Only the current instant is used, so the zone of the clock makes no difference. Tests can pass a fixed
+     * clock to sign requests with a known date.
+     *
+     * @param clock - argument that sets clock in PayConfiguration
+     * @return the PayConfiguration object
+     */
+    public PayConfiguration setClock(final Clock clock) {
+        Objects.requireNonNull(clock, "clock must not be null");
+        this.clock = clock;
+        return this;
+    }
 }
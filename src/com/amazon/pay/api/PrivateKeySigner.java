@@ -0,0 +1,54 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+
+import com.amazon.pay.api.types.AmazonSignatureAlgorithm;
+
+/**
+ * Signer holding the private key in the JVM, signing as the SDK does when no Signer is set in the
+ * PayConfiguration. Also serves as the signing end of an InMemorySigningService.
+ */
+public class PrivateKeySigner implements Signer {
+    private final PrivateKey privateKey;
+    private final String signatureProvider;
+
+    /**
+     * @param privateKey the private key to sign with
+     */
+    public PrivateKeySigner(final PrivateKey privateKey) {
+        this(privateKey, null);
+    }
+
+    /**
+     * @param privateKey the private key to sign with
+     * @param signatureProvider the name of the JCA provider to sign with, or null for BouncyCastle
+     * @see PayConfiguration#setSignatureProvider(String)
+     */
+    public PrivateKeySigner(final PrivateKey privateKey, final String signatureProvider) {
+        if (privateKey == null) {
+            throw new IllegalArgumentException("privateKey must not be null");
+        }
+        this.privateKey = privateKey;
+        this.signatureProvider = signatureProvider;
+    }
+
+    @Override
+    public byte[] sign(final byte[] stringToSign, final AmazonSignatureAlgorithm algorithm) throws GeneralSecurityException {
+        return SignatureProviders.sign(stringToSign, privateKey, algorithm, signatureProvider);
+    }
+}
@@ -18,27 +18,30 @@ import com.amazon.pay.api.exceptions.AmazonPayClientException;
 import com.amazon.pay.api.types.AmazonSignatureAlgorithm;
 
 import java.net.URI;
-import java.security.InvalidAlgorithmParameterException;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
-import java.security.NoSuchProviderException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.PrivateKey;
-import java.security.SignatureException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bouncycastle.util.encoders.Base64;
 
 public class RequestSigner {
 
     final private PayConfiguration payConfiguration;
     final private SignatureHelper signatureHelper;
-    final private PrivateKey privateKey;
+    /** templates of the canonical request by endpoint host */
+    final private Map<String, CanonicalRequestTemplate> canonicalRequestTemplates = new ConcurrentHashMap<>();
+    final private SignatureCache signatureCache = new SignatureCache();
 
     public RequestSigner(final PayConfiguration payConfiguration) throws AmazonPayClientException {
         checkIfConfigParametersAreSet(payConfiguration);
         this.payConfiguration = payConfiguration;
         signatureHelper = new SignatureHelper(payConfiguration);
-        privateKey = payConfiguration.getPrivateKey();
     }
 
     /**
@@ -56,25 +59,156 @@ public class RequestSigner {
                                            final Map<String, List<String>> queryParameters,
                                            final String requestPayload,
                                            final Map<String, String> header) throws AmazonPayClientException {
-        final String publicKeyId = payConfiguration.getPublicKeyId();
-        final AmazonSignatureAlgorithm algorithm = payConfiguration.getAlgorithm();
         final Map<String, List<String>> preSignedHeaders = signatureHelper.createPreSignedHeaders(uri, header);
-        final String userAgent = buildUserAgentHeader();
+        final String canonicalRequest = signatureHelper.createCanonicalRequest(uri, httpMethodName, queryParameters, requestPayload, preSignedHeaders);
+        return signCanonicalRequest(canonicalRequest, preSignedHeaders);
+    }
 
-        String signature = null;
-        try {
+    /**
+     * Signs the request provided and returns the signed headers map. The payload is hashed as given,
+     * so the same bytes can be sent with the request without encoding it again. The headers that only depend on
+     * the PayConfiguration and the host are taken from a CanonicalRequestTemplate built once per host.
+     * @param uri The uri that needs to be executed
+     * @param httpMethodName the HTTP request method(GET,PUT,POST etc) to be used
+     * @param queryParameters the query parameters map
+     * @param requestPayload the UTF-8 encoded payload to be sent with the request
+     * @param header Map&lt;String, String&gt; containining key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken)
+     * @return a map of signed headers
+     * @throws AmazonPayClientException When an error response is returned by Amazon Pay due to bad request or other issue
+     */
+    public Map<String, String> signRequest(final URI uri,
+                                           final String httpMethodName,
+                                           final Map<String, List<String>> queryParameters,
+                                           final byte[] requestPayload,
+                                           final Map<String, String> header) throws AmazonPayClientException {
+        final String host = uri.getHost();
+        if (host == null) {
+            final Map<String, List<String>> preSignedHeaders = signatureHelper.createPreSignedHeaders(uri, header);
             final String canonicalRequest = signatureHelper.createCanonicalRequest(uri, httpMethodName, queryParameters, requestPayload, preSignedHeaders);
-            final String stringToSign = signatureHelper.createStringToSign(canonicalRequest, algorithm.getName());
-            signature = signatureHelper.generateSignature(stringToSign, privateKey, algorithm);
+            return signCanonicalRequest(canonicalRequest, preSignedHeaders);
+        }
 
-        } catch (NoSuchAlgorithmException
-                | NoSuchProviderException
-                | InvalidAlgorithmParameterException
-                | InvalidKeyException
-                | SignatureException e) {
-            throw new AmazonPayClientException(e.getMessage(), e);
+        final KeyRegistry.SigningKey signingKey = payConfiguration.getKeyRegistry().getActiveKey();
+        final CanonicalRequestTemplate template = getCanonicalRequestTemplate(host, signingKey.getPublicKeyId());
+        final String timestamp = signatureHelper.getFormattedTimestamp();
+        final CanonicalRequestTemplate.CanonicalHeaders headers = template.fill(timestamp, header);
+        final AmazonSignatureAlgorithm algorithm = template.getAlgorithm();
+        final byte[] stringToSign = signatureHelper.createStringToSign(uri, httpMethodName, queryParameters, requestPayload,
+                headers, algorithm);
+
+        final int signatureCacheSize = payConfiguration.getSignatureCacheSize();
+        if (signatureCacheSize <= 0) {
+            return headers.sign(generateSignature(stringToSign, algorithm, signingKey.getPrivateKey()));
+        }
+        final Signer signer = payConfiguration.getSigner();
+        String signature = signatureCache.get(timestamp, signingKey, signer, stringToSign);
+        if (signature == null) {
+            signature = generateSignature(stringToSign, algorithm, signingKey.getPrivateKey());
+            signatureCache.put(timestamp, signingKey, signer, stringToSign, signature, signatureCacheSize);
+        }
+        return headers.sign(signature);
+    }
+
+    /**
+     * Signs the request provided without blocking the calling thread while a {@link Signer} set in the
+     * PayConfiguration produces the signature. Requests signed with the private key are signed on the calling
+     * thread.
+     * @param uri The uri that needs to be executed
+     * @param httpMethodName the HTTP request method(GET,PUT,POST etc) to be used
+     * @param queryParameters the query parameters map
+     * @param requestPayload the UTF-8 encoded payload to be sent with the request
+     * @param header Map&lt;String, String&gt; containining key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken)
+     * @return a CompletableFuture completed with the map of signed headers, or completed exceptionally with an
+     * AmazonPayClientException when the Signer fails
+     * @throws AmazonPayClientException When the canonical request cannot be built, or the request cannot be
+     * signed with the private key
+     */
+    CompletableFuture<Map<String, String>> signRequestAsync(final URI uri,
+                                                            final String httpMethodName,
+                                                            final Map<String, List<String>> queryParameters,
+                                                            final byte[] requestPayload,
+                                                            final Map<String, String> header) throws AmazonPayClientException {
+        final Signer signer = payConfiguration.getSigner();
+        final String host = uri.getHost();
+        if (signer == null || host == null) {
+            return CompletableFuture.completedFuture(signRequest(uri, httpMethodName, queryParameters, requestPayload, header));
+        }
+
+        final KeyRegistry.SigningKey signingKey = payConfiguration.getKeyRegistry().getActiveKey();
+        final CanonicalRequestTemplate template = getCanonicalRequestTemplate(host, signingKey.getPublicKeyId());
+        final String timestamp = signatureHelper.getFormattedTimestamp();
+        final CanonicalRequestTemplate.CanonicalHeaders headers = template.fill(timestamp, header);
+        final AmazonSignatureAlgorithm algorithm = template.getAlgorithm();
+        final byte[] stringToSign = signatureHelper.createStringToSign(uri, httpMethodName, queryParameters, requestPayload,
+                headers, algorithm);
+
+        final int signatureCacheSize = payConfiguration.getSignatureCacheSize();
+        if (signatureCacheSize > 0) {
+            final String cachedSignature = signatureCache.get(timestamp, signingKey, signer, stringToSign);
+            if (cachedSignature != null) {
+                return CompletableFuture.completedFuture(headers.sign(cachedSignature));
+            }
+        }
+
+        final CompletableFuture<Map<String, String>> signedHeaders = new CompletableFuture<>();
+        signer.signAsync(stringToSign, algorithm).whenComplete((signature, throwable) -> {
+            if (throwable == null) {
+                final String encodedSignature = new String(Base64.encode(signature));
+                if (signatureCacheSize > 0) {
+                    signatureCache.put(timestamp, signingKey, signer, stringToSign, encodedSignature,
+                            signatureCacheSize);
+                }
+                signedHeaders.complete(headers.sign(encodedSignature));
+                return;
+            }
+            final Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                    ? throwable.getCause() : throwable;
+            signedHeaders.completeExceptionally(cause instanceof Exception
+                    ? new AmazonPayClientException(cause.getMessage(), (Exception) cause) : cause);
+        });
+        return signedHeaders;
+    }
+
+    /**
+     * @return the hits and misses of the signature cache, see {@link PayConfiguration#setSignatureCacheSize(int)}
+     */
+    SignatureCacheStats getSignatureCacheStats() {
+        return signatureCache.getStats();
+    }
+
+    /**
+     * Returns the CanonicalRequestTemplate of a host, building it on first use and again whenever the
+     * PayConfiguration or the active public key id has changed since
+     * @param host the host of the endpoint
+     * @param publicKeyId the public key id of the key signing the request
+     * @return the CanonicalRequestTemplate
+     */
+    private CanonicalRequestTemplate getCanonicalRequestTemplate(final String host, final String publicKeyId) {
+        final CanonicalRequestTemplate template = canonicalRequestTemplates.get(host);
+        if (template != null && template.isFor(payConfiguration, publicKeyId, host)) {
+            return template;
         }
+        final CanonicalRequestTemplate newTemplate = new CanonicalRequestTemplate(payConfiguration, publicKeyId, host,
+                buildUserAgentHeader());
+        canonicalRequestTemplates.put(host, newTemplate);
+        return newTemplate;
+    }
 
+    /**
+     * Signs the canonical request and returns the signed headers map
+     * @param canonicalRequest the canonical request
+     * @param preSignedHeaders the headers included in the canonical request
+     * @return a map of signed headers
+     * @throws AmazonPayClientException When the signature cannot be generated
+     */
+    private Map<String, String> signCanonicalRequest(final String canonicalRequest,
+                                                     final Map<String, List<String>> preSignedHeaders) throws AmazonPayClientException {
+        final KeyRegistry.SigningKey signingKey = payConfiguration.getKeyRegistry().getActiveKey();
+        final String publicKeyId = signingKey.getPublicKeyId();
+        final AmazonSignatureAlgorithm algorithm = payConfiguration.getAlgorithm();
+        final String userAgent = buildUserAgentHeader();
+
+        final String signature = generateSignature(canonicalRequest, algorithm, signingKey.getPrivateKey());
         final String authorizationHeader = buildAuthorizationHeader(publicKeyId, preSignedHeaders, signature, algorithm);
 
         Map<String, String> postSignedHeadersMap = new HashMap<>();
@@ -88,6 +222,66 @@ public class RequestSigner {
         return postSignedHeadersMap;
     }
 
+    /**
+     * Signs the canonical request, with the Signer of the PayConfiguration when one is set and with its private
+     * key otherwise
+     * @param canonicalRequest the canonical request, or the payload of a button signature
+     * @param algorithm the Amazon Signature Algorithm to sign with
+     * @return the signature
+     * @throws AmazonPayClientException When the signature cannot be generated
+     */
+    String generateSignature(final String canonicalRequest,
+                             final AmazonSignatureAlgorithm algorithm) throws AmazonPayClientException {
+        return generateSignature(canonicalRequest, algorithm, payConfiguration.getPrivateKey());
+    }
+
+    /**
+     * Signs the canonical request, with the Signer of the PayConfiguration when one is set and with the private
+     * key given otherwise
+     * @param canonicalRequest the canonical request, or the payload of a button signature
+     * @param algorithm the Amazon Signature Algorithm to sign with
+     * @param privateKey the private key of the active key pair when the request was started
+     * @return the signature
+     * @throws AmazonPayClientException When the signature cannot be generated
+     */
+    private String generateSignature(final String canonicalRequest,
+                                     final AmazonSignatureAlgorithm algorithm,
+                                     final PrivateKey privateKey) throws AmazonPayClientException {
+        final Signer signer = payConfiguration.getSigner();
+        try {
+            final String stringToSign = signatureHelper.createStringToSign(canonicalRequest, algorithm.getName());
+            if (signer == null) {
+                return signatureHelper.generateSignature(stringToSign, privateKey, algorithm);
+            }
+            return new String(Base64.encode(signer.sign(stringToSign.getBytes(StandardCharsets.UTF_8), algorithm)));
+        } catch (GeneralSecurityException e) {
+            throw new AmazonPayClientException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Signs the UTF-8 encoded string to sign, with the Signer of the PayConfiguration when one is set and with
+     * the private key given otherwise
+     * @param stringToSign the UTF-8 encoded string to sign
+     * @param algorithm the Amazon Signature Algorithm to sign with
+     * @param privateKey the private key of the active key pair when the request was started
+     * @return the signature
+     * @throws AmazonPayClientException When the signature cannot be generated
+     */
+    private String generateSignature(final byte[] stringToSign,
+                                     final AmazonSignatureAlgorithm algorithm,
+                                     final PrivateKey privateKey) throws AmazonPayClientException {
+        final Signer signer = payConfiguration.getSigner();
+        try {
+            if (signer == null) {
+                return signatureHelper.generateSignatureFromBytes(stringToSign, privateKey, algorithm);
+            }
+            return new String(Base64.encode(signer.sign(stringToSign, algorithm)));
+        } catch (GeneralSecurityException e) {
+            throw new AmazonPayClientException(e.getMessage(), e);
+        }
+    }
+
     /**
      * Builds the user agent header
      * @return the user agent string
@@ -143,7 +337,7 @@ public class RequestSigner {
         if (payConfiguration.getRegion() == null || payConfiguration.getRegion().toString().isEmpty()) {
             generateException(ServiceConstants.REGION);
         }
-        if (payConfiguration.getPrivateKey() == null) {
+        if (payConfiguration.getPrivateKey() == null && payConfiguration.getSigner() == null) {
             generateException(ServiceConstants.PRIVATE_KEY);
         }
         if (payConfiguration.getPublicKeyId() == null || payConfiguration.getPublicKeyId().isEmpty()) {
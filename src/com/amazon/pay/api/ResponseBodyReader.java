@@ -0,0 +1,476 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Reads response bodies into byte arrays in a single pass.
+ * A body of known length is read straight into an array of that length, grown from at most
+ * {@value #MAX_INITIAL_BODY_SIZE} bytes as the bytes arrive so that a large Content-Length alone allocates nothing;
+ * a body of unknown length, such as a
+ * chunked or decompressed one, is read into a buffer reused by the thread and copied once to an exact array.
+ * Compressed bodies are inflated as they are read, so only the decoded body is ever held in memory.
+ * Bodies received in chunks by a non-blocking client are pushed through an {@link Accumulator} instead.
+ */
+final class ResponseBodyReader {
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+    /** larger buffers are dropped after use rather than held by the thread */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+    /** the largest array allocated for a body before its bytes are received */
+    static final int MAX_INITIAL_BODY_SIZE = 256 * 1024;
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[INITIAL_BUFFER_SIZE]);
+
+    private ResponseBodyReader() {
+    }
+
+    /**
+     * Reads the stream to its end
+     *
+     * @param inputStream the body of the response
+     * @param contentLength the length of the body, or a negative number when it is unknown
+     * @return the bytes of the body
+     * @throws IOException When the body cannot be read, or is shorter than its announced length
+     */
+    static byte[] read(final InputStream inputStream, final long contentLength) throws IOException {
+        if (contentLength >= 0 && contentLength <= MAX_ARRAY_SIZE) {
+            return readFully(inputStream, (int) contentLength);
+        }
+        // virtual threads are too many and too short-lived for a buffer per thread to be reused
+        final boolean reuseBuffer = !VirtualThreads.isVirtual(Thread.currentThread());
+        byte[] buffer = reuseBuffer ? BUFFER.get() : new byte[INITIAL_BUFFER_SIZE];
+        int count = 0;
+        int read;
+        while ((read = inputStream.read(buffer, count, buffer.length - count)) != -1) {
+            count += read;
+            if (count == buffer.length) {
+                if (buffer.length == MAX_ARRAY_SIZE) {
+                    throw new IOException("Response body is too large");
+                }
+                buffer = Arrays.copyOf(buffer, (int) Math.min((long) buffer.length * 2, MAX_ARRAY_SIZE));
+            }
+        }
+        if (reuseBuffer && buffer.length <= MAX_RETAINED_BUFFER_SIZE) {
+            BUFFER.set(buffer);
+        }
+        return Arrays.copyOf(buffer, count);
+    }
+
+    /**
+     * Reads the stream to its end, decoding it when the body has a gzip or deflate content encoding
+     *
+     * @param inputStream the body of the response as received
+     * @param contentLength the length of the body as received, or a negative number when it is unknown
+     * @param contentEncoding the Content-Encoding of the response, or null
+     * @return the decoded bytes of the body
+     * @throws IOException When the body cannot be read or decoded, or has an unsupported content encoding
+     */
+    static byte[] read(final InputStream inputStream, final long contentLength, final String contentEncoding)
+            throws IOException {
+        if (!isEncoded(contentEncoding)) {
+            return read(inputStream, contentLength);
+        }
+        try (InputStream decoded = decode(inputStream, contentEncoding)) {
+            return read(decoded, -1);
+        }
+    }
+
+    /**
+     * @param contentEncoding the Content-Encoding of the response, or null
+     * @return true if the body must be decoded before use
+     */
+    static boolean isEncoded(final String contentEncoding) {
+        return contentEncoding != null && !contentEncoding.trim().isEmpty()
+                && !"identity".equalsIgnoreCase(contentEncoding.trim());
+    }
+
+    /**
+     * Wraps the stream in a decoder for its content encoding. Deflate bodies are accepted with or without the
+     * zlib wrapper, as servers send either.
+     *
+     * @param inputStream the body of the response as received
+     * @param contentEncoding the Content-Encoding of the response
+     * @return the stream of the decoded body
+     * @throws IOException When the content encoding is not supported, or the gzip header is invalid
+     */
+    static InputStream decode(final InputStream inputStream, final String contentEncoding) throws IOException {
+        switch (contentEncoding.trim().toLowerCase(Locale.ROOT)) {
+            case "gzip":
+            case "x-gzip":
+                return new GZIPInputStream(inputStream, INITIAL_BUFFER_SIZE);
+            case "deflate":
+                final PushbackInputStream pushbackInputStream = new PushbackInputStream(inputStream, 2);
+                final int first = pushbackInputStream.read();
+                final int second = first == -1 ? -1 : pushbackInputStream.read();
+                if (second != -1) {
+                    pushbackInputStream.unread(second);
+                }
+                if (first != -1) {
+                    pushbackInputStream.unread(first);
+                }
+                final boolean zlibWrapped = second != -1 && (first & 0x0F) == 8 && ((first << 8) | second) % 31 == 0;
+                final Inflater inflater = new Inflater(!zlibWrapped);
+                return new InflaterInputStream(pushbackInputStream, inflater, INITIAL_BUFFER_SIZE) {
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            inflater.end();
+                        }
+                    }
+                };
+            default:
+                throw new IOException("Unsupported Content-Encoding: " + contentEncoding);
+        }
+    }
+
+    private static byte[] readFully(final InputStream inputStream, final int length) throws IOException {
+        byte[] body = new byte[Math.min(length, MAX_INITIAL_BODY_SIZE)];
+        int count = 0;
+        while (count < length) {
+            if (count == body.length) {
+                body = Arrays.copyOf(body, (int) Math.min((long) body.length * 2, length));
+            }
+            final int read = inputStream.read(body, count, body.length - count);
+            if (read == -1) {
+                throw new IOException("Premature end of response body: expected " + length + " bytes, received " + count);
+            }
+            count += read;
+        }
+        return body;
+    }
+
+    /**
+     * Creates an Accumulator collecting a body pushed in chunks
+     *
+     * @param contentLength the length of the body as received, or a negative number when it is unknown
+     * @param contentEncoding the Content-Encoding of the response, or null
+     * @return the Accumulator, to be closed once the body is complete or abandoned
+     * @throws IOException When the content encoding is not supported
+     */
+    static Accumulator accumulate(final long contentLength, final String contentEncoding) throws IOException {
+        if (!isEncoded(contentEncoding)) {
+            return new Accumulator(Accumulator.IDENTITY, contentLength);
+        }
+        switch (contentEncoding.trim().toLowerCase(Locale.ROOT)) {
+            case "gzip":
+            case "x-gzip":
+                return new Accumulator(Accumulator.GZIP, -1);
+            case "deflate":
+                return new Accumulator(Accumulator.DEFLATE, -1);
+            default:
+                throw new IOException("Unsupported Content-Encoding: " + contentEncoding);
+        }
+    }
+
+    /**
+     * Collects a body pushed in chunks, as a non-blocking client receives it. A gzip or deflate body is inflated
+     * as its chunks arrive, so only the decoded body is held in memory. The chunks are not kept once written.
+     */
+    static final class Accumulator implements AutoCloseable {
+        private static final int IDENTITY = 0;
+        private static final int GZIP = 1;
+        private static final int DEFLATE = 2;
+
+        /** reading the header of a gzip member */
+        private static final int HEADER = 0;
+        /** reading the first two bytes of a deflate body, which tell whether it has the zlib wrapper */
+        private static final int PREFIX = 1;
+        private static final int INFLATING = 2;
+        /** reading the trailer of a gzip member */
+        private static final int TRAILER = 3;
+        /** the deflate stream or the last gzip member has ended, anything after it is ignored */
+        private static final int DONE = 4;
+
+        private static final int GZIP_MAGIC = 0x8b1f;
+        private static final int GZIP_HEADER_SIZE = 10;
+        private static final int GZIP_TRAILER_SIZE = 8;
+        private static final int FHCRC = 2;
+        private static final int FEXTRA = 4;
+        private static final int FNAME = 8;
+        private static final int FCOMMENT = 16;
+
+        private final int encoding;
+        private final long contentLength;
+        private final CRC32 crc = new CRC32();
+        private int state;
+        /** bytes of a header, trailer or prefix not received in full yet */
+        private byte[] pending = new byte[GZIP_HEADER_SIZE];
+        private int pendingCount;
+        private Inflater inflater;
+        private int gzipMembers;
+        private byte[] body;
+        private int count;
+        private long wireCount;
+
+        private Accumulator(final int encoding, final long contentLength) {
+            this.encoding = encoding;
+            this.contentLength = contentLength;
+            this.state = encoding == DEFLATE ? PREFIX : encoding == GZIP ? HEADER : INFLATING;
+            this.body = new byte[contentLength >= 0 ? (int) Math.min(contentLength, MAX_INITIAL_BODY_SIZE)
+                    : INITIAL_BUFFER_SIZE];
+        }
+
+        /**
+         * Adds the next chunk of the body as received
+         *
+         * @param bytes the array holding the chunk
+         * @param offset the offset of the chunk in the array
+         * @param length the length of the chunk
+         * @throws IOException When the chunk cannot be decoded, or the body grows too large
+         */
+        void write(final byte[] bytes, final int offset, final int length) throws IOException {
+            wireCount += length;
+            if (encoding == IDENTITY) {
+                ensureCapacity(length);
+                System.arraycopy(bytes, offset, body, count, length);
+                count += length;
+                return;
+            }
+            byte[] chunk = bytes;
+            int position = offset;
+            int end = offset + length;
+            while (position < end && state != DONE) {
+                if (state == INFLATING) {
+                    position = inflate(chunk, position, end);
+                    continue;
+                }
+                appendPending(chunk, position, end);
+                position = end;
+                final int used = parsePending();
+                if (used >= 0) {
+                    // the bytes following the header or trailer belong to what comes next
+                    chunk = Arrays.copyOfRange(pending, used, pendingCount);
+                    position = 0;
+                    end = chunk.length;
+                    pendingCount = 0;
+                }
+            }
+        }
+
+        /**
+         * Completes the body
+         *
+         * @return the decoded bytes of the body
+         * @throws IOException When the body ended before its announced length, or in the middle of its encoding
+         */
+        byte[] finish() throws IOException {
+            if (encoding == IDENTITY) {
+                if (contentLength >= 0 && count != contentLength) {
+                    throw new IOException("Premature end of response body: expected " + contentLength
+                            + " bytes, received " + count);
+                }
+            } else if (!(state == DONE || state == HEADER && gzipMembers > 0)) {
+                // a header cut short after a complete member is trailing data, as GZIPInputStream takes it
+                throw new EOFException("Unexpected end of ZLIB input stream");
+            }
+            return count == body.length ? body : Arrays.copyOf(body, count);
+        }
+
+        /**
+         * @return the number of bytes received, before decoding
+         */
+        long getWireCount() {
+            return wireCount;
+        }
+
+        @Override
+        public void close() {
+            if (inflater != null) {
+                inflater.end();
+            }
+        }
+
+        /**
+         * Parses the pending bytes for the current state, moving to the next state once they are complete
+         *
+         * @return the number of pending bytes used, or -1 when more bytes are needed
+         */
+        private int parsePending() throws IOException {
+            switch (state) {
+                case PREFIX:
+                    if (pendingCount < 2) {
+                        return -1;
+                    }
+                    final int first = pending[0] & 0xff;
+                    final boolean zlibWrapped = (first & 0x0F) == 8 && ((first << 8) | (pending[1] & 0xff)) % 31 == 0;
+                    inflater = new Inflater(!zlibWrapped);
+                    state = INFLATING;
+                    return 0;
+                case HEADER:
+                    if (gzipMembers > 0 && !startsGzipMember()) {
+                        // trailing data such as padding follows the last member, ignored as GZIPInputStream does
+                        state = DONE;
+                        return pendingCount;
+                    }
+                    final int headerSize = gzipHeaderSize();
+                    if (headerSize >= 0) {
+                        if (inflater == null) {
+                            inflater = new Inflater(true);
+                        } else {
+                            inflater.reset();
+                        }
+                        crc.reset();
+                        state = INFLATING;
+                    }
+                    return headerSize;
+                case TRAILER:
+                    if (pendingCount < GZIP_TRAILER_SIZE) {
+                        return -1;
+                    }
+                    if (readInt(0) != (int) crc.getValue()) {
+                        throw new ZipException("Corrupt GZIP trailer");
+                    }
+                    if (readInt(4) != (int) inflater.getBytesWritten()) {
+                        throw new ZipException("Corrupt GZIP trailer");
+                    }
+                    gzipMembers++;
+                    // another member may follow
+                    state = HEADER;
+                    return GZIP_TRAILER_SIZE;
+                default:
+                    throw new IllegalStateException("No pending bytes in state " + state);
+            }
+        }
+
+        /**
+         * @return the size of the gzip header held by the pending bytes, or -1 when it is not complete yet
+         */
+        private int gzipHeaderSize() throws IOException {
+            if (pendingCount < GZIP_HEADER_SIZE) {
+                return -1;
+            }
+            if (readShort(0) != GZIP_MAGIC) {
+                throw new ZipException("Not in GZIP format");
+            }
+            if (pending[2] != Deflater.DEFLATED) {
+                throw new ZipException("Unsupported compression method");
+            }
+            final int flags = pending[3] & 0xff;
+            int size = GZIP_HEADER_SIZE;
+            if ((flags & FEXTRA) != 0) {
+                if (pendingCount < size + 2) {
+                    return -1;
+                }
+                size += 2 + readShort(size);
+            }
+            if ((flags & FNAME) != 0) {
+                size = skipZeroTerminated(size);
+            }
+            if ((flags & FCOMMENT) != 0) {
+                size = skipZeroTerminated(size);
+            }
+            if ((flags & FHCRC) != 0 && size >= 0) {
+                size += 2;
+            }
+            return size >= 0 && size <= pendingCount ? size : -1;
+        }
+
+        /**
+         * @return false when the pending bytes received so far cannot be the header of a gzip member
+         */
+        private boolean startsGzipMember() {
+            return (pendingCount < 2 || readShort(0) == GZIP_MAGIC)
+                    && (pendingCount < 3 || pending[2] == Deflater.DEFLATED);
+        }
+
+        private int skipZeroTerminated(final int from) {
+            if (from < 0) {
+                return -1;
+            }
+            for (int i = from; i < pendingCount; i++) {
+                if (pending[i] == 0) {
+                    return i + 1;
+                }
+            }
+            return -1;
+        }
+
+        private int readShort(final int index) {
+            return (pending[index] & 0xff) | (pending[index + 1] & 0xff) << 8;
+        }
+
+        private int readInt(final int index) {
+            return readShort(index) | readShort(index + 2) << 16;
+        }
+
+        private void appendPending(final byte[] bytes, final int from, final int to) {
+            if (pendingCount + to - from > pending.length) {
+                pending = Arrays.copyOf(pending, Math.max(pending.length * 2, pendingCount + to - from));
+            }
+            System.arraycopy(bytes, from, pending, pendingCount, to - from);
+            pendingCount += to - from;
+        }
+
+        /**
+         * Inflates the bytes until they are all used or the deflate stream ends
+         *
+         * @return the position of the first byte following the deflate stream, or the end when it goes on
+         */
+        private int inflate(final byte[] bytes, final int from, final int to) throws IOException {
+            inflater.setInput(bytes, from, to - from);
+            try {
+                while (true) {
+                    ensureCapacity(1);
+                    final int inflated = inflater.inflate(body, count, body.length - count);
+                    if (inflated > 0) {
+                        if (encoding == GZIP) {
+                            crc.update(body, count, inflated);
+                        }
+                        count += inflated;
+                    } else if (inflater.finished()) {
+                        state = encoding == GZIP ? TRAILER : DONE;
+                        return to - inflater.getRemaining();
+                    } else if (inflater.needsDictionary()) {
+                        throw new ZipException("Deflate body needs a preset dictionary");
+                    } else if (inflater.needsInput()) {
+                        return to;
+                    }
+                }
+            } catch (DataFormatException e) {
+                throw new ZipException(e.getMessage() == null ? "Invalid ZLIB data format" : e.getMessage());
+            }
+        }
+
+        private void ensureCapacity(final int length) throws IOException {
+            if (length <= body.length - count) {
+                return;
+            }
+            if ((long) count + length > MAX_ARRAY_SIZE) {
+                throw new IOException("Response body is too large");
+            }
+            long size = Math.max((long) body.length * 2, (long) count + length);
+            if (contentLength >= (long) count + length) {
+                // stop at the announced length, so that the body needs no final copy
+                size = Math.min(size, contentLength);
+            }
+            body = Arrays.copyOf(body, (int) Math.min(size, MAX_ARRAY_SIZE));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token bucket bounding the retries of a client to a share of its requests.
+ * Every request deposits retryRatio of a token and every retry withdraws a whole one, so that over time the
+ * retries are at most retryRatio of the requests, whichever thread sends them. The bucket holds at most burst
+ * tokens and starts full, letting a client with little traffic retry its few failures. Once the bucket is empty,
+ * a failed request is not retried and completes with its last response: during an outage, the traffic of the
+ * client grows by retryRatio instead of being multiplied by the maximum number of retries.
+ * Tokens are counted in thousandths, without locking.
+ */
+final class RetryBudget {
+    private static final long TOKEN = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder rejectedRetries = new LongAdder();
+
+    /**
+     * @param retryRatio the share of the requests that may be retried, 0.1 for 10%
+     * @param burst the number of retries allowed beyond the ratio, and the retries available at first
+     */
+    RetryBudget(final double retryRatio, final int burst) {
+        if (!(retryRatio > 0)) {
+            throw new IllegalArgumentException("retryRatio must be positive");
+        }
+        if (burst < 0) {
+            throw new IllegalArgumentException("burst must not be negative");
+        }
+        this.deposit = Math.max(1, Math.round(retryRatio * TOKEN));
+        // the bucket must hold at least a whole token, or no retry would ever be made
+        this.capacity = Math.max(TOKEN, burst * TOKEN);
+        this.balance = new AtomicLong(burst * TOKEN);
+    }
+
+    /**
+     * Deposits the share of a token of a new request, called once per request and not for its retries
+     */
+    void onRequest() {
+        requests.increment();
+        final long current = balance.get();
+        if (current < capacity) {
+            balance.accumulateAndGet(deposit, (value, amount) -> Math.min(capacity, value + amount));
+        }
+    }
+
+    /**
+     * Withdraws the token of a retry
+     * @return true when the retry may be sent, false when the budget is exhausted
+     */
+    boolean tryRetry() {
+        long current = balance.get();
+        while (current >= TOKEN) {
+            if (balance.compareAndSet(current, current - TOKEN)) {
+                retries.increment();
+                return true;
+            }
+            current = balance.get();
+        }
+        rejectedRetries.increment();
+        return false;
+    }
+
+    /**
+     * @return the counters of the budget since it was created
+     */
+    RetryBudgetStats getStats() {
+        return new RetryBudgetStats(requests.sum(), retries.sum(), rejectedRetries.sum(), balance.get() / TOKEN);
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+public final class RetryBudgetStats {
+
+    private final long requests;
+    private final long retries;
+    private final long rejectedRetries;
+    private final long availableRetries;
+
+    public RetryBudgetStats(long requests, long retries, long rejectedRetries, long availableRetries) {
+        this.requests = requests;
+        this.retries = retries;
+        this.rejectedRetries = rejectedRetries;
+        this.availableRetries = availableRetries;
+    }
+
+    /**
+     *
+     * @return the number of requests sent while the retry budget was enabled, not counting their retries.
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     *
+     * @return the number of retries allowed by the retry budget.
+     */
+    public long getRetries() {
+        return retries;
+    }
+
+    /**
+     *
+     * @return the number of retries not made because the retry budget was exhausted.
+     */
+    public long getRejectedRetries() {
+        return rejectedRetries;
+    }
+
+    /**
+     *
+     * @return the number of retries the retry budget allows right now.
+     */
+    public long getAvailableRetries() {
+        return availableRetries;
+    }
+
+    /**
+     * @return the retry budget details for the caller, to monitor the retries made during an outage.
+     */
+    @Override
+    public String toString() {
+        return "RetryBudgetStats{"
+                + "Requests=" + requests
+                + ", Retries=" + retries
+                + ", RejectedRetries=" + rejectedRetries
+                + ", AvailableRetries=" + availableRetries + "}";
+    }
+}
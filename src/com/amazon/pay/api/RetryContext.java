@@ -0,0 +1,130 @@
+package com.amazon.pay.api;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The state of a request about to be retried, handed to {@link RetryStrategy#getWaitTime(RetryContext)}
+ */
+public final class RetryContext {
+    private static final String RETRY_AFTER = "Retry-After";
+
+    private final int retryCount;
+    private final int statusCode;
+    private final long previousWaitTime;
+    private final Map<String, List<String>> responseHeaders;
+    private final long retryAfterMillis;
+    private final IOException failure;
+
+    RetryContext(final int retryCount, final int statusCode, final long previousWaitTime) {
+        this(retryCount, statusCode, previousWaitTime, Collections.<String, List<String>>emptyMap(), 0);
+    }
+
+    /**
+     * @param retryCount the number of retries that have been attempted
+     * @param previousWaitTime the milliseconds waited before the last attempt
+     * @param failure the I/O failure of the last attempt, which returned no response
+     */
+    RetryContext(final int retryCount, final long previousWaitTime, final IOException failure) {
+        this.retryCount = retryCount;
+        this.statusCode = 0;
+        this.previousWaitTime = previousWaitTime;
+        this.responseHeaders = Collections.emptyMap();
+        this.retryAfterMillis = -1;
+        this.failure = failure;
+    }
+
+    /**
+     * @param retryCount the number of retries that have been attempted
+     * @param statusCode the status code returned by the last attempt
+     * @param previousWaitTime the milliseconds waited before the last attempt
+     * @param responseHeaders the headers of the last response, looked up case-insensitively
+     * @param nowMillis the current time, from which the date form of Retry-After is counted
+     */
+    RetryContext(final int retryCount, final int statusCode, final long previousWaitTime,
+                 final Map<String, List<String>> responseHeaders, final long nowMillis) {
+        this.retryCount = retryCount;
+        this.statusCode = statusCode;
+        this.previousWaitTime = previousWaitTime;
+        this.responseHeaders = responseHeaders;
+        this.retryAfterMillis = parseRetryAfter(responseHeaders.get(RETRY_AFTER), nowMillis);
+        this.failure = null;
+    }
+
+    /**
+     * @return The number of retries that have been attempted
+     */
+    public int getRetryCount() {
+        return retryCount;
+    }
+
+    /**
+     * @return The status code returned by the last attempt, 0 when it failed without a response
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return The milliseconds waited before the last attempt, 0 when the last attempt was the first one
+     */
+    public long getPreviousWaitTime() {
+        return previousWaitTime;
+    }
+
+    /**
+     * @return The headers of the last response, looked up case-insensitively
+     */
+    public Map<String, List<String>> getResponseHeaders() {
+        return responseHeaders;
+    }
+
+    /**
+     * @return The milliseconds the server asked to wait with a Retry-After header of the last response, given in
+     * seconds or as an HTTP-date, 0 for a date in the past, or -1 when the response had no valid Retry-After header
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+
+    /**
+     * @return The I/O failure of the last attempt, such as a connection reset, or null when it returned a response
+     */
+    public IOException getFailure() {
+        return failure;
+    }
+
+    private static long parseRetryAfter(final List<String> values, final long nowMillis) {
+        if (values == null || values.isEmpty() || values.get(0) == null) {
+            return -1;
+        }
+        final String value = values.get(0).trim();
+        if (value.isEmpty()) {
+            return -1;
+        }
+        if (isDigits(value)) {
+            // seconds beyond the range of a long wait forever, as far as a retry is concerned
+            return value.length() > 15 ? Long.MAX_VALUE : Long.parseLong(value) * 1000;
+        }
+        try {
+            final long retryAt = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return Math.max(0, retryAt - nowMillis);
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    private static boolean isDigits(final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) < '0' || value.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,291 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+import com.amazon.pay.api.exceptions.AmazonPayClientException;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Retries the requests throttled or failed by Amazon Pay with the RetryStrategy of the PayConfiguration, as well
+ * as the requests failing with an I/O error that IOFailureClassifier deems safe to send again.
+ * The backoff between two attempts is a future completed by the scheduler of the client, so no thread of the
+ * SDK sleeps: asynchronous requests send their next attempt on the workers of the client, and blocking requests
+ * wait on the future, which unmounts a virtual thread without pinning its carrier. The scheduler only completes
+ * backoffs, so an attempt blocking on a transport without a non-blocking executeAsync never delays the others.
+ * Backoffs still pending when the engine is closed fail instead of leaving their request waiting forever. When
+ * the PayConfiguration sets a retry budget ratio, the retries of all the requests of the engine draw from a
+ * single RetryBudget.
+ */
+final class RetryEngine {
+    private final PayConfiguration payConfiguration;
+    private final Supplier<ScheduledExecutorService> scheduler;
+    private final Supplier<? extends Executor> workers;
+    private final Set<CompletableFuture<Void>> pendingBackoffs = ConcurrentHashMap.newKeySet();
+    /** null when retries are not budgeted */
+    private final RetryBudget retryBudget;
+    private volatile boolean closed;
+
+    /**
+     * @param payConfiguration the PayConfiguration providing the RetryStrategy and the maximum number of retries
+     * @param scheduler supplies the scheduler completing the backoffs, built on first use by the client
+     * @param workers supplies the executor sending the attempts retried asynchronously, built on first use
+     */
+    RetryEngine(final PayConfiguration payConfiguration, final Supplier<ScheduledExecutorService> scheduler,
+                final Supplier<? extends Executor> workers) {
+        this.payConfiguration = payConfiguration;
+        this.scheduler = scheduler;
+        this.workers = workers;
+        this.retryBudget = payConfiguration.getRetryBudgetRatio() > 0
+                ? new RetryBudget(payConfiguration.getRetryBudgetRatio(), payConfiguration.getRetryBudgetBurst())
+                : null;
+    }
+
+    /**
+     * Sends a request without blocking the calling thread, scheduling its next attempt after a backoff for as
+     * long as it fails with a service error or a retryable I/O failure and retries are left in the request and
+     * the retry budget
+     * @param request the request, from which I/O failures are classified
+     * @param attempt sends one attempt of the request
+     * @return a CompletableFuture completed with the outcome of the last attempt, or completed exceptionally with
+     * the failure of an attempt or an AmazonPayClientException when the client is closed during a backoff
+     */
+    CompletableFuture<Outcome> execute(final HttpTransportRequest request,
+                                       final Supplier<CompletableFuture<HttpTransportResponse>> attempt) {
+        final CompletableFuture<Outcome> outcome = new CompletableFuture<>();
+        onRequest();
+        sendAttempt(request, attempt, 0, 0, outcome);
+        return outcome;
+    }
+
+    private void sendAttempt(final HttpTransportRequest request,
+                             final Supplier<CompletableFuture<HttpTransportResponse>> attempt,
+                             final int retry,
+                             final long previousWaitTime,
+                             final CompletableFuture<Outcome> outcome) {
+        final CompletableFuture<HttpTransportResponse> response;
+        try {
+            response = attempt.get();
+        } catch (RuntimeException e) {
+            outcome.completeExceptionally(e);
+            return;
+        }
+        response.whenComplete((transportResponse, throwable) -> {
+            final Throwable failure = throwable instanceof CompletionException && throwable.getCause() != null
+                    ? throwable.getCause() : throwable;
+            if (failure instanceof IOException && isRetryable(request, (IOException) failure, retry)) {
+                final long waitTime = getWaitTime(retry, (IOException) failure, previousWaitTime);
+                sendAttemptAfter(waitTime, request, attempt, retry, outcome);
+            } else if (failure != null) {
+                outcome.completeExceptionally(failure);
+            } else if (isRetryable(transportResponse, retry)) {
+                final long waitTime = getWaitTime(retry, transportResponse, previousWaitTime);
+                sendAttemptAfter(waitTime, request, attempt, retry, outcome);
+            } else {
+                outcome.complete(new Outcome(transportResponse, retry));
+            }
+        });
+    }
+
+    private void sendAttemptAfter(final long waitTime,
+                                  final HttpTransportRequest request,
+                                  final Supplier<CompletableFuture<HttpTransportResponse>> attempt,
+                                  final int retry,
+                                  final CompletableFuture<Outcome> outcome) {
+        backoff(waitTime, (ignored, backoffFailure) -> {
+            if (backoffFailure != null) {
+                outcome.completeExceptionally(backoffFailure);
+                return;
+            }
+            try {
+                workers.get().execute(() -> sendAttempt(request, attempt, retry + 1, waitTime, outcome));
+            } catch (RejectedExecutionException e) {
+                outcome.completeExceptionally(new AmazonPayClientException("Client has been closed", e));
+            }
+        });
+    }
+
+    /**
+     * Sends a request on the calling thread, waiting for the backoff before each retry
+     * @param request the request, from which I/O failures are classified
+     * @param attempt sends one attempt of the request
+     * @return the outcome of the last attempt
+     * @throws AmazonPayClientException When an attempt fails and is not retried, or the client is closed or the
+     * calling thread interrupted during a backoff
+     */
+    Outcome executeBlocking(final HttpTransportRequest request, final BlockingAttempt attempt)
+            throws AmazonPayClientException {
+        long waitTime = 0;
+        onRequest();
+        for (int retry = 0; ; retry++) {
+            final HttpTransportResponse response;
+            try {
+                response = attempt.send();
+            } catch (IOException e) {
+                if (!isRetryable(request, e, retry)) {
+                    throw new AmazonPayClientException(e.getMessage(), e);
+                }
+                waitTime = getWaitTime(retry, e, waitTime);
+                awaitBackoff(waitTime);
+                continue;
+            }
+            if (!isRetryable(response, retry)) {
+                return new Outcome(response, retry);
+            }
+            waitTime = getWaitTime(retry, response, waitTime);
+            awaitBackoff(waitTime);
+        }
+    }
+
+    private void awaitBackoff(final long waitTime) throws AmazonPayClientException {
+        final CompletableFuture<Void> backoff = backoff(waitTime, null);
+        try {
+            backoff.get();
+        } catch (InterruptedException e) {
+            backoff.cancel(false);
+            pendingBackoffs.remove(backoff);
+            Thread.currentThread().interrupt();
+            throw new AmazonPayClientException(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AmazonPayClientException) {
+                throw (AmazonPayClientException) e.getCause();
+            }
+            throw new AmazonPayClientException(e.getCause().getMessage(), (Exception) e.getCause());
+        }
+    }
+
+    /**
+     * Fails the backoffs in progress and the ones requested afterwards
+     */
+    void close() {
+        closed = true;
+        for (CompletableFuture<Void> backoff : pendingBackoffs) {
+            failClosed(backoff, null);
+        }
+    }
+
+    /**
+     * @return the counters of the retry budget, all 0 when retries are not budgeted
+     */
+    RetryBudgetStats getRetryBudgetStats() {
+        return retryBudget == null ? new RetryBudgetStats(0, 0, 0, 0) : retryBudget.getStats();
+    }
+
+    private void onRequest() {
+        if (retryBudget != null) {
+            retryBudget.onRequest();
+        }
+    }
+
+    /**
+     * @return true when the response is a service error and both the request and the retry budget have retries
+     * left, withdrawing the retry from the budget
+     */
+    private boolean isRetryable(final HttpTransportResponse response, final int retry) {
+        return ServiceConstants.serviceErrors.containsValue(response.getStatusCode()) && canRetry(retry);
+    }
+
+    /**
+     * @return true when the request may be sent again after the failure, and both the request and the retry
+     * budget have retries left, withdrawing the retry from the budget
+     */
+    private boolean isRetryable(final HttpTransportRequest request, final IOException failure, final int retry) {
+        return IOFailureClassifier.isRetryable(request, failure) && canRetry(retry);
+    }
+
+    private boolean canRetry(final int retry) {
+        return retry < payConfiguration.getMaxRetries() && (retryBudget == null || retryBudget.tryRetry());
+    }
+
+    private long getWaitTime(final int retry, final HttpTransportResponse response, final long previousWaitTime) {
+        return payConfiguration.getRetryStrategy().getWaitTime(new RetryContext(retry, response.getStatusCode(),
+                previousWaitTime, response.getHeaders(), payConfiguration.getClock().millis()));
+    }
+
+    private long getWaitTime(final int retry, final IOException failure, final long previousWaitTime) {
+        return payConfiguration.getRetryStrategy().getWaitTime(new RetryContext(retry, previousWaitTime, failure));
+    }
+
+    /**
+     * @param action run on completion of the backoff, attached before the backoff is scheduled so that it runs on
+     *               the scheduler and not on the calling thread, or null
+     * @return a future completed by the scheduler once the wait time has elapsed
+     */
+    private CompletableFuture<Void> backoff(final long waitTime,
+                                            final BiConsumer<? super Void, ? super Throwable> action) {
+        final CompletableFuture<Void> backoff = new CompletableFuture<>();
+        if (action != null) {
+            backoff.whenComplete(action);
+        }
+        pendingBackoffs.add(backoff);
+        if (closed) {
+            failClosed(backoff, null);
+            return backoff;
+        }
+        try {
+            scheduler.get().schedule(() -> {
+                pendingBackoffs.remove(backoff);
+                backoff.complete(null);
+            }, waitTime, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            failClosed(backoff, e);
+        }
+        return backoff;
+    }
+
+    private void failClosed(final CompletableFuture<Void> backoff, final Exception cause) {
+        pendingBackoffs.remove(backoff);
+        backoff.completeExceptionally(new AmazonPayClientException("Client has been closed", cause));
+    }
+
+    /**
+     * Sends one attempt of a request on the calling thread
+     */
+    interface BlockingAttempt {
+        HttpTransportResponse send() throws IOException;
+    }
+
+    /**
+     * The response of the last attempt of a request and the number of retries made before it
+     */
+    static final class Outcome {
+        private final HttpTransportResponse response;
+        private final int retries;
+
+        Outcome(final HttpTransportResponse response, final int retries) {
+            this.response = response;
+            this.retries = retries;
+        }
+
+        HttpTransportResponse getResponse() {
+            return response;
+        }
+
+        int getRetries() {
+            return retries;
+        }
+    }
+}
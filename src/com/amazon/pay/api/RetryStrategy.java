@@ -13,6 +13,45 @@ public interface RetryStrategy {
      */
     long getWaitTime(int retryCount, int statusCode);
 
+    /**
+     * Return how long to wait until the next request, given the state of the request being retried.
+     * The Retry-After header of a throttled or unavailable response is honored, capped by
+     * {@link #getMaxWaitTime(RetryContext)}; otherwise the wait time is the backoff of
+     * {@link #getBackoffWaitTime(RetryContext)}.
+     * @param context The state of the request being retried
+     * @return Milliseconds to wait before the next attempt
+     */
+    default long getWaitTime(final RetryContext context) {
+        final long retryAfterMillis = context.getRetryAfterMillis();
+        if (retryAfterMillis >= 0) {
+            return Math.min(retryAfterMillis, getMaxWaitTime(context));
+        }
+        return getBackoffWaitTime(context);
+    }
+
+    /**
+     * Return how long to wait until the next request when the server gave no Retry-After hint.
+     * Strategies depending on more than the retry count and status code, such as
+     * {@link DecorrelatedJitterRetryStrategy}, override this method; the default implementation calls
+     * {@link #getWaitTime(int, int)}.
+     * @param context The state of the request being retried
+     * @return Milliseconds to wait before the next attempt
+     */
+    default long getBackoffWaitTime(final RetryContext context) {
+        return getWaitTime(context.getRetryCount(), context.getStatusCode());
+    }
+
+    /**
+     * Return the longest wait before the next request, which caps the wait asked by a Retry-After header.
+     * The default implementation returns {@link #getWaitTime(int, int)}, so that a server never makes a request
+     * wait longer than the strategy would have on its own.
+     * @param context The state of the request being retried
+     * @return The maximum milliseconds to wait
+     */
+    default long getMaxWaitTime(final RetryContext context) {
+        return getWaitTime(context.getRetryCount(), context.getStatusCode());
+    }
+
     /**
      * Set the maximum retry attempts.
      * @param maxRetries The number of times to retry a failed request
@@ -35,12 +35,18 @@ public class ServiceConstants {
     public static final String HASH_ALGORITHM = "SHA-256";
     public static final String SIGNATURE_ALGORITHM = "SHA256WithRSA/PSS";
     public static final String MASK_GENERATION_FUNCTION = "MGF1";
+    public static final String RSASSA_PSS_ALGORITHM = "RSASSA-PSS";
+    /** the signature provider name selecting the fastest provider for each class of private key */
+    public static final String FASTEST_SIGNATURE_PROVIDER = "Fastest";
 
     public static final String PRIVATE_KEY = "Private Key";
     public static final String REGION = "Region";
     public static final String PUBLIC_KEY_ID = "Public key id";
     public static final String REDACTED = "Redacted";
 
+    public static final String ACCEPT_ENCODING = "accept-encoding";
+    public static final String SUPPORTED_CONTENT_ENCODINGS = "gzip, deflate";
+
     public static final String DELIVERY_TRACKERS = AMAZON_PAY_API_VERSION + "/deliveryTrackers";
 
     public static final String INSTORE_MERCHANT_SCAN = AMAZON_PAY_API_VERSION + "/in-store/merchantScan";
@@ -60,6 +66,13 @@ public class ServiceConstants {
     public static final int RESPONSE_STRING = 1;
     public static final int REQUEST_ID = 2;
     public static final int MAX_CLIENT_CONNECTIONS = 20;
+    public static final int MAX_CONCURRENT_STREAMS = 100;
+    public static final long IDLE_CONNECTIONS_CHECK_INTERVAL_MILLIS = 30000;
+    public static final int WARM_UP_CONNECT_TIMEOUT_MILLIS = 10000;
+    public static final int CONNECTION_TIME_TO_LIVE_MILLIS = 0;
+    public static final int KEEP_ALIVE_MILLIS = 30000;
+    public static final int VALIDATE_AFTER_INACTIVITY_MILLIS = 2000;
+    public static final int IDLE_EVICTION_INTERVAL_MILLIS = 0;
 
     // CV2 Reporting APIs Constants
     public static final String REPORTS = AMAZON_PAY_API_VERSION + "/reports";
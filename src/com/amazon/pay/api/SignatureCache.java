@@ -0,0 +1,117 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of the signatures of the strings to sign of the current second.
+ * The x-amz-pay-date header has a one-second granularity, so identical requests sent within a second, such as
+ * a loop polling a charge, have the same string to sign. Any RSASSA-PSS signature of a string to sign verifies,
+ * so the signature of the first request is reused by the next ones instead of signing again. Entries are kept
+ * for one timestamp and one signing key at a time: the cache is emptied as soon as a request of a later second,
+ * or signed with another key pair or Signer, comes in, and requests of an earlier second are signed without it.
+ */
+final class SignatureCache {
+    private final AtomicReference<Generation> generation = new AtomicReference<>(new Generation("", null, null));
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param timestamp the x-amz-pay-date of the request
+     * @param signingKey the active key pair of the KeyRegistry when the request was started
+     * @param signer the Signer of the PayConfiguration, null when the request is signed with the private key
+     * @param stringToSign the UTF-8 encoded string to sign, not modified afterwards
+     * @return the cached signature, or null when the string to sign was not signed yet in this second
+     */
+    String get(final String timestamp, final KeyRegistry.SigningKey signingKey, final Signer signer,
+               final byte[] stringToSign) {
+        final Generation current = getGeneration(timestamp, signingKey, signer);
+        final String signature = current == null ? null : current.signatures.get(ByteBuffer.wrap(stringToSign));
+        if (signature == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return signature;
+    }
+
+    /**
+     * Caches a signature, unless the cache already holds maxEntries signatures for this second
+     * @param timestamp the x-amz-pay-date of the request
+     * @param signingKey the active key pair of the KeyRegistry when the request was started
+     * @param signer the Signer of the PayConfiguration, null when the request is signed with the private key
+     * @param stringToSign the UTF-8 encoded string to sign, not modified afterwards
+     * @param signature the Base64 encoded signature
+     * @param maxEntries the maximum number of signatures cached for a second
+     */
+    void put(final String timestamp, final KeyRegistry.SigningKey signingKey, final Signer signer,
+             final byte[] stringToSign, final String signature, final int maxEntries) {
+        final Generation current = getGeneration(timestamp, signingKey, signer);
+        if (current != null && current.signatures.size() < maxEntries) {
+            current.signatures.putIfAbsent(ByteBuffer.wrap(stringToSign), signature);
+        }
+    }
+
+    /**
+     * @return the hit and miss counts since the cache was created, and the number of signatures cached
+     */
+    SignatureCacheStats getStats() {
+        return new SignatureCacheStats(hits.sum(), misses.sum(), generation.get().signatures.size());
+    }
+
+    /**
+     * Returns the generation of the timestamp and signing key, starting it when the timestamp is later than the
+     * current one, or the same with another key pair or Signer
+     * @return the generation, or null for a request of an earlier second
+     */
+    private Generation getGeneration(final String timestamp, final KeyRegistry.SigningKey signingKey,
+                                     final Signer signer) {
+        Generation current = generation.get();
+        while (!current.isFor(timestamp, signingKey, signer)) {
+            // the formatted timestamps sort chronologically
+            if (timestamp.compareTo(current.timestamp) < 0) {
+                return null;
+            }
+            final Generation next = new Generation(timestamp, signingKey, signer);
+            if (generation.compareAndSet(current, next)) {
+                return next;
+            }
+            current = generation.get();
+        }
+        return current;
+    }
+
+    private static final class Generation {
+        private final String timestamp;
+        private final KeyRegistry.SigningKey signingKey;
+        private final Signer signer;
+        private final Map<ByteBuffer, String> signatures = new ConcurrentHashMap<>();
+
+        private Generation(final String timestamp, final KeyRegistry.SigningKey signingKey, final Signer signer) {
+            this.timestamp = timestamp;
+            this.signingKey = signingKey;
+            this.signer = signer;
+        }
+
+        private boolean isFor(final String timestamp, final KeyRegistry.SigningKey signingKey, final Signer signer) {
+            return this.timestamp.equals(timestamp) && this.signingKey == signingKey && this.signer == signer;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+public final class SignatureCacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final int size;
+
+    public SignatureCacheStats(long hits, long misses, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.size = size;
+    }
+
+    /**
+     *
+     * @return the number of requests signed with a cached signature.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     *
+     * @return the number of requests signed while the signature cache was enabled, without a cached signature.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     *
+     * @return the share of the requests signed with a cached signature, 0 when no request was signed.
+     */
+    public double getHitRate() {
+        final long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    /**
+     *
+     * @return the number of signatures cached for the current second.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the signature cache details for the caller, to monitor the signature cache performance.
+     */
+    @Override
+    public String toString() {
+        return "SignatureCacheStats{"
+                + "Hits=" + hits
+                + ", Misses=" + misses
+                + ", HitRate=" + getHitRate()
+                + ", Size=" + size + "}";
+    }
+}
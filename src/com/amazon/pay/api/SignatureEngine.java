@@ -0,0 +1,221 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+import com.amazon.pay.api.types.AmazonSignatureAlgorithm;
+
+import java.security.InvalidAlgorithmParameterException;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.NoSuchProviderException;
+import java.security.PrivateKey;
+import java.security.Provider;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hashes and signs with MessageDigest and Signature objects kept initialized between calls.
+ * Looking up a provider is synchronized in the JCA, so each thread holds its own engine, with a Signature per
+ * AmazonSignatureAlgorithm left initialized with the last provider and private key it signed with; a Signature and a
+ * MessageDigest reset themselves after each sign or digest. Virtual threads are too many and too short-lived
+ * to hold an engine each, they borrow one from a shared pool instead.
+ */
+final class SignatureEngine {
+    private static final ThreadLocal<SignatureEngine> ENGINES = ThreadLocal.withInitial(SignatureEngine::new);
+    /** engines lent to virtual threads, at most one per thread signing at the same time */
+    private static final Queue<SignatureEngine> SHARED_ENGINES = new ConcurrentLinkedQueue<>();
+    private static final int ENCODING_BUFFER_SIZE = 512;
+
+    private MessageDigest messageDigest;
+    /** UTF-8 bytes of the lines being hashed, handed to the MessageDigest whenever the buffer fills */
+    private final byte[] encodingBuffer = new byte[ENCODING_BUFFER_SIZE];
+    private int encodedLength;
+    private final Map<AmazonSignatureAlgorithm, Signature> signatures = new EnumMap<>(AmazonSignatureAlgorithm.class);
+    private final Map<AmazonSignatureAlgorithm, PrivateKey> signingKeys = new EnumMap<>(AmazonSignatureAlgorithm.class);
+
+    private SignatureEngine() {
+    }
+
+    /**
+     * @param data the bytes to hash
+     * @return the SHA-256 digest of the bytes
+     * @throws NoSuchAlgorithmException exception thrown when SHA-256 is not available in the environment
+     */
+    static byte[] digest(final byte[] data) throws NoSuchAlgorithmException {
+        final SignatureEngine engine = acquire();
+        try {
+            if (engine.messageDigest == null) {
+                engine.messageDigest = MessageDigest.getInstance(ServiceConstants.HASH_ALGORITHM);
+            }
+            return engine.messageDigest.digest(data);
+        } finally {
+            release(engine);
+        }
+    }
+
+    /**
+     * Hashes lines joined by '\n' as their UTF-8 encoding, without building the joined String or its bytes.
+     * Unpaired surrogates are encoded as '?', as String.getBytes does.
+     * @param lines the lines to hash
+     * @return the SHA-256 digest of the UTF-8 encoded lines joined by '\n'
+     * @throws NoSuchAlgorithmException exception thrown when SHA-256 is not available in the environment
+     */
+    static byte[] digestLines(final String... lines) throws NoSuchAlgorithmException {
+        final SignatureEngine engine = acquire();
+        try {
+            if (engine.messageDigest == null) {
+                engine.messageDigest = MessageDigest.getInstance(ServiceConstants.HASH_ALGORITHM);
+            }
+            engine.encodedLength = 0;
+            for (int i = 0; i < lines.length; i++) {
+                if (i > 0) {
+                    engine.encode('\n');
+                }
+                engine.encode(lines[i]);
+            }
+            engine.messageDigest.update(engine.encodingBuffer, 0, engine.encodedLength);
+            return engine.messageDigest.digest();
+        } finally {
+            release(engine);
+        }
+    }
+
+    private void encode(final String line) {
+        final int length = line.length();
+        for (int i = 0; i < length; i++) {
+            final char c = line.charAt(i);
+            if (c < 0x80) {
+                encode(c);
+            } else if (c < 0x800) {
+                reserve(2);
+                encodingBuffer[encodedLength++] = (byte) (0xC0 | (c >> 6));
+                encodingBuffer[encodedLength++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(line.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, line.charAt(++i));
+                reserve(4);
+                encodingBuffer[encodedLength++] = (byte) (0xF0 | (codePoint >> 18));
+                encodingBuffer[encodedLength++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                encodingBuffer[encodedLength++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                encodingBuffer[encodedLength++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                encode('?');
+            } else {
+                reserve(3);
+                encodingBuffer[encodedLength++] = (byte) (0xE0 | (c >> 12));
+                encodingBuffer[encodedLength++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                encodingBuffer[encodedLength++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private void encode(final char asciiChar) {
+        reserve(1);
+        encodingBuffer[encodedLength++] = (byte) asciiChar;
+    }
+
+    private void reserve(final int length) {
+        if (encodedLength + length > encodingBuffer.length) {
+            messageDigest.update(encodingBuffer, 0, encodedLength);
+            encodedLength = 0;
+        }
+    }
+
+    /**
+     * @param data the bytes to sign
+     * @param privateKey the private key to sign with
+     * @param algorithm the Amazon Signature Algorithm defining the salt length
+     * @return the RSASSA-PSS signature of the bytes
+     * @throws NoSuchAlgorithmException exception thrown when the cryptographic
+     * algorithm requested is not available in the environment
+     * @throws NoSuchProviderException exception thrown when the security
+     * provider requested is not available in the environment
+     * @throws InvalidAlgorithmParameterException exception for invalid algorithm parameters
+     * @throws InvalidKeyException exception for invalid keys
+     * @throws SignatureException signature exception
+     */
+    static byte[] sign(final byte[] data, final PrivateKey privateKey, final AmazonSignatureAlgorithm algorithm)
+            throws NoSuchAlgorithmException, NoSuchProviderException, InvalidAlgorithmParameterException,
+            InvalidKeyException, SignatureException {
+        return sign(data, privateKey, algorithm, SignatureProviders.bouncyCastle());
+    }
+
+    /**
+     * @param data the bytes to sign
+     * @param privateKey the private key to sign with
+     * @param algorithm the Amazon Signature Algorithm defining the salt length
+     * @param provider the JCA provider to sign with
+     * @return the RSASSA-PSS signature of the bytes
+     * @throws NoSuchAlgorithmException exception thrown when the cryptographic
+     * algorithm requested is not available in the provider
+     * @throws InvalidAlgorithmParameterException exception for invalid algorithm parameters
+     * @throws InvalidKeyException exception for invalid keys
+     * @throws SignatureException signature exception
+     */
+    static byte[] sign(final byte[] data, final PrivateKey privateKey, final AmazonSignatureAlgorithm algorithm,
+                       final Provider provider) throws NoSuchAlgorithmException, InvalidAlgorithmParameterException,
+            InvalidKeyException, SignatureException {
+        final SignatureEngine engine = acquire();
+        try {
+            final Signature signature = engine.getSignature(privateKey, algorithm, provider);
+            try {
+                signature.update(data);
+                return signature.sign();
+            } catch (SignatureException | RuntimeException e) {
+                // the state of a Signature which failed is undefined, the next call initializes a new one
+                engine.signatures.remove(algorithm);
+                engine.signingKeys.remove(algorithm);
+                throw e;
+            }
+        } finally {
+            release(engine);
+        }
+    }
+
+    private Signature getSignature(final PrivateKey privateKey, final AmazonSignatureAlgorithm algorithm,
+                                   final Provider provider) throws NoSuchAlgorithmException,
+            InvalidAlgorithmParameterException, InvalidKeyException {
+        Signature signature = signatures.get(algorithm);
+        if (signature == null || signature.getProvider() != provider) {
+            signingKeys.remove(algorithm);
+            signature = SignatureProviders.newSignature(provider, algorithm);
+        }
+        if (signingKeys.get(algorithm) != privateKey) {
+            signingKeys.remove(algorithm);
+            signature.initSign(privateKey);
+            signingKeys.put(algorithm, privateKey);
+        }
+        signatures.put(algorithm, signature);
+        return signature;
+    }
+
+    private static SignatureEngine acquire() {
+        if (!VirtualThreads.isVirtual(Thread.currentThread())) {
+            return ENGINES.get();
+        }
+        final SignatureEngine engine = SHARED_ENGINES.poll();
+        return engine == null ? new SignatureEngine() : engine;
+    }
+
+    private static void release(final SignatureEngine engine) {
+        if (VirtualThreads.isVirtual(Thread.currentThread())) {
+            SHARED_ENGINES.offer(engine);
+        }
+    }
+}
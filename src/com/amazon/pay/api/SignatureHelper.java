@@ -16,7 +16,6 @@ package com.amazon.pay.api;
 
 import com.amazon.pay.api.exceptions.AmazonPayClientException;
 import com.amazon.pay.api.types.AmazonSignatureAlgorithm;
-import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.bouncycastle.util.encoders.Base64;
 import org.bouncycastle.util.encoders.Hex;
 
@@ -24,14 +23,10 @@ import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
 import java.security.PrivateKey;
-import java.security.Signature;
 import java.security.SignatureException;
-import java.security.spec.MGF1ParameterSpec;
-import java.security.spec.PSSParameterSpec;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -40,9 +35,17 @@ import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class SignatureHelper {
+    private static final Logger LOGGER = Logger.getLogger(SignatureHelper.class.getName());
+    /** hex encoded SHA-256 digest of an empty payload, as sent with GET requests */
+    static final String EMPTY_PAYLOAD_HASH = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
     private final PayConfiguration payConfiguration;
+    private volatile TimestampClock timestampClock = TimestampClock.system();
     private final String LINE_SEPARATOR = "\n";
     public final static int TRAILER_FIELD = 1;
 
@@ -66,23 +69,91 @@ public class SignatureHelper {
                                          final Map<String, List<String>> parameters,
                                          final String requestPayload,
                                          final Map<String, List<String>> preSignedHeaders) throws AmazonPayClientException {
-        final String path = uri.getPath();
-        final StringBuilder canonicalRequestBuilder = new StringBuilder(httpMethodName);
+        try {
+            return buildCanonicalRequest(uri, httpMethodName, parameters, hashThenHexEncode(requestPayload), preSignedHeaders);
+        } catch (NoSuchAlgorithmException e) {
+            throw new AmazonPayClientException(e.getMessage(), e);
+        }
+    }
 
+    /**
+     * Creates a string that includes the information from the request in a standardized(canonical) format,
+     * hashing the payload bytes as they are sent
+     * @param uri The uri that needs to be executed
+     * @param httpMethodName the HTTP request method(GET,PUT,POST etc) to be used
+     * @param parameters the query parameters map
+     * @param requestPayload the UTF-8 encoded payload to be sent with the request
+     * @param preSignedHeaders the mandatory headers required
+     * @return a canonical request
+     * @throws AmazonPayClientException
+     * algorithm requested is not available in the environment
+     */
+    public String createCanonicalRequest(final URI uri,
+                                         final String httpMethodName,
+                                         final Map<String, List<String>> parameters,
+                                         final byte[] requestPayload,
+                                         final Map<String, List<String>> preSignedHeaders) throws AmazonPayClientException {
         try {
-            canonicalRequestBuilder.append(LINE_SEPARATOR)
-                    .append(getCanonicalizedURI(path))
-                    .append(LINE_SEPARATOR)
-                    .append(getCanonicalizedQueryString(parameters))
-                    .append(LINE_SEPARATOR)
-                    .append(getCanonicalizedHeaderString(preSignedHeaders))
-                    .append(LINE_SEPARATOR)
-                    .append(getSignedHeadersString(preSignedHeaders))
-                    .append(LINE_SEPARATOR)
-                    .append(hashThenHexEncode(requestPayload));
+            return buildCanonicalRequest(uri, httpMethodName, parameters, hashBytesThenHexEncode(requestPayload), preSignedHeaders);
         } catch (NoSuchAlgorithmException e) {
             throw new AmazonPayClientException(e.getMessage(), e);
         }
+    }
+
+    /**
+     * Creates a string that includes the information from the request in a standardized(canonical) format,
+     * with headers completed from a CanonicalRequestTemplate
+     * @param uri The uri that needs to be executed
+     * @param httpMethodName the HTTP request method(GET,PUT,POST etc) to be used
+     * @param parameters the query parameters map
+     * @param requestPayload the UTF-8 encoded payload to be sent with the request
+     * @param headers the headers of the request
+     * @return a canonical request
+     * @throws AmazonPayClientException
+     * algorithm requested is not available in the environment
+     */
+    String createCanonicalRequest(final URI uri,
+                                  final String httpMethodName,
+                                  final Map<String, List<String>> parameters,
+                                  final byte[] requestPayload,
+                                  final CanonicalRequestTemplate.CanonicalHeaders headers) throws AmazonPayClientException {
+        try {
+            return buildCanonicalRequest(uri, httpMethodName, parameters, hashBytesThenHexEncode(requestPayload),
+                    headers.getCanonicalHeaders(), headers.getSignedHeaders());
+        } catch (NoSuchAlgorithmException e) {
+            throw new AmazonPayClientException(e.getMessage(), e);
+        }
+    }
+
+    private String buildCanonicalRequest(final URI uri,
+                                         final String httpMethodName,
+                                         final Map<String, List<String>> parameters,
+                                         final String payloadHash,
+                                         final Map<String, List<String>> preSignedHeaders) throws AmazonPayClientException {
+        final HeaderCanonicalizer canonicalized = HeaderCanonicalizer.canonicalize(preSignedHeaders);
+        return buildCanonicalRequest(uri, httpMethodName, parameters, payloadHash,
+                canonicalized.getCanonicalHeaders(), canonicalized.getSignedHeaders());
+    }
+
+    private String buildCanonicalRequest(final URI uri,
+                                         final String httpMethodName,
+                                         final Map<String, List<String>> parameters,
+                                         final String payloadHash,
+                                         final String canonicalHeaders,
+                                         final String signedHeaders) throws AmazonPayClientException {
+        final String path = uri.getPath();
+        final StringBuilder canonicalRequestBuilder = new StringBuilder(httpMethodName);
+
+        canonicalRequestBuilder.append(LINE_SEPARATOR)
+                .append(getCanonicalizedURI(path))
+                .append(LINE_SEPARATOR)
+                .append(getCanonicalizedQueryString(parameters))
+                .append(LINE_SEPARATOR)
+                .append(canonicalHeaders)
+                .append(LINE_SEPARATOR)
+                .append(signedHeaders)
+                .append(LINE_SEPARATOR)
+                .append(payloadHash);
 
         return canonicalRequestBuilder.toString();
     }
@@ -105,6 +176,57 @@ public class SignatureHelper {
         return stringToSignBuilder.toString();
     }
 
+    /**
+     * Creates the UTF-8 encoded string to sign of a request whose headers are completed from a
+     * CanonicalRequestTemplate. The canonical request is hashed as it is encoded, without building it as a String,
+     * unless the FINE level of the logger of this class is enabled, in which case it is logged.
+     * @param uri The uri that needs to be executed
+     * @param httpMethodName the HTTP request method(GET,PUT,POST etc) to be used
+     * @param parameters the query parameters map
+     * @param requestPayload the UTF-8 encoded payload to be sent with the request
+     * @param headers the headers of the request
+     * @param algorithm the Amazon Signature Algorithm to sign with
+     * @return the string to be signed, as the same bytes as createStringToSign(createCanonicalRequest(...))
+     * @throws AmazonPayClientException When SHA-256 is not available in the environment
+     */
+    byte[] createStringToSign(final URI uri,
+                              final String httpMethodName,
+                              final Map<String, List<String>> parameters,
+                              final byte[] requestPayload,
+                              final CanonicalRequestTemplate.CanonicalHeaders headers,
+                              final AmazonSignatureAlgorithm algorithm) throws AmazonPayClientException {
+        final byte[] canonicalRequestHash;
+        try {
+            final String payloadHash = hashBytesThenHexEncode(requestPayload);
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine("Canonical request:\n" + buildCanonicalRequest(uri, httpMethodName, parameters, payloadHash,
+                        headers.getCanonicalHeaders(), headers.getSignedHeaders()));
+            }
+            canonicalRequestHash = SignatureEngine.digestLines(httpMethodName,
+                    getCanonicalizedURI(uri.getPath()),
+                    getCanonicalizedQueryString(parameters),
+                    headers.getCanonicalHeaders(),
+                    headers.getSignedHeaders(),
+                    payloadHash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new AmazonPayClientException(e.getMessage(), e);
+        }
+
+        // the algorithm name and the hex digits are ASCII, their UTF-8 encoding is one byte per char
+        final String algorithmName = algorithm.getName();
+        final byte[] stringToSign = new byte[algorithmName.length() + 1 + 2 * canonicalRequestHash.length];
+        int position = 0;
+        for (int i = 0; i < algorithmName.length(); i++) {
+            stringToSign[position++] = (byte) algorithmName.charAt(i);
+        }
+        stringToSign[position++] = '\n';
+        for (byte b : canonicalRequestHash) {
+            stringToSign[position++] = HEX_DIGITS[(b >> 4) & 0xF];
+            stringToSign[position++] = HEX_DIGITS[b & 0xF];
+        }
+        return stringToSign;
+    }
+
     /**
      * Generates a signature for the string passed in
      * @param stringToSign the string to be signed
@@ -123,16 +245,47 @@ public class SignatureHelper {
             algorithm) throws NoSuchAlgorithmException,
             NoSuchProviderException, InvalidAlgorithmParameterException,
             InvalidKeyException, SignatureException {
-        final Integer saltLength = algorithm.getSaltLength();
-        final Signature signature = Signature.getInstance(ServiceConstants.SIGNATURE_ALGORITHM, BouncyCastleProvider.PROVIDER_NAME);
-        final MGF1ParameterSpec mgf1ParameterSpec = new MGF1ParameterSpec(ServiceConstants.HASH_ALGORITHM);
-        final PSSParameterSpec pssParameterSpec = new PSSParameterSpec(ServiceConstants.HASH_ALGORITHM,
-                ServiceConstants.MASK_GENERATION_FUNCTION, mgf1ParameterSpec, saltLength, TRAILER_FIELD);
-        signature.setParameter(pssParameterSpec);
-        signature.initSign(privateKey);
-        signature.update(stringToSign.getBytes(StandardCharsets.UTF_8));
-
-        return new String(Base64.encode(signature.sign()));
+        final byte[] signature = SignatureProviders.sign(stringToSign.getBytes(StandardCharsets.UTF_8), privateKey, algorithm,
+                payConfiguration.getSignatureProvider());
+
+        return new String(Base64.encode(signature));
+    }
+
+    /**
+     * Generates a signature for the UTF-8 encoded string passed in
+     * @param stringToSign the UTF-8 encoded string to be signed
+     * @param privateKey the private key to use for signing
+     * @param algorithm the Amazon Signature Algorithm from payConfiguration
+     * @return the signature
+     * @throws NoSuchAlgorithmException exception thrown when the cryptographic
+     * algorithm requested is not available in the environment
+     * @throws NoSuchProviderException exception thrown when the security
+     * provider requested is not available in the environment
+     * @throws InvalidAlgorithmParameterException exception for invalid algorithm parameters
+     * @throws InvalidKeyException exception for invalid keys
+     * @throws SignatureException signature exception
+     */
+    String generateSignatureFromBytes(final byte[] stringToSign, final PrivateKey privateKey, final AmazonSignatureAlgorithm
+            algorithm) throws NoSuchAlgorithmException,
+            NoSuchProviderException, InvalidAlgorithmParameterException,
+            InvalidKeyException, SignatureException {
+        final byte[] signature = SignatureProviders.sign(stringToSign, privateKey, algorithm,
+                payConfiguration.getSignatureProvider());
+
+        return new String(Base64.encode(signature));
+    }
+
+    /**
+     * Generates the current time stamp of the clock of the PayConfiguration in "yyyyMMdd'T'HHmmss'Z'" format
+     * @return the formatted timestamp
+     */
+    String getFormattedTimestamp() {
+        TimestampClock clock = timestampClock;
+        if (!clock.getClock().equals(payConfiguration.getClock())) {
+            clock = TimestampClock.of(payConfiguration.getClock());
+            timestampClock = clock;
+        }
+        return clock.getFormattedTimestamp();
     }
 
     /**
@@ -159,7 +312,7 @@ public class SignatureHelper {
         headers.put("x-amz-pay-region", regionHeaderValue);
 
         final List<String> dateHeaderValue = new ArrayList<>();
-        dateHeaderValue.add(Util.getFormattedTimestamp());
+        dateHeaderValue.add(getFormattedTimestamp());
         headers.put("x-amz-pay-date", dateHeaderValue);
 
         final List<String> hostHeaderValue = new ArrayList<>();
@@ -225,32 +378,7 @@ public class SignatureHelper {
      * @return the canonical header string
      */
     public String getCanonicalizedHeaderString(final Map<String, List<String>> preSignedHeaders) {
-        final List<String> sortedHeaders = new ArrayList<>(preSignedHeaders.keySet());
-        Collections.sort(sortedHeaders, String.CASE_INSENSITIVE_ORDER);
-
-        final Map<String, List<String>> requestHeaders = preSignedHeaders;
-        final StringBuilder buffer = new StringBuilder();
-        for (String header : sortedHeaders) {
-            String key = Util.lowerCase(header);
-            List<String> values = requestHeaders.get(header);
-            StringBuilder headerValue = new StringBuilder();
-            for (String value : values) {
-                if (headerValue != null) {
-                    if (headerValue.length() > 0) {
-                        headerValue.append(",");
-                    }
-                    headerValue.append(value.trim().replaceAll("\\s", " "));
-                }
-            }
-            buffer.append(key.trim().replaceAll("\\s", " "));
-            buffer.append(":");
-            if (headerValue != null) {
-                buffer.append(headerValue);
-            }
-            buffer.append(LINE_SEPARATOR);
-        }
-
-        return buffer.toString();
+        return HeaderCanonicalizer.canonicalize(preSignedHeaders).getCanonicalHeaders();
     }
 
     /**
@@ -325,9 +453,21 @@ public class SignatureHelper {
      * algorithm requested is not available in the environment
      */
     private String hashThenHexEncode(final String requestPayload) throws NoSuchAlgorithmException {
-        final MessageDigest md = MessageDigest.getInstance(ServiceConstants.HASH_ALGORITHM);
-        md.update(requestPayload.getBytes(StandardCharsets.UTF_8));
-        final byte[] digest = md.digest();
+        return hashBytesThenHexEncode(requestPayload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Generates a Hex encoded string from a hashed value of the payload bytes
+     * @param requestPayload the payload to be hashed
+     * @return the hashed payload string
+     * @throws NoSuchAlgorithmException exception thrown when the cryptographic
+     * algorithm requested is not available in the environment
+     */
+    private String hashBytesThenHexEncode(final byte[] requestPayload) throws NoSuchAlgorithmException {
+        if (requestPayload.length == 0) {
+            return EMPTY_PAYLOAD_HASH;
+        }
+        final byte[] digest = SignatureEngine.digest(requestPayload);
 
         final String contentSha256 = new String((Hex.encode(digest)));
         return contentSha256;
@@ -0,0 +1,278 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+import com.amazon.pay.api.types.AmazonSignatureAlgorithm;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.InvalidAlgorithmParameterException;
+import java.security.InvalidKeyException;
+import java.security.KeyFactory;
+import java.security.NoSuchAlgorithmException;
+import java.security.NoSuchProviderException;
+import java.security.PrivateKey;
+import java.security.Provider;
+import java.security.PublicKey;
+import java.security.Security;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolves the JCA provider signing requests. Requests are signed with BouncyCastle unless the PayConfiguration
+ * names another installed provider, or asks for the fastest one with
+ * {@link ServiceConstants#FASTEST_SIGNATURE_PROVIDER}. The fastest provider is selected once per class of private
+ * key, on a background thread started by the first signature with a key of that class: BouncyCastle and every
+ * provider offering another implementation of RSASSA-PSS sign with that key, and the fastest one producing
+ * signatures that verify for every AmazonSignatureAlgorithm is kept. Requests are signed with BouncyCastle until
+ * the selection completes. BouncyCastle is kept when it is the only candidate, or when the key does not expose
+ * the public exponent needed to verify. A key the selected provider rejects is signed with BouncyCastle.
+ */
+final class SignatureProviders {
+    /** signatures made by each candidate before timing it, so that it is timed once compiled */
+    private static final int WARM_UP_SIGNATURES = 10;
+    /** signatures timed for each candidate */
+    private static final int TIMED_SIGNATURES = 20;
+    private static final byte[] SAMPLE = "AMZN-PAY-RSASSA-PSS\nprovider selection".getBytes(StandardCharsets.UTF_8);
+
+    private static final Provider BOUNCY_CASTLE = new BouncyCastleProvider();
+    /** the selections of the fastest provider, by class of private key */
+    static final ConcurrentMap<Class<?>, CompletableFuture<Provider>> SELECTIONS = new ConcurrentHashMap<>();
+
+    private SignatureProviders() {
+    }
+
+    /**
+     * Installs BouncyCastle among the security providers, unless a provider of the same name is installed
+     */
+    static void installBouncyCastle() {
+        if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+            Security.addProvider(BOUNCY_CASTLE);
+        }
+    }
+
+    /**
+     * @return the installed BouncyCastle provider, or an instance of the SDK when none is installed
+     */
+    static Provider bouncyCastle() {
+        final Provider provider = Security.getProvider(BouncyCastleProvider.PROVIDER_NAME);
+        return provider == null ? BOUNCY_CASTLE : provider;
+    }
+
+    /**
+     * Signs with the provider of the PayConfiguration
+     * @param data the bytes to sign
+     * @param privateKey the private key to sign with
+     * @param algorithm the Amazon Signature Algorithm defining the salt length
+     * @param providerName the name of the provider set in the PayConfiguration, null for BouncyCastle
+     * @return the RSASSA-PSS signature of the bytes
+     * @throws NoSuchAlgorithmException when the provider does not support RSASSA-PSS
+     * @throws NoSuchProviderException when no provider of that name is installed
+     * @throws InvalidAlgorithmParameterException when the provider rejects the parameters
+     * @throws InvalidKeyException when the provider rejects the key
+     * @throws SignatureException when the signature fails
+     */
+    static byte[] sign(final byte[] data, final PrivateKey privateKey, final AmazonSignatureAlgorithm algorithm,
+                       final String providerName) throws NoSuchAlgorithmException, NoSuchProviderException,
+            InvalidAlgorithmParameterException, InvalidKeyException, SignatureException {
+        final Provider provider = get(providerName, privateKey);
+        if (!ServiceConstants.FASTEST_SIGNATURE_PROVIDER.equals(providerName) || provider == bouncyCastle()) {
+            return SignatureEngine.sign(data, privateKey, algorithm, provider);
+        }
+        try {
+            return SignatureEngine.sign(data, privateKey, algorithm, provider);
+        } catch (InvalidKeyException e) {
+            // the provider was selected with another key of the same class, this one it cannot use
+            return SignatureEngine.sign(data, privateKey, algorithm, bouncyCastle());
+        }
+    }
+
+    /**
+     * @param providerName the name of the provider set in the PayConfiguration, null for BouncyCastle
+     * @param privateKey the private key to sign with
+     * @return the provider to sign with, BouncyCastle while the fastest provider is being selected
+     * @throws NoSuchProviderException when no provider of that name is installed
+     */
+    static Provider get(final String providerName, final PrivateKey privateKey) throws NoSuchProviderException {
+        if (providerName == null || BouncyCastleProvider.PROVIDER_NAME.equals(providerName)) {
+            return bouncyCastle();
+        }
+        if (ServiceConstants.FASTEST_SIGNATURE_PROVIDER.equals(providerName)) {
+            return select(privateKey).getNow(bouncyCastle());
+        }
+        final Provider provider = Security.getProvider(providerName);
+        if (provider == null) {
+            throw new NoSuchProviderException("No security provider named " + providerName + " is installed");
+        }
+        return provider;
+    }
+
+    /**
+     * Creates a Signature of the provider for the Amazon Signature Algorithm. The SHA256WithRSA/PSS name of
+     * BouncyCastle is preferred where it exists; providers such as SunRsaSign only know RSASSA-PSS.
+     * @param provider the provider of the Signature
+     * @param algorithm the Amazon Signature Algorithm defining the salt length
+     * @return a Signature set up with the parameters of the algorithm
+     * @throws NoSuchAlgorithmException when the provider does not support RSASSA-PSS
+     * @throws InvalidAlgorithmParameterException when the provider rejects the parameters
+     */
+    static Signature newSignature(final Provider provider, final AmazonSignatureAlgorithm algorithm)
+            throws NoSuchAlgorithmException, InvalidAlgorithmParameterException {
+        final String name = provider.getService("Signature", ServiceConstants.SIGNATURE_ALGORITHM) != null
+                ? ServiceConstants.SIGNATURE_ALGORITHM : ServiceConstants.RSASSA_PSS_ALGORITHM;
+        final Signature signature = Signature.getInstance(name, provider);
+        final MGF1ParameterSpec mgf1ParameterSpec = new MGF1ParameterSpec(ServiceConstants.HASH_ALGORITHM);
+        signature.setParameter(new PSSParameterSpec(ServiceConstants.HASH_ALGORITHM,
+                ServiceConstants.MASK_GENERATION_FUNCTION, mgf1ParameterSpec, algorithm.getSaltLength(),
+                SignatureHelper.TRAILER_FIELD));
+        return signature;
+    }
+
+    /**
+     * Starts the selection of the fastest provider for the class of the private key, unless it has started already
+     * @param privateKey the private key to sign with
+     * @return the selection, completing with the selected provider
+     */
+    static CompletableFuture<Provider> select(final PrivateKey privateKey) {
+        final CompletableFuture<Provider> selection = SELECTIONS.get(privateKey.getClass());
+        if (selection != null) {
+            return selection;
+        }
+        final CompletableFuture<Provider> newSelection = new CompletableFuture<>();
+        final CompletableFuture<Provider> existingSelection = SELECTIONS.putIfAbsent(privateKey.getClass(), newSelection);
+        if (existingSelection != null) {
+            return existingSelection;
+        }
+        final Thread thread = new Thread(() -> {
+            try {
+                newSelection.complete(select(privateKey, candidates()));
+            } catch (Throwable e) {
+                newSelection.complete(bouncyCastle());
+            }
+        }, "amazon-pay-signature-provider-selection");
+        thread.setDaemon(true);
+        thread.start();
+        return newSelection;
+    }
+
+    /**
+     * @return BouncyCastle followed by the installed providers offering RSASSA-PSS, the first provider of each
+     * implementation only, as providers such as SunJSSE register the implementation of SunRsaSign
+     */
+    static List<Provider> candidates() {
+        final List<Provider> candidates = new ArrayList<>();
+        final Set<String> implementations = new HashSet<>();
+        candidates.add(bouncyCastle());
+        for (Provider provider : Security.getProviders()) {
+            final Provider.Service service = provider.getService("Signature", ServiceConstants.RSASSA_PSS_ALGORITHM);
+            if (!BouncyCastleProvider.PROVIDER_NAME.equals(provider.getName()) && service != null
+                    && implementations.add(service.getClassName())) {
+                candidates.add(provider);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * @param privateKey the private key to sign with
+     * @param candidates the providers to choose from, the first one being kept when none can be compared
+     * @return the fastest of the candidates producing verifiable signatures
+     */
+    static Provider select(final PrivateKey privateKey, final List<Provider> candidates) {
+        if (candidates.size() == 1 || !(privateKey instanceof RSAPrivateCrtKey)) {
+            return candidates.get(0);
+        }
+        final PublicKey publicKey;
+        try {
+            final RSAPrivateCrtKey crtKey = (RSAPrivateCrtKey) privateKey;
+            publicKey = KeyFactory.getInstance("RSA")
+                    .generatePublic(new RSAPublicKeySpec(crtKey.getModulus(), crtKey.getPublicExponent()));
+        } catch (GeneralSecurityException e) {
+            return candidates.get(0);
+        }
+
+        final List<Provider> verified = new ArrayList<>();
+        final List<Signature> signatures = new ArrayList<>();
+        for (Provider candidate : candidates) {
+            try {
+                signatures.add(verifiedSignature(candidate, privateKey, publicKey));
+                verified.add(candidate);
+            } catch (GeneralSecurityException | RuntimeException e) {
+                // a provider unable to sign verifiably with the key is not a candidate
+            }
+        }
+        if (verified.size() < 2) {
+            return verified.isEmpty() ? candidates.get(0) : verified.get(0);
+        }
+
+        // the candidates sign in turns, so that a pause of the JVM or of the host slows them all alike
+        final long[] nanos = new long[verified.size()];
+        try {
+            for (int round = 0; round < WARM_UP_SIGNATURES + TIMED_SIGNATURES; round++) {
+                for (int i = 0; i < signatures.size(); i++) {
+                    final long start = System.nanoTime();
+                    signatures.get(i).update(SAMPLE);
+                    signatures.get(i).sign();
+                    if (round >= WARM_UP_SIGNATURES) {
+                        nanos[i] += System.nanoTime() - start;
+                    }
+                }
+            }
+        } catch (GeneralSecurityException | RuntimeException e) {
+            return verified.get(0);
+        }
+        int fastest = 0;
+        for (int i = 1; i < nanos.length; i++) {
+            if (nanos[i] < nanos[fastest]) {
+                fastest = i;
+            }
+        }
+        return verified.get(fastest);
+    }
+
+    /**
+     * @return a Signature of the provider initialized with the private key, after checking that its signatures
+     * verify for every AmazonSignatureAlgorithm
+     * @throws GeneralSecurityException when the provider cannot sign or a signature does not verify
+     */
+    private static Signature verifiedSignature(final Provider provider, final PrivateKey privateKey,
+                                               final PublicKey publicKey) throws GeneralSecurityException {
+        Signature signature = null;
+        for (AmazonSignatureAlgorithm algorithm : AmazonSignatureAlgorithm.values()) {
+            signature = newSignature(provider, algorithm);
+            signature.initSign(privateKey);
+            signature.update(SAMPLE);
+            final Signature verifier = newSignature(bouncyCastle(), algorithm);
+            verifier.initVerify(publicKey);
+            verifier.update(SAMPLE);
+            if (!verifier.verify(signature.sign())) {
+                throw new GeneralSecurityException(provider.getName() + " produced a signature that does not verify");
+            }
+        }
+        return signature;
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+import java.security.GeneralSecurityException;
+import java.util.concurrent.CompletableFuture;
+
+import com.amazon.pay.api.types.AmazonSignatureAlgorithm;
+
+/**
+ * Interface defining how the string to sign of a request is turned into its RSASSA-PSS signature.
+ * Implementations may sign with a key held outside of the JVM, such as in an HSM or a key management service.
+ *
+ * @see PrivateKeySigner
+ * @see BatchingSigner
+ */
+public interface Signer {
+
+    /**
+     * Signs the string to sign and waits for the signature
+     * @param stringToSign The UTF-8 encoded string to sign
+     * @param algorithm The Amazon Signature Algorithm defining the salt length of the signature
+     * @return The signature bytes
+     * @throws GeneralSecurityException When the string could not be signed
+     */
+    byte[] sign(byte[] stringToSign, AmazonSignatureAlgorithm algorithm) throws GeneralSecurityException;
+
+    /**
+     * Signs the string to sign without blocking the calling thread.
+     * The default implementation signs on the calling thread.
+     * @param stringToSign The UTF-8 encoded string to sign
+     * @param algorithm The Amazon Signature Algorithm defining the salt length of the signature
+     * @return A CompletableFuture completed with the signature bytes, or completed exceptionally with a
+     * GeneralSecurityException
+     */
+    default CompletableFuture<byte[]> signAsync(final byte[] stringToSign, final AmazonSignatureAlgorithm algorithm) {
+        final CompletableFuture<byte[]> future = new CompletableFuture<>();
+        try {
+            future.complete(sign(stringToSign, algorithm));
+        } catch (GeneralSecurityException | RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Source of the x-amz-pay-date timestamp, in "yyyyMMdd'T'HHmmss'Z'" format. The header has a granularity of
+ * one second, so the formatted string is kept for the current second and only formatted again once the clock
+ * moves on to another second. The cached second is replaced with a volatile write and no lock: threads
+ * crossing a second at the same time may each format it, and all of them return the same string.
+ */
+final class TimestampClock {
+    private static final TimestampClock SYSTEM = new TimestampClock(Clock.systemUTC());
+
+    private final Clock clock;
+    private volatile Timestamp current = new Timestamp(Long.MIN_VALUE, null);
+
+    private TimestampClock(final Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * @param clock the clock to read the time from
+     * @return a TimestampClock reading the clock, shared by every caller of the system clock
+     */
+    static TimestampClock of(final Clock clock) {
+        return SYSTEM.clock.equals(clock) ? SYSTEM : new TimestampClock(clock);
+    }
+
+    /**
+     * @return the TimestampClock reading the system clock
+     */
+    static TimestampClock system() {
+        return SYSTEM;
+    }
+
+    /**
+     * @return the clock the time is read from
+     */
+    Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * @return the current time stamp in "yyyyMMdd'T'HHmmss'Z'" format
+     */
+    String getFormattedTimestamp() {
+        final long second = Math.floorDiv(clock.millis(), 1000L);
+        Timestamp timestamp = current;
+        if (timestamp.second != second) {
+            timestamp = new Timestamp(second, format(second));
+            current = timestamp;
+        }
+        return timestamp.formatted;
+    }
+
+    private static String format(final long epochSecond) {
+        final LocalDateTime time = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+        final char[] formatted = new char[16];
+        appendDigits(formatted, 0, time.getYear(), 4);
+        appendDigits(formatted, 4, time.getMonthValue(), 2);
+        appendDigits(formatted, 6, time.getDayOfMonth(), 2);
+        formatted[8] = 'T';
+        appendDigits(formatted, 9, time.getHour(), 2);
+        appendDigits(formatted, 11, time.getMinute(), 2);
+        appendDigits(formatted, 13, time.getSecond(), 2);
+        formatted[15] = 'Z';
+        return new String(formatted);
+    }
+
+    private static void appendDigits(final char[] buffer, final int offset, final int value, final int digits) {
+        int remaining = value;
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+    }
+
+    /**
+     * A second and its formatted string, replaced as a whole so readers never see one without the other
+     */
+    private static final class Timestamp {
+        private final long second;
+        private final String formatted;
+
+        private Timestamp(final long second, final String formatted) {
+            this.second = second;
+            this.formatted = formatted;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writer encoding characters to UTF-8 straight into byte chunks, without the char and byte buffers of an
+ * OutputStreamWriter. Full chunks are kept rather than copied into larger ones, so the text is copied once,
+ * into the array returned by {@link #toByteArray()}. Unpaired surrogates are encoded as '?', as
+ * String.getBytes does. Not thread-safe.
+ */
+final class Utf8ByteWriter extends Writer {
+    private static final int MAX_CHUNK_SIZE = 64 * 1024;
+
+    private final List<byte[]> fullChunks = new ArrayList<>();
+    private byte[] chunk;
+    private int position;
+    private int fullChunksSize;
+    /** high surrogate of a pair split across two writes */
+    private char pendingHighSurrogate;
+
+    Utf8ByteWriter(final int initialCapacity) {
+        chunk = new byte[Math.max(initialCapacity, 16)];
+    }
+
+    @Override
+    public void write(final int c) {
+        writeChar((char) c);
+    }
+
+    @Override
+    public void write(final char[] chars, final int offset, final int length) {
+        for (int i = offset; i < offset + length; i++) {
+            writeChar(chars[i]);
+        }
+    }
+
+    @Override
+    public void write(final String string, final int offset, final int length) {
+        for (int i = offset; i < offset + length; i++) {
+            writeChar(string.charAt(i));
+        }
+    }
+
+    private void writeChar(final char c) {
+        if (pendingHighSurrogate != 0) {
+            final char high = pendingHighSurrogate;
+            pendingHighSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                final int codePoint = Character.toCodePoint(high, c);
+                writeByte(0xF0 | (codePoint >> 18));
+                writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+                writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+                writeByte(0x80 | (codePoint & 0x3F));
+                return;
+            }
+            writeByte('?');
+        }
+        if (c < 0x80) {
+            writeByte(c);
+        } else if (c < 0x800) {
+            writeByte(0xC0 | (c >> 6));
+            writeByte(0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            pendingHighSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            writeByte('?');
+        } else {
+            writeByte(0xE0 | (c >> 12));
+            writeByte(0x80 | ((c >> 6) & 0x3F));
+            writeByte(0x80 | (c & 0x3F));
+        }
+    }
+
+    private void writeByte(final int b) {
+        if (position == chunk.length) {
+            fullChunks.add(chunk);
+            fullChunksSize += chunk.length;
+            chunk = new byte[Math.min(fullChunksSize, MAX_CHUNK_SIZE)];
+            position = 0;
+        }
+        chunk[position++] = (byte) b;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    /**
+     * Ends the text, encoding a trailing unpaired high surrogate as '?'
+     */
+    @Override
+    public void close() {
+        if (pendingHighSurrogate != 0) {
+            pendingHighSurrogate = 0;
+            writeByte('?');
+        }
+    }
+
+    /**
+     * @return the bytes written so far, in an array of their exact length
+     */
+    byte[] toByteArray() {
+        final byte[] bytes = new byte[fullChunksSize + position];
+        int offset = 0;
+        for (byte[] fullChunk : fullChunks) {
+            System.arraycopy(fullChunk, 0, bytes, offset, fullChunk.length);
+            offset += fullChunk.length;
+        }
+        System.arraycopy(chunk, 0, bytes, offset, position);
+        return bytes;
+    }
+}
@@ -16,26 +16,26 @@ package com.amazon.pay.api;
 
 import java.io.CharArrayReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.net.URLEncoder;
+import java.security.GeneralSecurityException;
+import java.security.Key;
 import java.security.KeyFactory;
+import java.security.KeyStore;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
-import java.security.Security;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.PKCS8EncodedKeySpec;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
-import java.util.SimpleTimeZone;
 import java.util.UUID;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpHost;
@@ -52,11 +52,18 @@ import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.methods.HttpTrace;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
-import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.bouncycastle.asn1.DERNull;
+import org.bouncycastle.asn1.pkcs.PKCSObjectIdentifiers;
+import org.bouncycastle.asn1.pkcs.PrivateKeyInfo;
+import org.bouncycastle.asn1.pkcs.RSAPrivateKey;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
 import org.bouncycastle.util.io.pem.PemObject;
 import org.bouncycastle.util.io.pem.PemReader;
 
@@ -73,71 +80,95 @@ public class Util {
     public static final String OS_NAME = System.getProperty("os.name");
     public static final String OS_VERSION = System.getProperty("os.version");
     public static final String DEFAULT_ENCODING = "UTF-8";
+    /** initial capacity of the buffer a JSON payload is serialized into, enough for most payloads */
+    private static final int JSON_BUFFER_SIZE = 1024;
 
-    /**
-     * Regex which matches any of the sequences that we need to fix up after
-     * URLEncoder.encode().
-     */
-    private static final Pattern ENCODED_CHARACTERS_PATTERN;
+    /** characters urlEncode leaves as they are, the unreserved characters of RFC 3986 */
+    private static final boolean[] UNRESERVED_CHARACTERS = new boolean[128];
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
 
     static {
-        StringBuilder pattern = new StringBuilder();
-
-        pattern
-                .append(Pattern.quote("+"))
-                .append("|")
-                .append(Pattern.quote("*"))
-                .append("|")
-                .append(Pattern.quote("%7E"))
-                .append("|")
-                .append(Pattern.quote("%2F"));
-
-        ENCODED_CHARACTERS_PATTERN = Pattern.compile(pattern.toString());
+        for (char c = 'a'; c <= 'z'; c++) {
+            UNRESERVED_CHARACTERS[c] = true;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            UNRESERVED_CHARACTERS[c] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            UNRESERVED_CHARACTERS[c] = true;
+        }
+        for (char c : "-._~".toCharArray()) {
+            UNRESERVED_CHARACTERS[c] = true;
+        }
     }
 
     /**
-     * Generates a url encoded string from the given string
+     * Generates a url encoded string from the given string, percent-encoding the UTF-8 bytes of every character
+     * but the unreserved characters of RFC 3986. An unpaired surrogate is encoded as a question mark. A value
+     * that needs no encoding is returned as it is.
      * @param value the string to be encoded
-     * @param path to determine if the given value is a string or not
+     * @param path to determine if the given value is a path, keeping its slashes and merging repeated ones
      * @return the url encoded string
      * @throws AmazonPayClientException When an error response is returned by Amazon Pay due to bad request or other issue
      */
-    public static String urlEncode(String value, final boolean path) throws AmazonPayClientException {
+    public static String urlEncode(final String value, final boolean path) throws AmazonPayClientException {
         if (value == null) {
             return "";
         }
 
-        try {
-            if (path) {
-                value = value.replaceAll("/+", "/");
-            }
-            final String encoded = URLEncoder.encode(value, DEFAULT_ENCODING);
-
-            final Matcher matcher = ENCODED_CHARACTERS_PATTERN.matcher(encoded);
-            final StringBuffer buffer = new StringBuffer(encoded.length());
-
-            while (matcher.find()) {
-                String replacement = matcher.group(0);
-
-                if ("+".equals(replacement)) {
-                    replacement = "%20";
-                } else if ("*".equals(replacement)) {
-                    replacement = "%2A";
-                } else if ("%7E".equals(replacement)) {
-                    replacement = "~";
-                } else if (path && "%2F".equals(replacement)) {
-                    replacement = "/";
-                }
+        final int length = value.length();
+        int index = 0;
+        while (index < length && isKept(value, index, path)) {
+            index++;
+        }
+        if (index == length) {
+            return value;
+        }
 
-                matcher.appendReplacement(buffer, replacement);
+        final StringBuilder builder = new StringBuilder(length + 16).append(value, 0, index);
+        for (; index < length; index++) {
+            final char c = value.charAt(index);
+            if (c < 0x80) {
+                if (isKept(value, index, path)) {
+                    builder.append(c);
+                } else if (!path || c != '/') {
+                    appendEncoded(builder, c);
+                }
+            } else if (c < 0x800) {
+                appendEncoded(builder, 0xC0 | (c >> 6));
+                appendEncoded(builder, 0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && index + 1 < length
+                    && Character.isLowSurrogate(value.charAt(index + 1))) {
+                final int codePoint = Character.toCodePoint(c, value.charAt(++index));
+                appendEncoded(builder, 0xF0 | (codePoint >> 18));
+                appendEncoded(builder, 0x80 | ((codePoint >> 12) & 0x3F));
+                appendEncoded(builder, 0x80 | ((codePoint >> 6) & 0x3F));
+                appendEncoded(builder, 0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                appendEncoded(builder, '?');
+            } else {
+                appendEncoded(builder, 0xE0 | (c >> 12));
+                appendEncoded(builder, 0x80 | ((c >> 6) & 0x3F));
+                appendEncoded(builder, 0x80 | (c & 0x3F));
             }
+        }
+        return builder.toString();
+    }
 
-            matcher.appendTail(buffer);
-            return buffer.toString();
-
-        } catch (UnsupportedEncodingException ex) {
-            throw new AmazonPayClientException("Encountered UnsupportedEncodingException:", ex);
+    /**
+     * @return true when the character at the index is copied as it is, an unreserved character or, in a path,
+     * a slash not following another one
+     */
+    private static boolean isKept(final String value, final int index, final boolean path) {
+        final char c = value.charAt(index);
+        if (c < 0x80 && UNRESERVED_CHARACTERS[c]) {
+            return true;
         }
+        return path && c == '/' && (index == 0 || value.charAt(index - 1) != '/');
+    }
+
+    private static void appendEncoded(final StringBuilder builder, final int octet) {
+        builder.append('%').append(HEX_DIGITS[(octet >> 4) & 0xF]).append(HEX_DIGITS[octet & 0xF]);
     }
 
     /**
@@ -153,16 +184,29 @@ public class Util {
         return str.toLowerCase(Locale.ENGLISH);
     }
 
+    /**
+     * Serializes the JSONObject straight into UTF-8 bytes, without building the intermediate String
+     * @param payload the JSONObject to serialize
+     * @return the UTF-8 encoded JSON text of the payload
+     * @throws AmazonPayClientException When the payload cannot be serialized
+     */
+    public static byte[] toJsonBytes(final JSONObject payload) throws AmazonPayClientException {
+        final Utf8ByteWriter writer = new Utf8ByteWriter(JSON_BUFFER_SIZE);
+        try {
+            payload.write(writer);
+        } catch (JSONException e) {
+            throw new AmazonPayClientException(e.getMessage(), e);
+        }
+        writer.close();
+        return writer.toByteArray();
+    }
+
     /**
      * Generates the current time stamp in "yyyyMMdd'T'HHmmss'Z'" format
      * @return the formatted timestamp
      */
     public static String getFormattedTimestamp() {
-        final Date now = new Date();
-        final SimpleDateFormat dateTimeFormat = new SimpleDateFormat(
-                "yyyyMMdd'T'HHmmss'Z'");
-        dateTimeFormat.setTimeZone(new SimpleTimeZone(0, "UTC"));
-        return dateTimeFormat.format(now);
+        return TimestampClock.system().getFormattedTimestamp();
     }
 
     /**
@@ -172,7 +216,7 @@ public class Util {
      * @throws AmazonPayClientException When an error response is returned by Amazon Pay due to bad request or other issue
      */
     public static PrivateKey buildPrivateKey(final char[] privateKey) throws AmazonPayClientException {
-        Security.addProvider(new BouncyCastleProvider());
+        SignatureProviders.installBouncyCastle();
         if (privateKey == null || privateKey.length == 0) {
              throw new AmazonPayClientException("Private key char array cannot be null or empty");
         }
@@ -181,17 +225,85 @@ public class Util {
             throw new AmazonPayClientException("Private key string provided is not valid");
         }
 
-        PKCS8EncodedKeySpec spec = new PKCS8EncodedKeySpec(pemObject.getContent());
+        return generatePrivateKey(pemObject.getContent());
+    }
 
-        PrivateKey privateKeyObject = null;
+    /**
+     * Builds the PrivateKey object from a DER encoded RSA private key, in the PKCS#8 or PKCS#1 format
+     * @param privateKey the DER encoded private key
+     * @return the PrivateKey object
+     * @throws AmazonPayClientException When the private key is empty or not a valid RSA private key
+     */
+    public static PrivateKey buildPrivateKey(final byte[] privateKey) throws AmazonPayClientException {
+        SignatureProviders.installBouncyCastle();
+        if (privateKey == null || privateKey.length == 0) {
+            throw new AmazonPayClientException("Private key byte array cannot be null or empty");
+        }
+        return generatePrivateKey(privateKey);
+    }
+
+    /**
+     * Loads the private key of an entry of a PKCS#12 key store
+     * @param keyStore the PKCS#12 key store, left open
+     * @param password the password of the key store and of the key entry
+     * @param alias the alias of the key entry, or null for the first key entry of the key store
+     * @return the PrivateKey object
+     * @throws AmazonPayClientException When the key store cannot be read, or has no such RSA private key entry
+     */
+    public static PrivateKey buildPrivateKey(final InputStream keyStore,
+                                             final char[] password,
+                                             final String alias) throws AmazonPayClientException {
+        SignatureProviders.installBouncyCastle();
+        if (keyStore == null) {
+            throw new AmazonPayClientException("Key store cannot be null");
+        }
+        try {
+            final KeyStore pkcs12 = KeyStore.getInstance("PKCS12");
+            pkcs12.load(keyStore, password);
+            String keyAlias = alias;
+            if (keyAlias == null) {
+                for (final Enumeration<String> aliases = pkcs12.aliases(); aliases.hasMoreElements() && keyAlias == null; ) {
+                    final String candidate = aliases.nextElement();
+                    if (pkcs12.isKeyEntry(candidate)) {
+                        keyAlias = candidate;
+                    }
+                }
+            }
+            final Key key = keyAlias == null ? null : pkcs12.getKey(keyAlias, password);
+            if (!(key instanceof PrivateKey) || !"RSA".equals(key.getAlgorithm())) {
+                throw new AmazonPayClientException("Key store has no RSA private key entry"
+                        + (alias == null ? "" : " with alias " + alias));
+            }
+            return (PrivateKey) key;
+        } catch (IOException | GeneralSecurityException e) {
+            throw new AmazonPayClientException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Generates the RSA private key of a PKCS#8 PrivateKeyInfo, or of a PKCS#1 RSAPrivateKey wrapped in one
+     * @param encodedKey the DER encoded private key
+     * @return the PrivateKey object
+     * @throws AmazonPayClientException When the encoded key is not a valid RSA private key
+     */
+    private static PrivateKey generatePrivateKey(final byte[] encodedKey) throws AmazonPayClientException {
         try {
             final KeyFactory keyFactory = KeyFactory.getInstance("RSA");
-            privateKeyObject = keyFactory.generatePrivate(spec);
+            try {
+                return keyFactory.generatePrivate(new PKCS8EncodedKeySpec(encodedKey));
+            } catch (InvalidKeySpecException e) {
+                final byte[] privateKeyInfo;
+                try {
+                    privateKeyInfo = new PrivateKeyInfo(new AlgorithmIdentifier(PKCSObjectIdentifiers.rsaEncryption,
+                            DERNull.INSTANCE), RSAPrivateKey.getInstance(encodedKey)).getEncoded();
+                } catch (IOException | IllegalArgumentException notPkcs1) {
+                    throw e;
+                }
+                return keyFactory.generatePrivate(new PKCS8EncodedKeySpec(privateKeyInfo));
+            }
         } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
             throw new AmazonPayClientException(e.getMessage(), e);
         }
-
-        return privateKeyObject;
     }
 
     /**
@@ -331,6 +443,48 @@ public class Util {
         }
     }
     
+    /**
+     * Returns the HttpUriRequest object based on the given HTTP Method Name and URI specification,
+     * carrying the already encoded payload as its entity.
+     *
+     * @param uri the URI
+     * @param httpMethodName the HTTP method
+     * @param payload the UTF-8 encoded payload
+     * @return the Commons HttpMethodBase object
+     * @throws AmazonPayClientException When the HTTP method is not supported
+     */
+    public static HttpUriRequest getHttpUriRequest(final URI uri, final String httpMethodName, final byte[] payload)
+            throws AmazonPayClientException {
+        switch (httpMethodName) {
+            case "GET":
+                return new HttpGet(uri);
+            case "POST":
+                final HttpPost httpPost = new HttpPost(uri);
+                httpPost.setEntity(new ByteArrayEntity(payload));
+                return httpPost;
+            case "PUT":
+                final HttpPut httpPut = new HttpPut(uri);
+                httpPut.setEntity(new ByteArrayEntity(payload));
+                return httpPut;
+            case "PATCH":
+                final HttpPatch httpPatch = new HttpPatch(uri);
+                httpPatch.setEntity(new ByteArrayEntity(payload));
+                return httpPatch;
+            case "HEAD":
+                return new HttpHead(uri);
+            case "DELETE":
+                final HttpDeleteWithBody httpDeleteWithBody = new HttpDeleteWithBody(uri);
+                httpDeleteWithBody.setEntity(new ByteArrayEntity(payload));
+                return httpDeleteWithBody;
+            case "OPTIONS":
+                return new HttpOptions(uri);
+            case "TRACE":
+                return new HttpTrace(uri);
+            default:
+                throw new AmazonPayClientException("Invalid HTTP method " + httpMethodName);
+        }
+    }
+
     /**
      * Returns the HttpClientBuilder object based on the given proxy settings.
      * 
@@ -341,16 +495,50 @@ public class Util {
     public static HttpClientBuilder getHttpClientBuilderWithProxy(final ProxySettings proxySettings, final PayConfiguration payConfiguration) {
         final HttpHost proxy = new HttpHost(proxySettings.getProxyHost(),
                 proxySettings.getProxyPort());
+        final HttpClientBuilder httpClientBuilder = HttpClients.custom().setDefaultCredentialsProvider(getProxyCredentialsProvider(proxySettings))
+                .setProxy(proxy);
+        applyRequestConfig(httpClientBuilder, payConfiguration);
+        return httpClientBuilder;
+    }
+
+    /**
+     * Returns the HttpAsyncClientBuilder object based on the given PayConfiguration.
+     * Redirects are not followed, and the proxy settings and request config are applied when present.
+     *
+     * @param payConfiguration the PayConfiguration
+     * @return the HttpAsyncClientBuilder
+     */
+    public static HttpAsyncClientBuilder getHttpAsyncClientBuilder(final PayConfiguration payConfiguration) {
+        final HttpAsyncClientBuilder httpAsyncClientBuilder = HttpAsyncClients.custom();
+        final ProxySettings proxySettings = payConfiguration.getProxySettings();
+        if (proxySettings != null) {
+            httpAsyncClientBuilder.setDefaultCredentialsProvider(getProxyCredentialsProvider(proxySettings))
+                    .setProxy(new HttpHost(proxySettings.getProxyHost(), proxySettings.getProxyPort()));
+        }
+        final RequestConfig.Builder requestConfigBuilder = RequestConfig.custom().setRedirectsEnabled(false);
+        if (Objects.nonNull(payConfiguration.getRequestConfig())) {
+            com.amazon.pay.api.RequestConfig apayRequestConfig = payConfiguration.getRequestConfig();
+            requestConfigBuilder.setConnectTimeout(apayRequestConfig.getConnectTimeoutMillis())
+                    .setConnectionRequestTimeout(apayRequestConfig.getConnectionTimeoutMillis())
+                    .setSocketTimeout(apayRequestConfig.getSocketTimeoutMillis());
+        }
+        return httpAsyncClientBuilder.setDefaultRequestConfig(requestConfigBuilder.build());
+    }
+
+    /**
+     * Returns the CredentialsProvider holding the proxy credentials of the given proxy settings.
+     *
+     * @param proxySettings the ProxySettings
+     * @return the CredentialsProvider
+     */
+    private static CredentialsProvider getProxyCredentialsProvider(final ProxySettings proxySettings) {
         final Credentials credentials = new UsernamePasswordCredentials(proxySettings.getProxyUser(),
                 String.valueOf(proxySettings.getProxyPassword()));
         final AuthScope authScope = new AuthScope(proxySettings.getProxyHost(),
                 proxySettings.getProxyPort());
         final CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
         credentialsProvider.setCredentials(authScope, credentials);
-        final HttpClientBuilder httpClientBuilder = HttpClients.custom().setDefaultCredentialsProvider(credentialsProvider)
-                .setProxy(proxy);
-        applyRequestConfig(httpClientBuilder, payConfiguration);
-        return httpClientBuilder;
+        return credentialsProvider;
     }
 
     /**
@@ -378,6 +566,22 @@ public class Util {
         return amazonPayResponse;
     }
 
+    /**
+     * Enhances the checkoutSession response of an asynchronous request by parsing shippingAddressList to JSONObject
+     *
+     * @param amazonPayResponse the future response of the API request
+     * @return a CompletableFuture completed with the enhanced amazonPayResponse
+     */
+    public static CompletableFuture<AmazonPayResponse> enhanceResponseWithShippingAddressList(final CompletableFuture<AmazonPayResponse> amazonPayResponse) {
+        return amazonPayResponse.thenApply(response -> {
+            try {
+                return enhanceResponseWithShippingAddressList(response);
+            } catch (AmazonPayClientException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
     /**
      * Apply request config to http client request config
      */
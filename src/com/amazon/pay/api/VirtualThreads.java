@@ -0,0 +1,55 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.pay.api;
+
+import java.util.concurrent.ExecutorService;
+
+import com.amazon.pay.api.exceptions.AmazonPayClientException;
+
+/**
+ * Helper methods for the virtual thread mode of the client.
+ * Virtual threads require Java 21; the implementation ships in the Java 21 section of the multi-release jar
+ * and this class is the one loaded on older runtimes.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return true when the runtime supports virtual threads
+     */
+    static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * @param thread the thread
+     * @return true when the thread is a virtual thread
+     */
+    static boolean isVirtual(final Thread thread) {
+        return false;
+    }
+
+    /**
+     * Returns an executor starting a new virtual thread for each task
+     *
+     * @return the ExecutorService
+     * @throws AmazonPayClientException always, virtual threads require Java 21 or later
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor() throws AmazonPayClientException {
+        throw new AmazonPayClientException("Virtual threads require Java 21 or later, running on Java " + Util.JAVA_VERSION);
+    }
+}
@@ -20,6 +20,7 @@ import org.json.JSONObject;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.List;
 import java.util.HashMap;
 import java.util.Collections;
@@ -70,7 +71,7 @@ public class WebstoreClient extends AmazonPayClient {
     public AmazonPayResponse createCheckoutSession(final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
         final URI createCheckoutSessionURI = Util.getServiceURI(payConfiguration, ServiceConstants.CHECKOUT_SESSIONS);
         final Map<String, String> headerMap = Util.updateHeader(header);
-        return callAPI(createCheckoutSessionURI, "POST", null, payload.toString(), headerMap);
+        return callAPIBytes(createCheckoutSessionURI, "POST", null, Util.toJsonBytes(payload), headerMap);
     }
 
     /**
@@ -129,7 +130,7 @@ public class WebstoreClient extends AmazonPayClient {
     public AmazonPayResponse updateCheckoutSession(final String checkoutSessionId, final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
         final URI checkoutSessionURI = Util.getServiceURI(payConfiguration, ServiceConstants.CHECKOUT_SESSIONS);
         final URI updateCheckoutSessionURI = checkoutSessionURI.resolve(checkoutSessionURI.getPath() + "/" + checkoutSessionId);
-        final AmazonPayResponse response = callAPI(updateCheckoutSessionURI, "PATCH", null, payload.toString(), header);
+        final AmazonPayResponse response = callAPIBytes(updateCheckoutSessionURI, "PATCH", null, Util.toJsonBytes(payload), header);
         return Util.enhanceResponseWithShippingAddressList(response);
     }
 
@@ -159,7 +160,7 @@ public class WebstoreClient extends AmazonPayClient {
     public AmazonPayResponse completeCheckoutSession(final String checkoutSessionId, final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
         final URI checkoutSessionURI = Util.getServiceURI(payConfiguration, ServiceConstants.CHECKOUT_SESSIONS);
         final URI completeCheckoutSessionURI = checkoutSessionURI.resolve(checkoutSessionURI.getPath() + "/" + checkoutSessionId + "/" + "complete");
-        final AmazonPayResponse response = callAPI(completeCheckoutSessionURI, "POST", null, payload.toString(), header);
+        final AmazonPayResponse response = callAPIBytes(completeCheckoutSessionURI, "POST", null, Util.toJsonBytes(payload), header);
         return Util.enhanceResponseWithShippingAddressList(response);
     }
 
@@ -216,7 +217,7 @@ public class WebstoreClient extends AmazonPayClient {
     public AmazonPayResponse updateChargePermission(final String chargePermissionId, final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
         final URI chargePermissionURI = Util.getServiceURI(payConfiguration, ServiceConstants.CHARGE_PERMISSIONS);
         final URI updateChargePermissionURI = chargePermissionURI.resolve(chargePermissionURI.getPath() + "/" + chargePermissionId);
-        return callAPI(updateChargePermissionURI, "PATCH", null, payload.toString(), header);
+        return callAPIBytes(updateChargePermissionURI, "PATCH", null, Util.toJsonBytes(payload), header);
     }
 
     /**
@@ -246,7 +247,7 @@ public class WebstoreClient extends AmazonPayClient {
     public AmazonPayResponse closeChargePermission(final String chargePermissionId, final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
         final URI chargePermissionURI = Util.getServiceURI(payConfiguration, ServiceConstants.CHARGE_PERMISSIONS);
         final URI closeChargePermissionURI = chargePermissionURI.resolve(chargePermissionURI.getPath() + "/" + chargePermissionId + "/" + "close");
-        return callAPI(closeChargePermissionURI, "DELETE", null, payload.toString(), header);
+        return callAPIBytes(closeChargePermissionURI, "DELETE", null, Util.toJsonBytes(payload), header);
     }
 
     /**
@@ -276,7 +277,7 @@ public class WebstoreClient extends AmazonPayClient {
     public AmazonPayResponse createCharge(final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
         final URI createChargesURI = Util.getServiceURI(payConfiguration, ServiceConstants.CHARGES);
         final Map<String, String> headerMap = Util.updateHeader(header);
-        return callAPI(createChargesURI, "POST", null, payload.toString(), headerMap);
+        return callAPIBytes(createChargesURI, "POST", null, Util.toJsonBytes(payload), headerMap);
     }
 
     /**
@@ -332,7 +333,7 @@ public class WebstoreClient extends AmazonPayClient {
         final URI chargesURI = Util.getServiceURI(payConfiguration, ServiceConstants.CHARGES);
         final URI updateChargeURI = chargesURI.resolve(chargesURI.getPath() + "/" + chargeId);
         final Map<String, String> headerMap = Util.updateHeader(header);
-        return callAPI(updateChargeURI, "PATCH", null, payload.toString(), headerMap);
+        return callAPIBytes(updateChargeURI, "PATCH", null, Util.toJsonBytes(payload), headerMap);
     }
 
     /**
@@ -362,7 +363,7 @@ public class WebstoreClient extends AmazonPayClient {
         final URI chargesURI = Util.getServiceURI(payConfiguration, ServiceConstants.CHARGES);
         final URI captureChargeURI = chargesURI.resolve(chargesURI.getPath() + "/" + chargeId + "/" + "capture");
         final Map<String, String> headerMap = Util.updateHeader(header);
-        return callAPI(captureChargeURI, "POST", null, payload.toString(), headerMap);
+        return callAPIBytes(captureChargeURI, "POST", null, Util.toJsonBytes(payload), headerMap);
     }
 
     /**
@@ -392,7 +393,7 @@ public class WebstoreClient extends AmazonPayClient {
     public AmazonPayResponse cancelCharge(final String chargeId, final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
         final URI chargesURI = Util.getServiceURI(payConfiguration, ServiceConstants.CHARGES);
         final URI cancelChargeURI = chargesURI.resolve(chargesURI.getPath() + "/" + chargeId + "/" + "cancel");
-        return callAPI(cancelChargeURI, "DELETE", null, payload.toString(), header);
+        return callAPIBytes(cancelChargeURI, "DELETE", null, Util.toJsonBytes(payload), header);
     }
 
     /**
@@ -421,7 +422,7 @@ public class WebstoreClient extends AmazonPayClient {
     public AmazonPayResponse createRefund(final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
         final URI createRefundsURI = Util.getServiceURI(payConfiguration, ServiceConstants.REFUNDS);
         final Map<String, String> headerMap = Util.updateHeader(header);
-        return callAPI(createRefundsURI, "POST", null, payload.toString(), headerMap);
+        return callAPIBytes(createRefundsURI, "POST", null, Util.toJsonBytes(payload), headerMap);
     }
 
     /**
@@ -586,7 +587,7 @@ public class WebstoreClient extends AmazonPayClient {
      */
     public AmazonPayResponse createReport(final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
         final URI createReportURI = Util.getServiceURI(payConfiguration, ServiceConstants.REPORTS);
-        return callAPI(createReportURI, "POST", null, payload.toString(), header);
+        return callAPIBytes(createReportURI, "POST", null, Util.toJsonBytes(payload), header);
     }
 
     /**
@@ -600,7 +601,7 @@ public class WebstoreClient extends AmazonPayClient {
      */
     public AmazonPayResponse createReportSchedule(final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
         final URI createReportScheduleURI = Util.getServiceURI(payConfiguration, ServiceConstants.REPORT_SCHEDULES);
-        return callAPI(createReportScheduleURI, "POST", null, payload.toString(), header);
+        return callAPIBytes(createReportScheduleURI, "POST", null, Util.toJsonBytes(payload), header);
     }
 
     /**
@@ -649,7 +650,7 @@ public class WebstoreClient extends AmazonPayClient {
     public AmazonPayResponse finalizeCheckoutSession(final String checkoutSessionId, final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
         final URI checkoutSessionURI = Util.getServiceURI(payConfiguration, ServiceConstants.CHECKOUT_SESSIONS);
         final URI completeCheckoutSessionURI = checkoutSessionURI.resolve(checkoutSessionURI.getPath() + "/" + checkoutSessionId + "/" + "finalize");
-        return callAPI(completeCheckoutSessionURI, "POST", null, payload.toString(), header);
+        return callAPIBytes(completeCheckoutSessionURI, "POST", null, Util.toJsonBytes(payload), header);
     }
 
     /**
@@ -697,7 +698,7 @@ public class WebstoreClient extends AmazonPayClient {
      */
     public AmazonPayResponse createDispute(final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
         final URI createDisputeURI = Util.getServiceURI(payConfiguration, ServiceConstants.DISPUTES);
-        return callAPI(createDisputeURI, "POST", null, payload.toString(), header);
+        return callAPIBytes(createDisputeURI, "POST", null, Util.toJsonBytes(payload), header);
     }
 
     /**
@@ -714,7 +715,7 @@ public class WebstoreClient extends AmazonPayClient {
     public AmazonPayResponse updateDispute(final String disputeId, final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
         final URI updateDisputeURI = Util.getServiceURI(payConfiguration, ServiceConstants.DISPUTES);
         final URI updateDisputeFinalURI = updateDisputeURI.resolve(updateDisputeURI.getPath() + "/" + disputeId);
-        return callAPI(updateDisputeFinalURI, "PATCH", null, payload.toString(), header);
+        return callAPIBytes(updateDisputeFinalURI, "PATCH", null, Util.toJsonBytes(payload), header);
     }
 
     /**
@@ -745,7 +746,7 @@ public class WebstoreClient extends AmazonPayClient {
     public AmazonPayResponse contestDispute(final String disputeId, final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
         final URI contestDisputeURI = Util.getServiceURI(payConfiguration, ServiceConstants.DISPUTES);
         final URI contestDisputeFinalURI = contestDisputeURI.resolve(contestDisputeURI.getPath() + "/" + disputeId + "/contest");
-        return callAPI(contestDisputeFinalURI, "POST", null, payload.toString(), header);
+        return callAPIBytes(contestDisputeFinalURI, "POST", null, Util.toJsonBytes(payload), header);
     }
 
     /**
@@ -801,7 +802,7 @@ public class WebstoreClient extends AmazonPayClient {
      */
     public AmazonPayResponse uploadFile(final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
         final URI uploadFileURI = Util.getServiceURI(payConfiguration, ServiceConstants.FILES);
-        return callAPI(uploadFileURI, "POST", null, payload.toString(), header);
+        return callAPIBytes(uploadFileURI, "POST", null, Util.toJsonBytes(payload), header);
     }
 
     /**
@@ -817,4 +818,767 @@ public class WebstoreClient extends AmazonPayClient {
         return uploadFile(payload, null);
     }
 
+    // ----------------------------------- Asynchronous APIs -----------------------------------
+
+    /**
+     * Get Buyer details can include buyer ID, name, email address, postal code, and country code
+     * when used with the Amazon.Pay.renderButton 'SignIn' productType and corresponding signInScopes.
+     *
+     * @param buyerToken Buyer Token
+     * @param header Map&lt;String, String&gt; containining key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken)
+     * @return A CompletableFuture completed with the response from the GetBuyer service API, as returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> getBuyerAsync(final String buyerToken, final Map<String, String> header) throws AmazonPayClientException {
+        final URI buyerURI = Util.getServiceURI(payConfiguration, ServiceConstants.BUYERS);
+        final URI getBuyerURI = buyerURI.resolve(buyerURI.getPath() + "/" + buyerToken);
+        return callAPIAsync(getBuyerURI, "GET", null, "", header);
+    }
+
+    /**
+     * Get Buyer details can include buyer ID, name, email address, postal code, and country code
+     * when used with the Amazon.Pay.renderButton 'SignIn' productType and corresponding signInScopes.
+     *
+     * @param buyerToken Buyer Token
+     * @return A CompletableFuture completed with the response from the GetBuyer service API, as returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> getBuyerAsync(final String buyerToken) throws AmazonPayClientException {
+        return getBuyerAsync(buyerToken, null);
+    }
+
+    /**
+     * The CreateCheckoutSession operation is used to create a CheckoutSession for a buyer
+     * and pass the Id as part of button click.
+     *
+     * @param payload JSONObject request body
+     * @param header Map&lt;String, String&gt; containining key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken)
+     * @return A CompletableFuture completed with the response from the CreateCheckoutSession service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> createCheckoutSessionAsync(final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
+        final URI createCheckoutSessionURI = Util.getServiceURI(payConfiguration, ServiceConstants.CHECKOUT_SESSIONS);
+        final Map<String, String> headerMap = Util.updateHeader(header);
+        return callAPIBytesAsync(createCheckoutSessionURI, "POST", null, Util.toJsonBytes(payload), headerMap);
+    }
+
+    /**
+     * The CreateCheckoutSession operation is used to create a CheckoutSession for a buyer
+     * and pass the Id as part of button click.
+     *
+     * @param payload JSONObject request body
+     * @return A CompletableFuture completed with the response from the CreateCheckoutSession service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> createCheckoutSessionAsync(final JSONObject payload) throws AmazonPayClientException {
+        return createCheckoutSessionAsync(payload, null);
+    }
+
+    /**
+     * The GetCheckoutSession operation is used to get checkout session details that contain
+     * all session associated details.
+     *
+     * @param checkoutSessionId Checkout Session ID provided by Checkout v2 service
+     * @param header Map&lt;String, String&gt; containining key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken)
+     * @return A CompletableFuture completed with the response from the GetCheckoutSession service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> getCheckoutSessionAsync(final String checkoutSessionId, final Map<String, String> header) throws AmazonPayClientException {
+        final URI checkoutSessionURI = Util.getServiceURI(payConfiguration, ServiceConstants.CHECKOUT_SESSIONS);
+        final URI getCheckoutSessionURI = checkoutSessionURI.resolve(checkoutSessionURI.getPath() + "/" + checkoutSessionId);
+        final CompletableFuture<AmazonPayResponse> response = callAPIAsync(getCheckoutSessionURI, "GET", null, "", header);
+        return Util.enhanceResponseWithShippingAddressList(response);
+    }
+
+    /**
+     * The GetCheckoutSession operation is used to get checkout session details that contain
+     * all session associated details.
+     *
+     * @param checkoutSessionId Checkout Session ID provided by Checkout v2 service
+     * @return A CompletableFuture completed with the response from the GetCheckoutSession service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> getCheckoutSessionAsync(final String checkoutSessionId) throws AmazonPayClientException {
+        return getCheckoutSessionAsync(checkoutSessionId, null);
+    }
+
+    /**
+     * The UpdateCheckoutSession operation is used to update payment details for a session.
+     *
+     * @param checkoutSessionId Checkout Session ID provided by Checkout v2 service
+     * @param payload JSONObject request body
+     * @param header Map&lt;String, String&gt; containining key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken)
+     * @return A CompletableFuture completed with the response from the UpdateCheckoutSession service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> updateCheckoutSessionAsync(final String checkoutSessionId, final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
+        final URI checkoutSessionURI = Util.getServiceURI(payConfiguration, ServiceConstants.CHECKOUT_SESSIONS);
+        final URI updateCheckoutSessionURI = checkoutSessionURI.resolve(checkoutSessionURI.getPath() + "/" + checkoutSessionId);
+        final CompletableFuture<AmazonPayResponse> response = callAPIBytesAsync(updateCheckoutSessionURI, "PATCH", null, Util.toJsonBytes(payload), header);
+        return Util.enhanceResponseWithShippingAddressList(response);
+    }
+
+    /**
+     * The UpdateCheckoutSession operation is used to update payment details for a session.
+     *
+     * @param checkoutSessionId Checkout Session ID provided by Checkout v2 service
+     * @param payload JSONObject request body
+     * @return A CompletableFuture completed with the response from the UpdateCheckoutSession service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> updateCheckoutSessionAsync(final String checkoutSessionId, final JSONObject payload) throws AmazonPayClientException {
+        return updateCheckoutSessionAsync(checkoutSessionId, payload, null);
+    }
+
+    /**
+     * The CompleteCheckoutSession operation is used to confirm completion of a checkout session
+     *
+     * @param checkoutSessionId Checkout Session ID provided by Checkout v2 service
+     * @param payload JSONObject request body
+     * @param header Map&lt;String, String&gt; containining key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken)
+     * @return A CompletableFuture completed with the response from the CompleteCheckoutSession service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> completeCheckoutSessionAsync(final String checkoutSessionId, final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
+        final URI checkoutSessionURI = Util.getServiceURI(payConfiguration, ServiceConstants.CHECKOUT_SESSIONS);
+        final URI completeCheckoutSessionURI = checkoutSessionURI.resolve(checkoutSessionURI.getPath() + "/" + checkoutSessionId + "/" + "complete");
+        final CompletableFuture<AmazonPayResponse> response = callAPIBytesAsync(completeCheckoutSessionURI, "POST", null, Util.toJsonBytes(payload), header);
+        return Util.enhanceResponseWithShippingAddressList(response);
+    }
+
+    /**
+     * The CompleteCheckoutSession operation is used to confirm completion of a checkout session.
+     *
+     * @param checkoutSessionId Checkout Session ID provided by Checkout v2 service
+     * @param payload JSONObject request body
+     * @return A CompletableFuture completed with the response from the CompleteCheckoutSession service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> completeCheckoutSessionAsync(final String checkoutSessionId, final JSONObject payload) throws AmazonPayClientException {
+        return completeCheckoutSessionAsync(checkoutSessionId, payload, null);
+    }
+
+    /**
+     * The GetChargePermission operation is used to get the complete details of ChargePermission.
+     *
+     * @param chargePermissionId Charge Permission ID provided by Checkout v2 service
+     * @param header Map&lt;String, String&gt; containining key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken)
+     * @return A CompletableFuture completed with the response from the GetChargePermission service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> getChargePermissionAsync(final String chargePermissionId, final Map<String, String> header) throws AmazonPayClientException {
+        final URI chargePermissionURI = Util.getServiceURI(payConfiguration, ServiceConstants.CHARGE_PERMISSIONS);
+        final URI getChargePermissionURI = chargePermissionURI.resolve(chargePermissionURI.getPath() + "/" + chargePermissionId);
+        return callAPIAsync(getChargePermissionURI, "GET", null, "", header);
+    }
+
+    /**
+     * The GetChargePermission operation is used to get the complete details of ChargePermission.
+     *
+     * @param chargePermissionId Charge Permission ID provided by Checkout v2 service
+     * @return A CompletableFuture completed with the response from the GetChargePermission service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> getChargePermissionAsync(final String chargePermissionId) throws AmazonPayClientException {
+        return getChargePermissionAsync(chargePermissionId, null);
+    }
+
+    /**
+     * The UpdateChargePermission operation is used to update the metadata of the ChargePermission.
+     *
+     * @param chargePermissionId Charge Permission ID provided by Checkout v2 service
+     * @param payload JSONObject request body
+     * @param header Map&lt;String, String&gt; containining key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken)
+     * @return A CompletableFuture completed with the response from the UpdateChargePermission service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> updateChargePermissionAsync(final String chargePermissionId, final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
+        final URI chargePermissionURI = Util.getServiceURI(payConfiguration, ServiceConstants.CHARGE_PERMISSIONS);
+        final URI updateChargePermissionURI = chargePermissionURI.resolve(chargePermissionURI.getPath() + "/" + chargePermissionId);
+        return callAPIBytesAsync(updateChargePermissionURI, "PATCH", null, Util.toJsonBytes(payload), header);
+    }
+
+    /**
+     * The UpdateChargePermission operation is used to update the metadata of the ChargePermission.
+     *
+     * @param chargePermissionId Charge Permission ID provided by Checkout v2 service
+     * @param payload JSONObject request body
+     * @return A CompletableFuture completed with the response from the UpdateChargePermission service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> updateChargePermissionAsync(final String chargePermissionId, final JSONObject payload) throws AmazonPayClientException {
+        return updateChargePermissionAsync(chargePermissionId, payload, null);
+    }
+
+    /**
+     * The CloseChargePermission operation Moves the Charge Permission to a Closed state.
+     * No future charges can be made and pending charges will be canceled if you set cancelPendingCharges to true.
+     *
+     * @param chargePermissionId Charge Permission ID provided by Checkout v2 service
+     * @param payload JSONObject request body
+     * @param header Map&lt;String, String&gt; containining key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken)
+     * @return A CompletableFuture completed with the response from the CloseChargePermission service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> closeChargePermissionAsync(final String chargePermissionId, final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
+        final URI chargePermissionURI = Util.getServiceURI(payConfiguration, ServiceConstants.CHARGE_PERMISSIONS);
+        final URI closeChargePermissionURI = chargePermissionURI.resolve(chargePermissionURI.getPath() + "/" + chargePermissionId + "/" + "close");
+        return callAPIBytesAsync(closeChargePermissionURI, "DELETE", null, Util.toJsonBytes(payload), header);
+    }
+
+    /**
+     * The CloseChargePermission operation Moves the Charge Permission to a Closed state.
+     * No future charges can be made and pending charges will be canceled if you set cancelPendingCharges to true.
+     *
+     * @param chargePermissionId Charge Permission ID provided by Checkout v2 service
+     * @param payload JSONObject request body
+     * @return A CompletableFuture completed with the response from the CloseChargePermission service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> closeChargePermissionAsync(final String chargePermissionId, final JSONObject payload) throws AmazonPayClientException {
+        return closeChargePermissionAsync(chargePermissionId, payload, null);
+    }
+
+    /**
+     * The CreateCharge operation is used to create a charges for a buyer
+     * and pass the Id as part of button click.
+     *
+     * @param payload JSONObject request body
+     * @param header Map&lt;String, String&gt; containining key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken)
+     * @return A CompletableFuture completed with the response from the CreateCharge service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> createChargeAsync(final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
+        final URI createChargesURI = Util.getServiceURI(payConfiguration, ServiceConstants.CHARGES);
+        final Map<String, String> headerMap = Util.updateHeader(header);
+        return callAPIBytesAsync(createChargesURI, "POST", null, Util.toJsonBytes(payload), headerMap);
+    }
+
+    /**
+     * The CreateCharge operation is used to create a charges for a buyer
+     * and pass the Id as part of button click.
+     *
+     * @param payload JSONObject request body
+     * @return A CompletableFuture completed with the response from the CreateCharge service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> createChargeAsync(final JSONObject payload) throws AmazonPayClientException {
+        return createChargeAsync(payload, null);
+    }
+
+    /**
+     * The getCharge operation is used to get charges details that contain
+     *
+     * @param chargeId Charge ID provided by Checkout v2 service
+     * @param header Map&lt;String, String&gt; containining key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken)
+     * @return A CompletableFuture completed with the response from the getCharge service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> getChargeAsync(final String chargeId, final Map<String, String> header) throws AmazonPayClientException {
+        final URI chargesURI = Util.getServiceURI(payConfiguration, ServiceConstants.CHARGES);
+        final URI getChargeURI = chargesURI.resolve(chargesURI.getPath() + "/" + chargeId);
+        return callAPIAsync(getChargeURI, "GET", null, "", header);
+    }
+
+    /**
+     * The getCharge operation is used to get charges details that contain
+     *
+     * @param chargeId Charge ID provided by Checkout v2 service
+     * @return A CompletableFuture completed with the response from the getCharge service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> getChargeAsync(final String chargeId) throws AmazonPayClientException {
+        return getChargeAsync(chargeId, null);
+    }
+
+    /**
+     * The updateCharge operation is used to update the charge status of any PSP (Payment Service Provider) processed payment method (PPM) transactions.
+     *
+     * @param chargeId Charge ID provided by Checkout v2 service.
+     * @param payload JSONObject request body.
+     * @param header Map&lt;String, String&gt; containining key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken).
+     * @return A CompletableFuture completed with the response from the updateCharge service API, as returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> updateChargeAsync(final String chargeId, final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
+        final URI chargesURI = Util.getServiceURI(payConfiguration, ServiceConstants.CHARGES);
+        final URI updateChargeURI = chargesURI.resolve(chargesURI.getPath() + "/" + chargeId);
+        final Map<String, String> headerMap = Util.updateHeader(header);
+        return callAPIBytesAsync(updateChargeURI, "PATCH", null, Util.toJsonBytes(payload), headerMap);
+    }
+
+    /**
+     * The updateCharge operation is used to update the charge status of any PSP (Payment Service Provider) processed payment method (PPM) transactions.
+     *
+     * @param chargeId Charge ID provided by Checkout v2 service.
+     * @param payload JSONObject request body.
+     * @return A CompletableFuture completed with the response from the updateCharge service API, as returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> updateChargeAsync(final String chargeId, final JSONObject payload) throws AmazonPayClientException {
+        return updateChargeAsync(chargeId, payload, null);
+    }
+
+    /**
+     * The CaptureCharge operation is used to create a charges for a buyer
+     * and pass the Id as part of button click.
+     *
+     * @param chargeId Charge ID provided by Checkout v2 service
+     * @param payload JSONObject request body
+     * @param header Map&lt;String, String&gt; containining key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken)
+     * @return A CompletableFuture completed with the response from the CaptureCharge service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> captureChargeAsync(final String chargeId, final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
+        final URI chargesURI = Util.getServiceURI(payConfiguration, ServiceConstants.CHARGES);
+        final URI captureChargeURI = chargesURI.resolve(chargesURI.getPath() + "/" + chargeId + "/" + "capture");
+        final Map<String, String> headerMap = Util.updateHeader(header);
+        return callAPIBytesAsync(captureChargeURI, "POST", null, Util.toJsonBytes(payload), headerMap);
+    }
+
+    /**
+     * The CaptureCharge operation is used to create a charges for a buyer
+     * and pass the Id as part of button click.
+     *
+     * @param chargeId Charge ID provided by Checkout v2 service
+     * @param payload JSONObject request body
+     * @return A CompletableFuture completed with the response from the CaptureCharge service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> captureChargeAsync(final String chargeId, final JSONObject payload) throws AmazonPayClientException {
+        return captureChargeAsync(chargeId, payload, null);
+    }
+
+    /**
+     * The cancelCharge operation is used to cancel Charges.
+     *
+     * @param chargeId Charge ID provided by Checkout v2 service
+     * @param payload JSONObject request body
+     * @param header Map&lt;String, String&gt; containining key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken)
+     * @return A CompletableFuture completed with the response from the cancelCharge service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> cancelChargeAsync(final String chargeId, final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
+        final URI chargesURI = Util.getServiceURI(payConfiguration, ServiceConstants.CHARGES);
+        final URI cancelChargeURI = chargesURI.resolve(chargesURI.getPath() + "/" + chargeId + "/" + "cancel");
+        return callAPIBytesAsync(cancelChargeURI, "DELETE", null, Util.toJsonBytes(payload), header);
+    }
+
+    /**
+     * The cancelCharge operation is used to cancel Charges.
+     *
+     * @param chargeId Charge ID provided by Checkout v2 service
+     * @param payload JSONObject request body
+     * @return A CompletableFuture completed with the response from the cancelCharge service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> cancelChargeAsync(final String chargeId, final JSONObject payload) throws AmazonPayClientException {
+        return cancelChargeAsync(chargeId, payload, null);
+    }
+
+    /**
+     * The CreateRefund operation is used to create a refund for a buyer
+     * and pass the Id as part of button click.
+     *
+     * @param payload JSONObject request body
+     * @param header Map&lt;String, String&gt; containining key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken)
+     * @return A CompletableFuture completed with the response from the CreateRefunds service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> createRefundAsync(final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
+        final URI createRefundsURI = Util.getServiceURI(payConfiguration, ServiceConstants.REFUNDS);
+        final Map<String, String> headerMap = Util.updateHeader(header);
+        return callAPIBytesAsync(createRefundsURI, "POST", null, Util.toJsonBytes(payload), headerMap);
+    }
+
+    /**
+     * The CreateRefund operation is used to create a refund for a buyer
+     * and pass the Id as part of button click.
+     *
+     * @param payload JSONObject request body
+     * @return A CompletableFuture completed with the response from the CreateRefunds service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> createRefundAsync(final JSONObject payload) throws AmazonPayClientException {
+        return createRefundAsync(payload, null);
+    }
+
+    /**
+     * The getRefund operation is used to get refund details that contain
+     *
+     * @param refundId Refund ID provided by Checkout v2 service
+     * @param header Map&lt;String, String&gt; containining key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken)
+     * @return A CompletableFuture completed with the response from the getRefund service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> getRefundAsync(final String refundId, final Map<String, String> header) throws AmazonPayClientException {
+        final URI refundsURI = Util.getServiceURI(payConfiguration, ServiceConstants.REFUNDS);
+        final URI getRefundURI = refundsURI.resolve(refundsURI.getPath() + "/" + refundId + "/");
+        return callAPIAsync(getRefundURI, "GET", null, "", header);
+    }
+
+    /**
+     * The getRefund operation is used to get refund details that contain
+     *
+     * @param refundId Refund ID provided by Checkout v2 service
+     * @return A CompletableFuture completed with the response from the getRefund service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> getRefundAsync(final String refundId) throws AmazonPayClientException {
+        return getRefundAsync(refundId, null);
+    }
+
+    /**
+     * The getReports operation is used to get report details for the reports that match the filters that you specify.
+     *
+     * @param queryParameters Request Paramters as part of filters to be provided optionally while calling API (e.g., reportTypes, processingStatus etc.)
+     * @param header Map&lt;String, String&gt; containing key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken)
+     * @return A CompletableFuture completed with the response from the getReports service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> getReportsAsync(final Map<String, List<String>> queryParameters, final Map<String, String> header) throws AmazonPayClientException {
+        final URI getReportsURI = Util.getServiceURI(payConfiguration, ServiceConstants.REPORTS);
+        final URI getReportsFinalURI = getReportsURI.resolve(getReportsURI.getPath() + "/?" + convertQueryParamters(queryParameters));
+        return callAPIAsync(getReportsFinalURI, "GET", queryParameters, "", header);
+    }
+
+    public CompletableFuture<AmazonPayResponse> getReportsAsync(final Map<String, List<String>> queryParameters) throws AmazonPayClientException {
+        return getReportsAsync(queryParameters, null);
+    }
+
+    public CompletableFuture<AmazonPayResponse> getReportsAsync() throws AmazonPayClientException {
+        return getReportsAsync(null, null);
+    }
+
+    /**
+     * The getReportById operation is used to get report details for the given reportId.
+     *
+     * @param reportId Report ID provided while calling the API
+     * @param header Map&lt;String, String&gt; containing key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken)
+     * @return A CompletableFuture completed with the response from the getReports service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> getReportByIdAsync(final String reportId, final Map<String, String> header) throws AmazonPayClientException {
+        final URI getReportByIdURI = Util.getServiceURI(payConfiguration, ServiceConstants.REPORTS);
+        final URI getReportByIdFinalURI = getReportByIdURI.resolve(getReportByIdURI.getPath() + "/" + reportId);
+        return callAPIAsync(getReportByIdFinalURI, "GET", null, "", header);
+    }
+
+    public CompletableFuture<AmazonPayResponse> getReportByIdAsync(final String reportId) throws AmazonPayClientException {
+        return getReportByIdAsync(reportId, null);
+    }
+
+    /**
+     * The getReportDocument operation is used to return the pre-signed S3 URL for the report. The report can be downloaded using this URL.
+     *
+     * @param reportDocumentId Report Document ID provided while calling the API
+     * @param header Map&lt;String, String&gt; containing key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken)
+     * @return A CompletableFuture completed with the response from the getReports service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> getReportDocumentAsync(final String reportDocumentId, final Map<String, String> header) throws AmazonPayClientException {
+        final URI getReportDocumentURI = Util.getServiceURI(payConfiguration, ServiceConstants.REPORT_DOCUMENT);
+        final URI getReportDocumentFinalURI = getReportDocumentURI.resolve(getReportDocumentURI.getPath() + "/" + reportDocumentId);
+        return callAPIAsync(getReportDocumentFinalURI, "GET", null, "", header);
+    }
+
+    public CompletableFuture<AmazonPayResponse> getReportDocumentAsync(final String reportDocumentId) throws AmazonPayClientException {
+        return getReportDocumentAsync(reportDocumentId, null);
+    }
+
+    /**
+     * The getReportSchedules operation is used to return the pre-signed S3 URL for the report. The report can be downloaded using this URL.
+     *
+     * @param reportTypes Report Types provided while calling the API comma-seperated list of ReportType
+     * @param header Map&lt;String, String&gt; containing key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken)
+     * @return A CompletableFuture completed with the response from the getReports service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> getReportSchedulesAsync(final String reportTypes, final Map<String, String> header) throws AmazonPayClientException {
+        final URI getReportScheduleURI = Util.getServiceURI(payConfiguration, ServiceConstants.REPORT_SCHEDULES);
+        final Map<String, List<String>> queryParameters = new HashMap<>();
+        if (!reportTypes.isEmpty()) {
+            queryParameters.put("reportTypes", Arrays.asList(reportTypes));
+        }
+
+        final URI getReportSchedulesFinalURI = getReportScheduleURI.resolve(getReportScheduleURI.getPath() + "/?" + convertQueryParamters(queryParameters));
+        return callAPIAsync(getReportSchedulesFinalURI, "GET", queryParameters, "", header);
+    }
+
+    public CompletableFuture<AmazonPayResponse> getReportSchedulesAsync(final String reportTypes) throws AmazonPayClientException {
+        return getReportSchedulesAsync(reportTypes, null);
+    }
+
+    public CompletableFuture<AmazonPayResponse> getReportSchedulesAsync() throws AmazonPayClientException {
+        return getReportSchedulesAsync("", null);
+    }
+
+    /**
+     * The getReportScheduleById operation is used to get report schedule details that match the given ID.
+     *
+     * @param reportScheduleId Report Schedule ID provided while calling the API
+     * @param header Map&lt;String, String&gt; containing key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken)
+     * @return A CompletableFuture completed with the response from the getReports service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> getReportScheduleByIdAsync(final String reportScheduleId, final Map<String, String> header) throws AmazonPayClientException {
+        final URI getReportScheduleByIdURI = Util.getServiceURI(payConfiguration, ServiceConstants.REPORT_SCHEDULES);
+        final URI getReportScheduleByIdFinalURI = getReportScheduleByIdURI.resolve(getReportScheduleByIdURI.getPath() + "/" + reportScheduleId);
+        return callAPIAsync(getReportScheduleByIdFinalURI, "GET", null, "", header);
+    }
+
+    public CompletableFuture<AmazonPayResponse> getReportScheduleByIdAsync(final String reportScheduleId) throws AmazonPayClientException {
+        return getReportScheduleByIdAsync(reportScheduleId, null);
+    }
+
+    /**
+     * The createReport operation is used to submit a request to generate a report based on the reportType and date range specified.
+     *
+     * @param payload JSONObject request body
+     * @param header Map&lt;String, String&gt; containing key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken)
+     * @return A CompletableFuture completed with the response from the getReports service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> createReportAsync(final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
+        final URI createReportURI = Util.getServiceURI(payConfiguration, ServiceConstants.REPORTS);
+        return callAPIBytesAsync(createReportURI, "POST", null, Util.toJsonBytes(payload), header);
+    }
+
+    /**
+     * The createReport operation is used to create a report schedule for the given reportType. Only one schedule per report type allowed.
+     *
+     * @param payload JSONObject request body
+     * @param header Map&lt;String, String&gt; containing key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken)
+     * @return A CompletableFuture completed with the response from the getReports service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> createReportScheduleAsync(final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
+        final URI createReportScheduleURI = Util.getServiceURI(payConfiguration, ServiceConstants.REPORT_SCHEDULES);
+        return callAPIBytesAsync(createReportScheduleURI, "POST", null, Util.toJsonBytes(payload), header);
+    }
+
+    /**
+     * The cancelReportSchedule operation is used to cancel the report schedule with the given reportScheduleId.
+     *
+     * @param reportScheduleId Report Schedule ID provided while calling the API
+     * @param header Map&lt;String, String&gt; containing key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken)
+     * @return A CompletableFuture completed with the response from the getReports service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> cancelReportScheduleAsync(final String reportScheduleId, final Map<String, String> header) throws AmazonPayClientException {
+        final URI cancelReportScheduleURI = Util.getServiceURI(payConfiguration, ServiceConstants.REPORT_SCHEDULES);
+        final URI cancelReportScheduleFinalURI = cancelReportScheduleURI.resolve(cancelReportScheduleURI.getPath() + "/" + reportScheduleId);
+        return callAPIAsync(cancelReportScheduleFinalURI, "DELETE", null, "", header);
+    }
+
+    public CompletableFuture<AmazonPayResponse> cancelReportScheduleAsync(final String reportScheduleId) throws AmazonPayClientException {
+        return cancelReportScheduleAsync(reportScheduleId, null);
+    }
+
+    /**
+     * The getDisbursements operation is used to receive disbursement details based on a date range of the settlement date specified in the request.
+     *
+     * @param queryParameters Query Parameters to be provided while calling API (e.g., startTime, endTime, pageSize, etc.)
+     * @param header Map&lt;String, String&gt; containing key-value pair of headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-date)
+     * @return A CompletableFuture completed with the response from the getDisbursements API, as returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> getDisbursementsAsync(final Map<String, List<String>> queryParameters, final Map<String, String> header) throws AmazonPayClientException {
+        final URI getDisbursementsURI = Util.getServiceURI(payConfiguration, ServiceConstants.DISBURSEMENTS);
+        final URI getDisbursementsFinalURI = getDisbursementsURI.resolve(getDisbursementsURI.getPath() + "/?" + convertQueryParamters(queryParameters));
+        return callAPIAsync(getDisbursementsFinalURI, "GET", queryParameters, "", header);
+    }
+
+    /**
+     * The finalizeCheckoutSession operation enables Pay to validate payment critical attributes and also update book-keeping attributes present in merchantMetadata
+     *
+     * @param checkoutSessionId Checkout Session ID provided by Checkout v2 service
+     * @param payload JSONObject request body
+     * @param header Map&lt;String, String&gt; containining key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken)
+     * @return A CompletableFuture completed with the response from the CompleteCheckoutSession service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> finalizeCheckoutSessionAsync(final String checkoutSessionId, final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
+        final URI checkoutSessionURI = Util.getServiceURI(payConfiguration, ServiceConstants.CHECKOUT_SESSIONS);
+        final URI completeCheckoutSessionURI = checkoutSessionURI.resolve(checkoutSessionURI.getPath() + "/" + checkoutSessionId + "/" + "finalize");
+        return callAPIBytesAsync(completeCheckoutSessionURI, "POST", null, Util.toJsonBytes(payload), header);
+    }
+
+    /**
+     * The finalizeCheckoutSession operation enables Pay to validate payment critical attributes and also update book-keeping attributes present in merchantMetadata.
+     *
+     * @param checkoutSessionId Checkout Session ID provided by Checkout v2 service
+     * @param payload JSONObject request body
+     * @return A CompletableFuture completed with the response from the CompleteCheckoutSession service API, as
+     * returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> finalizeCheckoutSessionAsync(final String checkoutSessionId, final JSONObject payload) throws AmazonPayClientException {
+        return finalizeCheckoutSessionAsync(checkoutSessionId, payload, null);
+    }
+
+    /**
+     * The createDispute operation is used to notify Amazon of a newly created chargeback dispute by a buyer on a
+     * transaction processed by the PSP (Payment Service Provider), ensuring the dispute is properly accounted for in
+     * the Amazon Pay systems.
+     *
+     * @param payload JSONObject request body
+     * @param header Map&lt;String, String&gt; containing key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken, x-amz-pay-date)
+     * @return A CompletableFuture completed with the response from the createDispute service API, as returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> createDisputeAsync(final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
+        final URI createDisputeURI = Util.getServiceURI(payConfiguration, ServiceConstants.DISPUTES);
+        return callAPIBytesAsync(createDisputeURI, "POST", null, Util.toJsonBytes(payload), header);
+    }
+
+    /**
+     * The updateDispute operation is used to notify Amazon of the closure status of a chargeback dispute initiated by a
+     * buyer for orders processed by a partner PSP (Payment Service Provider), ensuring proper accounting within
+     * the Amazon systems.
+     *
+     * @param disputeId Dispute ID provided while calling the API
+     * @param payload JSONObject request body
+     * @param header Map&lt;String, String&gt; containing key-value pair of required headers (e.g., keys such as x-amz-pay-authtoken, x-amz-pay-date)
+     * @return A CompletableFuture completed with the response from the updateDispute service API, as returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> updateDisputeAsync(final String disputeId, final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
+        final URI updateDisputeURI = Util.getServiceURI(payConfiguration, ServiceConstants.DISPUTES);
+        final URI updateDisputeFinalURI = updateDisputeURI.resolve(updateDisputeURI.getPath() + "/" + disputeId);
+        return callAPIBytesAsync(updateDisputeFinalURI, "PATCH", null, Util.toJsonBytes(payload), header);
+    }
+
+    /**
+     * The updateDispute operation is used to notify Amazon of the closure status of a chargeback dispute initiated by a
+     * buyer for orders processed by a partner PSP (Payment Service Provider), ensuring proper accounting within
+     * the Amazon systems.
+     *
+     * @param disputeId Dispute ID provided while calling the API
+     * @param payload JSONObject request body
+     * @return A CompletableFuture completed with the response from the updateDispute service API, as returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> updateDisputeAsync(final String disputeId, final JSONObject payload) throws AmazonPayClientException {
+        return updateDisputeAsync(disputeId, payload, null);
+    }
+
+    /**
+     * The contestDispute operation is used by the partner, on behalf of the merchant, to formally contest a dispute
+     * managed by Amazon, requiring the submission of necessary evidence files within the specified
+     * Dispute Window (11 days for Chargeback, 7 days for A-Z Claims).
+     *
+     * @param disputeId Dispute ID provided while calling the API
+     * @param payload JSONObject request body
+     * @param header Map&lt;String, String&gt; containing key-value pair of required headers (e.g., keys such as x-amz-pay-authtoken, x-amz-pay-date)
+     * @return A CompletableFuture completed with the response from the contestDispute service API, as returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> contestDisputeAsync(final String disputeId, final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
+        final URI contestDisputeURI = Util.getServiceURI(payConfiguration, ServiceConstants.DISPUTES);
+        final URI contestDisputeFinalURI = contestDisputeURI.resolve(contestDisputeURI.getPath() + "/" + disputeId + "/contest");
+        return callAPIBytesAsync(contestDisputeFinalURI, "POST", null, Util.toJsonBytes(payload), header);
+    }
+
+    /**
+     * The contestDispute operation is used by the partner, on behalf of the merchant, to formally contest a dispute
+     * managed by Amazon, requiring the submission of necessary evidence files within the specified
+     * Dispute Window (11 days for Chargeback, 7 days for A-Z Claims).
+     *
+     * @param disputeId Dispute ID provided while calling the API
+     * @param payload JSONObject request body
+     * @return A CompletableFuture completed with the response from the contestDispute service API, as returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> contestDisputeAsync(final String disputeId, final JSONObject payload) throws AmazonPayClientException {
+        return contestDisputeAsync(disputeId, payload, null);
+    }
+
+    /**
+     * The getDispute operation is used to retrieve details of a chargeback dispute associated with a specific order.
+     *
+     * @param disputeId The unique Dispute ID provided by Amazon Pay for the chargeback case.
+     * @param header Map<String, String> containing key-value pairs of optional headers (e.g., x-amz-pay-authtoken).
+     * @return A CompletableFuture completed with the response from the getDispute service API, as returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> getDisputeAsync(final String disputeId, final Map<String, String> header) throws AmazonPayClientException {
+        final URI baseUri = Util.getServiceURI(payConfiguration, ServiceConstants.DISPUTES);
+        final URI finalUri = baseUri.resolve(baseUri.getPath() + "/" + disputeId);
+        return callAPIAsync(finalUri, "GET", null, "", header);
+    }
+
+    /**
+     * The getDispute operation is used to retrieve details of a chargeback dispute associated with a specific order.
+     *
+     * @param disputeId The unique Dispute ID provided by Amazon Pay for the chargeback case.
+     * @return A CompletableFuture completed with the response from the getDispute service API, as returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> getDisputeAsync(final String disputeId) throws AmazonPayClientException {
+        return getDisputeAsync(disputeId, Collections.emptyMap());
+    }
+
+    /**
+     * The uploadFile operation is utilised by PSPs (Payment Service Provider) to upload file-based evidence when a
+     * merchant contests a dispute, providing the necessary reference ID to the evidence file as part of
+     * the Update Dispute API process.
+     *
+     * @param payload JSONObject request body
+     * @param header Map&lt;String, String&gt; containing key-value pair of required headers (e.g., keys such as x-amz-pay-idempotency-key, x-amz-pay-authtoken, x-amz-pay-date)
+     * @return A CompletableFuture completed with the response from the uploadFile service API, as returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> uploadFileAsync(final JSONObject payload, final Map<String, String> header) throws AmazonPayClientException {
+        final URI uploadFileURI = Util.getServiceURI(payConfiguration, ServiceConstants.FILES);
+        return callAPIBytesAsync(uploadFileURI, "POST", null, Util.toJsonBytes(payload), header);
+    }
+
+    /**
+     * The uploadFile operation is utilised by PSPs (Payment Service Provider) to upload file-based evidence when a
+     * merchant contests a dispute, providing the necessary reference ID to the evidence file as part of
+     * the Update Dispute API process.
+     *
+     * @param payload JSONObject request body
+     * @return A CompletableFuture completed with the response from the uploadFile service API, as returned by Amazon Pay.
+     * @throws AmazonPayClientException When the request cannot be built or signed
+     */
+    public CompletableFuture<AmazonPayResponse> uploadFileAsync(final JSONObject payload) throws AmazonPayClientException {
+        return uploadFileAsync(payload, null);
+    }
 }
@@ -0,0 +1,26 @@
+/**
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.pay.api.types;
+
+/**
+ * This represents an enum class identifying the HTTP protocol version used to reach Amazon Pay.
+ * HTTP_2 multiplexes concurrent requests over a few connections and requires Java 11 or later.
+ */
+
+public enum HttpVersion {
+    HTTP_1_1,
+    HTTP_2;
+}
@@ -0,0 +1,610 @@
+package com.amazon.pay.api;
+
+import com.amazon.pay.api.exceptions.AmazonPayClientException;
+import com.amazon.pay.api.types.Environment;
+import com.amazon.pay.api.types.HttpVersion;
+import com.amazon.pay.api.types.Region;
+import com.sun.net.httpserver.HttpServer;
+
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHttpResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.KeyPairGenerator;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AmazonPayClientTest {
+
+    private PayConfiguration payConfiguration;
+    private AmazonPayClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        payConfiguration = new PayConfiguration()
+                .setPrivateKey(new String(Files.readAllBytes(
+                        Paths.get("tst/com/amazon/pay/api/unit_test_private_key.txt"))).toCharArray())
+                .setRegion(Region.NA)
+                .setPublicKeyId("ABCDEF0000000000000")
+                .setEnvironment(Environment.SANDBOX);
+
+        client = new AmazonPayClient(payConfiguration);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        client.close();
+    }
+
+    @Test
+    public void testHttpClientIsSharedAcrossCalls() {
+        final CloseableHttpClient first = getHttpClient(client);
+        final CloseableHttpClient second = getHttpClient(client);
+        Assert.assertNotNull(first);
+        Assert.assertSame(first, second);
+    }
+
+    @Test
+    public void testCloseShutsDownConnectionPool() throws Exception {
+        final CloseableHttpClient httpClient = getHttpClient(client);
+        client.close();
+        try {
+            httpClient.execute(new HttpGet("http://localhost:1/"));
+            Assert.fail("Expected the connection pool to be shut down");
+        } catch (IllegalStateException expected) {
+            Assert.assertEquals("Connection pool shut down", expected.getMessage());
+        }
+    }
+
+    @Test
+    public void testAsyncRequestCompletesExceptionallyWhenEndpointIsUnreachable() throws Exception {
+        payConfiguration.overrideServiceURL = "localhost:1";
+        try (WebstoreClient webstoreClient = new WebstoreClient(payConfiguration)) {
+            final CompletableFuture<AmazonPayResponse> future = webstoreClient.getChargeAsync("S01-0000000-0000000-C000000");
+            try {
+                future.get(30, TimeUnit.SECONDS);
+                Assert.fail("Expected the request to fail");
+            } catch (ExecutionException expected) {
+                Assert.assertTrue(expected.getCause() instanceof AmazonPayClientException);
+            }
+        }
+    }
+
+    @Test
+    public void testTryWithResources() throws Exception {
+        try (AmazonPayClient closeable = new AmazonPayClient(payConfiguration)) {
+            Assert.assertNotNull(getHttpClient(closeable));
+        }
+    }
+
+    @Test
+    public void testDefaultTransportIsApacheOverHttp11() {
+        Assert.assertEquals(HttpVersion.HTTP_1_1, payConfiguration.getHttpVersion());
+        Assert.assertTrue(client.httpTransport instanceof ApacheHttpTransport);
+    }
+
+    @Test
+    public void testRequestsGoThroughConfiguredTransport() throws Exception {
+        final InMemoryHttpTransport transport = InMemoryHttpTransport.respondingWith(200, "{\"chargeId\":\"C01\"}");
+        try (WebstoreClient webstoreClient = new WebstoreClient(payConfiguration.setHttpTransport(transport))) {
+            final AmazonPayResponse response = webstoreClient.getCharge("S01-0000000-0000000-C000000");
+            Assert.assertEquals(200, response.getStatus());
+            Assert.assertEquals("C01", response.getResponse().getString("chargeId"));
+            Assert.assertEquals("X-Amz-Pay-Request-Id: in-memory-request", response.getRequestId());
+        }
+        Assert.assertEquals(1, transport.getRequests().size());
+        final HttpTransportRequest request = transport.getRequests().get(0);
+        Assert.assertEquals("GET", request.getMethod());
+        Assert.assertTrue(request.getHeaders().get("authorization").startsWith("AMZN-PAY-RSASSA-PSS"));
+    }
+
+    @Test
+    public void testRecordingOfInMemoryRequestsCanBeClearedAndTurnedOff() throws Exception {
+        final InMemoryHttpTransport transport = InMemoryHttpTransport.respondingWith(200, "{}");
+        try (WebstoreClient webstoreClient = new WebstoreClient(payConfiguration.setHttpTransport(transport))) {
+            webstoreClient.getCharge("S01-0000000-0000000-C000000");
+            Assert.assertEquals(1, transport.getRequests().size());
+            transport.clearRequests();
+            Assert.assertTrue(transport.getRequests().isEmpty());
+            transport.setRecordingRequests(false);
+            for (int i = 0; i < 10; i++) {
+                Assert.assertEquals(200, webstoreClient.getCharge("S01-0000000-0000000-C000000").getStatus());
+            }
+            Assert.assertTrue(transport.getRequests().isEmpty());
+        }
+    }
+
+    @Test
+    public void testSuppliedTransportReportsPoolStatsWithoutClientPool() throws Exception {
+        final InMemoryHttpTransport transport = InMemoryHttpTransport.respondingWith(200, "{}");
+        try (WebstoreClient webstoreClient = new WebstoreClient(payConfiguration.setHttpTransport(transport))) {
+            Assert.assertNull(webstoreClient.connectionManager);
+            webstoreClient.getCharge("S01-0000000-0000000-C000000");
+            final ConnectionPoolStats poolStats = webstoreClient.getPoolStats();
+            Assert.assertEquals(0, poolStats.getMaxConnections());
+            Assert.assertEquals(0, poolStats.getAvailableConnections());
+            Assert.assertEquals(0, poolStats.getLeasedConnections());
+        }
+        try (ApacheHttpTransport apacheTransport = new ApacheHttpTransport(payConfiguration.setClientConnections(7));
+             WebstoreClient webstoreClient = new WebstoreClient(payConfiguration.setHttpTransport(apacheTransport))) {
+            Assert.assertNull(webstoreClient.connectionManager);
+            Assert.assertEquals(7, webstoreClient.getPoolStats().getMaxConnections());
+        }
+    }
+
+    @Test
+    public void testRequestsAreSignedBySignerWithoutPrivateKey() throws Exception {
+        final InMemoryHttpTransport transport = InMemoryHttpTransport.respondingWith(200, "{\"chargeId\":\"C01\"}");
+        final PayConfiguration signerConfiguration = new PayConfiguration()
+                .setRegion(Region.NA)
+                .setPublicKeyId("ABCDEF0000000000000")
+                .setEnvironment(Environment.SANDBOX)
+                .setHttpTransport(transport);
+        try (InMemorySigningService service = new InMemorySigningService(
+                new PrivateKeySigner(payConfiguration.getPrivateKey()), 10);
+             WebstoreClient webstoreClient = new WebstoreClient(signerConfiguration.setSigner(new BatchingSigner(service)))) {
+            Assert.assertEquals(200, webstoreClient.getCharge("S01-0000000-0000000-C000000").getStatus());
+            Assert.assertEquals(200, webstoreClient.getChargeAsync("S01-0000000-0000000-C000000")
+                    .get(30, TimeUnit.SECONDS).getStatus());
+            Assert.assertFalse(webstoreClient.generateButtonSignature("{}").isEmpty());
+            Assert.assertEquals(3, service.getBatchSizes().size());
+        }
+        Assert.assertEquals(2, transport.getRequests().size());
+        for (HttpTransportRequest request : transport.getRequests()) {
+            Assert.assertTrue(request.getHeaders().get("authorization").startsWith("AMZN-PAY-RSASSA-PSS"));
+        }
+    }
+
+    @Test
+    public void testKeyRotationWithoutRebuildingClient() throws Exception {
+        final InMemoryHttpTransport transport = InMemoryHttpTransport.respondingWith(200, "{}");
+        try (WebstoreClient webstoreClient = new WebstoreClient(payConfiguration.setHttpTransport(transport))) {
+            final HttpTransport httpTransport = webstoreClient.httpTransport;
+            webstoreClient.getCharge("S01-0000000-0000000-C000000");
+            payConfiguration.getKeyRegistry().rotate("ABCDEF0000000000001",
+                    KeyPairGenerator.getInstance("RSA").generateKeyPair().getPrivate());
+            webstoreClient.getCharge("S01-0000000-0000000-C000000");
+            webstoreClient.getChargeAsync("S01-0000000-0000000-C000000").get(30, TimeUnit.SECONDS);
+            Assert.assertSame(httpTransport, webstoreClient.httpTransport);
+        }
+        Assert.assertTrue(transport.getRequests().get(0).getHeaders().get("authorization")
+                .contains("PublicKeyId=ABCDEF0000000000000,"));
+        Assert.assertTrue(transport.getRequests().get(1).getHeaders().get("authorization")
+                .contains("PublicKeyId=ABCDEF0000000000001,"));
+        Assert.assertTrue(transport.getRequests().get(2).getHeaders().get("authorization")
+                .contains("PublicKeyId=ABCDEF0000000000001,"));
+    }
+
+    @Test
+    public void testSignerFailureCompletesAsyncRequestExceptionally() throws Exception {
+        final InMemoryHttpTransport transport = InMemoryHttpTransport.respondingWith(200, "{}");
+        payConfiguration.setHttpTransport(transport).setSigner(new BatchingSigner(requests -> {
+            final CompletableFuture<List<byte[]>> future = new CompletableFuture<>();
+            future.completeExceptionally(new IOException("Signing service unavailable"));
+            return future;
+        }));
+        try (WebstoreClient webstoreClient = new WebstoreClient(payConfiguration)) {
+            try {
+                webstoreClient.getChargeAsync("S01-0000000-0000000-C000000").get(30, TimeUnit.SECONDS);
+                Assert.fail("Expected the request to fail");
+            } catch (ExecutionException expected) {
+                Assert.assertTrue(expected.getCause() instanceof AmazonPayClientException);
+                Assert.assertTrue(expected.getCause().getCause().getCause() instanceof IOException);
+            }
+        }
+        Assert.assertTrue(transport.getRequests().isEmpty());
+    }
+
+    @Test
+    public void testPayloadIsSentAsSerialized() throws Exception {
+        final InMemoryHttpTransport transport = InMemoryHttpTransport.respondingWith(201, "{\"chargeId\":\"C01\"}");
+        final JSONObject payload = new JSONObject()
+                .put("chargePermissionId", "S01-0000000-0000000")
+                .put("softDescriptor", "caf\u00e9 \ud83d\ude00");
+        try (WebstoreClient webstoreClient = new WebstoreClient(payConfiguration.setHttpTransport(transport))) {
+            final AmazonPayResponse response = webstoreClient.createCharge(payload,
+                    Collections.singletonMap("x-amz-pay-idempotency-key", "key"));
+            Assert.assertEquals(payload.toString(), response.getRawRequest());
+        }
+        Assert.assertArrayEquals(payload.toString().getBytes(StandardCharsets.UTF_8),
+                transport.getRequests().get(0).getBody());
+    }
+
+    @Test
+    public void testCallAPIWithNullPayload() throws Exception {
+        final InMemoryHttpTransport transport = InMemoryHttpTransport.respondingWith(200, "{}");
+        try (AmazonPayClient client = new AmazonPayClient(payConfiguration.setHttpTransport(transport))) {
+            final URI uri = URI.create("https://pay-api.amazon.com/sandbox/v2/charges");
+            Assert.assertEquals(200, client.callAPI(uri, "POST", null, null, Collections.emptyMap()).getStatus());
+            Assert.assertEquals(200, client.callAPIAsync(uri, "POST", null, null, Collections.emptyMap())
+                    .get(30, TimeUnit.SECONDS).getStatus());
+        }
+        Assert.assertEquals(0, transport.getRequests().get(0).getBody().length);
+    }
+
+    @Test
+    public void testRequestIsDatedWithConfiguredClock() throws Exception {
+        final InMemoryHttpTransport transport = InMemoryHttpTransport.respondingWith(200, "{}");
+        payConfiguration.setHttpTransport(transport)
+                .setClock(Clock.fixed(Instant.parse("2024-02-29T23:59:59.999Z"), ZoneOffset.UTC));
+        try (WebstoreClient webstoreClient = new WebstoreClient(payConfiguration)) {
+            webstoreClient.getCharge("S01-0000000-0000000-C000000");
+            payConfiguration.setClock(Clock.fixed(Instant.parse("2024-03-01T00:00:00Z"), ZoneOffset.UTC));
+            webstoreClient.getCharge("S01-0000000-0000000-C000000");
+        }
+        Assert.assertEquals("20240229T235959Z", transport.getRequests().get(0).getHeaders().get("x-amz-pay-date"));
+        Assert.assertEquals("20240301T000000Z", transport.getRequests().get(1).getHeaders().get("x-amz-pay-date"));
+    }
+
+    @Test
+    public void testPollingReusesSignatureWithinSecond() throws Exception {
+        final InMemoryHttpTransport transport = InMemoryHttpTransport.respondingWith(200, "{}");
+        final PrivateKeySigner privateKeySigner = new PrivateKeySigner(payConfiguration.getPrivateKey());
+        final AtomicInteger signatures = new AtomicInteger();
+        payConfiguration.setHttpTransport(transport)
+                .setSigner((stringToSign, algorithm) -> {
+                    signatures.incrementAndGet();
+                    return privateKeySigner.sign(stringToSign, algorithm);
+                })
+                .setSignatureCacheSize(16)
+                .setClock(Clock.fixed(Instant.parse("2024-02-29T23:59:59.100Z"), ZoneOffset.UTC));
+        try (WebstoreClient webstoreClient = new WebstoreClient(payConfiguration)) {
+            webstoreClient.getCharge("S01-0000000-0000000-C000000");
+            webstoreClient.getCharge("S01-0000000-0000000-C000000");
+            webstoreClient.getChargeAsync("S01-0000000-0000000-C000000").get(30, TimeUnit.SECONDS);
+            Assert.assertEquals(1, signatures.get());
+
+            webstoreClient.getCharge("S01-0000000-0000000-C000001");
+            payConfiguration.setClock(Clock.fixed(Instant.parse("2024-02-29T23:59:59.900Z"), ZoneOffset.UTC));
+            webstoreClient.getCharge("S01-0000000-0000000-C000000");
+            Assert.assertEquals(2, signatures.get());
+
+            payConfiguration.setClock(Clock.fixed(Instant.parse("2024-03-01T00:00:00Z"), ZoneOffset.UTC));
+            webstoreClient.getCharge("S01-0000000-0000000-C000000");
+            Assert.assertEquals(3, signatures.get());
+
+            final SignatureCacheStats stats = webstoreClient.getSignatureCacheStats();
+            Assert.assertEquals(3, stats.getHits());
+            Assert.assertEquals(3, stats.getMisses());
+            Assert.assertEquals(0.5, stats.getHitRate(), 0);
+            Assert.assertEquals(1, stats.getSize());
+        }
+        final String authorization = transport.getRequests().get(0).getHeaders().get("authorization");
+        Assert.assertEquals(authorization, transport.getRequests().get(1).getHeaders().get("authorization"));
+        Assert.assertEquals(authorization, transport.getRequests().get(2).getHeaders().get("authorization"));
+        Assert.assertEquals(authorization, transport.getRequests().get(4).getHeaders().get("authorization"));
+        Assert.assertNotEquals(authorization, transport.getRequests().get(5).getHeaders().get("authorization"));
+    }
+
+    @Test
+    public void testResponseBodyIsNotAltered() throws Exception {
+        final String body = "{\n  \"chargeId\": \"C01\",\r\n  \"note\": \"caf\u00e9\"\n}";
+        payConfiguration.setHttpTransport(InMemoryHttpTransport.respondingWith(200, body));
+        try (WebstoreClient webstoreClient = new WebstoreClient(payConfiguration)) {
+            final AmazonPayResponse response = webstoreClient.getCharge("S01-0000000-0000000-C000000");
+            Assert.assertEquals(body, response.getRawResponse());
+            Assert.assertEquals("caf\u00e9", response.getResponse().getString("note"));
+        }
+    }
+
+    @Test
+    public void testSuccessfulResponseWithoutEntity() throws Exception {
+        payConfiguration.setHttpTransport(new InMemoryHttpTransport(request ->
+                new HttpTransportResponse(200, Collections.emptyMap(), null)));
+        try (WebstoreClient webstoreClient = new WebstoreClient(payConfiguration)) {
+            final AmazonPayResponse response = webstoreClient.getCharge("S01-0000000-0000000-C000000");
+            Assert.assertEquals("{}", response.getRawResponse());
+            Assert.assertEquals(0, response.getResponse().length());
+        }
+    }
+
+    @Test
+    public void testThrottledRequestsAreRetriedThroughTransport() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        final InMemoryHttpTransport transport = new InMemoryHttpTransport(request -> new HttpTransportResponse(
+                attempts.incrementAndGet() < 3 ? 503 : 200, Collections.emptyMap(), "{}".getBytes(StandardCharsets.UTF_8)));
+        payConfiguration.setHttpTransport(transport).setRetryStrategy(new ExponentialRetryStrategy(3, 1, 1, 1, 1));
+        try (WebstoreClient webstoreClient = new WebstoreClient(payConfiguration)) {
+            final AmazonPayResponse response = webstoreClient.getCharge("S01-0000000-0000000-C000000");
+            Assert.assertEquals(200, response.getStatus());
+            Assert.assertEquals(2, response.getRetries());
+
+            attempts.set(0);
+            final AmazonPayResponse asyncResponse = webstoreClient.getChargeAsync("S01-0000000-0000000-C000000")
+                    .get(30, TimeUnit.SECONDS);
+            Assert.assertEquals(200, asyncResponse.getStatus());
+            Assert.assertEquals(2, asyncResponse.getRetries());
+        }
+    }
+
+    @Test
+    public void testTransportFailureIsWrapped() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        payConfiguration.setHttpTransport(new InMemoryHttpTransport(request -> {
+            attempts.incrementAndGet();
+            throw new IOException("Connection reset");
+        })).setRetryStrategy(new ExponentialRetryStrategy(3, 1));
+        try (WebstoreClient webstoreClient = new WebstoreClient(payConfiguration)) {
+            try {
+                webstoreClient.getCharge("S01-0000000-0000000-C000000");
+                Assert.fail("Expected the request to fail");
+            } catch (AmazonPayClientException expected) {
+                Assert.assertTrue(expected.getCause() instanceof IOException);
+            }
+            // a GET request is sent again after a connection reset
+            Assert.assertEquals(4, attempts.get());
+        }
+    }
+
+    @Test
+    public void testAsyncTransportFailureIsWrappedOnce() throws Exception {
+        final CompletableFuture<HttpTransportResponse> reset = new CompletableFuture<>();
+        reset.completeExceptionally(new IOException("Connection reset"));
+        payConfiguration.setHttpTransport(new HttpTransport() {
+            @Override
+            public HttpTransportResponse execute(final HttpTransportRequest request) throws IOException {
+                throw new IOException("Connection reset");
+            }
+
+            @Override
+            public CompletableFuture<HttpTransportResponse> executeAsync(final HttpTransportRequest request) {
+                // a dependent stage, as most non-blocking transports return, fails with a CompletionException
+                return reset.thenApply(response -> response);
+            }
+        }).setRetryStrategy(new ExponentialRetryStrategy(1, 1));
+        try (WebstoreClient webstoreClient = new WebstoreClient(payConfiguration)) {
+            try {
+                webstoreClient.getChargeAsync("S01-0000000-0000000-C000000").get(30, TimeUnit.SECONDS);
+                Assert.fail("Expected the request to fail");
+            } catch (ExecutionException expected) {
+                final Throwable exception = expected.getCause();
+                Assert.assertTrue(exception instanceof AmazonPayClientException);
+                Assert.assertTrue(exception.getCause() instanceof IOException);
+                Assert.assertEquals("Connection reset", exception.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testConnectionResetIsRetriedWithIdempotencyKey() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        final List<String> idempotencyKeys = Collections.synchronizedList(new ArrayList<>());
+        payConfiguration.setHttpTransport(new InMemoryHttpTransport(request -> {
+            idempotencyKeys.add(request.getHeaders().get("x-amz-pay-idempotency-key"));
+            if (attempts.incrementAndGet() == 1) {
+                throw new IOException("Connection reset");
+            }
+            return new HttpTransportResponse(201, Collections.emptyMap(), "{}".getBytes(StandardCharsets.UTF_8));
+        })).setRetryStrategy(new ExponentialRetryStrategy(3, 1));
+        try (WebstoreClient webstoreClient = new WebstoreClient(payConfiguration)) {
+            final AmazonPayResponse response = webstoreClient.createCheckoutSession(new JSONObject());
+            Assert.assertEquals(201, response.getStatus());
+            Assert.assertEquals(1, response.getRetries());
+
+            // the same idempotency key was sent twice, so Amazon Pay creates a single checkout session
+            Assert.assertEquals(2, idempotencyKeys.size());
+            Assert.assertNotNull(idempotencyKeys.get(0));
+            Assert.assertEquals(idempotencyKeys.get(0), idempotencyKeys.get(1));
+
+            attempts.set(0);
+            final AmazonPayResponse asyncResponse = webstoreClient.createCheckoutSessionAsync(new JSONObject())
+                    .get(30, TimeUnit.SECONDS);
+            Assert.assertEquals(201, asyncResponse.getStatus());
+            Assert.assertEquals(1, asyncResponse.getRetries());
+        }
+    }
+
+    @Test
+    public void testWarmUpParksOpenConnectionsInPool() throws Exception {
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            final URI endpoint = URI.create("http://127.0.0.1:" + server.getLocalPort());
+            Assert.assertEquals(0, client.httpTransport.getIdleConnections(endpoint));
+            Assert.assertEquals(3, client.httpTransport.warmUp(endpoint, 3));
+            Assert.assertEquals(3, client.httpTransport.getIdleConnections(endpoint));
+            Assert.assertEquals(3, client.getPoolStats().getAvailableConnections());
+            Assert.assertEquals(0, client.getPoolStats().getLeasedConnections());
+
+            // idle connections count towards the requested number
+            Assert.assertEquals(2, client.httpTransport.warmUp(endpoint, 5));
+            Assert.assertEquals(5, client.httpTransport.getIdleConnections(endpoint));
+        }
+    }
+
+    @Test
+    public void testWarmUpConnectTimeoutIsFinite() {
+        Assert.assertEquals(ServiceConstants.WARM_UP_CONNECT_TIMEOUT_MILLIS,
+                ApacheHttpTransport.getWarmUpConnectTimeout(payConfiguration));
+        payConfiguration.setRequestConfig(new RequestConfig(0, 0, 0));
+        Assert.assertEquals(ServiceConstants.WARM_UP_CONNECT_TIMEOUT_MILLIS,
+                ApacheHttpTransport.getWarmUpConnectTimeout(payConfiguration));
+        payConfiguration.setRequestConfig(new RequestConfig(0, 500, 0));
+        Assert.assertEquals(500, ApacheHttpTransport.getWarmUpConnectTimeout(payConfiguration));
+    }
+
+    @Test
+    public void testIdleConnectionsAreToppedUpOffScheduler() throws Exception {
+        final CountDownLatch warmUpStarted = new CountDownLatch(1);
+        final CountDownLatch releaseWarmUp = new CountDownLatch(1);
+        final List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger attempts = new AtomicInteger();
+        payConfiguration.setMinIdleConnections(2).setHttpTransport(new InMemoryHttpTransport(request ->
+                new HttpTransportResponse(attempts.incrementAndGet() == 1 ? 503 : 200, Collections.emptyMap(),
+                        "{}".getBytes(StandardCharsets.UTF_8))) {
+            @Override
+            public int warmUp(final URI endpoint, final int connections) throws IOException {
+                threads.add(Thread.currentThread().getName());
+                warmUpStarted.countDown();
+                try {
+                    // a connect to an unreachable endpoint
+                    releaseWarmUp.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return connections;
+            }
+        }).setRetryStrategy(new ExponentialRetryStrategy(1, 1));
+        try (WebstoreClient webstoreClient = new WebstoreClient(payConfiguration)) {
+            Assert.assertTrue(warmUpStarted.await(30, TimeUnit.SECONDS));
+            Assert.assertEquals(Collections.singletonList("amazon-pay-worker"), threads);
+
+            // the scheduler still completes the backoffs while the warm-up is connecting
+            final AmazonPayResponse response = webstoreClient.getChargeAsync("S01-0000000-0000000-C000000")
+                    .get(30, TimeUnit.SECONDS);
+            Assert.assertEquals(1, response.getRetries());
+        } finally {
+            releaseWarmUp.countDown();
+        }
+    }
+
+    @Test
+    public void testWarmUpFailsWhenNoConnectionCanBeOpened() throws Exception {
+        final URI endpoint;
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            endpoint = URI.create("http://127.0.0.1:" + server.getLocalPort());
+        }
+        try {
+            client.httpTransport.warmUp(endpoint, 2);
+            Assert.fail("Expected the warm-up to fail");
+        } catch (IOException expected) {
+            Assert.assertEquals(0, client.getPoolStats().getLeasedConnections());
+            Assert.assertEquals(0, client.getPoolStats().getAvailableConnections());
+        }
+    }
+
+    @Test
+    public void testWarmUpThroughTransportWithoutPool() throws Exception {
+        final InMemoryHttpTransport transport = InMemoryHttpTransport.respondingWith(200, "{}");
+        try (AmazonPayClient inMemoryClient = new AmazonPayClient(payConfiguration.setHttpTransport(transport))) {
+            final ConnectionWarmUpStats stats = inMemoryClient.warmUp(4);
+            Assert.assertEquals(4, stats.getRequestedConnections());
+            Assert.assertEquals(0, stats.getOpenedConnections());
+            Assert.assertEquals(0, stats.getIdleConnections());
+        }
+        Assert.assertTrue(transport.getRequests().isEmpty());
+    }
+
+    @Test
+    public void testDefaultClientStartsNoThread() throws Exception {
+        final long schedulersBefore = countSchedulerThreads();
+        // a client that is never closed must not keep a thread alive
+        new AmazonPayClient(payConfiguration);
+        Assert.assertEquals(schedulersBefore, countSchedulerThreads());
+    }
+
+    @Test
+    public void testIdleConnectionsAreEvicted() throws Exception {
+        payConfiguration.setKeepAliveMillis(100).setIdleEvictionIntervalMillis(50);
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+             AmazonPayClient evictingClient = new AmazonPayClient(payConfiguration)) {
+            final URI endpoint = URI.create("http://127.0.0.1:" + server.getLocalPort());
+            Assert.assertEquals(2, evictingClient.httpTransport.warmUp(endpoint, 2));
+            final long deadline = System.currentTimeMillis() + 10000;
+            while (evictingClient.getPoolStats().getAvailableConnections() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            Assert.assertEquals(0, evictingClient.getPoolStats().getAvailableConnections());
+        }
+    }
+
+    @Test
+    public void testKeepAliveDurationIsCappedByServerTimeout() {
+        final BasicHttpResponse response = new BasicHttpResponse(org.apache.http.HttpVersion.HTTP_1_1, 200, "OK");
+        final HttpClientContext context = HttpClientContext.create();
+        Assert.assertEquals(30000, ApacheHttpTransport.newKeepAliveStrategy(payConfiguration)
+                .getKeepAliveDuration(response, context));
+
+        response.setHeader("Keep-Alive", "timeout=5");
+        Assert.assertEquals(5000, ApacheHttpTransport.newKeepAliveStrategy(payConfiguration)
+                .getKeepAliveDuration(response, context));
+        Assert.assertEquals(2000, ApacheHttpTransport.newKeepAliveStrategy(payConfiguration.setKeepAliveMillis(2000))
+                .getKeepAliveDuration(response, context));
+
+        response.removeHeaders("Keep-Alive");
+        Assert.assertEquals(-1, ApacheHttpTransport.newKeepAliveStrategy(payConfiguration.setKeepAliveMillis(0))
+                .getKeepAliveDuration(response, context));
+    }
+
+    @Test
+    public void testCompressedResponsesAreDecodedAndCounted() throws Exception {
+        final StringBuilder json = new StringBuilder("{\"reports\":[");
+        for (int i = 0; i < 5000; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"reportId\":\"").append(i).append("\",\"processingStatus\":\"DONE\"}");
+        }
+        final byte[] body = json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+        final HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            final String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            final boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+            if (gzip) {
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = gzip ? new GZIPOutputStream(exchange.getResponseBody()) : exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        final URI local = URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+        try (ApacheHttpTransport transport = new ApacheHttpTransport(payConfiguration)) {
+            // getReports targets the https endpoint of Amazon Pay, send it to the local server instead
+            payConfiguration.setHttpTransport(request -> transport.execute(new HttpTransportRequest(
+                    local.resolve(request.getUri().getRawPath()), request.getMethod(), request.getHeaders(), request.getBody())));
+            try (WebstoreClient webstoreClient = new WebstoreClient(payConfiguration)) {
+                final AmazonPayResponse plain = webstoreClient.getReports();
+                Assert.assertEquals(body.length, plain.getWireBytes());
+                Assert.assertEquals(body.length, plain.getDecodedBytes());
+            }
+            try (WebstoreClient webstoreClient = new WebstoreClient(payConfiguration.setResponseCompression(true))) {
+                final AmazonPayResponse compressed = webstoreClient.getReports();
+                Assert.assertEquals(5000, compressed.getResponse().getJSONArray("reports").length());
+                Assert.assertEquals(body.length, compressed.getDecodedBytes());
+                Assert.assertTrue(compressed.getWireBytes() < body.length / 10);
+                Assert.assertEquals("gzip, deflate", compressed.getHeaders().get(ServiceConstants.ACCEPT_ENCODING));
+            }
+
+            final HttpTransportResponse asyncResponse = transport.executeAsync(new HttpTransportRequest(local, "GET",
+                    Collections.singletonMap(ServiceConstants.ACCEPT_ENCODING, "gzip"), null)).get(30, TimeUnit.SECONDS);
+            Assert.assertArrayEquals(body, asyncResponse.getBody());
+            Assert.assertTrue(asyncResponse.getWireBytes() < body.length / 10);
+            Assert.assertNull(asyncResponse.getFirstHeader("Content-Encoding"));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static long countSchedulerThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> "amazon-pay-scheduler".equals(thread.getName()))
+                .count();
+    }
+
+    private static CloseableHttpClient getHttpClient(final AmazonPayClient amazonPayClient) {
+        return ((ApacheHttpTransport) amazonPayClient.httpTransport).getHttpClient();
+    }
+}
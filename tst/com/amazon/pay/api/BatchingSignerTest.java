@@ -0,0 +1,188 @@
+package com.amazon.pay.api;
+
+import com.amazon.pay.api.types.AmazonSignatureAlgorithm;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class BatchingSignerTest {
+    private static PrivateKey privateKey;
+    private static PublicKey publicKey;
+
+    @BeforeClass
+    public static void loadKeys() throws Exception {
+        privateKey = Util.buildPrivateKey(new String(Files.readAllBytes(
+                Paths.get("tst/com/amazon/pay/api/unit_test_private_key.txt"))).toCharArray());
+        final String pem = new String(Files.readAllBytes(Paths.get("tst/com/amazon/pay/api/unit_test_public_key.txt")),
+                StandardCharsets.UTF_8).replaceAll("-----[A-Z ]+-----|\\s", "");
+        publicKey = KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(pem)));
+    }
+
+    @Test
+    public void testConcurrentRequestsAreBatched() throws Exception {
+        final int requests = 32;
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (InMemorySigningService service = new InMemorySigningService(new PrivateKeySigner(privateKey), 200)) {
+            final BatchingSigner signer = new BatchingSigner(service, 64, 1);
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<CompletableFuture<byte[]>>> submitted = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                final byte[] stringToSign = ("AMZN-PAY-RSASSA-PSS\n" + i).getBytes(StandardCharsets.UTF_8);
+                submitted.add(executor.submit(() -> {
+                    start.await();
+                    return signer.signAsync(stringToSign, AmazonSignatureAlgorithm.DEFAULT);
+                }));
+            }
+            start.countDown();
+            for (int i = 0; i < requests; i++) {
+                final byte[] signature = submitted.get(i).get(30, TimeUnit.SECONDS).get(30, TimeUnit.SECONDS);
+                Assert.assertTrue(verify(("AMZN-PAY-RSASSA-PSS\n" + i).getBytes(StandardCharsets.UTF_8), signature,
+                        AmazonSignatureAlgorithm.DEFAULT));
+            }
+
+            // requests arriving while a batch is in flight leave together in the next one
+            final List<Integer> batchSizes = service.getBatchSizes();
+            Assert.assertEquals(requests, batchSizes.stream().mapToInt(Integer::intValue).sum());
+            Assert.assertTrue(batchSizes.toString(), batchSizes.size() <= 3);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testBatchSizeIsCapped() throws Exception {
+        try (InMemorySigningService service = new InMemorySigningService(new PrivateKeySigner(privateKey), 100)) {
+            final BatchingSigner signer = new BatchingSigner(service, 5, 1);
+            final List<CompletableFuture<byte[]>> signatures = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                signatures.add(signer.signAsync(new byte[] { (byte) i }, AmazonSignatureAlgorithm.V2));
+            }
+            for (int i = 0; i < 12; i++) {
+                Assert.assertTrue(verify(new byte[] { (byte) i }, signatures.get(i).get(30, TimeUnit.SECONDS),
+                        AmazonSignatureAlgorithm.V2));
+            }
+            Assert.assertEquals(Arrays.asList(1, 5, 5, 1), service.getBatchSizes());
+        }
+    }
+
+    @Test
+    public void testLoneRequestIsSentAtOnce() throws Exception {
+        try (InMemorySigningService service = new InMemorySigningService(new PrivateKeySigner(privateKey), 0)) {
+            final byte[] stringToSign = "AMZN-PAY-RSASSA-PSS\nlone".getBytes(StandardCharsets.UTF_8);
+            final byte[] signature = new BatchingSigner(service).sign(stringToSign, AmazonSignatureAlgorithm.DEFAULT);
+            Assert.assertTrue(verify(stringToSign, signature, AmazonSignatureAlgorithm.DEFAULT));
+            Assert.assertEquals(Collections.singletonList(1), service.getBatchSizes());
+        }
+    }
+
+    @Test
+    public void testServiceFailureFailsTheBatch() throws Exception {
+        final BatchingSigner signer = new BatchingSigner(requests -> {
+            final CompletableFuture<List<byte[]>> future = new CompletableFuture<>();
+            future.completeExceptionally(new IOException("Signing service unavailable"));
+            return future;
+        });
+        try {
+            signer.sign(new byte[] { 1 }, AmazonSignatureAlgorithm.DEFAULT);
+            Assert.fail("Expected SignatureException");
+        } catch (SignatureException e) {
+            Assert.assertTrue(e.getCause() instanceof IOException);
+        }
+
+        // the failed batch released its slot
+        try {
+            signer.signAsync(new byte[] { 2 }, AmazonSignatureAlgorithm.DEFAULT).get(30, TimeUnit.SECONDS);
+            Assert.fail("Expected SignatureException");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof SignatureException);
+        }
+    }
+
+    @Test
+    public void testMissingSignaturesFailTheBatch() throws Exception {
+        final BatchingSigner signer = new BatchingSigner(requests ->
+                CompletableFuture.completedFuture(Collections.emptyList()));
+        try {
+            signer.sign(new byte[] { 1 }, AmazonSignatureAlgorithm.DEFAULT);
+            Assert.fail("Expected SignatureException");
+        } catch (SignatureException e) {
+            Assert.assertEquals("The signing service returned 0 signatures for 1 requests", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testNoStringIsLeftQueuedWithSynchronousService() throws Exception {
+        final BatchingSigner signer = new BatchingSigner(requests -> {
+            final List<byte[]> signatures = new ArrayList<>(requests.size());
+            for (BatchingSigner.SigningRequest request : requests) {
+                signatures.add(request.getStringToSign());
+            }
+            return CompletableFuture.completedFuture(signatures);
+        }, 4, 1);
+        final int threads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<Void>> callers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int thread = t;
+                callers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 5000; i++) {
+                        final byte[] stringToSign = { (byte) thread, (byte) i, (byte) (i >> 8) };
+                        Assert.assertArrayEquals(stringToSign,
+                                signer.signAsync(stringToSign, AmazonSignatureAlgorithm.DEFAULT).get(30, TimeUnit.SECONDS));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<Void> caller : callers) {
+                caller.get(120, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBatchSizeMustBePositive() {
+        new BatchingSigner(requests -> null, 0, 1);
+    }
+
+    private static boolean verify(final byte[] data, final byte[] signature, final AmazonSignatureAlgorithm algorithm)
+            throws Exception {
+        final Signature verifier = Signature.getInstance(ServiceConstants.SIGNATURE_ALGORITHM, SignatureProviders.bouncyCastle());
+        verifier.setParameter(new PSSParameterSpec(ServiceConstants.HASH_ALGORITHM, ServiceConstants.MASK_GENERATION_FUNCTION,
+                new MGF1ParameterSpec(ServiceConstants.HASH_ALGORITHM), algorithm.getSaltLength(), SignatureHelper.TRAILER_FIELD));
+        verifier.initVerify(publicKey);
+        verifier.update(data);
+        return verifier.verify(signature);
+    }
+}
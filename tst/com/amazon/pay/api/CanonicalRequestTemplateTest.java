@@ -0,0 +1,182 @@
+package com.amazon.pay.api;
+
+import com.amazon.pay.api.types.AmazonSignatureAlgorithm;
+import com.amazon.pay.api.types.Region;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+public class CanonicalRequestTemplateTest {
+    private static final String DATE = "20180524T223710Z";
+
+    private final PayConfiguration payConfiguration = new PayConfiguration()
+            .setRegion(Region.EU)
+            .setPublicKeyId("ADGUHQIH9988");
+    private final SignatureHelper signatureHelper = new SignatureHelper(payConfiguration);
+    private final URI uri = URI.create("https://pay-api.amazon.eu/sandbox/v2/in-store/refund?b=2&a=1");
+
+    @Test
+    public void testWithoutMerchantHeaders() throws Exception {
+        assertSameAsPreSignedHeaders(null);
+        assertSameAsPreSignedHeaders(Collections.<String, String>emptyMap());
+    }
+
+    @Test
+    public void testWithMerchantHeaders() throws Exception {
+        final Map<String, String> header = new LinkedHashMap<>();
+        header.put("x-amz-pay-idempotency-key", "idempotency-key");
+        header.put("X-Amz-Pay-AuthToken", "  eyJhbGciOiJIbWFjU0hBMjU2IiwidHlwIjoiSldUIn0=\t");
+        header.put("a_custom", "first\tsecond\nthird");
+        header.put("Zeta", "last");
+        assertSameAsPreSignedHeaders(header);
+    }
+
+    @Test
+    public void testMerchantHeadersOverrideAmazonPayHeaders() throws Exception {
+        final Map<String, String> header = new HashMap<>();
+        header.put("Accept", "application/hal+json");
+        header.put("x-amz-pay-host", "other.amazon.eu");
+        header.put("X-AMZ-PAY-DATE", "20200101T000000Z");
+        assertSameAsPreSignedHeaders(header);
+    }
+
+    @Test
+    public void testStreamedStringToSign() throws Exception {
+        final URI getUri = URI.create("https://pay-api.amazon.eu/sandbox/v2/charges/S02-\u00e9t\u00e9");
+        final Map<String, List<String>> parameters = new HashMap<>();
+        parameters.put("caf\u00e9", Collections.singletonList("cr\u00e8me br\u00fbl\u00e9e"));
+        parameters.put("b", Arrays.asList("2", "1"));
+        final CanonicalRequestTemplate template = new CanonicalRequestTemplate(payConfiguration,
+                payConfiguration.getPublicKeyId(), getUri.getHost(), "agent");
+        final CanonicalRequestTemplate.CanonicalHeaders headers = template.fill(DATE,
+                Collections.singletonMap("x-amz-pay-authtoken", "  token \u00e9 \t "));
+
+        for (AmazonSignatureAlgorithm algorithm : AmazonSignatureAlgorithm.values()) {
+            assertSameStringToSign(getUri, "GET", parameters, new byte[0], headers, algorithm);
+            assertSameStringToSign(getUri, "POST", null, "{\"note\":\"\u20ac\ud83d\ude00\"}".getBytes(StandardCharsets.UTF_8),
+                    headers, algorithm);
+        }
+    }
+
+    @Test
+    public void testCanonicalRequestIsLoggedOnlyAtFine() throws Exception {
+        final Logger logger = Logger.getLogger(SignatureHelper.class.getName());
+        final List<String> messages = new ArrayList<>();
+        final Handler handler = new Handler() {
+            @Override
+            public void publish(final LogRecord record) {
+                messages.add(record.getMessage());
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        final Level level = logger.getLevel();
+        logger.addHandler(handler);
+        try {
+            final CanonicalRequestTemplate template = new CanonicalRequestTemplate(payConfiguration,
+                    payConfiguration.getPublicKeyId(), uri.getHost(), "agent");
+            final CanonicalRequestTemplate.CanonicalHeaders headers = template.fill(DATE, null);
+            signatureHelper.createStringToSign(uri, "GET", null, new byte[0], headers, AmazonSignatureAlgorithm.DEFAULT);
+            Assert.assertEquals(Collections.emptyList(), messages);
+
+            logger.setLevel(Level.FINE);
+            signatureHelper.createStringToSign(uri, "GET", null, new byte[0], headers, AmazonSignatureAlgorithm.DEFAULT);
+            Assert.assertEquals(Collections.singletonList("Canonical request:\n"
+                    + signatureHelper.createCanonicalRequest(uri, "GET", null, new byte[0], headers)), messages);
+        } finally {
+            logger.removeHandler(handler);
+            logger.setLevel(level);
+        }
+    }
+
+    @Test
+    public void testAuthorizationAndUserAgent() {
+        final CanonicalRequestTemplate template = new CanonicalRequestTemplate(payConfiguration,
+                payConfiguration.getPublicKeyId(), uri.getHost(), "agent");
+        final Map<String, String> signedHeaders = template.fill(DATE, Collections.singletonMap("x-amz-pay-idempotency-key", "key"))
+                .sign("c2lnbmF0dXJl");
+        Assert.assertEquals("AMZN-PAY-RSASSA-PSS PublicKeyId=ADGUHQIH9988, SignedHeaders="
+                        + "accept;content-type;x-amz-pay-date;x-amz-pay-host;x-amz-pay-idempotency-key;x-amz-pay-region, "
+                        + "Signature=c2lnbmF0dXJl",
+                signedHeaders.get("authorization"));
+        Assert.assertEquals("agent", signedHeaders.get("user-agent"));
+        Assert.assertEquals("key", signedHeaders.get("x-amz-pay-idempotency-key"));
+    }
+
+    @Test
+    public void testStaleTemplate() {
+        final CanonicalRequestTemplate template = new CanonicalRequestTemplate(payConfiguration,
+                payConfiguration.getPublicKeyId(), uri.getHost(), "agent");
+        Assert.assertTrue(template.isFor(payConfiguration, payConfiguration.getPublicKeyId(), uri.getHost()));
+        Assert.assertFalse(template.isFor(payConfiguration, payConfiguration.getPublicKeyId(), "pay-api.amazon.com"));
+        Assert.assertFalse(template.isFor(payConfiguration, "SANDBOX-ROTATED", uri.getHost()));
+        payConfiguration.setAlgorithm("AMZN-PAY-RSASSA-PSS-V2");
+        Assert.assertFalse(template.isFor(payConfiguration, payConfiguration.getPublicKeyId(), uri.getHost()));
+        payConfiguration.setAlgorithm("AMZN-PAY-RSASSA-PSS");
+        payConfiguration.setRegion(Region.NA);
+        Assert.assertFalse(template.isFor(payConfiguration, payConfiguration.getPublicKeyId(), uri.getHost()));
+        payConfiguration.setRegion(Region.EU).setUserAgentRedaction(true);
+        Assert.assertFalse(template.isFor(payConfiguration, payConfiguration.getPublicKeyId(), uri.getHost()));
+    }
+
+    /**
+     * Checks the template against createPreSignedHeaders, setting the date both use unless the merchant supplied it
+     */
+    private void assertSameAsPreSignedHeaders(final Map<String, String> header) throws Exception {
+        final Map<String, List<String>> preSignedHeaders = signatureHelper.createPreSignedHeaders(uri, header);
+        if (header == null || !header.containsKey("X-AMZ-PAY-DATE")) {
+            preSignedHeaders.put("x-amz-pay-date", Collections.singletonList(DATE));
+        }
+
+        final CanonicalRequestTemplate template = new CanonicalRequestTemplate(payConfiguration,
+                payConfiguration.getPublicKeyId(), uri.getHost(), "agent");
+        final CanonicalRequestTemplate.CanonicalHeaders headers = template.fill(DATE, header);
+        final byte[] payload = "{\"a\":1}".getBytes(StandardCharsets.UTF_8);
+
+        Assert.assertEquals(signatureHelper.getCanonicalizedHeaderString(preSignedHeaders), headers.getCanonicalHeaders());
+        Assert.assertEquals(signatureHelper.getSignedHeadersString(preSignedHeaders), headers.getSignedHeaders());
+        Assert.assertEquals(signatureHelper.createCanonicalRequest(uri, "POST", null, payload, preSignedHeaders),
+                signatureHelper.createCanonicalRequest(uri, "POST", null, payload, headers));
+        assertSameStringToSign(uri, "POST", null, payload, headers, AmazonSignatureAlgorithm.DEFAULT);
+
+        final Map<String, String> expectedHeaders = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : preSignedHeaders.entrySet()) {
+            expectedHeaders.put(entry.getKey(), entry.getValue().get(0));
+        }
+        expectedHeaders.put("authorization", "AMZN-PAY-RSASSA-PSS PublicKeyId=ADGUHQIH9988, SignedHeaders="
+                + headers.getSignedHeaders() + ", Signature=c2lnbmF0dXJl");
+        expectedHeaders.put("user-agent", "agent");
+        Assert.assertEquals(expectedHeaders, headers.sign("c2lnbmF0dXJl"));
+    }
+
+    /**
+     * Checks the streamed string to sign against the one built from the canonical request String
+     */
+    private void assertSameStringToSign(final URI uri, final String method, final Map<String, List<String>> parameters,
+                                        final byte[] payload, final CanonicalRequestTemplate.CanonicalHeaders headers,
+                                        final AmazonSignatureAlgorithm algorithm) throws Exception {
+        final String canonicalRequest = signatureHelper.createCanonicalRequest(uri, method, parameters, payload, headers);
+        Assert.assertEquals(signatureHelper.createStringToSign(canonicalRequest, algorithm.getName()),
+                new String(signatureHelper.createStringToSign(uri, method, parameters, payload, headers, algorithm),
+                        StandardCharsets.UTF_8));
+    }
+}
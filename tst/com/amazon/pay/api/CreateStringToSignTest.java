@@ -50,11 +50,14 @@ public class CreateStringToSignTest {
 
             String actualCanonicalRequest = signatureHelper.createCanonicalRequest(uri, method, queryParams, payload, preSignedHeaders);
             String expectedCanonicalRequest = testCase.optString("canonicalRequest");
+            String actualCanonicalRequestFromBytes = signatureHelper.createCanonicalRequest(uri, method, queryParams,
+                    payload.getBytes(StandardCharsets.UTF_8), preSignedHeaders);
 
             String actualStringToSign = signatureHelper.createStringToSign(actualCanonicalRequest,algorithm);
             String expectedStringToSign = testCase.optString("stringToSign");
 
             Assert.assertEquals("Test Case Name : " + name, expectedCanonicalRequest, actualCanonicalRequest);
+            Assert.assertEquals("Test Case Name : " + name, expectedCanonicalRequest, actualCanonicalRequestFromBytes);
             Assert.assertEquals("Test Case Name : " + name, expectedStringToSign, actualStringToSign);
 
         }
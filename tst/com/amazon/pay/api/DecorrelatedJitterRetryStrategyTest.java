@@ -0,0 +1,54 @@
+package com.amazon.pay.api;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DecorrelatedJitterRetryStrategyTest {
+    @Test
+    public void testWaitTimeGrowsFromPreviousWaitTime() {
+        DecorrelatedJitterRetryStrategy strategy = new DecorrelatedJitterRetryStrategy(7, 100, 1000);
+        Set<Long> waitTimes = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            long waitTime = strategy.getWaitTime(new RetryContext(0, 500, 0));
+            Assert.assertTrue(waitTime >= 100 && waitTime <= 300);
+            waitTime = strategy.getWaitTime(new RetryContext(3, 500, 250));
+            Assert.assertTrue(waitTime >= 100 && waitTime <= 750);
+            waitTimes.add(waitTime);
+            waitTime = strategy.getWaitTime(new RetryContext(1, 429, 1500));
+            Assert.assertTrue(waitTime >= 1000 && waitTime <= 4500);
+        }
+        Assert.assertTrue(waitTimes.size() > 100);
+        Assert.assertEquals(7, strategy.getMaxRetries());
+    }
+
+    @Test
+    public void testWaitTimeWithoutPreviousWaitTime() {
+        DecorrelatedJitterRetryStrategy strategy = new DecorrelatedJitterRetryStrategy(7, 100);
+        for (int i = 0; i < 1000; i++) {
+            long waitTime = strategy.getWaitTime(0, 500);
+            Assert.assertTrue(waitTime >= 100 && waitTime <= 300);
+            // the exponential wait time of the previous retry, 400, stands in for the previous wait time
+            waitTime = strategy.getWaitTime(3, 500);
+            Assert.assertTrue(waitTime >= 100 && waitTime <= 1200);
+        }
+    }
+
+    @Test
+    public void testMaxDelay() {
+        DecorrelatedJitterRetryStrategy strategy = new DecorrelatedJitterRetryStrategy(7, 100, 1000, 300, 2000);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(strategy.getWaitTime(new RetryContext(6, 500, 300)) <= 300);
+            Assert.assertTrue(strategy.getWaitTime(new RetryContext(6, 429, Long.MAX_VALUE)) <= 2000);
+        }
+    }
+
+    @Test
+    public void testRetryAfterIsHonored() {
+        DecorrelatedJitterRetryStrategy strategy = new DecorrelatedJitterRetryStrategy(7, 100, 1000, 300, 2000);
+        Assert.assertEquals(1000, strategy.getWaitTime(ExponentialRetryStrategyTest.retryAfter(429, "1")));
+        Assert.assertEquals(2000, strategy.getWaitTime(ExponentialRetryStrategyTest.retryAfter(429, "5")));
+    }
+}
@@ -15,4 +15,11 @@ public class DefaultRetryStrategyTest {
         Assert.assertEquals(8000, retryStrategy.getWaitTime(2, 100));
         Assert.assertEquals(8000, retryStrategy.getWaitTime(2, 429));
     }
+
+    @Test
+    public void testRetryAfterIsCappedByLastBackoff() {
+        RetryStrategy retryStrategy = new DefaultRetryStrategy();
+        Assert.assertEquals(5000, retryStrategy.getWaitTime(ExponentialRetryStrategyTest.retryAfter(429, "5")));
+        Assert.assertEquals(8000, retryStrategy.getWaitTime(ExponentialRetryStrategyTest.retryAfter(503, "120")));
+    }
 }
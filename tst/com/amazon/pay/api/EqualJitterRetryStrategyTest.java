@@ -0,0 +1,35 @@
+package com.amazon.pay.api;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EqualJitterRetryStrategyTest {
+    @Test
+    public void testWaitTimeIsBetweenHalfAndExponentialWaitTime() {
+        EqualJitterRetryStrategy strategy = new EqualJitterRetryStrategy(7, 100, 1000);
+        Set<Long> waitTimes = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            long waitTime = strategy.getWaitTime(2, 500);
+            Assert.assertTrue(waitTime >= 200 && waitTime <= 400);
+            waitTimes.add(waitTime);
+            waitTime = strategy.getWaitTime(2, 429);
+            Assert.assertTrue(waitTime >= 2000 && waitTime <= 4000);
+        }
+        Assert.assertTrue(waitTimes.size() > 50);
+        Assert.assertEquals(7, strategy.getMaxRetries());
+    }
+
+    @Test
+    public void testMaxDelay() {
+        EqualJitterRetryStrategy strategy = new EqualJitterRetryStrategy(7, 100, 1000, 300, 2000);
+        for (int i = 0; i < 1000; i++) {
+            long waitTime = strategy.getWaitTime(6, 500);
+            Assert.assertTrue(waitTime >= 150 && waitTime <= 300);
+            waitTime = strategy.getWaitTime(6, 429);
+            Assert.assertTrue(waitTime >= 1000 && waitTime <= 2000);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.amazon.pay.api;
 
+import java.util.Collections;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -60,4 +62,26 @@ public class ExponentialRetryStrategyTest {
         Assert.assertEquals(8000L, strategy.getExponentialWaitTime(2, 2000L));
     }
 
+
+    @Test
+    public void testRetryAfterIsHonoredUpToMaxDelay() {
+        ExponentialRetryStrategy strategy = new ExponentialRetryStrategy(7, 1234, 5678, 20000, 30000);
+        Assert.assertEquals(3000, strategy.getWaitTime(retryAfter(429, "3")));
+        Assert.assertEquals(30000, strategy.getWaitTime(retryAfter(429, "60")));
+        Assert.assertEquals(20000, strategy.getWaitTime(retryAfter(503, "60")));
+        Assert.assertEquals(5678 * 2, strategy.getWaitTime(new RetryContext(1, 429, 5678)));
+    }
+
+    @Test
+    public void testRetryAfterWithoutMaxDelayIsCappedByLastBackoff() {
+        ExponentialRetryStrategy strategy = new ExponentialRetryStrategy(3, 1000, 2000);
+        Assert.assertEquals(4000, strategy.getMaxWaitTime(500));
+        Assert.assertEquals(8000, strategy.getMaxWaitTime(429));
+        Assert.assertEquals(8000, strategy.getWaitTime(retryAfter(429, "3600")));
+    }
+
+    static RetryContext retryAfter(int statusCode, String retryAfter) {
+        return new RetryContext(0, statusCode, 0,
+                Collections.singletonMap("Retry-After", Collections.singletonList(retryAfter)), 0);
+    }
 }
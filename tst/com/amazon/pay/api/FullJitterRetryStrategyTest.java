@@ -0,0 +1,33 @@
+package com.amazon.pay.api;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FullJitterRetryStrategyTest {
+    @Test
+    public void testWaitTimeIsBetweenZeroAndExponentialWaitTime() {
+        FullJitterRetryStrategy strategy = new FullJitterRetryStrategy(7, 100, 1000);
+        Set<Long> waitTimes = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            long waitTime = strategy.getWaitTime(2, 500);
+            Assert.assertTrue(waitTime >= 0 && waitTime <= 400);
+            waitTimes.add(waitTime);
+            waitTime = strategy.getWaitTime(2, 429);
+            Assert.assertTrue(waitTime >= 0 && waitTime <= 4000);
+        }
+        Assert.assertTrue(waitTimes.size() > 100);
+        Assert.assertEquals(7, strategy.getMaxRetries());
+    }
+
+    @Test
+    public void testMaxDelay() {
+        FullJitterRetryStrategy strategy = new FullJitterRetryStrategy(7, 100, 1000, 300, 2000);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(strategy.getWaitTime(6, 500) <= 300);
+            Assert.assertTrue(strategy.getWaitTime(6, 429) <= 2000);
+        }
+    }
+}
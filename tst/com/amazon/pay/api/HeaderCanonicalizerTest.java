@@ -0,0 +1,169 @@
+package com.amazon.pay.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HeaderCanonicalizerTest {
+
+    /**
+     * Headers and their canonical form as produced by the regex based canonicalization the SDK used before,
+     * each case as { header names and values..., canonical headers, signed headers }
+     */
+    private static final Object[][] GOLDEN = {
+            { headers(new String[] { "accept", "application/json" }, new String[] { "content-type", "application/json" },
+                    new String[] { "x-amz-pay-date", "20240229T235959Z" }, new String[] { "x-amz-pay-host", "pay-api.amazon.com" },
+                    new String[] { "x-amz-pay-region", "NA" }),
+                    "accept:application/json\ncontent-type:application/json\nx-amz-pay-date:20240229T235959Z\n"
+                            + "x-amz-pay-host:pay-api.amazon.com\nx-amz-pay-region:NA\n",
+                    "accept;content-type;x-amz-pay-date;x-amz-pay-host;x-amz-pay-region" },
+            { headers(new String[] { "x-amz-pay-idempotency-key", "  key\twith\ttabs \r\n" },
+                    new String[] { "x-amz-pay-date", "\n20240229T235959Z" }),
+                    "x-amz-pay-date:20240229T235959Z\nx-amz-pay-idempotency-key:key with tabs\n",
+                    "x-amz-pay-date;x-amz-pay-idempotency-key" },
+            { headers(new String[] { "X-Multi", "a ", " b\tc", "" }, new String[] { "x-single", "d" }),
+                    "x-multi:a,b c,\nx-single:d\n",
+                    "x-multi;x-single" },
+            { headers(new String[] { "x-leading-empty", "", " ", "a", "", "b" }),
+                    "x-leading-empty:a,,b\n",
+                    "x-leading-empty" },
+            { headers(new String[] { "B-Header", "b" }, new String[] { "a-header", "a" }, new String[] { "C-header", "c" },
+                    new String[] { "x-amz-pay-Region", "EU" }),
+                    "a-header:a\nb-header:b\nc-header:c\nx-amz-pay-region:EU\n",
+                    "a-header;b-header;c-header;x-amz-pay-region" },
+            { headers(new String[] { "x-vt", "\u000Bvt\u000Bin\fside\f" }),
+                    "x-vt:vt in side\n",
+                    "x-vt" },
+            { headers(new String[] { "x-kept", "\u00A0nbsp\u00A0", "\u2003em", "caf\u00E9", "\u0001x\u0001", "x\u0001y" }),
+                    "x-kept:\u00A0nbsp\u00A0,\u2003em,caf\u00E9,x,x\u0001y\n",
+                    "x-kept" },
+            { headers(new String[] { " X Spaced\tName ", "value" }),
+                    "x spaced name:value\n",
+                    " x spaced\tname " },
+            { headers(),
+                    "",
+                    "" },
+            { headers(new String[] { "x-empty", "" }, new String[] { "x-blank", " \t\r\n " }),
+                    "x-blank:\nx-empty:\n",
+                    "x-blank;x-empty" },
+            { headers(new String[] { "x-amz-pay-authtoken", "line1\r\nline2\r\n\tcontinued" }, new String[] { "accept", "*/*" }),
+                    "accept:*/*\nx-amz-pay-authtoken:line1  line2   continued\n",
+                    "accept;x-amz-pay-authtoken" },
+    };
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGoldenCorpus() {
+        final SignatureHelper signatureHelper = new SignatureHelper(new PayConfiguration());
+        for (Object[] golden : GOLDEN) {
+            final Map<String, List<String>> headers = (Map<String, List<String>>) golden[0];
+            final HeaderCanonicalizer canonicalized = HeaderCanonicalizer.canonicalize(headers);
+            Assert.assertEquals(golden[1], canonicalized.getCanonicalHeaders());
+            Assert.assertEquals(golden[2], canonicalized.getSignedHeaders());
+            Assert.assertEquals(golden[1], signatureHelper.getCanonicalizedHeaderString(headers));
+            Assert.assertEquals(golden[2], signatureHelper.getSignedHeadersString(headers));
+        }
+    }
+
+    @Test
+    public void testSingleValuesMatchLists() {
+        final Map<String, String> single = new HashMap<>();
+        final Map<String, List<String>> lists = new HashMap<>();
+        final Random random = new Random(18);
+        for (int i = 0; i < 20; i++) {
+            final String name = randomString(random, 1 + random.nextInt(12));
+            final String value = randomString(random, random.nextInt(40));
+            single.put(name, value);
+            lists.put(name, Collections.singletonList(value));
+        }
+        final HeaderCanonicalizer fromSingle = HeaderCanonicalizer.canonicalizeSingleValues(single);
+        final HeaderCanonicalizer fromLists = HeaderCanonicalizer.canonicalize(lists);
+        Assert.assertEquals(fromLists.getCanonicalHeaders(), fromSingle.getCanonicalHeaders());
+        Assert.assertEquals(fromLists.getSignedHeaders(), fromSingle.getSignedHeaders());
+    }
+
+    @Test
+    public void testMatchesRegexCanonicalization() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            final Map<String, List<String>> headers = new HashMap<>();
+            final int count = random.nextInt(8);
+            for (int j = 0; j < count; j++) {
+                final List<String> values = new ArrayList<>();
+                final int valueCount = 1 + random.nextInt(3);
+                for (int k = 0; k < valueCount; k++) {
+                    values.add(randomString(random, random.nextInt(24)));
+                }
+                headers.put(randomString(random, 1 + random.nextInt(10)), values);
+            }
+            final HeaderCanonicalizer canonicalized = HeaderCanonicalizer.canonicalize(headers);
+            Assert.assertEquals(regexCanonicalizedHeaderString(headers), canonicalized.getCanonicalHeaders());
+            Assert.assertEquals(regexSignedHeadersString(headers), canonicalized.getSignedHeaders());
+        }
+    }
+
+    @Test
+    public void testCanonicalValueReturnsCanonicalInstance() {
+        final String value = "pay-api.amazon.com";
+        Assert.assertSame(value, HeaderCanonicalizer.canonicalValue(value));
+        Assert.assertEquals("a b", HeaderCanonicalizer.canonicalValue(" a\tb "));
+        Assert.assertEquals("", HeaderCanonicalizer.canonicalValue("\r\n"));
+    }
+
+    private static Map<String, List<String>> headers(final String[]... entries) {
+        final Map<String, List<String>> headers = new HashMap<>();
+        for (String[] entry : entries) {
+            headers.put(entry[0], Arrays.asList(Arrays.copyOfRange(entry, 1, entry.length)));
+        }
+        return headers;
+    }
+
+    private static String randomString(final Random random, final int length) {
+        final String alphabet = "aZ-_ \t\n\u000B\f\r\u0001\u001F\u00A0\u2003\u00E9;:,";
+        final StringBuilder buffer = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            buffer.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * The canonicalization of SignatureHelper.getCanonicalizedHeaderString before it was regex free
+     */
+    private static String regexCanonicalizedHeaderString(final Map<String, List<String>> preSignedHeaders) {
+        final List<String> sortedHeaders = new ArrayList<>(preSignedHeaders.keySet());
+        Collections.sort(sortedHeaders, String.CASE_INSENSITIVE_ORDER);
+        final StringBuilder buffer = new StringBuilder();
+        for (String header : sortedHeaders) {
+            final StringBuilder headerValue = new StringBuilder();
+            for (String value : preSignedHeaders.get(header)) {
+                if (headerValue.length() > 0) {
+                    headerValue.append(",");
+                }
+                headerValue.append(value.trim().replaceAll("\\s", " "));
+            }
+            buffer.append(Util.lowerCase(header).trim().replaceAll("\\s", " ")).append(":").append(headerValue).append("\n");
+        }
+        return buffer.toString();
+    }
+
+    private static String regexSignedHeadersString(final Map<String, List<String>> preSignedHeaders) {
+        final List<String> sortedHeaders = new ArrayList<>(preSignedHeaders.keySet());
+        Collections.sort(sortedHeaders, String.CASE_INSENSITIVE_ORDER);
+        final StringBuilder buffer = new StringBuilder();
+        for (String header : sortedHeaders) {
+            if (buffer.length() > 0) {
+                buffer.append(";");
+            }
+            buffer.append(Util.lowerCase(header));
+        }
+        return buffer.toString();
+    }
+}
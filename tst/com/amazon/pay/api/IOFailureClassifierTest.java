@@ -0,0 +1,83 @@
+package com.amazon.pay.api;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.Map;
+import javax.net.ssl.SSLHandshakeException;
+
+import org.apache.http.NoHttpResponseException;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IOFailureClassifierTest {
+    private static final HttpTransportRequest GET = request("GET", Collections.emptyMap());
+    private static final HttpTransportRequest DELETE = request("DELETE", Collections.emptyMap());
+    private static final HttpTransportRequest POST = request("POST", Collections.emptyMap());
+    private static final HttpTransportRequest PATCH = request("PATCH", Collections.emptyMap());
+    private static final HttpTransportRequest POST_WITH_KEY = request("POST",
+            Collections.singletonMap("X-Amz-Pay-Idempotency-Key", "b8c4b1e1f4a74c0a"));
+
+    @Test
+    public void testFailuresAfterSendingAreRetriedForIdempotentRequests() {
+        final IOException[] failures = {
+            new SocketException("Connection reset"),
+            new NoHttpResponseException("pay-api.amazon.com:443 failed to respond"),
+            new SocketTimeoutException("Read timed out"),
+            new IOException("Broken pipe")
+        };
+        for (IOException failure : failures) {
+            Assert.assertTrue(failure.getMessage(), IOFailureClassifier.isRetryable(GET, failure));
+            Assert.assertTrue(failure.getMessage(), IOFailureClassifier.isRetryable(DELETE, failure));
+            Assert.assertTrue(failure.getMessage(), IOFailureClassifier.isRetryable(POST_WITH_KEY, failure));
+            Assert.assertFalse(failure.getMessage(), IOFailureClassifier.isRetryable(POST, failure));
+            Assert.assertFalse(failure.getMessage(), IOFailureClassifier.isRetryable(PATCH, failure));
+        }
+    }
+
+    @Test
+    public void testFailuresBeforeSendingAreRetriedForAllRequests() {
+        final IOException[] failures = {
+            new ConnectException("Connection refused"),
+            new ConnectionPoolTimeoutException("Timeout waiting for connection from pool")
+        };
+        for (IOException failure : failures) {
+            Assert.assertTrue(failure.getMessage(), IOFailureClassifier.isRetryable(POST, failure));
+            Assert.assertTrue(failure.getMessage(), IOFailureClassifier.isRetryable(PATCH, failure));
+            Assert.assertTrue(failure.getMessage(), IOFailureClassifier.isRetryable(GET, failure));
+        }
+    }
+
+    @Test
+    public void testPermanentFailuresAreNeverRetried() {
+        final IOException[] failures = {
+            new ClientProtocolException("Invalid redirect"),
+            new UnknownHostException("pay-api.amazon.invalid"),
+            new SSLHandshakeException("PKIX path building failed"),
+            new InterruptedIOException("sleep interrupted")
+        };
+        for (IOException failure : failures) {
+            Assert.assertFalse(failure.getMessage(), IOFailureClassifier.isRetryable(GET, failure));
+            Assert.assertFalse(failure.getMessage(), IOFailureClassifier.isRetryable(POST_WITH_KEY, failure));
+        }
+    }
+
+    @Test
+    public void testEmptyIdempotencyKeyIsIgnored() {
+        Assert.assertFalse(IOFailureClassifier.isIdempotent(request("POST",
+                Collections.singletonMap("x-amz-pay-idempotency-key", ""))));
+        Assert.assertTrue(IOFailureClassifier.isIdempotent(POST_WITH_KEY));
+    }
+
+    private static HttpTransportRequest request(final String method, final Map<String, String> headers) {
+        return new HttpTransportRequest(URI.create("https://pay-api.amazon.com/v2/checkoutSessions"), method, headers,
+                new byte[0]);
+    }
+}
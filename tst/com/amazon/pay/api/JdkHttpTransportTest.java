@@ -0,0 +1,155 @@
+package com.amazon.pay.api;
+
+import com.amazon.pay.api.exceptions.AmazonPayClientException;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Runs once against the classes of the base section of the jar, where JdkHttpTransport refuses to be built,
+ * and once, on Java 11 or later, against the classes of its Java 11 section (amazon.pay.test.release=11)
+ */
+public class JdkHttpTransportTest {
+    private static final boolean JAVA_11_CLASSES = "11".equals(System.getProperty("amazon.pay.test.release"));
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private ExecutorService executor;
+    private HttpServer server;
+    private URI local;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 64);
+        server.createContext("/echo", exchange -> {
+            final byte[] body = readAll(exchange.getRequestBody());
+            exchange.getResponseHeaders().add("X-Method", exchange.getRequestMethod());
+            exchange.sendResponseHeaders(201, body.length == 0 ? -1 : body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/gzip", exchange -> {
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = new GZIPOutputStream(exchange.getResponseBody())) {
+                out.write(jsonBytes());
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        executor = Executors.newFixedThreadPool(16);
+        server.setExecutor(executor);
+        server.start();
+        local = URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    @Test
+    public void testTransportRequiresJava11Classes() {
+        Assume.assumeFalse(JAVA_11_CLASSES);
+        try {
+            new JdkHttpTransport(new PayConfiguration());
+            Assert.fail("JdkHttpTransport must not be built from the classes of the base section");
+        } catch (AmazonPayClientException e) {
+            Assert.assertTrue(e.getMessage().startsWith("JdkHttpTransport requires Java 11 or later"));
+        }
+    }
+
+    @Test
+    public void testExecuteSendsBodyAndReturnsResponse() throws Exception {
+        Assume.assumeTrue(JAVA_11_CLASSES);
+        final byte[] body = "{\"chargeAmount\":1}".getBytes(StandardCharsets.UTF_8);
+        try (HttpTransport transport = new JdkHttpTransport(new PayConfiguration())) {
+            final HttpTransportResponse response = transport.execute(new HttpTransportRequest(local.resolve("/echo"),
+                    "POST", Collections.singletonMap("Content-Type", "application/json"), body));
+            Assert.assertEquals(201, response.getStatusCode());
+            Assert.assertEquals("POST", response.getFirstHeader("x-method"));
+            Assert.assertArrayEquals(body, response.getBody());
+        }
+    }
+
+    @Test
+    public void testCompressedResponseIsDecoded() throws Exception {
+        Assume.assumeTrue(JAVA_11_CLASSES);
+        try (HttpTransport transport = new JdkHttpTransport(new PayConfiguration())) {
+            final HttpTransportResponse response = transport.executeAsync(new HttpTransportRequest(local.resolve("/gzip"),
+                    "GET", Collections.singletonMap(ServiceConstants.ACCEPT_ENCODING, "gzip"), null))
+                    .get(30, TimeUnit.SECONDS);
+            Assert.assertArrayEquals(jsonBytes(), response.getBody());
+            Assert.assertTrue(response.getWireBytes() > 0);
+            Assert.assertTrue(response.getWireBytes() < jsonBytes().length / 2);
+            Assert.assertNull(response.getFirstHeader("Content-Encoding"));
+        }
+    }
+
+    @Test
+    public void testRequestsBeyondClientConnectionsAreQueued() throws Exception {
+        Assume.assumeTrue(JAVA_11_CLASSES);
+        try (HttpTransport transport = new JdkHttpTransport(new PayConfiguration().setClientConnections(2))) {
+            final List<CompletableFuture<HttpTransportResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                futures.add(transport.executeAsync(new HttpTransportRequest(local.resolve("/slow"), "GET",
+                        Collections.emptyMap(), null)));
+            }
+            for (CompletableFuture<HttpTransportResponse> future : futures) {
+                Assert.assertEquals(200, future.get(30, TimeUnit.SECONDS).getStatusCode());
+            }
+        }
+        Assert.assertTrue("in flight: " + maxInFlight.get(), maxInFlight.get() <= 2);
+    }
+
+    private static byte[] jsonBytes() {
+        final StringBuilder json = new StringBuilder("{\"reports\":[");
+        for (int i = 0; i < 2000; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"reportId\":\"").append(i).append("\"}");
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readAll(final InputStream inputStream) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[4096];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            bytes.write(buffer, 0, read);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,100 @@
+package com.amazon.pay.api;
+
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class KeyRegistryTest {
+    private static PrivateKey firstKey;
+    private static PrivateKey secondKey;
+
+    @BeforeClass
+    public static void generateKeys() throws Exception {
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        firstKey = generator.generateKeyPair().getPrivate();
+        secondKey = generator.generateKeyPair().getPrivate();
+    }
+
+    @Test
+    public void testRotate() {
+        final KeyRegistry keyRegistry = new KeyRegistry("FIRST", firstKey);
+        final KeyRegistry.SigningKey first = keyRegistry.getActiveKey();
+        Assert.assertSame(keyRegistry, keyRegistry.rotate("SECOND", secondKey));
+        Assert.assertEquals("SECOND", keyRegistry.getActiveKey().getPublicKeyId());
+        Assert.assertSame(secondKey, keyRegistry.getActiveKey().getPrivateKey());
+
+        // a pair read before the rotation is left as it was
+        Assert.assertEquals("FIRST", first.getPublicKeyId());
+        Assert.assertSame(firstKey, first.getPrivateKey());
+    }
+
+    @Test
+    public void testEmptyRegistry() {
+        final KeyRegistry.SigningKey signingKey = new KeyRegistry().getActiveKey();
+        Assert.assertNull(signingKey.getPublicKeyId());
+        Assert.assertNull(signingKey.getPrivateKey());
+    }
+
+    @Test
+    public void testRotateRejectsIncompletePair() {
+        final KeyRegistry keyRegistry = new KeyRegistry("FIRST", firstKey);
+        try {
+            keyRegistry.rotate("", secondKey);
+            Assert.fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            keyRegistry.rotate("SECOND", null);
+            Assert.fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+        Assert.assertEquals("FIRST", keyRegistry.getActiveKey().getPublicKeyId());
+    }
+
+    @Test
+    public void testPairsStayConsistentUnderRotation() throws Exception {
+        final KeyRegistry keyRegistry = new KeyRegistry("FIRST", firstKey);
+        final AtomicBoolean rotating = new AtomicBoolean(true);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Integer>> readers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                readers.add(executor.submit(() -> {
+                    int reads = 0;
+                    while (rotating.get()) {
+                        final KeyRegistry.SigningKey signingKey = keyRegistry.getActiveKey();
+                        Assert.assertSame("FIRST".equals(signingKey.getPublicKeyId()) ? firstKey : secondKey,
+                                signingKey.getPrivateKey());
+                        reads++;
+                    }
+                    return reads;
+                }));
+            }
+            for (int i = 0; i < 100000; i++) {
+                if (i % 2 == 0) {
+                    keyRegistry.rotate("SECOND", secondKey);
+                } else {
+                    keyRegistry.rotate("FIRST", firstKey);
+                }
+            }
+            rotating.set(false);
+            for (Future<Integer> reader : readers) {
+                Assert.assertTrue(reader.get(30, TimeUnit.SECONDS) > 0);
+            }
+        } finally {
+            rotating.set(false);
+            executor.shutdown();
+        }
+    }
+}
@@ -3,6 +3,12 @@ package com.amazon.pay.api;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
 public class PayConfigurationTest {
     @Test
     public void testDefaultRetryConfiguration() {
@@ -67,4 +73,86 @@ public class PayConfigurationTest {
         payConfiguration.setClientConnections(0);
         Assert.assertEquals(ServiceConstants.MAX_CLIENT_CONNECTIONS, payConfiguration.getClientConnections());
     }
+
+    @Test
+    public void testMinIdleConnections() {
+        PayConfiguration payConfiguration = new PayConfiguration();
+        Assert.assertEquals(0, payConfiguration.getMinIdleConnections());
+        payConfiguration.setMinIdleConnections(5);
+        Assert.assertEquals(5, payConfiguration.getMinIdleConnections());
+    }
+
+    @Test
+    public void testSignatureCacheSize() {
+        PayConfiguration payConfiguration = new PayConfiguration();
+        Assert.assertEquals(0, payConfiguration.getSignatureCacheSize());
+        payConfiguration.setSignatureCacheSize(128);
+        Assert.assertEquals(128, payConfiguration.getSignatureCacheSize());
+    }
+
+    @Test
+    public void testRetryBudget() {
+        PayConfiguration payConfiguration = new PayConfiguration();
+        Assert.assertEquals(0, payConfiguration.getRetryBudgetRatio(), 0);
+        Assert.assertEquals(10, payConfiguration.getRetryBudgetBurst());
+        payConfiguration.setRetryBudgetRatio(0.1).setRetryBudgetBurst(20);
+        Assert.assertEquals(0.1, payConfiguration.getRetryBudgetRatio(), 0);
+        Assert.assertEquals(20, payConfiguration.getRetryBudgetBurst());
+    }
+
+    @Test
+    public void testConnectionLifecycleSettings() {
+        PayConfiguration payConfiguration = new PayConfiguration();
+        Assert.assertEquals(ServiceConstants.CONNECTION_TIME_TO_LIVE_MILLIS, payConfiguration.getConnectionTimeToLiveMillis());
+        Assert.assertEquals(ServiceConstants.KEEP_ALIVE_MILLIS, payConfiguration.getKeepAliveMillis());
+        Assert.assertEquals(ServiceConstants.VALIDATE_AFTER_INACTIVITY_MILLIS, payConfiguration.getValidateAfterInactivityMillis());
+        Assert.assertEquals(ServiceConstants.IDLE_EVICTION_INTERVAL_MILLIS, payConfiguration.getIdleEvictionIntervalMillis());
+        payConfiguration.setConnectionTimeToLiveMillis(60000)
+                .setKeepAliveMillis(5000)
+                .setValidateAfterInactivityMillis(0)
+                .setIdleEvictionIntervalMillis(1000);
+        Assert.assertEquals(60000, payConfiguration.getConnectionTimeToLiveMillis());
+        Assert.assertEquals(5000, payConfiguration.getKeepAliveMillis());
+        Assert.assertEquals(0, payConfiguration.getValidateAfterInactivityMillis());
+        Assert.assertEquals(1000, payConfiguration.getIdleEvictionIntervalMillis());
+    }
+
+    @Test
+    public void testClock() {
+        PayConfiguration payConfiguration = new PayConfiguration();
+        Assert.assertEquals(Clock.systemUTC(), payConfiguration.getClock());
+        Clock clock = Clock.fixed(Instant.EPOCH, ZoneOffset.UTC);
+        Assert.assertSame(payConfiguration, payConfiguration.setClock(clock));
+        Assert.assertSame(clock, payConfiguration.getClock());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullClock() {
+        new PayConfiguration().setClock(null);
+    }
+
+    @Test
+    public void testKeyRegistry() throws Exception {
+        final PrivateKey privateKey = KeyPairGenerator.getInstance("RSA").generateKeyPair().getPrivate();
+        final PayConfiguration payConfiguration = new PayConfiguration()
+                .setPublicKeyId("FIRST")
+                .setPrivateKey(privateKey);
+        Assert.assertEquals("FIRST", payConfiguration.getKeyRegistry().getActiveKey().getPublicKeyId());
+        Assert.assertSame(privateKey, payConfiguration.getKeyRegistry().getActiveKey().getPrivateKey());
+
+        final PrivateKey rotatedKey = KeyPairGenerator.getInstance("RSA").generateKeyPair().getPrivate();
+        payConfiguration.getKeyRegistry().rotate("SECOND", rotatedKey);
+        Assert.assertEquals("SECOND", payConfiguration.getPublicKeyId());
+        Assert.assertSame(rotatedKey, payConfiguration.getPrivateKey());
+
+        final KeyRegistry shared = new KeyRegistry("SHARED", privateKey);
+        Assert.assertSame(payConfiguration, payConfiguration.setKeyRegistry(shared));
+        Assert.assertSame(shared, payConfiguration.getKeyRegistry());
+        Assert.assertEquals("SHARED", payConfiguration.getPublicKeyId());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullKeyRegistry() {
+        new PayConfiguration().setKeyRegistry(null);
+    }
 }
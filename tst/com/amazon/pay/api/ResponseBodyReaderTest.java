@@ -0,0 +1,258 @@
+package com.amazon.pay.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ResponseBodyReaderTest {
+
+    @Test
+    public void testReadBodyOfKnownLength() throws IOException {
+        final byte[] body = randomBytes(20000);
+        Assert.assertArrayEquals(body, ResponseBodyReader.read(trickle(body), body.length));
+    }
+
+    @Test
+    public void testReadBodyOfUnknownLengthLargerThanBuffer() throws IOException {
+        final byte[] body = randomBytes(3 * 1024 * 1024 + 17);
+        Assert.assertArrayEquals(body, ResponseBodyReader.read(trickle(body), -1));
+        // the buffer kept by the thread must not leak into the next body
+        final byte[] smallBody = randomBytes(10);
+        Assert.assertArrayEquals(smallBody, ResponseBodyReader.read(trickle(smallBody), -1));
+    }
+
+    @Test
+    public void testReadEmptyBody() throws IOException {
+        Assert.assertEquals(0, ResponseBodyReader.read(new ByteArrayInputStream(new byte[0]), -1).length);
+        Assert.assertEquals(0, ResponseBodyReader.read(new ByteArrayInputStream(new byte[0]), 0).length);
+    }
+
+    @Test
+    public void testReadBodyOfKnownLengthLargerThanInitialBuffer() throws IOException {
+        final byte[] body = randomBytes(ResponseBodyReader.MAX_INITIAL_BODY_SIZE * 3 + 5);
+        Assert.assertArrayEquals(body, ResponseBodyReader.read(trickle(body), body.length));
+        try (ResponseBodyReader.Accumulator accumulator = ResponseBodyReader.accumulate(body.length, null)) {
+            Assert.assertArrayEquals(body, accumulate(accumulator, body, 4096));
+        }
+    }
+
+    @Test
+    public void testAnnouncedLengthIsNotAllocatedUpFront() {
+        // a body of 2 GB would not fit in the heap of the tests
+        final long contentLength = Integer.MAX_VALUE - 8;
+        try {
+            ResponseBodyReader.read(new ByteArrayInputStream(new byte[10]), contentLength);
+            Assert.fail("The body is shorter than its announced length");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage().startsWith("Premature end of response body"));
+        }
+        try (ResponseBodyReader.Accumulator accumulator = ResponseBodyReader.accumulate(contentLength, null)) {
+            accumulate(accumulator, new byte[10], 10);
+            Assert.fail("The body is shorter than its announced length");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage().startsWith("Premature end of response body"));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadTruncatedBody() throws IOException {
+        ResponseBodyReader.read(new ByteArrayInputStream(new byte[10]), 11);
+    }
+
+    @Test
+    public void testReadGzipBody() throws IOException {
+        final byte[] body = jsonBytes(200000);
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        }
+        final CountingInputStream wire = new CountingInputStream(trickle(compressed.toByteArray()));
+        Assert.assertArrayEquals(body, ResponseBodyReader.read(wire, compressed.size(), "gzip"));
+        Assert.assertEquals(compressed.size(), wire.getCount());
+    }
+
+    @Test
+    public void testReadDeflateBodyWithAndWithoutZlibWrapper() throws IOException {
+        final byte[] body = jsonBytes(50000);
+        for (boolean nowrap : new boolean[] {false, true}) {
+            final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (DeflaterOutputStream deflate = new DeflaterOutputStream(compressed, new Deflater(Deflater.DEFAULT_COMPRESSION, nowrap))) {
+                deflate.write(body);
+            }
+            Assert.assertArrayEquals(body, ResponseBodyReader.read(trickle(compressed.toByteArray()), -1, "Deflate"));
+        }
+    }
+
+    @Test
+    public void testReadIdentityBody() throws IOException {
+        final byte[] body = randomBytes(100);
+        Assert.assertArrayEquals(body, ResponseBodyReader.read(trickle(body), body.length, "identity"));
+        Assert.assertArrayEquals(body, ResponseBodyReader.read(trickle(body), body.length, null));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadBodyWithUnsupportedEncoding() throws IOException {
+        ResponseBodyReader.read(new ByteArrayInputStream(new byte[10]), 10, "br");
+    }
+
+    @Test
+    public void testAccumulateGzipBodyInSmallChunks() throws IOException {
+        final byte[] body = jsonBytes(20000);
+        final byte[] compressed = gzip(body);
+        for (int chunkSize : new int[] {1, 7, 1000, compressed.length}) {
+            try (ResponseBodyReader.Accumulator accumulator = ResponseBodyReader.accumulate(compressed.length, "gzip")) {
+                Assert.assertArrayEquals(body, accumulate(accumulator, compressed, chunkSize));
+                Assert.assertEquals(compressed.length, accumulator.getWireCount());
+            }
+        }
+    }
+
+    @Test
+    public void testAccumulateGzipBodyWithOptionalHeaderFields() throws IOException {
+        final byte[] body = jsonBytes(1000);
+        final byte[] member = gzip(body);
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        // FHCRC, FEXTRA, FNAME and FCOMMENT
+        compressed.write(new byte[] {0x1f, (byte) 0x8b, 8, 2 | 4 | 8 | 16, 0, 0, 0, 0, 0, (byte) 0xff});
+        compressed.write(new byte[] {3, 0, 'x', 'y', 'z'});
+        compressed.write("reports.json\0a comment\0".getBytes(StandardCharsets.US_ASCII));
+        compressed.write(new byte[] {0, 0});
+        compressed.write(member, 10, member.length - 10);
+        // a second member follows the first one
+        compressed.write(member);
+        final byte[] twice = new byte[body.length * 2];
+        System.arraycopy(body, 0, twice, 0, body.length);
+        System.arraycopy(body, 0, twice, body.length, body.length);
+        try (ResponseBodyReader.Accumulator accumulator = ResponseBodyReader.accumulate(-1, "x-gzip")) {
+            Assert.assertArrayEquals(twice, accumulate(accumulator, compressed.toByteArray(), 3));
+        }
+    }
+
+    @Test
+    public void testAccumulateDeflateBodyWithAndWithoutZlibWrapper() throws IOException {
+        final byte[] body = jsonBytes(5000);
+        for (boolean nowrap : new boolean[] {false, true}) {
+            final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (DeflaterOutputStream deflate = new DeflaterOutputStream(compressed, new Deflater(Deflater.DEFAULT_COMPRESSION, nowrap))) {
+                deflate.write(body);
+            }
+            try (ResponseBodyReader.Accumulator accumulator = ResponseBodyReader.accumulate(-1, "deflate")) {
+                Assert.assertArrayEquals(body, accumulate(accumulator, compressed.toByteArray(), 1));
+            }
+        }
+    }
+
+    @Test
+    public void testAccumulateIdentityBody() throws IOException {
+        final byte[] body = randomBytes(20000);
+        try (ResponseBodyReader.Accumulator accumulator = ResponseBodyReader.accumulate(body.length, null)) {
+            Assert.assertArrayEquals(body, accumulate(accumulator, body, 999));
+        }
+        try (ResponseBodyReader.Accumulator accumulator = ResponseBodyReader.accumulate(-1, "identity")) {
+            Assert.assertArrayEquals(body, accumulate(accumulator, body, 999));
+        }
+    }
+
+    @Test
+    public void testTrailingDataAfterGzipBodyIsIgnored() throws IOException {
+        final byte[] body = jsonBytes(2000);
+        final byte[] compressed = gzip(body);
+        // zero padding, short and long, and the start of a header cut short
+        final byte[][] trailers = {new byte[1], new byte[9], new byte[512], {0x1f, (byte) 0x8b, 8}};
+        for (byte[] trailer : trailers) {
+            final byte[] padded = Arrays.copyOf(compressed, compressed.length + trailer.length);
+            System.arraycopy(trailer, 0, padded, compressed.length, trailer.length);
+            Assert.assertArrayEquals(body, ResponseBodyReader.read(trickle(padded), padded.length, "gzip"));
+            for (int chunkSize : new int[] {1, 7, padded.length}) {
+                try (ResponseBodyReader.Accumulator accumulator = ResponseBodyReader.accumulate(padded.length, "gzip")) {
+                    Assert.assertArrayEquals(body, accumulate(accumulator, padded, chunkSize));
+                }
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testAccumulateTruncatedBody() throws IOException {
+        try (ResponseBodyReader.Accumulator accumulator = ResponseBodyReader.accumulate(11, null)) {
+            accumulate(accumulator, new byte[10], 10);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testAccumulateTruncatedGzipBody() throws IOException {
+        final byte[] compressed = gzip(jsonBytes(100));
+        try (ResponseBodyReader.Accumulator accumulator = ResponseBodyReader.accumulate(-1, "gzip")) {
+            accumulate(accumulator, Arrays.copyOf(compressed, compressed.length - 4), 100);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testAccumulateGzipBodyWithCorruptTrailer() throws IOException {
+        final byte[] compressed = gzip(jsonBytes(100));
+        compressed[compressed.length - 8] ^= 1;
+        try (ResponseBodyReader.Accumulator accumulator = ResponseBodyReader.accumulate(-1, "gzip")) {
+            accumulate(accumulator, compressed, 100);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testAccumulateBodyWithUnsupportedEncoding() throws IOException {
+        ResponseBodyReader.accumulate(10, "br");
+    }
+
+    private static byte[] accumulate(final ResponseBodyReader.Accumulator accumulator, final byte[] bytes,
+                                     final int chunkSize) throws IOException {
+        // the chunks are written from a reused buffer, as the non-blocking client does
+        final byte[] chunk = new byte[chunkSize];
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            final int length = Math.min(chunkSize, bytes.length - offset);
+            System.arraycopy(bytes, offset, chunk, 0, length);
+            accumulator.write(chunk, 0, length);
+            Arrays.fill(chunk, (byte) 0);
+        }
+        return accumulator.finish();
+    }
+
+    private static byte[] gzip(final byte[] bytes) throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(bytes);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] jsonBytes(final int entries) {
+        final StringBuilder json = new StringBuilder("{\"reports\":[");
+        for (int i = 0; i < entries; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"reportId\":\"").append(i).append("\"}");
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] randomBytes(final int length) {
+        final byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+
+    /** returns the bytes a few at a time, as a socket would */
+    private static InputStream trickle(final byte[] bytes) {
+        return new FilterInputStream(new ByteArrayInputStream(bytes)) {
+            @Override
+            public int read(final byte[] b, final int off, final int len) throws IOException {
+                return super.read(b, off, Math.min(len, 1000));
+            }
+        };
+    }
+}
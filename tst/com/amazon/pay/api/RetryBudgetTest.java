@@ -0,0 +1,102 @@
+package com.amazon.pay.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RetryBudgetTest {
+
+    @Test
+    public void testBurstIsAvailableAtFirst() {
+        final RetryBudget budget = new RetryBudget(0.1, 3);
+        budget.onRequest();
+        Assert.assertTrue(budget.tryRetry());
+        Assert.assertTrue(budget.tryRetry());
+        Assert.assertTrue(budget.tryRetry());
+        Assert.assertFalse(budget.tryRetry());
+
+        final RetryBudgetStats stats = budget.getStats();
+        Assert.assertEquals(1, stats.getRequests());
+        Assert.assertEquals(3, stats.getRetries());
+        Assert.assertEquals(1, stats.getRejectedRetries());
+        Assert.assertEquals(0, stats.getAvailableRetries());
+    }
+
+    @Test
+    public void testRequestsEarnRetriesAtTheRatio() {
+        final RetryBudget budget = new RetryBudget(0.1, 0);
+        for (int i = 0; i < 9; i++) {
+            budget.onRequest();
+        }
+        Assert.assertFalse(budget.tryRetry());
+        budget.onRequest();
+        Assert.assertTrue(budget.tryRetry());
+        Assert.assertFalse(budget.tryRetry());
+    }
+
+    @Test
+    public void testBalanceIsCappedByBurst() {
+        final RetryBudget budget = new RetryBudget(0.5, 2);
+        for (int i = 0; i < 100; i++) {
+            budget.onRequest();
+        }
+        Assert.assertEquals(2, budget.getStats().getAvailableRetries());
+        Assert.assertTrue(budget.tryRetry());
+        Assert.assertTrue(budget.tryRetry());
+        Assert.assertFalse(budget.tryRetry());
+    }
+
+    @Test
+    public void testConcurrentRetriesNeverOverdraw() throws Exception {
+        final RetryBudget budget = new RetryBudget(0.1, 10);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<Integer>> allowed = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                allowed.add(executor.submit(() -> {
+                    start.await();
+                    int retries = 0;
+                    for (int i = 0; i < 1000; i++) {
+                        budget.onRequest();
+                        if (budget.tryRetry()) {
+                            retries++;
+                        }
+                    }
+                    return retries;
+                }));
+            }
+            start.countDown();
+            int retries = 0;
+            for (Future<Integer> future : allowed) {
+                retries += future.get(30, TimeUnit.SECONDS);
+            }
+
+            // 8000 requests earn 800 retries, on top of the burst of 10
+            Assert.assertTrue(String.valueOf(retries), retries <= 810);
+            final RetryBudgetStats stats = budget.getStats();
+            Assert.assertEquals(8000, stats.getRequests());
+            Assert.assertEquals(retries, stats.getRetries());
+            Assert.assertEquals(8000 - retries, stats.getRejectedRetries());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRatioMustBePositive() {
+        new RetryBudget(0, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBurstMustNotBeNegative() {
+        new RetryBudget(0.1, -1);
+    }
+}
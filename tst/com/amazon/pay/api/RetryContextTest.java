@@ -0,0 +1,57 @@
+package com.amazon.pay.api;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RetryContextTest {
+    private static final long NOW = Instant.parse("2024-02-29T23:59:30Z").toEpochMilli();
+
+    @Test
+    public void testRetryAfterSeconds() {
+        Assert.assertEquals(120000, retryAfterMillis("120"));
+        Assert.assertEquals(0, retryAfterMillis("0"));
+        Assert.assertEquals(5000, retryAfterMillis(" 5 "));
+        Assert.assertEquals(Long.MAX_VALUE, retryAfterMillis("99999999999999999999"));
+    }
+
+    @Test
+    public void testRetryAfterHttpDate() {
+        Assert.assertEquals(30000, retryAfterMillis("Fri, 01 Mar 2024 00:00:00 GMT"));
+        Assert.assertEquals(0, retryAfterMillis("Thu, 29 Feb 2024 23:00:00 GMT"));
+        Assert.assertEquals(90000, retryAfterMillis(DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                Instant.ofEpochMilli(NOW + 90000).atOffset(ZoneOffset.UTC))));
+    }
+
+    @Test
+    public void testMissingOrInvalidRetryAfter() {
+        Assert.assertEquals(-1, new RetryContext(0, 429, 0).getRetryAfterMillis());
+        Assert.assertEquals(-1, retryAfterMillis(""));
+        Assert.assertEquals(-1, retryAfterMillis("-5"));
+        Assert.assertEquals(-1, retryAfterMillis("1.5"));
+        Assert.assertEquals(-1, retryAfterMillis("tomorrow"));
+    }
+
+    @Test
+    public void testHeaderNameIsCaseInsensitive() {
+        final HttpTransportResponse response = new HttpTransportResponse(503,
+                Collections.singletonMap("retry-after", Collections.singletonList("7")), null);
+        final RetryContext context = new RetryContext(1, 503, 100, response.getHeaders(), NOW);
+        Assert.assertEquals(7000, context.getRetryAfterMillis());
+        Assert.assertEquals(1, context.getRetryCount());
+        Assert.assertEquals(503, context.getStatusCode());
+        Assert.assertEquals(100, context.getPreviousWaitTime());
+        Assert.assertEquals(Collections.singletonList("7"), context.getResponseHeaders().get("Retry-After"));
+    }
+
+    private static long retryAfterMillis(final String value) {
+        final Map<String, List<String>> headers = Collections.singletonMap("Retry-After", Collections.singletonList(value));
+        return new RetryContext(0, 429, 0, headers, NOW).getRetryAfterMillis();
+    }
+}
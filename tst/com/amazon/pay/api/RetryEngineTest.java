@@ -0,0 +1,375 @@
+package com.amazon.pay.api;
+
+import com.amazon.pay.api.exceptions.AmazonPayClientException;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RetryEngineTest {
+    private static final HttpTransportRequest GET = request("GET", Collections.emptyMap());
+    private static final HttpTransportRequest POST = request("POST", Collections.emptyMap());
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "retry-engine-test");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ExecutorService workers = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "retry-engine-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @After
+    public void shutdownScheduler() {
+        scheduler.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    @Test
+    public void testRetriesAreSentFromWorkers() throws Exception {
+        final RetryEngine engine = newEngine(new ExponentialRetryStrategy(3, 1));
+        final AtomicInteger attempts = new AtomicInteger();
+        final List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        final RetryEngine.Outcome outcome = engine.execute(GET, () -> {
+            threads.add(Thread.currentThread().getName());
+            return CompletableFuture.completedFuture(response(attempts.incrementAndGet() < 3 ? 503 : 200));
+        }).get(30, TimeUnit.SECONDS);
+
+        Assert.assertEquals(200, outcome.getResponse().getStatusCode());
+        Assert.assertEquals(2, outcome.getRetries());
+        Assert.assertEquals(Thread.currentThread().getName(), threads.get(0));
+        Assert.assertEquals(Collections.nCopies(2, "retry-engine-worker"), threads.subList(1, 3));
+    }
+
+    @Test
+    public void testThrottlingStormHoldsNoThread() throws Exception {
+        final RetryEngine engine = newEngine(new ExponentialRetryStrategy(2, 50));
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+        final List<CompletableFuture<RetryEngine.Outcome>> outcomes = new ArrayList<>();
+        final int threadsBefore = Thread.activeCount();
+        for (int i = 0; i < 500; i++) {
+            final AtomicInteger attempts = new AtomicInteger();
+            outcomes.add(engine.execute(GET, () -> {
+                threads.add(Thread.currentThread().getName());
+                return CompletableFuture.completedFuture(response(attempts.incrementAndGet() <= 2 ? 429 : 200));
+            }));
+        }
+        // every request is waiting for a backoff, and no thread was started to wait for them
+        Assert.assertTrue(Thread.activeCount() <= threadsBefore + 1);
+        for (CompletableFuture<RetryEngine.Outcome> outcome : outcomes) {
+            Assert.assertEquals(2, outcome.get(30, TimeUnit.SECONDS).getRetries());
+        }
+        Assert.assertEquals(2, threads.size());
+    }
+
+    @Test
+    public void testRetryAfterShortensBackoff() throws Exception {
+        final RetryEngine engine = newEngine(new ExponentialRetryStrategy(1, 60000));
+        final AtomicInteger attempts = new AtomicInteger();
+        final RetryEngine.Outcome outcome = engine.execute(GET, () -> CompletableFuture.completedFuture(
+                attempts.incrementAndGet() == 1
+                        ? new HttpTransportResponse(429, Collections.singletonMap("Retry-After",
+                                Collections.singletonList("0")), new byte[0])
+                        : response(200))).get(30, TimeUnit.SECONDS);
+        Assert.assertEquals(200, outcome.getResponse().getStatusCode());
+        Assert.assertEquals(1, outcome.getRetries());
+    }
+
+    @Test
+    public void testRetriesStopAtMaxRetries() throws Exception {
+        final RetryEngine engine = newEngine(new ExponentialRetryStrategy(2, 1));
+        final RetryEngine.Outcome outcome = engine.executeBlocking(GET, () -> response(500));
+        Assert.assertEquals(500, outcome.getResponse().getStatusCode());
+        Assert.assertEquals(2, outcome.getRetries());
+
+        final RetryEngine.Outcome clientError = engine.executeBlocking(GET, () -> response(400));
+        Assert.assertEquals(0, clientError.getRetries());
+    }
+
+    @Test
+    public void testAttemptFailureFailsTheRequest() throws Exception {
+        final RetryEngine engine = newEngine(new ExponentialRetryStrategy(2, 1));
+        final CompletableFuture<HttpTransportResponse> failure = new CompletableFuture<>();
+        failure.completeExceptionally(new IOException("Connection reset"));
+        try {
+            engine.execute(POST, () -> failure).get(30, TimeUnit.SECONDS);
+            Assert.fail("Expected the request to fail");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+
+    @Test
+    public void testCloseFailsPendingBackoffs() throws Exception {
+        final RetryEngine engine = newEngine(new ExponentialRetryStrategy(1, 60000));
+        final CompletableFuture<RetryEngine.Outcome> asyncOutcome = engine.execute(GET,
+                () -> CompletableFuture.completedFuture(response(503)));
+
+        final AtomicReference<Exception> blockingFailure = new AtomicReference<>();
+        final Thread blockingCaller = new Thread(() -> {
+            try {
+                engine.executeBlocking(GET, () -> response(503));
+            } catch (AmazonPayClientException e) {
+                blockingFailure.set(e);
+            }
+        });
+        blockingCaller.start();
+        while (blockingCaller.getState() != Thread.State.WAITING && blockingCaller.isAlive()) {
+            Thread.sleep(1);
+        }
+
+        engine.close();
+        blockingCaller.join(30000);
+        Assert.assertEquals("Client has been closed", blockingFailure.get().getMessage());
+        try {
+            asyncOutcome.get(30, TimeUnit.SECONDS);
+            Assert.fail("Expected the request to fail");
+        } catch (ExecutionException e) {
+            Assert.assertEquals("Client has been closed", e.getCause().getMessage());
+        }
+        try {
+            engine.executeBlocking(GET, () -> response(503));
+            Assert.fail("Expected the request to fail");
+        } catch (AmazonPayClientException e) {
+            Assert.assertEquals("Client has been closed", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testInterruptedBackoff() throws Exception {
+        final RetryEngine engine = newEngine(new ExponentialRetryStrategy(1, 60000));
+        Thread.currentThread().interrupt();
+        try {
+            engine.executeBlocking(GET, () -> response(503));
+            Assert.fail("Expected the request to fail");
+        } catch (AmazonPayClientException e) {
+            Assert.assertTrue(e.getCause() instanceof InterruptedException);
+            Assert.assertTrue(Thread.interrupted());
+        }
+    }
+
+    @Test
+    public void testRetryBudgetBoundsRetriesDuringOutage() throws Exception {
+        final PayConfiguration payConfiguration = new PayConfiguration()
+                .setRetryStrategy(new ExponentialRetryStrategy(3, 1))
+                .setRetryBudgetRatio(0.1)
+                .setRetryBudgetBurst(5);
+        final RetryEngine engine = new RetryEngine(payConfiguration, () -> scheduler, () -> workers);
+        final AtomicInteger attempts = new AtomicInteger();
+        int retries = 0;
+        for (int i = 0; i < 100; i++) {
+            final RetryEngine.Outcome outcome = i % 2 == 0
+                    ? engine.executeBlocking(GET, () -> {
+                        attempts.incrementAndGet();
+                        return response(503);
+                    })
+                    : engine.execute(GET, () -> {
+                        attempts.incrementAndGet();
+                        return CompletableFuture.completedFuture(response(503));
+                    }).get(30, TimeUnit.SECONDS);
+            // requests failing once the budget is exhausted complete with their last response
+            Assert.assertEquals(503, outcome.getResponse().getStatusCode());
+            retries += outcome.getRetries();
+        }
+
+        // 100 requests retried 3 times each would send 400 attempts: the 5 retries of the burst are spent by the
+        // first requests, then 10% of the requests are retried once
+        Assert.assertEquals(14, retries);
+        Assert.assertEquals(114, attempts.get());
+        final RetryBudgetStats stats = engine.getRetryBudgetStats();
+        Assert.assertEquals(100, stats.getRequests());
+        Assert.assertEquals(14, stats.getRetries());
+        Assert.assertEquals(99, stats.getRejectedRetries());
+        Assert.assertEquals(0, stats.getAvailableRetries());
+    }
+
+    @Test
+    public void testRetriesAreNotBudgetedByDefault() throws Exception {
+        final RetryEngine engine = newEngine(new ExponentialRetryStrategy(3, 1));
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(3, engine.executeBlocking(GET, () -> response(503)).getRetries());
+        }
+        Assert.assertEquals(0, engine.getRetryBudgetStats().getRequests());
+    }
+
+    @Test
+    public void testIOFailuresAreRetried() throws Exception {
+        final List<RetryContext> contexts = Collections.synchronizedList(new ArrayList<>());
+        final RetryEngine engine = newEngine(new ExponentialRetryStrategy(3, 1) {
+            @Override
+            public long getWaitTime(final RetryContext context) {
+                contexts.add(context);
+                return super.getWaitTime(context);
+            }
+        });
+        final AtomicInteger attempts = new AtomicInteger();
+        final RetryEngine.Outcome outcome = engine.executeBlocking(GET, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new SocketException("Connection reset");
+            }
+            return response(200);
+        });
+        Assert.assertEquals(200, outcome.getResponse().getStatusCode());
+        Assert.assertEquals(2, outcome.getRetries());
+        Assert.assertEquals(0, contexts.get(0).getStatusCode());
+        Assert.assertEquals("Connection reset", contexts.get(0).getFailure().getMessage());
+
+        attempts.set(0);
+        final RetryEngine.Outcome asyncOutcome = engine.execute(GET, () -> {
+            final CompletableFuture<HttpTransportResponse> response = new CompletableFuture<>();
+            if (attempts.incrementAndGet() < 3) {
+                response.completeExceptionally(new SocketException("Connection reset"));
+            } else {
+                response.complete(response(200));
+            }
+            return response;
+        }).get(30, TimeUnit.SECONDS);
+        Assert.assertEquals(200, asyncOutcome.getResponse().getStatusCode());
+        Assert.assertEquals(2, asyncOutcome.getRetries());
+    }
+
+    @Test
+    public void testIOFailureOfNonIdempotentRequestIsNotRetried() throws Exception {
+        final RetryEngine engine = newEngine(new ExponentialRetryStrategy(3, 1));
+        final AtomicInteger attempts = new AtomicInteger();
+        try {
+            engine.executeBlocking(POST, () -> {
+                attempts.incrementAndGet();
+                throw new SocketException("Connection reset");
+            });
+            Assert.fail("Expected the request to fail");
+        } catch (AmazonPayClientException e) {
+            Assert.assertTrue(e.getCause() instanceof SocketException);
+        }
+        Assert.assertEquals(1, attempts.get());
+
+        // the request was not sent, so it is sent again whatever its method
+        attempts.set(0);
+        final RetryEngine.Outcome outcome = engine.executeBlocking(POST, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new ConnectException("Connection refused");
+            }
+            return response(200);
+        });
+        Assert.assertEquals(1, outcome.getRetries());
+    }
+
+    @Test
+    public void testBlockingAttemptDoesNotDelayOtherBackoffs() throws Exception {
+        final ExecutorService cachedWorkers = Executors.newCachedThreadPool();
+        try {
+            final RetryEngine engine = new RetryEngine(new PayConfiguration()
+                    .setRetryStrategy(new ExponentialRetryStrategy(1, 1)), () -> scheduler, () -> cachedWorkers);
+            final CountDownLatch slowAttemptStarted = new CountDownLatch(1);
+            final CountDownLatch releaseSlowAttempt = new CountDownLatch(1);
+            final AtomicInteger slowAttempts = new AtomicInteger();
+            // the retry of this request blocks, like an attempt sent through a blocking transport
+            final CompletableFuture<RetryEngine.Outcome> slow = engine.execute(GET, () -> {
+                if (slowAttempts.incrementAndGet() == 1) {
+                    return CompletableFuture.completedFuture(response(503));
+                }
+                slowAttemptStarted.countDown();
+                try {
+                    releaseSlowAttempt.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return CompletableFuture.completedFuture(response(200));
+            });
+            Assert.assertTrue(slowAttemptStarted.await(30, TimeUnit.SECONDS));
+
+            final AtomicInteger attempts = new AtomicInteger();
+            final RetryEngine.Outcome outcome = engine.execute(GET, () -> CompletableFuture.completedFuture(
+                    response(attempts.incrementAndGet() == 1 ? 429 : 200))).get(30, TimeUnit.SECONDS);
+            Assert.assertEquals(1, outcome.getRetries());
+            Assert.assertFalse(slow.isDone());
+
+            releaseSlowAttempt.countDown();
+            Assert.assertEquals(200, slow.get(30, TimeUnit.SECONDS).getResponse().getStatusCode());
+        } finally {
+            cachedWorkers.shutdownNow();
+        }
+    }
+
+    private RetryEngine newEngine(final RetryStrategy retryStrategy) {
+        return new RetryEngine(new PayConfiguration().setRetryStrategy(retryStrategy), () -> scheduler,
+                () -> workers);
+    }
+
+    @Test
+    public void testRetryAfterOfCustomStrategyIsCappedByItsWaitTime() throws Exception {
+        final List<Long> waitTimes = Collections.synchronizedList(new ArrayList<>());
+        final RetryEngine engine = newEngine(new RetryStrategy() {
+            @Override
+            public long getWaitTime(final int retryCount, final int statusCode) {
+                return 5;
+            }
+
+            @Override
+            public long getWaitTime(final RetryContext context) {
+                final long waitTime = RetryStrategy.super.getWaitTime(context);
+                waitTimes.add(waitTime);
+                return waitTime;
+            }
+
+            @Override
+            public void setMaxRetries(final int maxRetries) {
+            }
+
+            @Override
+            public int getMaxRetries() {
+                return 2;
+            }
+        });
+        // an hour, then more seconds than a long holds in milliseconds
+        final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        final AtomicInteger attempts = new AtomicInteger();
+        final RetryEngine.Outcome outcome = engine.execute(GET, () -> {
+            final int attempt = attempts.incrementAndGet();
+            headers.put("Retry-After", Collections.singletonList(attempt == 1 ? "3600" : "99999999999999999999"));
+            return CompletableFuture.completedFuture(attempt < 3
+                    ? new HttpTransportResponse(429, headers, new byte[0]) : response(200));
+        }).get(30, TimeUnit.SECONDS);
+        Assert.assertEquals(200, outcome.getResponse().getStatusCode());
+        Assert.assertEquals(Arrays.asList(5L, 5L), waitTimes);
+
+        attempts.set(0);
+        Assert.assertEquals(200, engine.executeBlocking(GET, () -> attempts.incrementAndGet() < 3
+                ? new HttpTransportResponse(429, headers, new byte[0]) : response(200)).getResponse().getStatusCode());
+        Assert.assertEquals(Arrays.asList(5L, 5L, 5L, 5L), waitTimes);
+    }
+
+    private static HttpTransportRequest request(final String method, final Map<String, String> headers) {
+        return new HttpTransportRequest(URI.create("https://pay-api.amazon.com/v2/charges/C01"), method, headers,
+                new byte[0]);
+    }
+
+    private static HttpTransportResponse response(final int statusCode) {
+        return new HttpTransportResponse(statusCode, Collections.emptyMap(), new byte[0]);
+    }
+}
@@ -0,0 +1,79 @@
+package com.amazon.pay.api;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Simulates clients throttled by the same burst: all of them send a request at the same instant to a server
+ * accepting a fixed number of requests per window and throttling the others with 429, each client retrying
+ * with the strategy under test until its request is accepted.
+ */
+public class RetryStrategySimulationTest {
+    private static final int CLIENTS = 200;
+    private static final int REQUESTS_PER_WINDOW = 10;
+    private static final long WINDOW_MILLIS = 100;
+    private static final int MAX_RETRIES = 100;
+    private static final long INITIAL_DELAY_MILLIS = 100;
+    private static final long MAX_DELAY_MILLIS = 10000;
+    private static final int RUNS = 5;
+
+    @Test
+    public void testJitterReducesRetriesAndCompletionTime() {
+        final Result lockstep = simulate(new ExponentialRetryStrategy(MAX_RETRIES, INITIAL_DELAY_MILLIS,
+                INITIAL_DELAY_MILLIS, MAX_DELAY_MILLIS, MAX_DELAY_MILLIS));
+        final RetryStrategy[] jitteredStrategies = {
+                new FullJitterRetryStrategy(MAX_RETRIES, INITIAL_DELAY_MILLIS, INITIAL_DELAY_MILLIS,
+                        MAX_DELAY_MILLIS, MAX_DELAY_MILLIS),
+                new EqualJitterRetryStrategy(MAX_RETRIES, INITIAL_DELAY_MILLIS, INITIAL_DELAY_MILLIS,
+                        MAX_DELAY_MILLIS, MAX_DELAY_MILLIS),
+                new DecorrelatedJitterRetryStrategy(MAX_RETRIES, INITIAL_DELAY_MILLIS, INITIAL_DELAY_MILLIS,
+                        MAX_DELAY_MILLIS, MAX_DELAY_MILLIS)
+        };
+        for (RetryStrategy strategy : jitteredStrategies) {
+            long retries = 0;
+            long completionMillis = 0;
+            for (int run = 0; run < RUNS; run++) {
+                final Result jittered = simulate(strategy);
+                retries += jittered.retries;
+                completionMillis += jittered.completionMillis;
+            }
+            final String name = strategy.getClass().getSimpleName();
+            Assert.assertTrue(name + " retries", retries / RUNS < lockstep.retries);
+            Assert.assertTrue(name + " completion", completionMillis / RUNS < lockstep.completionMillis);
+        }
+    }
+
+    private static Result simulate(final RetryStrategy strategy) {
+        // attempts as {time, retry count, previous wait time}, in time order
+        final PriorityQueue<long[]> attempts = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        for (int client = 0; client < CLIENTS; client++) {
+            attempts.add(new long[] {0, 0, 0});
+        }
+        final Map<Long, Integer> acceptedPerWindow = new HashMap<>();
+        final Result result = new Result();
+        while (!attempts.isEmpty()) {
+            final long[] attempt = attempts.poll();
+            final long window = attempt[0] / WINDOW_MILLIS;
+            final int accepted = acceptedPerWindow.getOrDefault(window, 0);
+            if (accepted < REQUESTS_PER_WINDOW) {
+                acceptedPerWindow.put(window, accepted + 1);
+                result.completionMillis = Math.max(result.completionMillis, attempt[0]);
+                continue;
+            }
+            Assert.assertTrue("a client ran out of retries", attempt[1] < MAX_RETRIES);
+            final long waitTime = strategy.getWaitTime(new RetryContext((int) attempt[1], 429, attempt[2]));
+            attempts.add(new long[] {attempt[0] + waitTime, attempt[1] + 1, waitTime});
+            result.retries++;
+        }
+        return result;
+    }
+
+    private static final class Result {
+        private long retries;
+        private long completionMillis;
+    }
+}
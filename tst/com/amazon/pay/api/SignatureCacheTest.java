@@ -0,0 +1,82 @@
+package com.amazon.pay.api;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class SignatureCacheTest {
+    private static KeyRegistry.SigningKey signingKey;
+    private static KeyRegistry.SigningKey rotatedKey;
+
+    @BeforeClass
+    public static void generateKeys() throws Exception {
+        final KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(1024);
+        final PrivateKey privateKey = keyPairGenerator.generateKeyPair().getPrivate();
+        final KeyRegistry keyRegistry = new KeyRegistry("KEY-1", privateKey);
+        signingKey = keyRegistry.getActiveKey();
+        keyRegistry.rotate("KEY-2", privateKey);
+        rotatedKey = keyRegistry.getActiveKey();
+    }
+
+    @Test
+    public void testSignatureIsReusedWithinItsSecond() {
+        final SignatureCache cache = new SignatureCache();
+        Assert.assertNull(cache.get("20240229T235959Z", signingKey, null, bytes("GET")));
+        cache.put("20240229T235959Z", signingKey, null, bytes("GET"), "c2lnbmF0dXJl", 8);
+        Assert.assertEquals("c2lnbmF0dXJl", cache.get("20240229T235959Z", signingKey, null, bytes("GET")));
+        Assert.assertNull(cache.get("20240229T235959Z", signingKey, null, bytes("POST")));
+
+        // a later second empties the cache, and late requests of the earlier second bypass it
+        Assert.assertNull(cache.get("20240301T000000Z", signingKey, null, bytes("GET")));
+        cache.put("20240229T235959Z", signingKey, null, bytes("GET"), "c2lnbmF0dXJl", 8);
+        Assert.assertNull(cache.get("20240229T235959Z", signingKey, null, bytes("GET")));
+        Assert.assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    public void testKeyRotationEmptiesTheCache() {
+        final SignatureCache cache = new SignatureCache();
+        final Signer signer = (stringToSign, algorithm) -> new byte[0];
+        cache.put("20240229T235959Z", signingKey, null, bytes("GET"), "c2lnbmF0dXJl", 8);
+        Assert.assertNull(cache.get("20240229T235959Z", rotatedKey, null, bytes("GET")));
+        cache.put("20240229T235959Z", rotatedKey, null, bytes("GET"), "cm90YXRlZA==", 8);
+        Assert.assertNull(cache.get("20240229T235959Z", rotatedKey, signer, bytes("GET")));
+        Assert.assertNull(cache.get("20240229T235959Z", rotatedKey, null, bytes("GET")));
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        final SignatureCache cache = new SignatureCache();
+        for (int i = 0; i < 5; i++) {
+            cache.put("20240229T235959Z", signingKey, null, bytes("GET " + i), "c2lnbmF0dXJl", 3);
+        }
+        Assert.assertEquals(3, cache.getStats().getSize());
+        Assert.assertNotNull(cache.get("20240229T235959Z", signingKey, null, bytes("GET 2")));
+        Assert.assertNull(cache.get("20240229T235959Z", signingKey, null, bytes("GET 3")));
+    }
+
+    @Test
+    public void testStats() {
+        final SignatureCache cache = new SignatureCache();
+        Assert.assertEquals(0, cache.getStats().getHitRate(), 0);
+        cache.get("20240229T235959Z", signingKey, null, bytes("GET"));
+        cache.put("20240229T235959Z", signingKey, null, bytes("GET"), "c2lnbmF0dXJl", 8);
+        for (int i = 0; i < 3; i++) {
+            cache.get("20240229T235959Z", signingKey, null, bytes("GET"));
+        }
+        final SignatureCacheStats stats = cache.getStats();
+        Assert.assertEquals(3, stats.getHits());
+        Assert.assertEquals(1, stats.getMisses());
+        Assert.assertEquals(0.75, stats.getHitRate(), 0);
+        Assert.assertEquals("SignatureCacheStats{Hits=3, Misses=1, HitRate=0.75, Size=1}", stats.toString());
+    }
+
+    private static byte[] bytes(final String stringToSign) {
+        return stringToSign.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,125 @@
+package com.amazon.pay.api;
+
+import com.amazon.pay.api.types.AmazonSignatureAlgorithm;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.KeyFactory;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class SignatureEngineTest {
+    private static PrivateKey privateKey;
+    private static PublicKey publicKey;
+
+    @BeforeClass
+    public static void loadKeys() throws Exception {
+        privateKey = Util.buildPrivateKey(new String(Files.readAllBytes(
+                Paths.get("tst/com/amazon/pay/api/unit_test_private_key.txt"))).toCharArray());
+        final String pem = new String(Files.readAllBytes(Paths.get("tst/com/amazon/pay/api/unit_test_public_key.txt")),
+                StandardCharsets.UTF_8).replaceAll("-----[A-Z ]+-----|\\s", "");
+        publicKey = KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(pem)));
+    }
+
+    @Test
+    public void testDigestIsReusable() throws Exception {
+        final MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+        for (String text : new String[] {"", "first", "second"}) {
+            final byte[] data = text.getBytes(StandardCharsets.UTF_8);
+            Assert.assertArrayEquals(messageDigest.digest(data), SignatureEngine.digest(data));
+        }
+    }
+
+    @Test
+    public void testDigestLinesHashesTheJoinedUtf8Encoding() throws Exception {
+        final StringBuilder longLine = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            longLine.append("a\u00e9\u20ac\ud83d\ude00");
+        }
+        final String[][] cases = {
+                {},
+                {""},
+                {"", ""},
+                {"GET", "/v2/charges", "", "accept:application/json\n", "accept", SignatureHelper.EMPTY_PAYLOAD_HASH},
+                {"caf\u00e9", "\u20ac", "\ud83d\ude00"},
+                {"unpaired \ud83d", "\ude00 low", "reversed \ude00\ud83d", "\ud83d"},
+                {longLine.toString(), longLine.toString()}
+        };
+        final MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+        for (String[] lines : cases) {
+            final byte[] expected = messageDigest.digest(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+            Assert.assertArrayEquals(String.join("|", lines), expected, SignatureEngine.digestLines(lines));
+        }
+    }
+
+    @Test
+    public void testSignaturesVerifyForEveryAlgorithm() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            for (AmazonSignatureAlgorithm algorithm : AmazonSignatureAlgorithm.values()) {
+                final byte[] data = ("string to sign " + i + algorithm).getBytes(StandardCharsets.UTF_8);
+                Assert.assertTrue(verify(data, SignatureEngine.sign(data, privateKey, algorithm), publicKey, algorithm));
+            }
+        }
+    }
+
+    @Test
+    public void testSigningKeyChangeIsApplied() throws Exception {
+        final KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        final java.security.KeyPair otherKeyPair = keyPairGenerator.generateKeyPair();
+        final byte[] data = "rotated".getBytes(StandardCharsets.UTF_8);
+
+        final byte[] first = SignatureEngine.sign(data, privateKey, AmazonSignatureAlgorithm.DEFAULT);
+        final byte[] second = SignatureEngine.sign(data, otherKeyPair.getPrivate(), AmazonSignatureAlgorithm.DEFAULT);
+        final byte[] third = SignatureEngine.sign(data, privateKey, AmazonSignatureAlgorithm.DEFAULT);
+        Assert.assertTrue(verify(data, first, publicKey, AmazonSignatureAlgorithm.DEFAULT));
+        Assert.assertTrue(verify(data, second, otherKeyPair.getPublic(), AmazonSignatureAlgorithm.DEFAULT));
+        Assert.assertFalse(verify(data, second, publicKey, AmazonSignatureAlgorithm.DEFAULT));
+        Assert.assertTrue(verify(data, third, publicKey, AmazonSignatureAlgorithm.DEFAULT));
+    }
+
+    @Test
+    public void testConcurrentSigning() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                final byte[] data = ("request " + i).getBytes(StandardCharsets.UTF_8);
+                final AmazonSignatureAlgorithm algorithm = AmazonSignatureAlgorithm.values()[i % 2];
+                results.add(executor.submit(() -> verify(data, SignatureEngine.sign(data, privateKey, algorithm), publicKey, algorithm)
+                        && MessageDigest.isEqual(MessageDigest.getInstance("SHA-256").digest(data), SignatureEngine.digest(data))));
+            }
+            for (Future<Boolean> result : results) {
+                Assert.assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static boolean verify(final byte[] data, final byte[] signatureBytes, final PublicKey key,
+                                  final AmazonSignatureAlgorithm algorithm) throws Exception {
+        final Signature signature = Signature.getInstance(ServiceConstants.SIGNATURE_ALGORITHM, "BC");
+        signature.setParameter(new PSSParameterSpec("SHA-256", "MGF1", MGF1ParameterSpec.SHA256, algorithm.getSaltLength(), 1));
+        signature.initVerify(key);
+        signature.update(data);
+        return signature.verify(signatureBytes);
+    }
+}
@@ -0,0 +1,236 @@
+package com.amazon.pay.api;
+
+import com.amazon.pay.api.types.AmazonSignatureAlgorithm;
+import com.amazon.pay.api.types.Region;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.InvalidKeyException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchProviderException;
+import java.security.PrivateKey;
+import java.security.Provider;
+import java.security.PublicKey;
+import java.security.Security;
+import java.security.Signature;
+import java.security.SignatureSpi;
+import java.security.spec.AlgorithmParameterSpec;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class SignatureProvidersTest {
+    private static PrivateKey privateKey;
+    private static PublicKey publicKey;
+
+    @BeforeClass
+    public static void loadKeys() throws Exception {
+        privateKey = Util.buildPrivateKey(new String(Files.readAllBytes(
+                Paths.get("tst/com/amazon/pay/api/unit_test_private_key.txt"))).toCharArray());
+        final String pem = new String(Files.readAllBytes(Paths.get("tst/com/amazon/pay/api/unit_test_public_key.txt")),
+                StandardCharsets.UTF_8).replaceAll("-----[A-Z ]+-----|\\s", "");
+        publicKey = KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(pem)));
+    }
+
+    @Test
+    public void testBouncyCastleIsInstalledOnce() {
+        SignatureProviders.installBouncyCastle();
+        SignatureProviders.installBouncyCastle();
+        Assert.assertEquals(1, Arrays.stream(Security.getProviders()).filter(p -> "BC".equals(p.getName())).count());
+        Assert.assertSame(Security.getProvider("BC"), SignatureProviders.bouncyCastle());
+    }
+
+    @Test
+    public void testNamedProvider() throws Exception {
+        Assert.assertSame(SignatureProviders.bouncyCastle(), SignatureProviders.get("BC", privateKey));
+        try {
+            SignatureProviders.get("NoSuchProvider", privateKey);
+            Assert.fail("Expected NoSuchProviderException");
+        } catch (NoSuchProviderException e) {
+            Assert.assertTrue(e.getMessage().contains("NoSuchProvider"));
+        }
+    }
+
+    @Test
+    public void testSelectedProviderSignsVerifiably() throws Exception {
+        final Provider provider = SignatureProviders.select(privateKey).get(1, TimeUnit.MINUTES);
+        Assert.assertTrue(SignatureProviders.candidates().contains(provider));
+        Assert.assertSame(provider, SignatureProviders.get(ServiceConstants.FASTEST_SIGNATURE_PROVIDER, privateKey));
+        for (AmazonSignatureAlgorithm algorithm : AmazonSignatureAlgorithm.values()) {
+            final byte[] data = ("selected " + algorithm).getBytes(StandardCharsets.UTF_8);
+            Assert.assertTrue(verify(data, SignatureEngine.sign(data, privateKey, algorithm, provider), algorithm));
+        }
+    }
+
+    @Test
+    public void testBouncyCastleSignsByDefault() throws Exception {
+        final KeyPair keyPair = newKeyPair();
+        Assert.assertSame(SignatureProviders.bouncyCastle(), SignatureProviders.get(null, keyPair.getPrivate()));
+        final byte[] data = "default".getBytes(StandardCharsets.UTF_8);
+        Assert.assertTrue(verify(data, SignatureProviders.sign(data, keyPair.getPrivate(), AmazonSignatureAlgorithm.DEFAULT,
+                null), AmazonSignatureAlgorithm.DEFAULT, keyPair.getPublic()));
+        // no provider is timed unless asked for
+        Assert.assertFalse(SignatureProviders.SELECTIONS.containsKey(keyPair.getPrivate().getClass()));
+    }
+
+    @Test
+    public void testProviderIsSelectedPerKeyClass() throws Exception {
+        final PrivateKey otherKey = newKeyPair().getPrivate();
+        Assume.assumeTrue(otherKey.getClass() != privateKey.getClass());
+        Assert.assertNotSame(SignatureProviders.select(privateKey), SignatureProviders.select(otherKey));
+        Assert.assertSame(SignatureProviders.select(otherKey), SignatureProviders.select(newKeyPair().getPrivate()));
+    }
+
+    @Test
+    public void testKeyRejectedBySelectedProviderIsSignedWithBouncyCastle() throws Exception {
+        final KeyPair keyPair = newKeyPair();
+        final Class<?> keyClass = keyPair.getPrivate().getClass();
+        final CompletableFuture<Provider> selection = SignatureProviders.SELECTIONS.put(keyClass,
+                CompletableFuture.completedFuture(new RejectingProvider()));
+        try {
+            final byte[] data = "rejected".getBytes(StandardCharsets.UTF_8);
+            final byte[] signature = SignatureProviders.sign(data, keyPair.getPrivate(), AmazonSignatureAlgorithm.V2,
+                    ServiceConstants.FASTEST_SIGNATURE_PROVIDER);
+            Assert.assertTrue(verify(data, signature, AmazonSignatureAlgorithm.V2, keyPair.getPublic()));
+        } finally {
+            if (selection == null) {
+                SignatureProviders.SELECTIONS.remove(keyClass);
+            } else {
+                SignatureProviders.SELECTIONS.put(keyClass, selection);
+            }
+        }
+    }
+
+    @Test
+    public void testProviderWithUnverifiableSignaturesIsNotSelected() {
+        final Provider broken = new BrokenProvider();
+        final List<Provider> candidates = Arrays.asList(broken, SignatureProviders.bouncyCastle());
+        Assert.assertSame(SignatureProviders.bouncyCastle(), SignatureProviders.select(privateKey, candidates));
+        Assert.assertSame(broken, SignatureProviders.select(privateKey, Collections.singletonList(broken)));
+    }
+
+    @Test
+    public void testJdkProviderOnJava11() throws Exception {
+        final Provider sunRsaSign = Security.getProvider("SunRsaSign");
+        Assume.assumeTrue("RSASSA-PSS requires SunRsaSign of Java 11",
+                sunRsaSign != null && sunRsaSign.getService("Signature", "RSASSA-PSS") != null);
+        Assert.assertTrue(SignatureProviders.candidates().contains(sunRsaSign));
+
+        final PayConfiguration payConfiguration = new PayConfiguration()
+                .setRegion(Region.NA)
+                .setPublicKeyId("ABCDEF0000000000000")
+                .setSignatureProvider("SunRsaSign");
+        final SignatureHelper signatureHelper = new SignatureHelper(payConfiguration);
+        for (AmazonSignatureAlgorithm algorithm : AmazonSignatureAlgorithm.values()) {
+            final String stringToSign = algorithm.getName() + "\n8dec52d799607be40f82d5c8e7ecb6c171e6591c41b1111a576b16076c89381c";
+            final String signature = signatureHelper.generateSignature(stringToSign, privateKey, algorithm);
+            Assert.assertTrue(verify(stringToSign.getBytes(StandardCharsets.UTF_8), Base64.getDecoder().decode(signature), algorithm));
+        }
+    }
+
+    private static KeyPair newKeyPair() throws Exception {
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private static boolean verify(final byte[] data, final byte[] signatureBytes,
+                                  final AmazonSignatureAlgorithm algorithm) throws Exception {
+        return verify(data, signatureBytes, algorithm, publicKey);
+    }
+
+    private static boolean verify(final byte[] data, final byte[] signatureBytes,
+                                  final AmazonSignatureAlgorithm algorithm, final PublicKey verificationKey) throws Exception {
+        final Signature signature = Signature.getInstance(ServiceConstants.SIGNATURE_ALGORITHM, "BC");
+        signature.setParameter(new PSSParameterSpec("SHA-256", "MGF1", MGF1ParameterSpec.SHA256, algorithm.getSaltLength(), 1));
+        signature.initVerify(verificationKey);
+        signature.update(data);
+        return signature.verify(signatureBytes);
+    }
+
+    /**
+     * Provider answering instantly with signatures that never verify
+     */
+    private static final class BrokenProvider extends Provider {
+        @SuppressWarnings("deprecation")
+        private BrokenProvider() {
+            super("Broken", 1.0, "Signs with zeros");
+            put("Signature.RSASSA-PSS", BrokenSignature.class.getName());
+        }
+    }
+
+    /**
+     * Provider rejecting every private key, as a provider selected with a key of another kind may
+     */
+    private static final class RejectingProvider extends Provider {
+        @SuppressWarnings("deprecation")
+        private RejectingProvider() {
+            super("Rejecting", 1.0, "Rejects every key");
+            put("Signature.RSASSA-PSS", RejectingSignature.class.getName());
+        }
+    }
+
+    public static final class RejectingSignature extends BrokenSignature {
+        @Override
+        protected void engineInitSign(final PrivateKey privateKey) throws InvalidKeyException {
+            throw new InvalidKeyException("Unsupported key " + privateKey.getClass().getName());
+        }
+    }
+
+    public static class BrokenSignature extends SignatureSpi {
+        @Override
+        protected void engineInitVerify(final PublicKey publicKey) throws InvalidKeyException {
+        }
+
+        @Override
+        protected void engineInitSign(final PrivateKey privateKey) throws InvalidKeyException {
+        }
+
+        @Override
+        protected void engineUpdate(final byte b) {
+        }
+
+        @Override
+        protected void engineUpdate(final byte[] b, final int off, final int len) {
+        }
+
+        @Override
+        protected byte[] engineSign() {
+            return new byte[256];
+        }
+
+        @Override
+        protected boolean engineVerify(final byte[] sigBytes) {
+            return false;
+        }
+
+        @Override
+        protected void engineSetParameter(final AlgorithmParameterSpec params) {
+        }
+
+        @Override
+        @Deprecated
+        protected void engineSetParameter(final String param, final Object value) {
+        }
+
+        @Override
+        @Deprecated
+        protected Object engineGetParameter(final String param) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.amazon.pay.api;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.SimpleTimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TimestampClockTest {
+
+    @Test
+    public void testMatchesSimpleDateFormat() {
+        final long[] instants = {0L, 999L, 951782399000L, 1709251199999L, 1709251200000L, 1735689599000L,
+                253402300799000L, System.currentTimeMillis()};
+        for (long millis : instants) {
+            final TimestampClock clock = TimestampClock.of(Clock.fixed(Instant.ofEpochMilli(millis), ZoneOffset.UTC));
+            Assert.assertEquals(String.valueOf(millis), format(millis), clock.getFormattedTimestamp());
+        }
+    }
+
+    @Test
+    public void testZoneOfClockIsIgnored() {
+        final Instant instant = Instant.parse("2024-02-29T23:59:59Z");
+        Assert.assertEquals("20240229T235959Z",
+                TimestampClock.of(Clock.fixed(instant, ZoneId.of("Asia/Tokyo"))).getFormattedTimestamp());
+    }
+
+    @Test
+    public void testFormatsOncePerSecond() {
+        final MutableClock mutableClock = new MutableClock(1709251199000L);
+        final TimestampClock clock = TimestampClock.of(mutableClock);
+        final String first = clock.getFormattedTimestamp();
+        mutableClock.millis.set(1709251199999L);
+        Assert.assertSame(first, clock.getFormattedTimestamp());
+        mutableClock.millis.set(1709251200000L);
+        Assert.assertEquals("20240301T000000Z", clock.getFormattedTimestamp());
+        mutableClock.millis.set(1709251199500L);
+        Assert.assertEquals("20240229T235959Z", clock.getFormattedTimestamp());
+    }
+
+    @Test
+    public void testSystemClockIsShared() {
+        Assert.assertSame(TimestampClock.system(), TimestampClock.of(Clock.systemUTC()));
+        Assert.assertEquals(new PayConfiguration().getClock(), TimestampClock.system().getClock());
+    }
+
+    @Test
+    public void testConcurrentReadersSeeTheCurrentSecond() throws Exception {
+        final MutableClock mutableClock = new MutableClock(1709251100000L);
+        final TimestampClock clock = TimestampClock.of(mutableClock);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 20000; j++) {
+                        final long before = mutableClock.millis.get();
+                        final String timestamp = clock.getFormattedTimestamp();
+                        final long after = mutableClock.millis.get();
+                        Assert.assertTrue(timestamp, timestamp.compareTo(format(before)) >= 0
+                                && timestamp.compareTo(format(after)) <= 0);
+                        mutableClock.millis.addAndGet(7);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static String format(final long millis) {
+        final SimpleDateFormat dateTimeFormat = new SimpleDateFormat("yyyyMMdd'T'HHmmss'Z'");
+        dateTimeFormat.setTimeZone(new SimpleTimeZone(0, "UTC"));
+        return dateTimeFormat.format(new Date(millis));
+    }
+
+    private static final class MutableClock extends Clock {
+        private final AtomicLong millis;
+
+        private MutableClock(final long millis) {
+            this.millis = new AtomicLong(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public long millis() {
+            return millis.get();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.amazon.pay.api;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class Utf8ByteWriterTest {
+
+    @Test
+    public void testEncodesLikeStringGetBytes() {
+        final String[] texts = {
+                "",
+                "plain ascii",
+                "caf\u00e9 \u20ac \u4e2d\u6587",
+                "emoji \ud83d\ude00 pair",
+                "unpaired high \ud83d then text",
+                "unpaired low \ude00 then text",
+                "trailing high \ud83d",
+        };
+        for (String text : texts) {
+            Assert.assertArrayEquals(text, text.getBytes(StandardCharsets.UTF_8), encode(text));
+        }
+    }
+
+    @Test
+    public void testEncodesAcrossChunks() {
+        final Random random = new Random(42);
+        final StringBuilder text = new StringBuilder();
+        while (text.length() < 300000) {
+            // mixes one to four byte sequences so that some straddle the chunk boundaries
+            text.appendCodePoint(random.nextInt(4) == 0 ? 0x1F600 + random.nextInt(50) : random.nextInt(0xD000));
+        }
+        Assert.assertArrayEquals(text.toString().getBytes(StandardCharsets.UTF_8), encode(text.toString()));
+    }
+
+    @Test
+    public void testSurrogatePairSplitAcrossWrites() {
+        final Utf8ByteWriter writer = new Utf8ByteWriter(16);
+        writer.write('\ud83d');
+        writer.write("\ude00", 0, 1);
+        writer.close();
+        Assert.assertArrayEquals("\ud83d\ude00".getBytes(StandardCharsets.UTF_8), writer.toByteArray());
+    }
+
+    private static byte[] encode(final String text) {
+        final Utf8ByteWriter writer = new Utf8ByteWriter(16);
+        writer.write(text, 0, text.length());
+        writer.close();
+        return writer.toByteArray();
+    }
+}
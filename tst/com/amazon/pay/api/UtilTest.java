@@ -27,13 +27,23 @@ import org.apache.http.impl.client.HttpClientBuilder;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.URLEncoder;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.PrivateKey;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -194,6 +204,46 @@ public class UtilTest {
         }
     }
 
+    @Test
+    public void testBuildPrivateKeyFromDer() throws Exception {
+        final String pem = new String(Files.readAllBytes(Paths.get("tst/com/amazon/pay/api/unit_test_private_key.txt")),
+                StandardCharsets.UTF_8);
+        final PrivateKey fromPem = Util.buildPrivateKey(pem.toCharArray());
+        final byte[] pkcs1 = Base64.getDecoder().decode(pem.replaceAll("-----[A-Z ]+-----|\\s", ""));
+
+        Assert.assertEquals(fromPem, Util.buildPrivateKey(fromPem.getEncoded()));
+        Assert.assertEquals(fromPem, Util.buildPrivateKey(pkcs1));
+        try {
+            Util.buildPrivateKey(new byte[] { 1, 2, 3 });
+            Assert.fail("Expected AmazonPayClientException");
+        } catch (AmazonPayClientException expected) {
+        }
+    }
+
+    @Test
+    public void testBuildPrivateKeyFromPkcs12() throws Exception {
+        final PrivateKey fromPem = Util.buildPrivateKey(new String(Files.readAllBytes(
+                Paths.get("tst/com/amazon/pay/api/unit_test_private_key.txt"))).toCharArray());
+        final char[] password = "changeit".toCharArray();
+        try (InputStream keyStore = Files.newInputStream(Paths.get("tst/com/amazon/pay/api/unit_test_private_key.p12"))) {
+            Assert.assertEquals(fromPem, Util.buildPrivateKey(keyStore, password, null));
+        }
+        try (InputStream keyStore = Files.newInputStream(Paths.get("tst/com/amazon/pay/api/unit_test_private_key.p12"))) {
+            Assert.assertEquals(fromPem, Util.buildPrivateKey(keyStore, password, "unit-test"));
+        }
+        try (InputStream keyStore = Files.newInputStream(Paths.get("tst/com/amazon/pay/api/unit_test_private_key.p12"))) {
+            Util.buildPrivateKey(keyStore, password, "missing");
+            Assert.fail("Expected AmazonPayClientException");
+        } catch (AmazonPayClientException expected) {
+            Assert.assertEquals("Key store has no RSA private key entry with alias missing", expected.getMessage());
+        }
+        try (InputStream keyStore = Files.newInputStream(Paths.get("tst/com/amazon/pay/api/unit_test_private_key.p12"))) {
+            Util.buildPrivateKey(keyStore, "wrong".toCharArray(), null);
+            Assert.fail("Expected AmazonPayClientException");
+        } catch (AmazonPayClientException expected) {
+        }
+    }
+
     @Test(expected = AmazonPayClientException.class)
     public void testGetHttpUriRequestForInvalidHttpMethod() throws UnsupportedEncodingException, AmazonPayClientException, URISyntaxException {
         Util.getHttpUriRequest(new URI(StringUtils.EMPTY), "Invalid", StringUtils.EMPTY);
@@ -254,4 +304,84 @@ public class UtilTest {
 
         Assert.assertEquals(expectedCheckoutSessionResponse.getRawResponse(), actualCheckoutSessionResponseAfterEnhancing.getRawResponse());
     }
+
+    @Test
+    public void toJsonBytesMatchesToString() throws Exception {
+        final JSONObject payload = new JSONObject()
+                .put("chargePermissionId", "S01-0000000-0000000")
+                .put("softDescriptor", "caf\u00e9 \ud83d\ude00 \"quoted\" </script>")
+                .put("chargeAmount", new JSONObject().put("amount", "14.00").put("currencyCode", "USD"));
+        Assert.assertArrayEquals(payload.toString().getBytes(StandardCharsets.UTF_8), Util.toJsonBytes(payload));
+    }
+
+    @Test
+    public void urlEncodeMatchesUrlEncoder() throws Exception {
+        final List<String> values = new ArrayList<>();
+        values.add("");
+        values.add("/");
+        values.add("a+b*c~d e%7Ef%2Fg");
+        values.add("/sandbox//v2/charges/S01-0000000-0000000-C000000///");
+        values.add("caf\u00e9 \u1234 \ud83d\ude00");
+        values.add("\ud83d");
+        values.add("\ude00\ud83d");
+        values.add("a\ud83dz\ude00/");
+        values.add("\u007f\u0080\u07ff\u0800\uffff");
+        final StringBuilder ascii = new StringBuilder();
+        for (char c = 0; c < 0x80; c++) {
+            ascii.append(c);
+        }
+        values.add(ascii.toString());
+
+        final char[] alphabet = ("aZ09-._~/ +*%!'()&=?#:;\\\u00e9\u0800\u1234\uffff"
+                + "\ud83d\ude00\udbff\udfff\ud800\udc00").toCharArray();
+        final Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            final char[] value = new char[random.nextInt(12)];
+            for (int j = 0; j < value.length; j++) {
+                value[j] = alphabet[random.nextInt(alphabet.length)];
+            }
+            values.add(new String(value));
+        }
+
+        for (String value : values) {
+            Assert.assertEquals(value, urlEncodeWithUrlEncoder(value, true), Util.urlEncode(value, true));
+            Assert.assertEquals(value, urlEncodeWithUrlEncoder(value, false), Util.urlEncode(value, false));
+        }
+    }
+
+    @Test
+    public void urlEncodeReturnsUnreservedValue() throws Exception {
+        final String path = "/live/v2/in-store/refund";
+        final String value = "S01-0000000-0000000-C000000";
+        Assert.assertSame(path, Util.urlEncode(path, true));
+        Assert.assertSame(value, Util.urlEncode(value, false));
+        Assert.assertEquals("", Util.urlEncode(null, false));
+    }
+
+    /**
+     * The former implementation of Util.urlEncode, fixing up the output of URLEncoder
+     */
+    private static String urlEncodeWithUrlEncoder(String value, final boolean path) throws UnsupportedEncodingException {
+        if (path) {
+            value = value.replaceAll("/+", "/");
+        }
+        final String encoded = URLEncoder.encode(value, "UTF-8");
+        final Matcher matcher = Pattern.compile("\\+|\\*|%7E|%2F").matcher(encoded);
+        final StringBuffer buffer = new StringBuffer(encoded.length());
+        while (matcher.find()) {
+            String replacement = matcher.group(0);
+            if ("+".equals(replacement)) {
+                replacement = "%20";
+            } else if ("*".equals(replacement)) {
+                replacement = "%2A";
+            } else if ("%7E".equals(replacement)) {
+                replacement = "~";
+            } else if (path && "%2F".equals(replacement)) {
+                replacement = "/";
+            }
+            matcher.appendReplacement(buffer, replacement);
+        }
+        matcher.appendTail(buffer);
+        return buffer.toString();
+    }
 }
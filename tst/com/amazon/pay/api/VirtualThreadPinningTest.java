@@ -0,0 +1,131 @@
+package com.amazon.pay.api;
+
+import com.amazon.pay.api.types.Environment;
+import com.amazon.pay.api.types.Region;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class VirtualThreadPinningTest {
+
+    private static final int CALLS = 10000;
+
+    /**
+     * Runs the calls in a child JVM started with -Djdk.tracePinnedThreads=full, which prints the stack of every
+     * virtual thread parking while pinned to its carrier. The Java 11 and 21 classes of the multi-release jar
+     * are put first on the class path, as the JVM would pick them from the jar.
+     */
+    @Test
+    public void testNoPinningUnderConcurrentGetChargeCalls() throws Exception {
+        final String specificationVersion = System.getProperty("java.specification.version");
+        Assume.assumeTrue("Virtual threads require Java 21",
+                !specificationVersion.startsWith("1.") && Integer.parseInt(specificationVersion) >= 21);
+
+        final File classes = new File(AmazonPayClient.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        final String classPath = new File(classes, "META-INF/versions/21") + File.pathSeparator
+                + new File(classes, "META-INF/versions/11") + File.pathSeparator
+                + System.getProperty("java.class.path");
+        final Process process = new ProcessBuilder(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Djdk.tracePinnedThreads=full",
+                "-cp", classPath,
+                GetChargeCalls.class.getName(), String.valueOf(CALLS))
+                .redirectErrorStream(true)
+                .start();
+        final StringBuilder output = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.append(line).append('\n');
+            }
+        }
+        Assert.assertTrue("Child JVM did not exit", process.waitFor(5, TimeUnit.MINUTES));
+        Assert.assertEquals(output.toString(), 0, process.exitValue());
+        Assert.assertTrue(output.toString(), output.toString().contains("completed=" + CALLS + " failed=0"));
+        Assert.assertFalse(output.toString(), output.toString().contains("<== monitors"));
+    }
+
+    /**
+     * Issues concurrent getCharge calls, one virtual thread each, against a local server throttling every tenth
+     * request so that retry backoff is exercised as well
+     */
+    public static final class GetChargeCalls {
+        public static void main(final String[] args) throws Exception {
+            final int calls = Integer.parseInt(args[0]);
+            final AtomicInteger received = new AtomicInteger();
+            final byte[] body = "{\"chargeId\":\"S01-0000000-0000000-C000000\"}".getBytes(StandardCharsets.UTF_8);
+            final HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+            server.createContext("/", exchange -> {
+                final int status = received.incrementAndGet() % 10 == 0 ? 429 : 200;
+                exchange.getResponseHeaders().add(ServiceConstants.X_AMZ_PAY_REQUEST_ID, "local");
+                exchange.sendResponseHeaders(status, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.setExecutor(Executors.newFixedThreadPool(16));
+            server.start();
+
+            final PayConfiguration payConfiguration = new PayConfiguration()
+                    .setPrivateKey(new String(Files.readAllBytes(
+                            Paths.get("tst/com/amazon/pay/api/unit_test_private_key.txt"))).toCharArray())
+                    .setRegion(Region.NA)
+                    .setPublicKeyId("ABCDEF0000000000000")
+                    .setEnvironment(Environment.SANDBOX)
+                    .setRetryStrategy(new ExponentialRetryStrategy(5, 1, 1, 10, 10))
+                    .setVirtualThreads(true);
+            final URI local = URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+            final HttpTransport jdkTransport = new JdkHttpTransport(payConfiguration);
+            // getCharge targets the https endpoint of Amazon Pay, send it to the local server instead
+            payConfiguration.setHttpTransport(request -> jdkTransport.execute(new HttpTransportRequest(
+                    local.resolve(request.getUri().getRawPath()), request.getMethod(), request.getHeaders(), request.getBody())));
+
+            final AtomicInteger failed = new AtomicInteger();
+            final ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+            try (WebstoreClient webstoreClient = new WebstoreClient(payConfiguration)) {
+                final List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < calls; i++) {
+                    futures.add(executor.submit(() -> {
+                        try {
+                            if (webstoreClient.getCharge("S01-0000000-0000000-C000000").getStatus() != 200) {
+                                failed.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                            e.printStackTrace();
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+                jdkTransport.close();
+                server.stop(0);
+            }
+            System.out.println("completed=" + calls + " failed=" + failed.get());
+            System.exit(0);
+        }
+    }
+}